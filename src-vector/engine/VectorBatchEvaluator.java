@@ -0,0 +1,90 @@
+package engine;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import model.GameState;
+
+/**
+ * This class is the vector path of the BatchEvaluator. It lives in its own
+ * source folder and is compiled separately with --add-modules
+ * jdk.incubator.vector, so the rest of the game builds and runs without the
+ * incubator module. The BatchEvaluator loads it by name once it has checked
+ * that the module is present. Each step loads as many packed positions as fit
+ * in the preferred vector shape and tests all eight winning lines on every
+ * lane.
+ */
+public class VectorBatchEvaluator implements BatchEvaluator.VectorPath {
+	/**
+	 * Preferred vector shape of int lanes on this machine.
+	 */
+	private final static VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+	/**
+	 * Byte vector shape with as many bits as the int shape, whose first quarter
+	 * holds the narrowed states.
+	 */
+	private final static VectorSpecies<Byte> BYTE_SPECIES = VectorSpecies.of(byte.class, SPECIES.vectorShape());
+	/**
+	 * Mask of the byte lanes holding the narrowed states.
+	 */
+	private final static VectorMask<Byte> STORE_MASK = BYTE_SPECIES.indexInRange(0, SPECIES.length());
+	/**
+	 * Ordinal of the WIN game state.
+	 */
+	private final static byte WIN = (byte) GameState.WIN.ordinal();
+	/**
+	 * Ordinal of the TIE game state.
+	 */
+	private final static byte TIE = (byte) GameState.TIE.ordinal();
+	/**
+	 * Ordinal of the IN_PROGRESS game state.
+	 */
+	private final static byte IN_PROGRESS = (byte) GameState.IN_PROGRESS.ordinal();
+	/**
+	 * Vector with IN_PROGRESS in every lane, which other states are blended into.
+	 */
+	private final static IntVector IN_PROGRESS_LANES = IntVector.broadcast(SPECIES, IN_PROGRESS);
+
+	/**
+	 * Get the number of positions evaluated per step.
+	 * 
+	 * @return The number of int lanes in the preferred vector shape.
+	 */
+	@Override
+	public int laneCount() {
+		return SPECIES.length();
+	}
+
+	/**
+	 * Compute the game state of as many positions as fill whole vectors. The
+	 * positions left over are not evaluated.
+	 * 
+	 * @param positions the packed positions to evaluate
+	 * @param states    receives the ordinal of the GameState of each position
+	 * @return The number of positions evaluated, from index 0.
+	 */
+	@Override
+	public int evaluate(int[] positions, byte[] states) {
+		int lanes = SPECIES.length();
+		int bound = SPECIES.loopBound(positions.length);
+		for (int start = 0; start < bound; start += lanes) {
+			IntVector packed = IntVector.fromArray(SPECIES, positions, start);
+			IntVector x = packed.and(BatchEvaluator.SYMBOL_MASK);
+			IntVector o = packed.lanewise(VectorOperators.LSHR, BatchEvaluator.O_SHIFT)
+					.and(BatchEvaluator.SYMBOL_MASK);
+			VectorMask<Integer> won = SPECIES.maskAll(false);
+			for (int line : BatchEvaluator.LINE_MASKS) {
+				won = won.or(x.and(line).eq(line)).or(o.and(line).eq(line));
+			}
+			VectorMask<Integer> full = x.or(o).eq(BatchEvaluator.SYMBOL_MASK);
+			IntVector result = IN_PROGRESS_LANES.blend(TIE, full).blend(WIN, won);
+			// narrow the int lanes to bytes, which only fill the first part of the
+			// byte vector, and store just those lanes
+			ByteVector narrowed = (ByteVector) result.convertShape(VectorOperators.I2B, BYTE_SPECIES, 0);
+			narrowed.intoArray(states, start, STORE_MASK);
+		}
+		return bound;
+	}
+}
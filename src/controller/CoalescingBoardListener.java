@@ -0,0 +1,113 @@
+package controller;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javafx.application.Platform;
+import model.*;
+
+/**
+ * This class adapts board events to the JavaFX application thread. Events
+ * published by a board, on any thread, are queued instead of being applied to
+ * the UI right away. The first event queued schedules a single
+ * Platform.runLater() call, and every event that arrives before that call runs
+ * is applied in the same batch. Fast move sequences, such as computer against
+ * computer games, therefore update the UI once per pulse instead of once per
+ * change.
+ */
+public class CoalescingBoardListener implements BoardListener {
+	/**
+	 * Listener that updates the UI, only ever called on the JavaFX application
+	 * thread.
+	 */
+	private final BoardListener delegate;
+	/**
+	 * Events published since the last batch was applied, in the order they were
+	 * published.
+	 */
+	private final Queue<BoardEvent> pendingEvents = new ConcurrentLinkedQueue<BoardEvent>();
+	/**
+	 * true if a batch is already scheduled with Platform.runLater(), false
+	 * otherwise.
+	 */
+	private final AtomicBoolean batchScheduled = new AtomicBoolean(false);
+
+	/**
+	 * Construct a coalescing listener that applies batches of events to the
+	 * specified listener on the JavaFX application thread.
+	 * 
+	 * @param delegate the listener that updates the UI
+	 */
+	public CoalescingBoardListener(BoardListener delegate) {
+		this.delegate = delegate;
+	}
+
+	/**
+	 * Queue a move event to be applied with the next batch.
+	 * 
+	 * @param event the event describing the move that was made
+	 */
+	@Override
+	public void moveMade(BoardEvent.MoveEvent event) {
+		enqueue(event);
+	}
+
+	/**
+	 * Queue an undo event to be applied with the next batch.
+	 * 
+	 * @param event the event describing the move that was undone
+	 */
+	@Override
+	public void moveUndone(BoardEvent.UndoEvent event) {
+		enqueue(event);
+	}
+
+	/**
+	 * Queue a turn switch event to be applied with the next batch.
+	 * 
+	 * @param event the event describing the new current player
+	 */
+	@Override
+	public void turnSwitched(BoardEvent.TurnSwitchEvent event) {
+		enqueue(event);
+	}
+
+	/**
+	 * Queue a game over event to be applied with the next batch.
+	 * 
+	 * @param event the event describing how the game ended
+	 */
+	@Override
+	public void gameOver(BoardEvent.GameOverEvent event) {
+		enqueue(event);
+	}
+
+	/**
+	 * Helper method that adds an event to the pending events and schedules a batch
+	 * if one isn't already scheduled.
+	 * 
+	 * @param event the event to queue
+	 */
+	private void enqueue(BoardEvent event) {
+		pendingEvents.add(event);
+		// only the first event since the last batch schedules a new one
+		if (batchScheduled.compareAndSet(false, true)) {
+			Platform.runLater(this::applyBatch);
+		}
+	}
+
+	/**
+	 * Helper method run on the JavaFX application thread that applies every
+	 * pending event to the delegate listener in the order they were published.
+	 */
+	private void applyBatch() {
+		// clear the flag before draining, so an event published while the batch is
+		// being applied either gets drained here or schedules the next batch
+		batchScheduled.set(false);
+		BoardEvent event;
+		while ((event = pendingEvents.poll()) != null) {
+			event.dispatchTo(delegate);
+		}
+	}
+}
@@ -0,0 +1,153 @@
+package controller;
+
+import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+
+import model.*;
+import view.ConsoleRenderer;
+
+/**
+ * This class plays Tic-Tac-Toe in a terminal, without JavaFX, so it starts
+ * right away and works on a server or over SSH. Each player is either a human,
+ * who types the number of a tile, or a computer player using one of the
+ * available strategies, so humans can play each other, a human can play the
+ * computer, and computer players can play any number of games against each
+ * other. Every position is drawn by a ConsoleRenderer.
+ */
+public class Console {
+	/**
+	 * Name that makes a player a human typing their moves.
+	 */
+	private final static String HUMAN = "human";
+
+	/**
+	 * Create a player from its name on the command line.
+	 * 
+	 * @param name   "human", or the name of a strategy in any case
+	 * @param symbol the symbol of the player
+	 * @return A user player for a human, or a computer player using the named
+	 *         strategy.
+	 * @throws IllegalArgumentException if no strategy has the name
+	 */
+	private static Player createPlayer(String name, char symbol) {
+		if (name.equalsIgnoreCase(HUMAN)) {
+			return new UserPlayer(symbol);
+		}
+		StringBuilder names = new StringBuilder(HUMAN);
+		for (MoveStrategy strategy : MoveStrategies.getAvailable()) {
+			if (strategy.getName().equalsIgnoreCase(name)) {
+				return new ComputerPlayer(symbol, strategy);
+			}
+			names.append(", ").append(strategy.getName());
+		}
+		throw new IllegalArgumentException("Unknown player " + name + ", choose one of: " + names);
+	}
+
+	/**
+	 * Helper method that reads the tile a human chooses, drawing the board again
+	 * for every line that isn't the number of a tile.
+	 * 
+	 * @param input      the lines typed by the user
+	 * @param board      the board the move is made on
+	 * @param renderer   the renderer drawing the board
+	 * @param gameNumber the number of the game
+	 * @return The number of the chosen tile from 0 to 8, or -1 if the input ended.
+	 * @throws IOException if the input can't be read or the board can't be drawn
+	 */
+	private static int readTile(BufferedReader input, Board board, ConsoleRenderer renderer, long gameNumber)
+			throws IOException {
+		while (true) {
+			String line = input.readLine();
+			if (line == null) {
+				return -1;
+			}
+			line = line.trim();
+			if (line.length() == 1 && line.charAt(0) >= '1' && line.charAt(0) <= '9') {
+				int tile = line.charAt(0) - '1';
+				if (board.getTileAt(tile / Board.BOARD_COLS, tile % Board.BOARD_COLS).isEmpty()) {
+					return tile;
+				}
+			}
+			renderer.render(board, gameNumber, GameState.INVALID_MOVE);
+		}
+	}
+
+	/**
+	 * Play games in the terminal. Player one plays X and moves first in every
+	 * game. Once all the games are played, the number of wins and ties and the
+	 * number of games played per second are printed.
+	 * 
+	 * @param args the first player, the second player and the number of games.
+	 *             Players are "human" or the name of a strategy, and default to a
+	 *             human against the heuristic strategy playing one game.
+	 * @throws IOException if the board can't be drawn or the input can't be read
+	 */
+	public static void main(String args[]) throws IOException {
+		Player playerOne, playerTwo;
+		long games;
+		try {
+			playerOne = createPlayer((args.length > 0) ? args[0] : HUMAN, Board.X_SYMBOL);
+			playerTwo = createPlayer((args.length > 1) ? args[1] : "Heuristic", Board.O_SYMBOL);
+			games = (args.length > 2) ? Long.parseLong(args[2]) : 1;
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.err.println("Usage: Console [player one] [player two] [games]");
+			System.exit(2);
+			return;
+		}
+		// frames go straight to the file descriptor, one write each, without the
+		// buffering and locking of System.out
+		FileOutputStream out = new FileOutputStream(FileDescriptor.out);
+		ConsoleRenderer renderer = new ConsoleRenderer(out);
+		boolean humanPlaying = !(playerOne instanceof ComputerPlayer) || !(playerTwo instanceof ComputerPlayer);
+		renderer.setTileNumbers(humanPlaying);
+		BufferedReader input = new BufferedReader(new InputStreamReader(System.in));
+
+		TicTacToeBoard board = new TicTacToeBoard(playerOne, playerTwo);
+		long ties = 0, gamesPlayed = 0;
+		long start = System.nanoTime();
+		for (long game = 1; game <= games; game++) {
+			GameState gameState = GameState.IN_PROGRESS;
+			while (gameState == GameState.IN_PROGRESS) {
+				renderer.render(board, game, gameState);
+				Player current = board.getCurrentPlayer();
+				if (current instanceof ComputerPlayer) {
+					gameState = ((ComputerPlayer) current).makeMove(board);
+				} else {
+					int tile = readTile(input, board, renderer, game);
+					if (tile < 0) {
+						// the user closed the input, so stop before the game ends
+						break;
+					}
+					gameState = ((UserPlayer) current).makeMove(tile / Board.BOARD_COLS, tile % Board.BOARD_COLS,
+							board);
+				}
+				if (gameState == GameState.IN_PROGRESS) {
+					board.switchTurns();
+				}
+			}
+			if (gameState == GameState.IN_PROGRESS) {
+				break;
+			}
+			renderer.render(board, game, gameState);
+			gamesPlayed++;
+			ties += (gameState == GameState.TIE) ? 1 : 0;
+			// the same board is reused, with player one moving first again
+			board.resetBoard();
+			if (board.isPlayerTwoTurn()) {
+				board.switchTurns();
+			}
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+		PrintStream summary = new PrintStream(out, true);
+		summary.printf("%s (%c) wins: %d, %s (%c) wins: %d, ties: %d%n", playerOne.getName(), playerOne.getSymbol(),
+				playerOne.getScore(), playerTwo.getName(), playerTwo.getSymbol(), playerTwo.getScore(), ties);
+		if (!humanPlaying) {
+			summary.printf("%,d games in %.2f s, %,.0f games/s%n", gamesPlayed, seconds, gamesPlayed / seconds);
+		}
+	}
+}
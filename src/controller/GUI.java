@@ -1,9 +1,17 @@
 package controller;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import javafx.application.*;
 import javafx.geometry.Insets;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
@@ -12,23 +20,31 @@ import javafx.scene.control.ButtonType;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.RadioButton;
+import javafx.scene.control.Slider;
+import javafx.scene.control.TextInputDialog;
 import javafx.scene.control.ToggleGroup;
 import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 import javafx.stage.StageStyle;
 
 import model.*;
+import network.*;
+import scores.Leaderboard;
+import scores.ScoreLedger;
 import view.*;
 
 /**
  * This class contains all the necessary methods to create a graphical user
  * interface for a Tic-Tac-Toe game. It has methods for creating the home scene,
- * single-player prompt scene, multi-player prompt scene, and board scene. Each
- * scene contains various UI elements such as labels, buttons, and combo boxes
- * that allow the user to interact with the game. The GUI class also contains
- * several helper methods from other classes in the package that are used by the
- * scene creation methods to create UI elements.
+ * single-player prompt scene, multi-player prompt scene, and board scene, and
+ * for joining an online game hosted by a GameServer. Each scene contains
+ * various UI elements such as labels, buttons, and combo boxes that allow the
+ * user to interact with the game. The GUI class also contains several helper
+ * methods from other classes in the package that are used by the scene creation
+ * methods to create UI elements.
  */
 
 public class GUI extends Application {
@@ -66,17 +82,45 @@ public class GUI extends Application {
 	 */
 	private static char playerTwoSymbol;
 
+	/**
+	 * Strategy the computer player uses in the single-player game mode.
+	 */
+	private static MoveStrategy computerStrategy;
+
 	/**
 	 * Stage shared by all scenes in the app.
 	 */
 	private static Stage mainStage;
 
+	/**
+	 * Ledger the scores of the players are kept in across sessions. null
+	 * represents that the ledger file couldn't be opened.
+	 */
+	private static ScoreLedger scoreLedger;
+
+	/**
+	 * Leaderboard ranking the players by their wins across sessions. The winner of
+	 * every game on this device is given a point on it by the board.
+	 */
+	private static Leaderboard leaderboard = new Leaderboard();
+
 	/**
 	 * Launches the Tic-Tac-Toe game.
 	 * 
 	 * @param stage stage shared by all scenes in the app
 	 */
 	public void start(Stage stage) throws Exception {
+		// scores are kept in the user's home directory, and the game can still be
+		// played without them
+		try {
+			Path ledgerFile = Path.of(System.getProperty("user.home"), ".tictactoe", "scores.ledger");
+			Files.createDirectories(ledgerFile.getParent());
+			scoreLedger = new ScoreLedger(ledgerFile);
+			UIBoardActions.setScoreLedger(scoreLedger);
+			leaderboard = Leaderboard.fromWins(scoreLedger);
+		} catch (IOException e) {
+			System.err.println("Scores will not be saved: " + e);
+		}
 		mainStage = stage;
 		mainStage.setTitle("Tic-Tac-Toe");
 		// game starts with the home scene
@@ -84,11 +128,27 @@ public class GUI extends Application {
 		mainStage.show();
 	}
 
+	/**
+	 * Write the scores recorded during the session to the ledger when the app
+	 * exits.
+	 */
+	@Override
+	public void stop() {
+		if (scoreLedger != null) {
+			try {
+				scoreLedger.close();
+			} catch (IOException e) {
+				System.err.println("Scores could not be saved: " + e);
+			}
+		}
+	}
+
 	/**
 	 * Create a Scene object that represents the home screen of the Tic-Tac-Toe
 	 * game. The home screen contains a title label, a prompt label to select a game
-	 * mode, and buttons to select either single-player or multi-player game mode.
-	 *
+	 * mode, and buttons to select either single-player, multi-player or online game
+	 * mode.
+	 * 
 	 * @return Scene object representing the home screen of the Tic-Tac-Toe game.
 	 */
 	public static Scene getHomeScene() {
@@ -97,6 +157,7 @@ public class GUI extends Application {
 		playerTwoSymbol = Board.EMPTY;
 		turnPicked = false;
 		symbolPicked = false;
+		computerStrategy = MoveStrategies.getDefault();
 
 		// title of the scene
 		Label titleLabel = UIElements.getLabel("Tic-Tac-Toe", UIConstants.TITLE_LABEL_FONTSIZE);
@@ -124,24 +185,362 @@ public class GUI extends Application {
 			mainStage.show();
 		});
 
+		// option for online mode
+		Button onlineButton = UIElements.getNextButton();
+		onlineButton.setPrefSize(UIConstants.BUTTON_GAMEMODE_WIDTH, UIConstants.BUTTON_GAMEMODE_HEIGHT);
+		onlineButton.setText("Online");
+		onlineButton.setOnAction(event -> {
+			// if selected, ask for the server address and join a game on it
+			joinOnlineGame();
+		});
+
+		// option to see the leaderboard, placed like a back button but on the right
+		Button leaderboardButton = UIElements.getBackButton();
+		leaderboardButton.setText("Leaderboard");
+		leaderboardButton.setPrefWidth(UIConstants.BACK_BUTTON_WIDTH * 3);
+		// leave the same gap from the right edge as the back button leaves on the left
+		leaderboardButton.setTranslateX((UIConstants.SCENE_WIDTH / 2) - (UIConstants.BACK_BUTTON_WIDTH * 3 / 2)
+				- (UIConstants.BACK_BUTTON_WIDTH / 2));
+		leaderboardButton.setOnAction(event -> {
+			mainStage.setScene(getLeaderboardScene(0));
+			mainStage.show();
+		});
+
+		// option to watch games again, placed where a back button would be
+		Button replayButton = UIElements.getBackButton();
+		replayButton.setText("Replays");
+		replayButton.setPrefWidth(UIConstants.BACK_BUTTON_WIDTH * 3);
+		replayButton.setTranslateX(((UIConstants.SCENE_WIDTH / 2) - (UIConstants.BACK_BUTTON_WIDTH * 3 / 2)
+				- (UIConstants.BACK_BUTTON_WIDTH / 2)) * -1);
+		replayButton.setOnAction(event -> {
+			mainStage.setScene(getReplayScene());
+			mainStage.show();
+		});
+		// option to play on a big board, placed between the other two buttons
+		Button bigBoardButton = UIElements.getBackButton();
+		bigBoardButton.setText("Big Board");
+		bigBoardButton.setPrefWidth(UIConstants.BACK_BUTTON_WIDTH * 3);
+		bigBoardButton.setOnAction(event -> {
+			mainStage.setScene(getBigBoardScene());
+			mainStage.show();
+		});
+		// the replays, big board and leaderboard buttons share the top row of the
+		// scene
+		StackPane topRow = new StackPane(replayButton, bigBoardButton, leaderboardButton);
+
 		// layout will have a vertical layout and the default sizing and style
 		VBox homeLayout = new VBox(UIConstants.HOME_SCENE_SPACING);
 		homeLayout.setPrefSize(UIConstants.SCENE_WIDTH, UIConstants.SCENE_HEIGHT);
 		homeLayout.setStyle(CSSStyles.BLACK_BACKGROUND + CSSStyles.CENTER_ALIGNMENT);
 		// add the UI elements to the scene
-		homeLayout.getChildren().addAll(titleLabel, modePrompt, singleButton, multiButton);
-		// add padding 100 pixels on the bottom to all UI elements in the scene
-		homeLayout.setPadding(new Insets(0, 0, 100, 0));
+		homeLayout.getChildren().addAll(topRow, titleLabel, modePrompt, singleButton, multiButton, onlineButton);
+		// add padding 30 pixels on the bottom to all UI elements in the scene
+		homeLayout.setPadding(new Insets(0, 0, 30, 0));
 
 		return new Scene(homeLayout, UIConstants.SCENE_WIDTH, UIConstants.SCENE_HEIGHT);
 	}
 
+	/**
+	 * Create a scene showing one page of the leaderboard, with the rank, name and
+	 * number of wins of each player on it. The previous and next buttons show the
+	 * neighbouring pages, and only the players on the shown page are read from
+	 * the leaderboard.
+	 * 
+	 * @param offset the number of players ranked above the page
+	 * @return Scene showing the page of the leaderboard.
+	 */
+	public static Scene getLeaderboardScene(int offset) {
+		Label titleLabel = UIElements.getLabel("Leaderboard", UIConstants.TITLE_LABEL_FONTSIZE);
+
+		// create a back button that returns to the home scene
+		Button backButton = UIElements.getBackButton();
+		backButton.setOnAction(event -> {
+			mainStage.setScene(getHomeScene());
+			mainStage.show();
+		});
+
+		// one label per player on the page
+		VBox rows = new VBox(UIConstants.LEADERBOARD_ROW_SPACING);
+		rows.setStyle(CSSStyles.TOP_CENTER_ALIGNMENT);
+		for (Leaderboard.Standing standing : leaderboard.getPage(offset, UIConstants.LEADERBOARD_PAGE_SIZE)) {
+			rows.getChildren().add(UIElements.getLabel(
+					standing.getRank() + ". " + standing.getName() + ": " + standing.getScore(),
+					UIConstants.PROMPT_LABEL_FONTSIZE));
+		}
+		if (rows.getChildren().isEmpty()) {
+			rows.getChildren().add(UIElements.getLabel("No games played yet", UIConstants.PROMPT_LABEL_FONTSIZE));
+		}
+
+		// buttons for the previous and next pages, disabled on the first and last page
+		Button previousButton = UIElements.getNextButton();
+		previousButton.setText("Previous");
+		previousButton.setDisable(offset == 0);
+		previousButton.setOnAction(event -> {
+			mainStage.setScene(getLeaderboardScene(Math.max(0, offset - UIConstants.LEADERBOARD_PAGE_SIZE)));
+		});
+		Button nextButton = UIElements.getNextButton();
+		nextButton.setDisable(offset + UIConstants.LEADERBOARD_PAGE_SIZE >= leaderboard.size());
+		nextButton.setOnAction(event -> {
+			mainStage.setScene(getLeaderboardScene(offset + UIConstants.LEADERBOARD_PAGE_SIZE));
+		});
+		HBox pageButtons = new HBox(UIConstants.COMBOBOX_ROW_SPACING, previousButton, nextButton);
+		pageButtons.setStyle(CSSStyles.CENTER_ALIGNMENT);
+
+		// layout will have a vertical layout and the default sizing and style
+		VBox display = new VBox(UIConstants.BOARD_SCENE_SPACING);
+		display.setPrefSize(UIConstants.SCENE_WIDTH, UIConstants.SCENE_HEIGHT);
+		display.setStyle(CSSStyles.BLACK_BACKGROUND + CSSStyles.TOP_CENTER_ALIGNMENT);
+		display.getChildren().addAll(backButton, titleLabel, rows, pageButtons);
+
+		return new Scene(display, UIConstants.SCENE_WIDTH, UIConstants.SCENE_HEIGHT);
+	}
+
+	/**
+	 * Create a scene for watching games again. The user picks the games played on
+	 * this device during the session, or games between two computer strategies,
+	 * which are played on a background thread before the replay starts. The games
+	 * are replayed on a single UI board by a ReplayTimer, at a speed chosen with a
+	 * slider from 1 to UIConstants.REPLAY_MAX_MOVES_PER_SECOND moves per second.
+	 * 
+	 * @return Scene for watching games.
+	 */
+	public static Scene getReplayScene() {
+		Label titleLabel = UIElements.getLabel("Replays", UIConstants.TITLE_LABEL_FONTSIZE);
+
+		// label showing the progress of the replay
+		Label statusLabel = UIElements.getLabel("Choose the games to watch", UIConstants.RADIO_BUTTON_FONTSIZE);
+
+		// UI board the games are replayed on. its tiles only show moves, so they
+		// can't be clicked
+		GridPane UIBoard = UIElements.getUIBoardLayout(new TicTacToeBoard(Board.X_SYMBOL, Board.O_SYMBOL));
+		for (Node tile : UIBoard.getChildren()) {
+			tile.setDisable(true);
+		}
+		ReplayTimer replayTimer = new ReplayTimer(UIBoard, statusLabel);
+
+		// create a back button that stops the replay and returns to the home scene
+		Button backButton = UIElements.getBackButton();
+		backButton.setOnAction(event -> {
+			replayTimer.stop();
+			mainStage.setScene(getHomeScene());
+			mainStage.show();
+		});
+
+		// button that pauses and resumes the replay, or starts it again once it's over
+		Button playButton = UIElements.getNextButton();
+		playButton.setText("Play");
+		playButton.setPrefSize(UIConstants.BACK_BUTTON_WIDTH * 2, UIConstants.COMBOBOX_HEIGHT);
+		playButton.setDisable(true);
+		playButton.setOnAction(event -> {
+			if (replayTimer.isPlaying()) {
+				replayTimer.stop();
+				playButton.setText("Play");
+			} else {
+				if (replayTimer.isFinished()) {
+					replayTimer.setRecording(replayTimer.getRecording());
+				}
+				replayTimer.start();
+				playButton.setText("Pause");
+			}
+		});
+
+		// slider choosing the speed on a logarithmic scale, from 1 move per second
+		Label speedLabel = UIElements.getLabel("10/s", UIConstants.BACK_BUTTON_FONTSIZE);
+		Slider speedSlider = new Slider(0, Math.log10(UIConstants.REPLAY_MAX_MOVES_PER_SECOND), 1);
+		speedSlider.setPrefWidth(UIConstants.REPLAY_SLIDER_WIDTH);
+		speedSlider.valueProperty().addListener((property, oldValue, newValue) -> {
+			double movesPerSecond = Math.pow(10, newValue.doubleValue());
+			replayTimer.setSpeed(movesPerSecond);
+			speedLabel.setText(String.format("%.0f/s", movesPerSecond));
+		});
+
+		// the games to watch: this session's games, or games between two strategies
+		List<String> sources = new ArrayList<String>();
+		sources.add("This session");
+		for (MoveStrategy one : MoveStrategies.getAvailable()) {
+			for (MoveStrategy two : MoveStrategies.getAvailable()) {
+				sources.add(one.getName() + " vs " + two.getName());
+			}
+		}
+		ComboBox<String> sourceComboBox = UIElements.getOptionPromptCombobox("Choose games", sources);
+		sourceComboBox.setPrefWidth(UIConstants.COMBOBOX_WIDTH - UIConstants.BACK_BUTTON_WIDTH);
+		sourceComboBox.setOnAction(event -> {
+			String source = sourceComboBox.getValue();
+			replayTimer.stop();
+			playButton.setText("Play");
+			playButton.setDisable(true);
+			if (source.equals("This session")) {
+				replayTimer.setRecording(UIBoardActions.getSessionRecording());
+				playButton.setDisable(false);
+				return;
+			}
+			String[] names = source.split(" vs ");
+			MoveStrategy one = MoveStrategies.getByName(names[0]);
+			MoveStrategy two = MoveStrategies.getByName(names[1]);
+			statusLabel.setText("Playing " + UIConstants.REPLAY_GAMES + " games...");
+			// the games are played off the JavaFX application thread, then replayed
+			// unless other games were chosen meanwhile
+			CompletableFuture.supplyAsync(() -> GameRecording.simulate(one, two, UIConstants.REPLAY_GAMES))
+					.thenAccept(recording -> Platform.runLater(() -> {
+						if (source.equals(sourceComboBox.getValue())) {
+							replayTimer.setRecording(recording);
+							replayTimer.start();
+							playButton.setText("Pause");
+							playButton.setDisable(false);
+						}
+					}));
+		});
+
+		// the games, play button, speed slider and speed share a row
+		HBox controls = new HBox(UIConstants.LEADERBOARD_ROW_SPACING, sourceComboBox, playButton, speedSlider,
+				speedLabel);
+		controls.setStyle(CSSStyles.CENTER_ALIGNMENT);
+
+		// layout will have a vertical layout and the default sizing and style
+		VBox display = new VBox(UIConstants.BOARD_SCENE_SPACING);
+		display.setPrefSize(UIConstants.SCENE_WIDTH, UIConstants.SCENE_HEIGHT);
+		display.setStyle(CSSStyles.BLACK_BACKGROUND + CSSStyles.TOP_CENTER_ALIGNMENT);
+		// the back button shares the title's row, leaving room for the whole board
+		StackPane topRow = new StackPane(titleLabel, backButton);
+		display.getChildren().addAll(topRow, controls, statusLabel, UIBoard);
+
+		return new Scene(display, UIConstants.SCENE_WIDTH, UIConstants.SCENE_HEIGHT);
+	}
+
+	/**
+	 * Create a scene for two players taking turns on a board much bigger than
+	 * 3x3, where UIConstants.BIG_BOARD_WIN_LENGTH symbols in a row wins. The user
+	 * picks one of UIConstants.BIG_BOARD_SIZES, or a board without edges. The
+	 * moves are kept on a SparseBoard and drawn by a CanvasBoardRenderer, so even
+	 * a 100x100 board is a single node that only redraws the cell of each move. A
+	 * board without edges is shown through a window of
+	 * UIConstants.UNBOUNDED_VIEW_SIZE cells, which moves to the middle of the
+	 * symbols played whenever a move lands near its edge.
+	 * 
+	 * @return Scene for playing on a big board.
+	 */
+	public static Scene getBigBoardScene() {
+		Label titleLabel = UIElements.getLabel("Big Board", UIConstants.TITLE_LABEL_FONTSIZE);
+
+		// label showing whose turn it is or how the game ended
+		Label statusLabel = UIElements.getLabel("Choose a size", UIConstants.RADIO_BUTTON_FONTSIZE);
+
+		// holds the canvas of the board, replaced whenever a size is chosen
+		StackPane boardHolder = new StackPane();
+
+		// create a back button that returns to the home scene
+		Button backButton = UIElements.getBackButton();
+		backButton.setOnAction(event -> {
+			mainStage.setScene(getHomeScene());
+			mainStage.show();
+		});
+
+		// the sizes of board to play on, then the board without edges
+		List<String> sizes = new ArrayList<String>();
+		for (int size : UIConstants.BIG_BOARD_SIZES) {
+			sizes.add(size + " x " + size);
+		}
+		sizes.add("Unbounded");
+		ComboBox<String> sizeComboBox = UIElements.getOptionPromptCombobox("Choose size", sizes);
+		sizeComboBox.setPrefWidth(UIConstants.COMBOBOX_WIDTH - UIConstants.BACK_BUTTON_WIDTH);
+		sizeComboBox.setOnAction(event -> {
+			int choice = sizeComboBox.getSelectionModel().getSelectedIndex();
+			boolean unbounded = choice == UIConstants.BIG_BOARD_SIZES.length;
+			int size = unbounded ? UIConstants.UNBOUNDED_VIEW_SIZE : UIConstants.BIG_BOARD_SIZES[choice];
+			CanvasBoardRenderer renderer = new CanvasBoardRenderer(size, size, UIConstants.BOARD_WIDTH,
+					UIConstants.BOARD_HEIGHT - UIConstants.COMBOBOX_HEIGHT);
+			SparseBoard bigBoard = new SparseBoard(UIConstants.BIG_BOARD_WIN_LENGTH);
+			// column and row of the board shown in the top left cell, and whether the
+			// game is over, kept in arrays so the click handler can change them
+			int[] origin = { 0, 0 };
+			boolean[] gameOver = { false };
+			statusLabel.setText(Board.X_SYMBOL + " to move, " + UIConstants.BIG_BOARD_WIN_LENGTH + " in a row wins");
+			renderer.setOnCellClicked(cell -> {
+				int x = origin[0] + cell % size, y = origin[1] + cell / size;
+				char symbol = (bigBoard.getStones() % 2 == 0) ? Board.X_SYMBOL : Board.O_SYMBOL;
+				if (gameOver[0]) {
+					return;
+				}
+				GameState gameState = bigBoard.placeSymbol(x, y, symbol);
+				if (gameState == GameState.INVALID_MOVE) {
+					return;
+				}
+				renderer.setSymbol(cell, symbol);
+				if (gameState == GameState.WIN) {
+					gameOver[0] = true;
+					statusLabel.setText(symbol + " wins in " + bigBoard.getStones() + " moves");
+				} else if (!unbounded && bigBoard.getStones() == size * size) {
+					gameOver[0] = true;
+					statusLabel.setText("Tie game");
+				} else {
+					char next = (symbol == Board.X_SYMBOL) ? Board.O_SYMBOL : Board.X_SYMBOL;
+					statusLabel.setText(next + " to move, " + UIConstants.BIG_BOARD_WIN_LENGTH + " in a row wins");
+				}
+				if (unbounded && !gameOver[0]) {
+					moveBigBoardView(bigBoard, renderer, origin, x, y);
+				}
+			});
+			boardHolder.getChildren().setAll(renderer.getCanvas());
+		});
+
+		// the size and the status share a row
+		HBox controls = new HBox(UIConstants.LEADERBOARD_ROW_SPACING, sizeComboBox, statusLabel);
+		controls.setStyle(CSSStyles.CENTER_ALIGNMENT);
+
+		// layout will have a vertical layout and the default sizing and style
+		VBox display = new VBox(UIConstants.BOARD_SCENE_SPACING);
+		display.setPrefSize(UIConstants.SCENE_WIDTH, UIConstants.SCENE_HEIGHT);
+		display.setStyle(CSSStyles.BLACK_BACKGROUND + CSSStyles.TOP_CENTER_ALIGNMENT);
+		// the back button shares the title's row, leaving room for the whole board
+		StackPane topRow = new StackPane(titleLabel, backButton);
+		display.getChildren().addAll(topRow, controls, boardHolder);
+
+		return new Scene(display, UIConstants.SCENE_WIDTH, UIConstants.SCENE_HEIGHT);
+	}
+
+	/**
+	 * Helper method that moves the window onto a board without edges after a move
+	 * within UIConstants.BIG_BOARD_WIN_LENGTH cells of its edge. The window moves
+	 * to the middle of the bounding box of the symbols played if they fit in it,
+	 * and to the move otherwise, and is then drawn again from the board.
+	 * 
+	 * @param bigBoard the board being played on
+	 * @param renderer the renderer drawing the window
+	 * @param origin   the column and row of the board in the top left cell of the
+	 *                 window, updated if the window moves
+	 * @param x        the column of the move
+	 * @param y        the row of the move
+	 */
+	private static void moveBigBoardView(SparseBoard bigBoard, CanvasBoardRenderer renderer, int[] origin, int x,
+			int y) {
+		int size = renderer.getCols(), margin = UIConstants.BIG_BOARD_WIN_LENGTH;
+		if (x - origin[0] >= margin && origin[0] + size - 1 - x >= margin && y - origin[1] >= margin
+				&& origin[1] + size - 1 - y >= margin) {
+			return;
+		}
+		if (bigBoard.getMaxX() - bigBoard.getMinX() + 2 * margin < size
+				&& bigBoard.getMaxY() - bigBoard.getMinY() + 2 * margin < size) {
+			origin[0] = (bigBoard.getMinX() + bigBoard.getMaxX()) / 2 - size / 2;
+			origin[1] = (bigBoard.getMinY() + bigBoard.getMaxY()) / 2 - size / 2;
+		} else {
+			origin[0] = x - size / 2;
+			origin[1] = y - size / 2;
+		}
+		// only the cells whose symbol differs from the old window are redrawn
+		for (int row = 0; row < size; row++) {
+			for (int col = 0; col < size; col++) {
+				renderer.setSymbol(row * size + col, bigBoard.getSymbol(origin[0] + col, origin[1] + row));
+			}
+		}
+	}
+
 	/**
 	 * Create a scene for the single-player user symbol select screen. This scene
-	 * prompts the user to select their symbol and whether or not to go first. It
+	 * prompts the user to select their symbol, the difficulty of the computer
+	 * player, and whether or not to go first. It
 	 * also allows the user to return to the home screen with the back button and
 	 * start the game with the next button if the prompts are answered.
-	 *
+	 * 
 	 * @return Scene multiPromptScene, the scene for the multi-player symbol prompt
 	 *         screen
 	 */
@@ -162,7 +561,8 @@ public class GUI extends Application {
 		backButton.setTranslateY((UIConstants.USER_SELECTION_SCENE_SPACING * 0.5));
 
 		// create a symbol prompt label and move it up one space
-		Label symbolPromptLabel = UIElements.getLabel("Choose your symbol: ", UIConstants.PROMPT_LABEL_FONTSIZE);
+		Label symbolPromptLabel = UIElements.getLabel("Choose your symbol and difficulty: ",
+				UIConstants.PROMPT_LABEL_FONTSIZE);
 		symbolPromptLabel.setTranslateY((UIConstants.USER_SELECTION_SCENE_SPACING) * -1);
 
 		// create a combo box for letting the user choose a symbol
@@ -174,9 +574,25 @@ public class GUI extends Application {
 			playerTwoSymbol = (playerOneSymbol == Board.X_SYMBOL) ? Board.O_SYMBOL : Board.X_SYMBOL;
 
 		});
-		// move combo box up by 1.5 spaces to create smaller spacing between the prompt
-		// and the combo box
-		symbolChoiceComboBox.setTranslateY((UIConstants.USER_SELECTION_SCENE_SPACING) * -1.5);
+
+		// create a combo box for letting the user choose the computer player's
+		// strategy, listing every available strategy from easiest to hardest
+		List<String> strategyNames = new ArrayList<String>();
+		for (MoveStrategy strategy : MoveStrategies.getAvailable()) {
+			strategyNames.add(strategy.getName());
+		}
+		ComboBox<String> strategyComboBox = UIElements.getOptionPromptCombobox("Choose Difficulty", strategyNames);
+		strategyComboBox.getSelectionModel().select(computerStrategy.getName());
+		strategyComboBox.setOnAction(event -> {
+			computerStrategy = MoveStrategies.getByName(strategyComboBox.getSelectionModel().getSelectedItem());
+		});
+
+		// the symbol and strategy combo boxes are side by side
+		HBox choiceComboBoxes = new HBox(UIConstants.COMBOBOX_ROW_SPACING, symbolChoiceComboBox, strategyComboBox);
+		choiceComboBoxes.setStyle(CSSStyles.CENTER_ALIGNMENT);
+		// move combo boxes up by 1.5 spaces to create smaller spacing between the
+		// prompt and the combo boxes
+		choiceComboBoxes.setTranslateY((UIConstants.USER_SELECTION_SCENE_SPACING) * -1.5);
 
 		// create a label that prompts the user if they want to go first
 		Label userFirstPromptLabel = UIElements.getLabel("Do you want to go first?: ",
@@ -212,7 +628,8 @@ public class GUI extends Application {
 			// player
 			// and the user choice of if they want to go first or not
 			if (symbolPicked && turnPicked) {
-				board = new TicTacToeBoard(playerOneSymbol, playerTwoSymbol, userFirst);
+				board = new TicTacToeBoard(playerOneSymbol, playerTwoSymbol, userFirst, computerStrategy);
+				board.setLeaderboard(leaderboard);
 				mainStage.setScene(getBoardScene());
 			} else {
 				// otherwise generate an error message with what user forgot
@@ -238,7 +655,7 @@ public class GUI extends Application {
 		singlePromptLayout.setPrefSize(UIConstants.SCENE_WIDTH, UIConstants.SCENE_HEIGHT);
 		singlePromptLayout.setStyle(CSSStyles.BLACK_BACKGROUND + CSSStyles.TOP_CENTER_ALIGNMENT);
 		// add the UI elements to the scene
-		singlePromptLayout.getChildren().addAll(backButton, titleLabel, symbolPromptLabel, symbolChoiceComboBox,
+		singlePromptLayout.getChildren().addAll(backButton, titleLabel, symbolPromptLabel, choiceComboBoxes,
 				userFirstPromptLabel, yesButton, noButton, nextButton);
 
 		return new Scene(singlePromptLayout, UIConstants.SCENE_WIDTH, UIConstants.SCENE_HEIGHT);
@@ -250,7 +667,7 @@ public class GUI extends Application {
 	 * prompts both players to select their symbols. It also allows the user to
 	 * return to the home screen with the back button and start the game with the
 	 * next button if the prompts are answered.
-	 *
+	 * 
 	 * @return Scene multiPromptScene, the scene for the multi-player symbol prompt
 	 *         screen
 	 */
@@ -309,6 +726,7 @@ public class GUI extends Application {
 			// board with the specified symbols assigned to each player
 			if (playerOneSymbol != Board.EMPTY || playerTwoSymbol != Board.EMPTY) {
 				board = new TicTacToeBoard(playerOneSymbol, playerTwoSymbol);
+				board.setLeaderboard(leaderboard);
 				mainStage.setScene(getBoardScene());
 			} else {
 				// otherwise generate an error message with what user forgot
@@ -347,8 +765,15 @@ public class GUI extends Application {
 	 */
 	public static Scene getBoardScene() {
 		// text of title depends on what game mode the user picked
-		String titleText = (board.isComputerPlayer(board.getCurrentPlayer())
-				|| board.isComputerPlayer(board.getWaitingPlayer())) ? "Single-Player" : "Multi-Player";
+		String titleText;
+		if (UIBoardActions.getOnlineClient() != null) {
+			titleText = "Online";
+		} else if (board.isComputerPlayer(board.getCurrentPlayer())
+				|| board.isComputerPlayer(board.getWaitingPlayer())) {
+			titleText = "Single-Player";
+		} else {
+			titleText = "Multi-Player";
+		}
 		// title label for the scene
 		Label titleLabel = UIElements.getLabel(titleText, UIConstants.TITLE_LABEL_FONTSIZE);
 		// move title label up one space
@@ -360,7 +785,11 @@ public class GUI extends Application {
 			// if clicked, set either single or multi-player user prompt scene as the
 			// current scene
 			// depending on what game mode is being played
-			if (titleText.equals("Single-Player")) {
+			if (titleText.equals("Online")) {
+				// leaving an online game disconnects from the server
+				UIBoardActions.leaveOnlineGame();
+				mainStage.setScene(getHomeScene());
+			} else if (titleText.equals("Single-Player")) {
 				mainStage.setScene(getSinglePromptScene());
 			} else {
 				mainStage.setScene(getMultiPromptScene());
@@ -370,6 +799,37 @@ public class GUI extends Application {
 		// move back button up half a space to the top of the scene
 		backButton.setTranslateY((UIConstants.USER_SELECTION_SCENE_SPACING * 0.5));
 
+		// create a button that shows or hides the evaluation of each move
+		Button hintsButton = UIElements.getBackButton();
+		hintsButton.setText(UIBoardActions.isHintsShown() ? "Hide hints" : "Show hints");
+		hintsButton.setPrefWidth(UIConstants.BACK_BUTTON_WIDTH * 3);
+		// leave the same gap from the right edge as the back button leaves on the left
+		hintsButton.setTranslateX((UIConstants.SCENE_WIDTH / 2) - (UIConstants.BACK_BUTTON_WIDTH * 3 / 2)
+				- (UIConstants.BACK_BUTTON_WIDTH / 2));
+		hintsButton.setTranslateY((UIConstants.USER_SELECTION_SCENE_SPACING * 0.5));
+		hintsButton.setOnAction(event -> {
+			UIBoardActions.setHintsShown(!UIBoardActions.isHintsShown());
+			hintsButton.setText(UIBoardActions.isHintsShown() ? "Hide hints" : "Show hints");
+		});
+
+		// create buttons that undo and redo moves, side by side in the middle
+		Button undoButton = UIElements.getBackButton();
+		undoButton.setText("Undo");
+		undoButton.setPrefWidth(UIConstants.BACK_BUTTON_WIDTH * 2);
+		undoButton.setTranslateX(UIConstants.BACK_BUTTON_WIDTH * -1.1);
+		undoButton.setTranslateY((UIConstants.USER_SELECTION_SCENE_SPACING * 0.5));
+		undoButton.setOnAction(event -> UIBoardActions.undoMove());
+		Button redoButton = UIElements.getBackButton();
+		redoButton.setText("Redo");
+		redoButton.setPrefWidth(UIConstants.BACK_BUTTON_WIDTH * 2);
+		redoButton.setTranslateX(UIConstants.BACK_BUTTON_WIDTH * 1.1);
+		redoButton.setTranslateY((UIConstants.USER_SELECTION_SCENE_SPACING * 0.5));
+		redoButton.setOnAction(event -> UIBoardActions.redoMove());
+		UIBoardActions.setHistoryButtons(undoButton, redoButton);
+
+		// the back, undo, redo and hints buttons share the top row of the scene
+		StackPane topRow = new StackPane(backButton, undoButton, redoButton, hintsButton);
+
 		// create the player labels
 		// player label display whether it's player one or two, the player's symbol, and
 		// their current score.
@@ -390,7 +850,7 @@ public class GUI extends Application {
 		display.setPrefSize(UIConstants.SCENE_WIDTH, UIConstants.SCENE_HEIGHT);
 		display.setStyle(CSSStyles.BLACK_BACKGROUND + CSSStyles.TOP_CENTER_ALIGNMENT);
 		// add the UI elements to the scene
-		display.getChildren().addAll(backButton, titleLabel, playerOneScoreLabel, playerTwoScoreLabel, UIBoard);
+		display.getChildren().addAll(topRow, titleLabel, playerOneScoreLabel, playerTwoScoreLabel, UIBoard);
 
 		return new Scene(display, UIConstants.SCENE_WIDTH, UIConstants.SCENE_HEIGHT);
 
@@ -424,7 +884,15 @@ public class GUI extends Application {
 				alert.getButtonTypes().setAll(playAgainOption, homeOption);
 				// Show the alert and wait for the user's response
 				Optional<ButtonType> response = alert.showAndWait();
-				if (response.get() == playAgainOption) {
+				if (response.get() == playAgainOption && UIBoardActions.getOnlineClient() != null) {
+					// in an online game, ask the server for a new game. the board scene
+					// is shown once the server has added the user to one
+					try {
+						UIBoardActions.getOnlineClient().join();
+					} catch (IOException e) {
+						UIBoardActions.getOnlineClient().close();
+					}
+				} else if (response.get() == playAgainOption) {
 					// If user chooses "Play again", reset the game board
 					// and set the current scene to the board scene
 					board.resetBoard();
@@ -437,12 +905,98 @@ public class GUI extends Application {
 					}
 				} else {
 					// If user chooses "Home", return to the home scene
+					UIBoardActions.leaveOnlineGame();
 					mainStage.setScene(getHomeScene());
 				}
 			}
 		});
 	}
 
+	/**
+	 * Ask the user for the address of a game server, connect to it, and ask it for
+	 * a game. The board scene is shown once the server has added the user to a
+	 * game. If the server can't be reached, an error message is displayed.
+	 */
+	public static void joinOnlineGame() {
+		// prompt for the server address, defaulting to a server on this device
+		TextInputDialog dialog = new TextInputDialog("localhost:" + GameServer.DEFAULT_PORT);
+		dialog.setTitle("Online");
+		dialog.setHeaderText("Connect to a Tic-Tac-Toe server");
+		dialog.setContentText("Server address: ");
+		Optional<String> address = dialog.showAndWait();
+		if (!address.isPresent()) {
+			return;
+		}
+		try {
+			// address is given as host:port, or just host for the default port
+			String[] hostAndPort = address.get().trim().split(":");
+			int port = (hostAndPort.length > 1) ? Integer.parseInt(hostAndPort[1]) : GameServer.DEFAULT_PORT;
+			GameClient client = new GameClient(new InetSocketAddress(hostAndPort[0], port), getOnlineListener());
+			UIBoardActions.setOnlineGame(client, Board.EMPTY);
+			client.join();
+		} catch (IOException | IllegalArgumentException e) {
+			UIBoardActions.leaveOnlineGame();
+			// display an alert with error message
+			Alert alert = new Alert(Alert.AlertType.ERROR);
+			alert.setTitle("Error");
+			alert.setContentText("Could not connect to " + address.get());
+			alert.showAndWait();
+		}
+	}
+
+	/**
+	 * Create the listener that reacts to the frames sent by the game server during
+	 * an online game. The listener is called on the client's reader thread, so
+	 * every call is handed over to the JavaFX application thread.
+	 * 
+	 * @return A listener for the online game client.
+	 */
+	private static GameClient.Listener getOnlineListener() {
+		return new GameClient.Listener() {
+			@Override
+			public void joined(int gameId, char symbol) {
+				Platform.runLater(() -> {
+					// the server's board always has X as player one
+					board = new TicTacToeBoard(Board.X_SYMBOL, Board.O_SYMBOL);
+					UIBoardActions.setOnlineGame(UIBoardActions.getOnlineClient(), symbol);
+					mainStage.setScene(getBoardScene());
+				});
+			}
+
+			@Override
+			public void started() {
+				// the board scene is already displayed, and the server accepts moves
+				// from now on
+			}
+
+			@Override
+			public void moveMade(int cell, char symbol, GameState gameState, int sequence) {
+				Platform.runLater(() -> UIBoardActions.onlineMove(Protocol.getRow(cell), Protocol.getCol(cell), symbol));
+			}
+
+			@Override
+			public void moveRejected(int cell) {
+				// the tile stays empty, so the user can simply pick another one
+			}
+
+			@Override
+			public void opponentLeft() {
+				displayEndOfGamePrompt("OPPONENT LEFT");
+			}
+
+			@Override
+			public void disconnected() {
+				Platform.runLater(() -> {
+					// only return home if the user didn't leave on purpose
+					if (UIBoardActions.getOnlineClient() != null) {
+						UIBoardActions.leaveOnlineGame();
+						mainStage.setScene(getHomeScene());
+					}
+				});
+			}
+		};
+	}
+
 	/**
 	 * Main method to launch the Tic-Tac-Toe game GUI.
 	 * 
@@ -0,0 +1,272 @@
+package controller;
+
+import java.util.List;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.Node;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.layout.GridPane;
+import model.Board;
+import model.GameRecording;
+
+/**
+ * This class replays the games of a GameRecording on a UI board at a chosen
+ * number of moves per second. It runs once per frame as an AnimationTimer:
+ * every frame, the moves that fell due since the last frame are applied to an
+ * array of symbols, however many there are, and only the tiles whose symbol
+ * changed are redrawn. A fast replay applies many moves per frame and a slow
+ * one applies a move every few frames, and either way the UI board is touched
+ * at most once per frame.
+ * 
+ * The same UI board is used for every game. The last position of a game stays
+ * on the board until the first move of the next game is due.
+ */
+public class ReplayTimer extends AnimationTimer {
+	/**
+	 * Number of nanoseconds in a second.
+	 */
+	private final static double NANOS_PER_SECOND = 1e9;
+	/**
+	 * Number of tiles of the board.
+	 */
+	private final static int TILES = Board.BOARD_ROWS * Board.BOARD_COLS;
+
+	/**
+	 * Tiles of the UI board, in row order.
+	 */
+	private final List<Node> tiles;
+	/**
+	 * Label showing the game being replayed, the results so far and the speed.
+	 */
+	private final Label statusLabel;
+	/**
+	 * Symbols of the tiles after the moves applied so far.
+	 */
+	private final char[] cells = new char[TILES];
+	/**
+	 * Symbols of the tiles as drawn on the UI board.
+	 */
+	private final char[] shown = new char[TILES];
+	/**
+	 * Recording being replayed. null represents that there is nothing to replay.
+	 */
+	private GameRecording recording = null;
+	/**
+	 * Index of the game being replayed.
+	 */
+	private int game;
+	/**
+	 * Index of the next move to apply.
+	 */
+	private int nextMove;
+	/**
+	 * Number of games replayed so far that were won by X, won by O and tied.
+	 */
+	private int xWins, oWins, ties;
+	/**
+	 * Number of moves applied per second of replay.
+	 */
+	private double movesPerSecond = 10;
+	/**
+	 * Moves due but not applied yet, below one move.
+	 */
+	private double dueMoves;
+	/**
+	 * Time of the last frame in nanoseconds. 0 represents that the next frame is
+	 * the first one since the replay started.
+	 */
+	private long lastFrame;
+	/**
+	 * Start of the second the frame rate and move rate are being counted over.
+	 */
+	private long secondStart;
+	/**
+	 * Frames and moves counted in the current second.
+	 */
+	private int secondFrames, secondMoves;
+	/**
+	 * Frames and moves counted in the last full second.
+	 */
+	private int framesPerSecond, movesLastSecond;
+	/**
+	 * true while the timer is running, false otherwise.
+	 */
+	private boolean playing = false;
+
+	/**
+	 * Construct a replay timer drawing on the specified UI board.
+	 * 
+	 * @param uiBoard     the UI board created by UIElements.getUIBoardLayout
+	 * @param statusLabel the label to show the progress of the replay on
+	 */
+	public ReplayTimer(GridPane uiBoard, Label statusLabel) {
+		this.tiles = uiBoard.getChildren();
+		this.statusLabel = statusLabel;
+	}
+
+	/**
+	 * Replay the specified recording from its first game, clearing the UI board.
+	 * 
+	 * @param newRecording the recording to replay
+	 */
+	public void setRecording(GameRecording newRecording) {
+		recording = newRecording;
+		game = nextMove = 0;
+		xWins = oWins = ties = 0;
+		dueMoves = 0;
+		clearCells();
+		draw();
+		showStatus();
+	}
+
+	/**
+	 * Get the recording being replayed.
+	 * 
+	 * @return The recording, or null if there is nothing to replay.
+	 */
+	public GameRecording getRecording() {
+		return recording;
+	}
+
+	/**
+	 * Set the speed of the replay.
+	 * 
+	 * @param newMovesPerSecond the number of moves to apply per second
+	 */
+	public void setSpeed(double newMovesPerSecond) {
+		movesPerSecond = newMovesPerSecond;
+	}
+
+	/**
+	 * Check if the replay is running.
+	 * 
+	 * @return true if moves are being replayed, false otherwise.
+	 */
+	public boolean isPlaying() {
+		return playing;
+	}
+
+	/**
+	 * Check if every move of the recording has been replayed.
+	 * 
+	 * @return true if the replay is over or there is nothing to replay, false
+	 *         otherwise.
+	 */
+	public boolean isFinished() {
+		return recording == null || nextMove == recording.getMoves();
+	}
+
+	/**
+	 * Start or resume the replay. The time the timer was stopped doesn't count
+	 * towards the moves due.
+	 */
+	@Override
+	public void start() {
+		lastFrame = 0;
+		playing = true;
+		super.start();
+	}
+
+	/**
+	 * Pause the replay.
+	 */
+	@Override
+	public void stop() {
+		playing = false;
+		super.stop();
+	}
+
+	/**
+	 * Apply the moves that fell due since the last frame, redraw the tiles that
+	 * changed and update the status label. Called by JavaFX once per frame.
+	 * 
+	 * @param now the time of the frame in nanoseconds
+	 */
+	@Override
+	public void handle(long now) {
+		if (lastFrame == 0) {
+			lastFrame = secondStart = now;
+			return;
+		}
+		dueMoves += (now - lastFrame) * movesPerSecond / NANOS_PER_SECOND;
+		lastFrame = now;
+		int moves = (int) dueMoves;
+		dueMoves -= moves;
+		int totalMoves = (recording == null) ? 0 : recording.getMoves();
+		int applied = 0;
+		for (; applied < moves && nextMove < totalMoves; applied++) {
+			applyMove();
+		}
+		secondMoves += applied;
+		secondFrames++;
+		if (now - secondStart >= NANOS_PER_SECOND) {
+			framesPerSecond = secondFrames;
+			movesLastSecond = secondMoves;
+			secondFrames = secondMoves = 0;
+			secondStart = now;
+		}
+		draw();
+		showStatus();
+		if (isFinished()) {
+			stop();
+		}
+	}
+
+	/**
+	 * Helper method that applies the next move of the recording to the cells,
+	 * clearing them first if it starts a game, and counts the result of the game
+	 * if it ends it.
+	 */
+	private void applyMove() {
+		if (nextMove == recording.getGameStart(game)) {
+			clearCells();
+		}
+		cells[recording.getTile(nextMove)] = recording.getSymbol(nextMove);
+		nextMove++;
+		if (nextMove == recording.getGameEnd(game)) {
+			char winner = recording.getWinner(game);
+			if (winner == Board.X_SYMBOL) {
+				xWins++;
+			} else if (winner == Board.O_SYMBOL) {
+				oWins++;
+			} else {
+				ties++;
+			}
+			game++;
+		}
+	}
+
+	/**
+	 * Helper method that redraws the tiles whose symbol changed since they were
+	 * last drawn.
+	 */
+	private void draw() {
+		for (int tile = 0; tile < TILES; tile++) {
+			if (cells[tile] != shown[tile]) {
+				((Button) tiles.get(tile)).setText(String.valueOf(cells[tile]));
+				shown[tile] = cells[tile];
+			}
+		}
+	}
+
+	/**
+	 * Helper method that shows the game being replayed, the results of the games
+	 * replayed so far and the speed of the replay on the status label.
+	 */
+	private void showStatus() {
+		int games = (recording == null) ? 0 : recording.getGames();
+		statusLabel.setText(String.format("Game %,d of %,d   X: %,d   O: %,d   Ties: %,d   %,d moves/s at %d fps",
+				Math.min(game + 1, games), games, xWins, oWins, ties, playing ? movesLastSecond : 0,
+				playing ? framesPerSecond : 0));
+	}
+
+	/**
+	 * Helper method that empties every cell.
+	 */
+	private void clearCells() {
+		for (int tile = 0; tile < TILES; tile++) {
+			cells[tile] = Board.EMPTY;
+		}
+	}
+}
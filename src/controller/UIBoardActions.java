@@ -1,9 +1,16 @@
 package controller;
 
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import view.*;
 import model.*;
+import network.GameClient;
+import scores.ScoreLedger;
 
 import javafx.animation.PauseTransition;
+import javafx.application.Platform;
 import javafx.scene.Node;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
@@ -15,7 +22,9 @@ import javafx.util.Duration;
  * This class contains utility methods for handling user interaction with the UI
  * Tic-Tac-Toe board, which is clicking the tiles. It handles score keeping,
  * turn switching, notifying the user of a win or tie, and updating the board
- * with the player symbols whenever appropriate.
+ * with the player symbols whenever appropriate. The UI board is kept in sync
+ * with the TicTacToeBoard by listening to its board events, which are applied
+ * in batches on the JavaFX application thread.
  */
 public class UIBoardActions {
 	/**
@@ -31,17 +40,113 @@ public class UIBoardActions {
 	 */
 	private static TicTacToeBoard board;
 	/**
-	 * Displays player one's symbol and score and appears green whenever it is
-	 * player one's turn. It alters between green and white text fill, and gets its
-	 * score updated based on user and/or computer interaction with the UI board.
+	 * Listener registered on the board that copies moves, turn switches and scores
+	 * onto the UI board and player labels. null represents that no listener has
+	 * been registered yet.
+	 */
+	private static CoalescingBoardListener boardUpdater = null;
+	/**
+	 * Thread that expensive computer player strategies choose their moves on, so
+	 * that a long search never freezes the UI.
+	 */
+	private static final ExecutorService computerThread = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "computer-player");
+		// the computer thread shouldn't keep the application running
+		thread.setDaemon(true);
+		return thread;
+	});
+	/**
+	 * Decides whether the computer player's move is chosen inline or on the
+	 * computer thread, based on the cost of its strategy.
+	 */
+	private static final MoveScheduler moveScheduler = new MoveScheduler(computerThread);
+	/**
+	 * Thread that positions are analyzed on for move hints, so that solving the
+	 * game the first time hints are shown never freezes the UI.
+	 */
+	private static final ExecutorService analysisThread = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "position-analysis");
+		// the analysis thread shouldn't keep the application running
+		thread.setDaemon(true);
+		return thread;
+	});
+	/**
+	 * Analyzer evaluating the moves of the current position for move hints. It
+	 * keeps every analysis, so a position is only analyzed once per session.
+	 */
+	private static final PositionAnalyzer analyzer = new PositionAnalyzer();
+	/**
+	 * true if the evaluation of each move is shown on the UI board, false
+	 * otherwise. Only used on the JavaFX application thread.
+	 */
+	private static boolean hintsShown = false;
+	/**
+	 * Recording of the games played on this device during this session, which can
+	 * be watched again in the replay scene.
+	 */
+	private static final GameRecording sessionRecording = new GameRecording();
+	/**
+	 * Button that undoes the last move on the UI board. null represents that the
+	 * board scene has no undo button.
+	 */
+	private static Button undoButton = null;
+	/**
+	 * Button that makes the last undone move again. null represents that the
+	 * board scene has no redo button.
+	 */
+	private static Button redoButton = null;
+	/**
+	 * Pause before the computer player's next move. null represents that no
+	 * computer turn is waiting to start.
+	 */
+	private static PauseTransition computerTurnPause = null;
+	/**
+	 * true while an expensive computer player strategy is choosing its move on the
+	 * computer thread, false otherwise. The board must not change meanwhile, so
+	 * moves can't be undone or redone.
+	 */
+	private static boolean computerChoosing = false;
+	/**
+	 * true once the game on the UI board has ended in a win or a tie, false
+	 * otherwise.
+	 */
+	private static boolean gameOver = false;
+	/**
+	 * Client connected to the game server when playing an online game. null
+	 * represents that the game is being played on this device only.
 	 */
-	private static Label playerOneLabel;
+	private static GameClient onlineClient = null;
 	/**
-	 * Displays player two's symbol and score and appears green whenever it is
-	 * player one's turn. It alters between green and white text fill, and gets its
-	 * score updated based on user and/or computer interaction with the UI board.
+	 * Symbol that the user plays with in an online game.
 	 */
-	private static Label playerTwoLabel;
+	private static char onlineSymbol;
+	/**
+	 * Ledger the results of the games played on this device are recorded in. null
+	 * represents that results are not kept across sessions.
+	 */
+	private static ScoreLedger scoreLedger = null;
+	/**
+	 * Listener registered on the board that records the result of each game in the
+	 * score ledger.
+	 */
+	private static final BoardListener scoreRecorder = new BoardListener() {
+		@Override
+		public void gameOver(BoardEvent.GameOverEvent event) {
+			// online games are scored by the server, and recording never blocks, so
+			// this runs on whichever thread ended the game
+			if (scoreLedger == null || onlineClient != null) {
+				return;
+			}
+			Player one = event.getBoard().getPlayerOne(), two = event.getBoard().getPlayerTwo();
+			if (event.getWinner() == null) {
+				scoreLedger.recordTie(one.getName(), two.getName());
+			} else if (one.equals(event.getWinner())) {
+				scoreLedger.recordWin(one.getName(), two.getName());
+			} else {
+				scoreLedger.recordWin(two.getName(), one.getName());
+			}
+		}
+	};
 
 	/**
 	 * Create a GridPane as a UI board representation of the Tic-Tac-Toe board using
@@ -61,10 +166,26 @@ public class UIBoardActions {
 	 * @return A UI GridPane representation of the TicTacToeBoard board
 	 */
 	public static GridPane getUIBoard(TicTacToeBoard initBoard, Label initPlayerOneLabel, Label initPlayerTwoLabel) {
+		// stop updating the previous UI board, since it is no longer displayed
+		if (board != null && boardUpdater != null) {
+			board.removeBoardListener(boardUpdater);
+			board.removeBoardListener(scoreRecorder);
+			board.removeBoardListener(sessionRecording);
+		}
+		// a computer turn still waiting belongs to the previous UI board
+		if (computerTurnPause != null) {
+			computerTurnPause.stop();
+			computerTurnPause = null;
+		}
 		UIBoard = UIElements.getUIBoardLayout(initBoard);
 		board = initBoard;
-		playerOneLabel = initPlayerOneLabel;
-		playerTwoLabel = initPlayerTwoLabel;
+		gameOver = false;
+		// copy every change on the board to this UI board, once per pulse
+		boardUpdater = new CoalescingBoardListener(
+				getUIBoardRenderer(UIBoard, initBoard, initPlayerOneLabel, initPlayerTwoLabel));
+		initBoard.addBoardListener(boardUpdater);
+		initBoard.addBoardListener(scoreRecorder);
+		initBoard.addBoardListener(sessionRecording);
 		for (int row = 0; row < Board.BOARD_ROWS; row++) {
 			for (int col = 0; col < Board.BOARD_COLS; col++) {
 				Button UIBoardTile = (Button) UIBoard.getChildren().get((row * 3) + col);
@@ -72,15 +193,21 @@ public class UIBoardActions {
 				final int COL = col;
 				// set action for when tile is clicked
 				UIBoardTile.setOnAction(event -> {
+					// in an online game the move is only made once the server sends it
+					// back, so just send it if it's the user's turn
+					if (onlineClient != null) {
+						if (initBoard.getCurrentPlayer().getSymbol() == onlineSymbol
+								&& initBoard.getTileAt(ROW, COL).isEmpty()) {
+							sendOnlineMove(ROW, COL);
+						}
+						return;
+					}
 					// UserPlayer object used to represent user making a move on the UI board
 					UserPlayer user = new UserPlayer(initBoard.getCurrentPlayer().getSymbol());
 					// GameState variable set to game state after tile is clicked by user
 					GameState gameState = user.makeMove(ROW, COL, initBoard);
 					// follow these steps if move made is a valid move
 					if (gameState != GameState.INVALID_MOVE) {
-						// copy over symbol from corresponding
-						// tile on TicTacToeBoard after move is made
-						UIBoardTile.setText(String.valueOf(initBoard.getTileAt(ROW, COL).getSymbol()));
 						// after move is made and turn is switched, check if there is
 						// a winner or a tie
 						checkWinner(gameState);
@@ -94,14 +221,356 @@ public class UIBoardActions {
 
 			}
 		}
+		// show the hints of the first position if they are turned on
+		updateHints();
+		updateHistoryButtons();
 		return UIBoard;
 	}
 
+	/**
+	 * Create the listener that copies board events onto the specified UI board and
+	 * player labels. It must only be called on the JavaFX application thread, so
+	 * it is wrapped in a CoalescingBoardListener before being registered.
+	 * 
+	 * @param uiBoard        the UI board to copy moves onto
+	 * @param ticTacToeBoard the board whose events are being copied
+	 * @param oneLabel       label displaying the symbol and score of player one
+	 * @param twoLabel       label displaying the symbol and score of player two
+	 * @return A listener that updates the UI board and player labels.
+	 */
+	private static BoardListener getUIBoardRenderer(GridPane uiBoard, TicTacToeBoard ticTacToeBoard, Label oneLabel,
+			Label twoLabel) {
+		return new BoardListener() {
+			@Override
+			public void moveMade(BoardEvent.MoveEvent event) {
+				// tiles are added to the GridPane row by row
+				Button filled = (Button) uiBoard.getChildren().get((event.getRow() * Board.BOARD_COLS) + event.getCol());
+				// the tile may be shaded by a hint, so its default style is put back too
+				UIElements.hideHint(filled, event.getSymbol());
+				updateHistoryButtons();
+			}
+
+			@Override
+			public void moveUndone(BoardEvent.UndoEvent event) {
+				// only the emptied tile changes, the turn switch event updates the labels
+				Button emptied = (Button) uiBoard.getChildren()
+						.get((event.getRow() * Board.BOARD_COLS) + event.getCol());
+				UIElements.hideHint(emptied, Board.EMPTY);
+				updateHistoryButtons();
+			}
+
+			@Override
+			public void turnSwitched(BoardEvent.TurnSwitchEvent event) {
+				// change the current player's label to green
+				// change the waiting player's label to white
+				if (event.isPlayerOneTurn()) {
+					oneLabel.setTextFill(Color.GREEN);
+					twoLabel.setTextFill(Color.WHITE);
+				} else {
+					twoLabel.setTextFill(Color.GREEN);
+					oneLabel.setTextFill(Color.WHITE);
+				}
+				updateHints();
+				updateHistoryButtons();
+			}
+
+			@Override
+			public void gameOver(BoardEvent.GameOverEvent event) {
+				// no moves are left to hint at
+				updateHints();
+				updateHistoryButtons();
+				// update winning player's score label by setting it to the new score
+				if (event.getWinner() == null) {
+					return;
+				}
+				if (ticTacToeBoard.getPlayerOne().equals(event.getWinner())) {
+					oneLabel.setText("Player One (" + ticTacToeBoard.getPlayerOne().getSymbol() + "): "
+							+ ticTacToeBoard.getPlayerOne().getScore());
+				} else {
+					twoLabel.setText("Player Two (" + ticTacToeBoard.getPlayerTwo().getSymbol() + "): "
+							+ ticTacToeBoard.getPlayerTwo().getScore());
+				}
+			}
+		};
+	}
+
+	/**
+	 * Get the recording of the games played on this device during this session.
+	 * The games are recorded on the JavaFX application thread, so the recording
+	 * must only be read there.
+	 * 
+	 * @return The recording of the session's finished games.
+	 */
+	public static GameRecording getSessionRecording() {
+		return sessionRecording;
+	}
+
+	/**
+	 * Set the buttons that undo and redo moves on the UI board. They are disabled
+	 * whenever there is nothing to undo or redo. Must be called on the JavaFX
+	 * application thread, before getUIBoard.
+	 * 
+	 * @param undo the undo button of the board scene
+	 * @param redo the redo button of the board scene
+	 */
+	public static void setHistoryButtons(Button undo, Button redo) {
+		undoButton = undo;
+		redoButton = redo;
+	}
+
+	/**
+	 * Undo the last move on the UI board, cancelling the computer player's turn if
+	 * it hasn't started choosing its move yet. In a single-player game the
+	 * computer player's reply is undone together with the user's move before it,
+	 * so it is the user's turn again. Only the emptied tiles and the player labels
+	 * change on the UI board. Must be called on the JavaFX application thread.
+	 */
+	public static void undoMove() {
+		if (!canUndo()) {
+			return;
+		}
+		cancelComputerTurn();
+		do {
+			board.undoMove();
+		} while (board.isComputerPlayer(board.getCurrentPlayer()) && board.canUndo());
+		updateHistoryButtons();
+	}
+
+	/**
+	 * Make the last undone move on the UI board again. In a single-player game the
+	 * computer player's undone reply is made again with the user's move, and if
+	 * there is none the computer player takes its turn. Must be called on the
+	 * JavaFX application thread.
+	 */
+	public static void redoMove() {
+		if (!canRedo()) {
+			return;
+		}
+		cancelComputerTurn();
+		do {
+			GameState gameState = board.redoMove();
+			if (gameState == GameState.INVALID_MOVE) {
+				break;
+			}
+			checkWinner(gameState);
+		} while (!gameOver && board.isComputerPlayer(board.getCurrentPlayer()) && board.canRedo());
+		if (!gameOver && board.isComputerPlayer(board.getCurrentPlayer())) {
+			computerTurn();
+		}
+		updateHistoryButtons();
+	}
+
+	/**
+	 * Helper method that checks if the user can undo a move on the UI board.
+	 * 
+	 * @return true if there is a move to undo, false otherwise.
+	 */
+	private static boolean canUndo() {
+		if (board == null || onlineClient != null || gameOver || computerChoosing || !board.canUndo()) {
+			return false;
+		}
+		// the computer player's first move alone would only be made again
+		return board.getMovesMade() > 1 || !board.isComputerPlayer(board.getWaitingPlayer());
+	}
+
+	/**
+	 * Helper method that checks if the user can redo a move on the UI board.
+	 * 
+	 * @return true if there is an undone move to make again, false otherwise.
+	 */
+	private static boolean canRedo() {
+		return board != null && onlineClient == null && !gameOver && !computerChoosing && board.canRedo();
+	}
+
+	/**
+	 * Helper method that enables the undo and redo buttons only when there is
+	 * something to undo or redo.
+	 */
+	private static void updateHistoryButtons() {
+		if (undoButton != null) {
+			undoButton.setDisable(!canUndo());
+		}
+		if (redoButton != null) {
+			redoButton.setDisable(!canRedo());
+		}
+	}
+
+	/**
+	 * Helper method that stops the computer player's turn if it is still waiting
+	 * to start, and lets the user click the tiles again.
+	 */
+	private static void cancelComputerTurn() {
+		if (computerTurnPause == null) {
+			return;
+		}
+		computerTurnPause.stop();
+		computerTurnPause = null;
+		for (Node node : UIBoard.getChildren()) {
+			if (node instanceof Button) {
+				((Button) node).setDisable(false);
+			}
+		}
+	}
+
+	/**
+	 * Show or hide the evaluation of each move on the UI board. Must be called on
+	 * the JavaFX application thread.
+	 * 
+	 * @param shown true to show hints, false to hide them
+	 */
+	public static void setHintsShown(boolean shown) {
+		hintsShown = shown;
+		updateHints();
+	}
+
+	/**
+	 * Check if the evaluation of each move is shown on the UI board.
+	 * 
+	 * @return true if hints are shown, false otherwise.
+	 */
+	public static boolean isHintsShown() {
+		return hintsShown;
+	}
+
+	/**
+	 * Helper method that shows the evaluation of each move of the current position
+	 * on the UI board, or removes it if hints are hidden or it isn't the user's
+	 * turn. A position that hasn't been analyzed yet is analyzed on the analysis
+	 * thread and shaded once it is done, unless the board has moved on by then.
+	 * Must be called on the JavaFX application thread.
+	 */
+	private static void updateHints() {
+		if (UIBoard == null) {
+			return;
+		}
+		GridPane hintedUIBoard = UIBoard;
+		TicTacToeBoard hintedBoard = board;
+		int code = hintedBoard.getPositionCode();
+		char toMove = hintedBoard.getCurrentPlayer().getSymbol();
+		boolean usersTurn = !hintedBoard.isComputerPlayer(hintedBoard.getCurrentPlayer())
+				&& (onlineClient == null || toMove == onlineSymbol);
+		if (!hintsShown || !usersTurn) {
+			showHints(hintedUIBoard, hintedBoard, null);
+			return;
+		}
+		MoveAnalysis cached = analyzer.getCachedAnalysis(code, toMove);
+		if (cached != null) {
+			showHints(hintedUIBoard, hintedBoard, cached);
+			return;
+		}
+		analyzer.analyzeAsync(code, toMove, analysisThread).thenAccept(analysis -> Platform.runLater(() -> {
+			// drop the analysis if hints were hidden or a move was made meanwhile
+			if (hintsShown && UIBoard == hintedUIBoard && hintedBoard.getPositionCode() == code
+					&& hintedBoard.getCurrentPlayer().getSymbol() == toMove) {
+				showHints(hintedUIBoard, hintedBoard, analysis);
+			}
+		}));
+	}
+
+	/**
+	 * Helper method that shades every legal move of an analysis on the UI board,
+	 * and shows the symbol on every other tile.
+	 * 
+	 * @param uiBoard  the UI board to shade
+	 * @param hinted   the board the UI board shows
+	 * @param analysis the analysis of the board's position, or null to remove all
+	 *                 hints
+	 */
+	private static void showHints(GridPane uiBoard, TicTacToeBoard hinted, MoveAnalysis analysis) {
+		for (int tile = 0; tile < Board.BOARD_ROWS * Board.BOARD_COLS; tile++) {
+			// tiles are added to the GridPane row by row
+			Button UIBoardTile = (Button) uiBoard.getChildren().get(tile);
+			if (analysis != null && analysis.isLegalMove(tile)) {
+				UIElements.showHint(UIBoardTile, analysis.getOutcome(tile), analysis.getPlies(tile));
+			} else {
+				UIElements.hideHint(UIBoardTile,
+						hinted.getTileAt(tile / Board.BOARD_COLS, tile % Board.BOARD_COLS).getSymbol());
+			}
+		}
+	}
+
+	/**
+	 * Set the ledger the results of the games played on this device are recorded
+	 * in.
+	 * 
+	 * @param ledger the score ledger, or null to stop recording results
+	 */
+	public static void setScoreLedger(ScoreLedger ledger) {
+		scoreLedger = ledger;
+	}
+
+	/**
+	 * Start playing an online game through the specified client. Moves clicked on
+	 * the UI board are sent to the server instead of being made right away.
+	 * 
+	 * @param client the client connected to the game server
+	 * @param symbol the symbol the user plays with
+	 */
+	public static void setOnlineGame(GameClient client, char symbol) {
+		onlineClient = client;
+		onlineSymbol = symbol;
+	}
+
+	/**
+	 * Stop playing online, closing the connection to the game server if there is
+	 * one.
+	 */
+	public static void leaveOnlineGame() {
+		if (onlineClient != null) {
+			onlineClient.close();
+			onlineClient = null;
+		}
+	}
+
+	/**
+	 * Get the client connected to the game server.
+	 * 
+	 * @return The client of the online game, or null if the game isn't online.
+	 */
+	public static GameClient getOnlineClient() {
+		return onlineClient;
+	}
+
+	/**
+	 * Make a move sent by the game server on the board, and check if there is a
+	 * winner or a tie after the move is made. Must be called on the JavaFX
+	 * application thread.
+	 * 
+	 * @param row    the row of the tile the move was made on
+	 * @param col    the column of the tile the move was made on
+	 * @param symbol the symbol of the player who made the move
+	 */
+	public static void onlineMove(int row, int col, char symbol) {
+		// UserPlayer object used to represent either player making a move on the board
+		UserPlayer player = new UserPlayer(symbol);
+		GameState gameState = player.makeMove(row, col, board);
+		if (gameState != GameState.INVALID_MOVE) {
+			checkWinner(gameState);
+		}
+	}
+
+	/**
+	 * Helper method that sends a move clicked by the user to the game server.
+	 * 
+	 * @param row the row of the tile that was clicked
+	 * @param col the column of the tile that was clicked
+	 */
+	private static void sendOnlineMove(int row, int col) {
+		try {
+			onlineClient.sendMove(row, col);
+		} catch (IOException e) {
+			// the reader thread notices the closed connection and returns the user
+			// to the home scene
+			onlineClient.close();
+		}
+	}
+
 	/**
 	 * Simulate the computer player's move on the Tic-Tac-Toe game. Update the UI
 	 * GridPane board with the new computer move, and update the player labels after
 	 * a move. Additionally, check if there is a winner or a tie after the move is
-	 * made.
+	 * made. Moves of expensive strategies are chosen off the JavaFX application
+	 * thread.
 	 */
 	public static void computerTurn() {
 		if (UIBoard != null) {
@@ -116,29 +585,44 @@ public class UIBoardActions {
 			// move
 			PauseTransition pause = new PauseTransition(Duration.seconds(1));
 			// execute after pause
+			// board and UI board of this turn, in case the user leaves the scene
+			// while the computer player is thinking
+			TicTacToeBoard turnBoard = board;
+			GridPane turnUIBoard = UIBoard;
+			computerTurnPause = pause;
 			pause.setOnFinished(e -> {
+				if (turnBoard != board) {
+					// the user left the game during the pause
+					return;
+				}
+				computerTurnPause = null;
+				computerChoosing = true;
+				updateHistoryButtons();
 				// ComputerPlayer object used to represent computer making a move on the UI
 				// board
-				ComputerPlayer compPlayer = (ComputerPlayer) board.getCurrentPlayer();
-				// GameState variable set to game state after tile is clicked by computer player
-				GameState gameState = compPlayer.makeMove(board);
-				// coordinates {row, col} of the next move computer will make on the UI board
-				int nextMove[] = compPlayer.getNextMoveMade();
-				// button on UIBoard representing tile filled after computer makes its move
-				Button filled = (Button) UIBoard.getChildren().get((nextMove[0] * 3) + nextMove[1]);
-				// copy over symbol from corresponding
-				// tile on TicTacToeBoard after move is made
-				filled.setText(String.valueOf(board.getTileAt(nextMove[0], nextMove[1]).getSymbol()));
-				// after move is made and turn is switched, check if there is
-				// a winner or a tie
-				checkWinner(gameState);
-
-				// re-enable buttons if game state isn't a tie or a win
-				for (Node node : UIBoard.getChildren()) {
-					if (node instanceof Button) {
-						((Button) node).setDisable(false);
+				ComputerPlayer compPlayer = (ComputerPlayer) turnBoard.getCurrentPlayer();
+				// cheap strategies choose their move right away, expensive ones choose it
+				// on the computer thread and hand it back to the JavaFX application thread
+				moveScheduler.chooseMove(compPlayer, turnBoard, Platform::runLater, nextMove -> {
+					computerChoosing = false;
+					if (turnBoard != board) {
+						// the user left the game while the move was being chosen
+						return;
 					}
-				}
+					// GameState variable set to game state after tile is clicked by computer
+					// player
+					GameState gameState = compPlayer.makeMove(nextMove[0], nextMove[1], turnBoard);
+					// after move is made and turn is switched, check if there is
+					// a winner or a tie
+					checkWinner(gameState);
+
+					// re-enable buttons if game state isn't a tie or a win
+					for (Node node : turnUIBoard.getChildren()) {
+						if (node instanceof Button) {
+							((Button) node).setDisable(false);
+						}
+					}
+				});
 			});
 			pause.play();
 		}
@@ -147,55 +631,34 @@ public class UIBoardActions {
 	/**
 	 * Helper method used after move is made on the board. If the current game state
 	 * is a win or a tie, then create and display an appropriate end-of-game prompt.
-	 * Also update the score in the label of the winning player, if there is one.
+	 * Otherwise switch the turns. The player labels are updated by the board
+	 * listener.
 	 * 
 	 * @param gameState the current GameState of the game, to determine if the game
 	 *                  has ended in a win or a tie
 	 */
 	private static void checkWinner(GameState gameState) {
 		if (gameState == GameState.WIN || gameState == GameState.TIE) {
+			gameOver = true;
 			String result;
 			if (gameState == GameState.WIN) {
 				// winning result text depends on the current player (last player who went)
-				// update winning player's score label by setting it to the new score
-				// to match their new score before end of game prompt
 				if (board.isPlayerOneTurn()) {
 					result = "PLAYER ONE WINS!";
-					playerOneLabel.setText("Player One (" + board.getPlayerOne().getSymbol() + "): "
-							+ board.getPlayerOne().getScore());
 				} else {
 					result = "PLAYER TWO WINS!";
-					playerTwoLabel.setText("Player Two (" + board.getPlayerTwo().getSymbol() + "): "
-							+ board.getPlayerTwo().getScore());
 				}
 
 			} else {
 				result = "TIE";
 			}
-			// display end of game prompt
+			// display end of game prompt, which runs after the pending board
+			// events have been applied to the UI board
 			GUI.displayEndOfGamePrompt(result);
 		} else {
-			// if last move didn't end the game, switch the turns and update the player
-			// score labels
+			// if last move didn't end the game, switch the turns. the board listener
+			// updates the player labels
 			board.switchTurns();
-			updatePlayerLabels();
-		}
-	}
-
-	/**
-	 * Helper method to update the color of the player labels to reflect the current
-	 * player's turn.
-	 */
-	private static void updatePlayerLabels() {
-		// change the current player's label to green
-		// change the waiting player's label to white
-		if (board.isPlayerOneTurn()) {
-			playerOneLabel.setTextFill(Color.GREEN);
-			playerTwoLabel.setTextFill(Color.WHITE);
-		} else {
-			playerTwoLabel.setTextFill(Color.GREEN);
-			playerOneLabel.setTextFill(Color.WHITE);
 		}
-
 	}
 }
@@ -6,8 +6,10 @@
  * user of wins, ties, and score updates using the data and logic defined in the
  * model package. It displays these controls and defines their actions using the
  * user interface (UI) elements and CSS styling defined in the view package.
+ * The ReplayTimer class plays recorded games back on a UI board once per frame.
  * Overall, this package is responsible for providing the game flow and control
  * needed for the GUI of the game to function properly. Start the game by running
- * the GUI.java file.
+ * the GUI.java file, or play it in a terminal without JavaFX by running the
+ * Console.java file.
  */
 package controller;
@@ -0,0 +1,231 @@
+package engine;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import model.*;
+
+/**
+ * This class computes the game state of many positions in one call. Positions
+ * are packed into an int, with the tiles filled by X in bits 0 to 8 and the
+ * tiles filled by O in bits 9 to 17, tile row * BOARD_COLS + col being bit
+ * col + row * BOARD_COLS of each half. When the VectorBatchEvaluator class has
+ * been compiled from the src-vector folder and the jdk.incubator.vector module
+ * is available, the eight winning lines are tested on many positions at once
+ * with SIMD lanes. Otherwise, or when the system property tictactoe.vector is
+ * set to false, a scalar loop computes the same results.
+ */
+public class BatchEvaluator {
+	/**
+	 * Mask of the tiles of one symbol in a packed position.
+	 */
+	public final static int SYMBOL_MASK = 0x1FF;
+	/**
+	 * Number of bits the tiles filled by O are shifted by in a packed position.
+	 */
+	public final static int O_SHIFT = 9;
+	/**
+	 * The eight lines of three tiles that win the game, as masks of tiles.
+	 */
+	final static int[] LINE_MASKS = { 0x007, 0x038, 0x1C0, 0x049, 0x092, 0x124, 0x111, 0x054 };
+	/**
+	 * Name of the class of the vector path, which is compiled separately.
+	 */
+	private final static String VECTOR_CLASS = "engine.VectorBatchEvaluator";
+	/**
+	 * The vector path, or null if the scalar loop is used.
+	 */
+	private final static VectorPath VECTOR = loadVectorPath();
+	/**
+	 * Whether the vector path is used.
+	 */
+	private final static boolean VECTOR_ENABLED = VECTOR != null;
+
+	/**
+	 * A way of evaluating positions with SIMD lanes. It is implemented by the
+	 * VectorBatchEvaluator class, which needs the jdk.incubator.vector module to
+	 * compile, so the rest of the game only refers to it through this interface.
+	 */
+	interface VectorPath {
+		/**
+		 * Get the number of positions evaluated per step.
+		 * 
+		 * @return The number of lanes.
+		 */
+		int laneCount();
+
+		/**
+		 * Compute the game state of as many positions as fill whole vectors. The
+		 * positions left over are not evaluated.
+		 * 
+		 * @param positions the packed positions to evaluate
+		 * @param states    receives the ordinal of the GameState of each position
+		 * @return The number of positions evaluated, from index 0.
+		 */
+		int evaluate(int[] positions, byte[] states);
+	}
+
+	/**
+	 * Pack the tiles of a board into an int.
+	 * 
+	 * @param board the board to pack
+	 * @return The packed position.
+	 */
+	public static int pack(Board board) {
+		int packed = 0;
+		for (int row = 0; row < Board.BOARD_ROWS; row++) {
+			for (int col = 0; col < Board.BOARD_COLS; col++) {
+				char symbol = board.getTileAt(row, col).getSymbol();
+				int bit = 1 << ((row * Board.BOARD_COLS) + col);
+				if (symbol == Board.X_SYMBOL) {
+					packed |= bit;
+				} else if (symbol == Board.O_SYMBOL) {
+					packed |= bit << O_SHIFT;
+				}
+			}
+		}
+		return packed;
+	}
+
+	/**
+	 * Check if batches are evaluated with SIMD lanes.
+	 * 
+	 * @return True if the vector path is used, false if the scalar loop is.
+	 */
+	public static boolean isVectorEnabled() {
+		return VECTOR_ENABLED;
+	}
+
+	/**
+	 * Compute the game state of every position, like GameState.winningMoveMade()
+	 * and GameState.isTie() would for the corresponding boards.
+	 * 
+	 * @param positions the packed positions to evaluate
+	 * @param states    receives the ordinal of the GameState of each position,
+	 *                  WIN, TIE or IN_PROGRESS, at the same index
+	 * @throws IllegalArgumentException if states is shorter than positions
+	 */
+	public static void evaluate(int[] positions, byte[] states) {
+		if (states.length < positions.length) {
+			throw new IllegalArgumentException("One state is needed per position");
+		}
+		int evaluated = VECTOR_ENABLED ? VECTOR.evaluate(positions, states) : 0;
+		// the scalar loop handles the positions left over from the last full vector
+		evaluateScalar(positions, states, evaluated);
+	}
+
+	/**
+	 * Compute the game state of the positions from the specified index on,
+	 * one position at a time.
+	 * 
+	 * @param positions the packed positions to evaluate
+	 * @param states    receives the ordinal of the GameState of each position
+	 * @param from      the index of the first position to evaluate
+	 */
+	public static void evaluateScalar(int[] positions, byte[] states, int from) {
+		for (int index = from; index < positions.length; index++) {
+			states[index] = (byte) evaluate(positions[index]).ordinal();
+		}
+	}
+
+	/**
+	 * Compute the game state of a single packed position.
+	 * 
+	 * @param position the packed position
+	 * @return WIN, TIE or IN_PROGRESS.
+	 */
+	public static GameState evaluate(int position) {
+		int x = position & SYMBOL_MASK, o = (position >>> O_SHIFT) & SYMBOL_MASK;
+		for (int line : LINE_MASKS) {
+			if ((x & line) == line || (o & line) == line) {
+				return GameState.WIN;
+			}
+		}
+		return ((x | o) == SYMBOL_MASK) ? GameState.TIE : GameState.IN_PROGRESS;
+	}
+
+	/**
+	 * Helper method that loads the vector path if it was compiled and the vector
+	 * module can be used.
+	 * 
+	 * @return The vector path, or null if the scalar loop has to be used.
+	 */
+	private static VectorPath loadVectorPath() {
+		if ("false".equals(System.getProperty("tictactoe.vector"))
+				|| !ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+			return null;
+		}
+		try {
+			VectorPath vector = Class.forName(VECTOR_CLASS).asSubclass(VectorPath.class).getDeclaredConstructor()
+					.newInstance();
+			// a vector of one lane gains nothing over the scalar loop
+			return (vector.laneCount() > 1) ? vector : null;
+		} catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+			// the class wasn't compiled, or was compiled against another module
+			return null;
+		}
+	}
+
+	/**
+	 * Main method to compare the throughput of the vector path, the scalar loop
+	 * and GameState.winningMoveMade() and GameState.isTie() on TicTacToeBoards
+	 * holding the same random positions. The exit status is 1 if any of them
+	 * disagree.
+	 * 
+	 * @param args command line arguments, optionally the number of positions
+	 */
+	public static void main(String args[]) {
+		int count = (args.length > 0) ? Integer.parseInt(args[0]) : 1 << 22;
+		int[] positions = new int[count];
+		Random random = new Random(1);
+		for (int index = 0; index < count; index++) {
+			// random tiles for X, and O only on tiles X doesn't have
+			int x = random.nextInt(SYMBOL_MASK + 1);
+			positions[index] = x | ((random.nextInt(SYMBOL_MASK + 1) & ~x) << O_SHIFT);
+		}
+		// the boards take far more memory than packed positions, so a slice of the
+		// positions is put on boards and walked over several times
+		TicTacToeBoard[] boards = new TicTacToeBoard[Math.min(count, 1 << 16)];
+		for (int index = 0; index < boards.length; index++) {
+			boards[index] = new TicTacToeBoard(Board.X_SYMBOL, Board.O_SYMBOL);
+			for (int tile = 0; tile < Board.BOARD_ROWS * Board.BOARD_COLS; tile++) {
+				if ((positions[index] & (1 << tile)) != 0) {
+					boards[index].getTileAt(tile / Board.BOARD_COLS, tile % Board.BOARD_COLS).fillTile(Board.X_SYMBOL);
+				} else if ((positions[index] & (1 << (tile + O_SHIFT))) != 0) {
+					boards[index].getTileAt(tile / Board.BOARD_COLS, tile % Board.BOARD_COLS).fillTile(Board.O_SYMBOL);
+				}
+			}
+		}
+		byte[] vectorStates = new byte[count], scalarStates = new byte[count], boardStates = new byte[boards.length];
+		boolean same = true;
+		for (int round = 0; round < 5; round++) {
+			long start = System.nanoTime();
+			evaluate(positions, vectorStates);
+			long batchNanos = System.nanoTime() - start;
+			start = System.nanoTime();
+			evaluateScalar(positions, scalarStates, 0);
+			long scalarNanos = System.nanoTime() - start;
+			start = System.nanoTime();
+			int walked = 0;
+			while (walked < count) {
+				for (int index = 0; index < boards.length; index++) {
+					GameState gameState = GameState.winningMoveMade(boards[index]) ? GameState.WIN
+							: GameState.isTie(boards[index]) ? GameState.TIE : GameState.IN_PROGRESS;
+					boardStates[index] = (byte) gameState.ordinal();
+				}
+				walked += boards.length;
+			}
+			long boardNanos = System.nanoTime() - start;
+			boolean roundSame = Arrays.equals(vectorStates, scalarStates)
+					&& Arrays.equals(boardStates, 0, boards.length, scalarStates, 0, boards.length);
+			same &= roundSame;
+			System.out.printf("%s: %.1f M positions/s, scalar: %.1f M positions/s, boards: %.1f M positions/s "
+					+ "(%.0fx slower than the batch), same results: %b%n", VECTOR_ENABLED ? "vector" : "batch (scalar)",
+					count * 1e3 / batchNanos, count * 1e3 / scalarNanos, walked * 1e3 / boardNanos,
+					(double) boardNanos / walked / ((double) batchNanos / count), roundSame);
+		}
+		if (!same) {
+			System.exit(1);
+		}
+	}
+}
@@ -0,0 +1,734 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import model.Board;
+
+/**
+ * This class searches N by N boards, where a player needs K symbols in a row to
+ * win, with alpha-beta search on every core at once. It uses Lazy SMP: every
+ * thread runs its own iterative deepening search of the same position, and the
+ * threads only share the TranspositionTable. Helper threads search in a
+ * different order and at a different depth than the main thread, so they fill
+ * the table with results the main thread then finds instead of searching
+ * again. The result of the main thread is the result of the search.
+ * 
+ * A search stops when it reaches its depth, when its time runs out or when it
+ * is cancelled from another thread, and returns the deepest search the main
+ * thread finished.
+ */
+public class ParallelSearch {
+	/**
+	 * Score of a won position, less the number of moves needed to win it.
+	 */
+	public final static int WIN_SCORE = 30000;
+	/**
+	 * Number of nodes searched between checks for cancellation.
+	 */
+	private final static int NODES_PER_CHECK = 1024;
+	/**
+	 * Seed of the random numbers used to hash positions, fixed so that searches are
+	 * repeatable.
+	 */
+	private final static long ZOBRIST_SEED = 0x5EED;
+	/**
+	 * Shortest win length for which a threat search is tried before the full
+	 * search.
+	 */
+	private final static int THREAT_WIN_LENGTH = 5;
+	/**
+	 * Largest number of threats the threat search looks for a win in.
+	 */
+	private final static int MAX_THREATS = 4;
+
+	/**
+	 * This class represents the outcome of a search.
+	 */
+	public static class Result {
+		/**
+		 * Index of the best tile found, row * size + col, or -1 if the board was
+		 * full.
+		 */
+		private final int move;
+		/**
+		 * Score of the best move for the side to move.
+		 */
+		private final int score;
+		/**
+		 * Deepest depth finished by the main thread.
+		 */
+		private final int depth;
+		/**
+		 * Number of nodes searched by all threads.
+		 */
+		private final long nodes;
+		/**
+		 * Time taken by the search in nanoseconds.
+		 */
+		private final long nanos;
+
+		/**
+		 * Construct the outcome of a search.
+		 * 
+		 * @param move  the index of the best tile found
+		 * @param score the score of the best move
+		 * @param depth the deepest depth finished
+		 * @param nodes the number of nodes searched
+		 * @param nanos the time taken in nanoseconds
+		 */
+		private Result(int move, int score, int depth, long nodes, long nanos) {
+			this.move = move;
+			this.score = score;
+			this.depth = depth;
+			this.nodes = nodes;
+			this.nanos = nanos;
+		}
+
+		/**
+		 * Get the index of the best tile found.
+		 * 
+		 * @return The index row * size + col of the best tile, or -1 if the board
+		 *         was full.
+		 */
+		public int getMove() {
+			return move;
+		}
+
+		/**
+		 * Get the score of the best move for the side to move. Scores above WIN_SCORE
+		 * minus the number of tiles are forced wins.
+		 * 
+		 * @return The score of the best move.
+		 */
+		public int getScore() {
+			return score;
+		}
+
+		/**
+		 * Get the deepest depth finished by the main thread.
+		 * 
+		 * @return The depth of the search.
+		 */
+		public int getDepth() {
+			return depth;
+		}
+
+		/**
+		 * Get the number of nodes searched by all threads.
+		 * 
+		 * @return The number of nodes.
+		 */
+		public long getNodes() {
+			return nodes;
+		}
+
+		/**
+		 * Get the time taken by the search.
+		 * 
+		 * @return The time in nanoseconds.
+		 */
+		public long getNanos() {
+			return nanos;
+		}
+
+		/**
+		 * Get the number of nodes searched per second by all threads together.
+		 * 
+		 * @return The number of nodes per second.
+		 */
+		public double getNodesPerSecond() {
+			return nodes * 1e9 / Math.max(1, nanos);
+		}
+	}
+
+	/**
+	 * This class represents one thread's copy of the position and its progress.
+	 */
+	private class Worker {
+		/**
+		 * Number of the worker, 0 for the main thread.
+		 */
+		private final int id;
+		/**
+		 * Owners of the tiles: 0 for empty, 1 for X and 2 for O.
+		 */
+		private final byte[] cells;
+		/**
+		 * Order in which the worker tries the tiles.
+		 */
+		private final int[] order;
+		/**
+		 * Hash of the position.
+		 */
+		private long hash;
+		/**
+		 * Number of filled tiles.
+		 */
+		private int filled;
+		/**
+		 * Number of nodes searched by the worker.
+		 */
+		private long nodes;
+		/**
+		 * Number of the search the worker belongs to.
+		 */
+		private final long search;
+		/**
+		 * Whether the worker may stop in the middle of the current depth.
+		 */
+		private boolean abortable;
+		/**
+		 * Whether the worker stopped in the middle of a depth.
+		 */
+		private boolean aborted;
+		/**
+		 * Best move of the root found in the current depth.
+		 */
+		private int rootMove;
+
+		/**
+		 * Construct a worker searching a copy of the specified position.
+		 * 
+		 * @param id     the number of the worker
+		 * @param search the number of the search the worker belongs to
+		 * @param cells  the owners of the tiles
+		 */
+		private Worker(int id, long search, byte[] cells) {
+			this.id = id;
+			this.search = search;
+			this.cells = cells.clone();
+			for (int cell = 0; cell < cellCount; cell++) {
+				if (cells[cell] != 0) {
+					filled++;
+					hash ^= zobrist[cells[cell] - 1][cell];
+				}
+			}
+			// helpers rotate the central tiles so that they start on different moves
+			order = centreOrder.clone();
+			int rotate = Math.min(id, cellCount - 1);
+			for (int i = 0; i < rotate; i++) {
+				int first = order[0];
+				System.arraycopy(order, 1, order, 0, cellCount - 1);
+				order[cellCount - 1] = first;
+			}
+		}
+	}
+
+	/**
+	 * Number of rows and columns of the board.
+	 */
+	private final int size;
+	/**
+	 * Number of tiles of the board.
+	 */
+	private final int cellCount;
+	/**
+	 * Tiles of every run of winLength tiles in a row, column or diagonal.
+	 */
+	private final int[][] windows;
+	/**
+	 * Indices in windows of the runs through each tile.
+	 */
+	private final int[][] windowsByCell;
+	/**
+	 * Tiles sorted from the centre of the board outwards.
+	 */
+	private final int[] centreOrder;
+	/**
+	 * Random numbers hashed into the key of a position for each owner and tile.
+	 */
+	private final long[][] zobrist;
+	/**
+	 * Table shared by every worker.
+	 */
+	private final TranspositionTable table;
+	/**
+	 * Pool the workers run on.
+	 */
+	private final ForkJoinPool pool;
+	/**
+	 * Threat search tried before the full search, or null if threats are too
+	 * short to be worth looking for.
+	 */
+	private final ThreatSpaceSearch threats;
+	/**
+	 * Number of the running search, or of the next one if none is running.
+	 */
+	private volatile long searchCount;
+	/**
+	 * Number of the latest search asked to stop. A search stops when this
+	 * reaches its own number, so a cancel made just before the search starts
+	 * isn't lost.
+	 */
+	private final AtomicLong stoppedSearch = new AtomicLong(-1);
+	/**
+	 * Time at which the running search has to stop, from System.nanoTime.
+	 */
+	private volatile long deadline;
+
+	/**
+	 * Construct a search of N by N boards.
+	 * 
+	 * @param size      the number of rows and columns of the board
+	 * @param winLength the number of symbols in a row needed to win
+	 * @param table     the table to share between the threads, which has to be
+	 *                  cleared before it is used for a board of another size
+	 * @param pool      the pool to run the threads on, one per level of parallelism
+	 * @throws IllegalArgumentException if the win length doesn't fit the board
+	 */
+	public ParallelSearch(int size, int winLength, TranspositionTable table, ForkJoinPool pool) {
+		if (size < 1 || winLength < 1 || winLength > size || size * size > 0xFFFF) {
+			throw new IllegalArgumentException("Can't search " + size + "x" + size + " with " + winLength + " in a row");
+		}
+		this.size = size;
+		this.cellCount = size * size;
+		this.table = table;
+		this.pool = pool;
+		threats = (winLength >= THREAT_WIN_LENGTH) ? new ThreatSpaceSearch(size, winLength) : null;
+		windows = buildWindows(size, winLength);
+		windowsByCell = buildWindowsByCell(windows, cellCount);
+		// sort by distance from the centre, measured doubled to stay in integers
+		centreOrder = new int[cellCount];
+		List<Integer> cells = new ArrayList<>();
+		for (int cell = 0; cell < cellCount; cell++) {
+			cells.add(cell);
+		}
+		cells.sort((a, b) -> Integer.compare(centreDistance(a), centreDistance(b)));
+		for (int i = 0; i < cellCount; i++) {
+			centreOrder[i] = cells.get(i);
+		}
+		zobrist = new long[2][cellCount];
+		Random random = new Random(ZOBRIST_SEED);
+		for (int owner = 0; owner < 2; owner++) {
+			for (int cell = 0; cell < cellCount; cell++) {
+				zobrist[owner][cell] = random.nextLong();
+			}
+		}
+	}
+
+	/**
+	 * Search a position with every thread of the pool. On boards needing five or
+	 * more in a row, a threat search runs first, and a forced win it finds is
+	 * returned at once with depth 0 and the lowest winning score, as the number of
+	 * moves it takes isn't known. The main thread always finishes depth 1, even
+	 * when the search is cancelled or out of time, so a move is returned unless
+	 * the board is full.
+	 * 
+	 * @param board     the symbols of the tiles, indexed by row * size + col, where
+	 *                  X moves first
+	 * @param maxDepth  the deepest depth to search
+	 * @param timeLimit the longest time to search in milliseconds, or 0 for no
+	 *                  limit
+	 * @return The result of the deepest depth the main thread finished.
+	 */
+	public Result search(char[] board, int maxDepth, long timeLimit) {
+		long start = System.nanoTime();
+		long search = searchCount;
+		if (threats != null) {
+			int move = threats.findWinningMove(board, MAX_THREATS);
+			if (move >= 0) {
+				searchCount = search + 1;
+				return new Result(move, WIN_SCORE - cellCount + 1, 0, threats.getNodes(), System.nanoTime() - start);
+			}
+		}
+		byte[] cells = new byte[cellCount];
+		for (int cell = 0; cell < cellCount; cell++) {
+			cells[cell] = (byte) (board[cell] == Board.X_SYMBOL ? 1 : board[cell] == Board.O_SYMBOL ? 2 : 0);
+		}
+		deadline = (timeLimit > 0) ? start + timeLimit * 1000000 : Long.MAX_VALUE;
+		table.newSearch();
+		int threads = pool.getParallelism();
+		List<Worker> workers = new ArrayList<>();
+		List<Future<int[]>> futures = new ArrayList<>();
+		for (int id = 0; id < threads; id++) {
+			Worker worker = new Worker(id, search, cells);
+			workers.add(worker);
+			futures.add(pool.submit(() -> iterate(worker, maxDepth)));
+		}
+		int[] best;
+		try {
+			best = futures.get(0).get();
+			// the helpers only matter while the main thread is searching
+			stop(search);
+			for (Future<int[]> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException | ExecutionException e) {
+			stop(search);
+			throw new IllegalStateException("Search failed", e);
+		} finally {
+			searchCount = search + 1;
+		}
+		long nodes = 0;
+		for (Worker worker : workers) {
+			nodes += worker.nodes;
+		}
+		return new Result(best[0], best[1], best[2], nodes, System.nanoTime() - start);
+	}
+
+	/**
+	 * Stop the running search as soon as possible. It returns the deepest depth
+	 * finished so far, and at least depth 1. If no search is running, the next
+	 * search is the one stopped, right after its first depth.
+	 */
+	public void cancel() {
+		stop(searchCount);
+	}
+
+	/**
+	 * Helper method that asks a search to stop. Stopping never goes back to an
+	 * earlier search, so a late cancel can't undo a later stop.
+	 * 
+	 * @param search the number of the search to stop
+	 */
+	private void stop(long search) {
+		stoppedSearch.accumulateAndGet(search, Math::max);
+	}
+
+	/**
+	 * Helper method that checks whether the search of a worker was asked to stop.
+	 * 
+	 * @param worker the worker searching
+	 * @return true if the search of the worker should stop, false otherwise
+	 */
+	private boolean isStopped(Worker worker) {
+		return stoppedSearch.get() >= worker.search;
+	}
+
+	/**
+	 * Helper method that runs one worker's iterative deepening search.
+	 * 
+	 * @param worker   the worker searching
+	 * @param maxDepth the deepest depth to search
+	 * @return The move, score and depth of the deepest depth finished.
+	 */
+	private int[] iterate(Worker worker, int maxDepth) {
+		int[] best = { -1, 0, 0 };
+		int emptyCells = cellCount - worker.filled;
+		maxDepth = Math.min(maxDepth, emptyCells);
+		// half of the helpers search one depth ahead of the main thread
+		for (int depth = 1 + (worker.id % 2); depth <= maxDepth; depth++) {
+			// the main thread always finishes depth 1 so that there is a move
+			worker.abortable = worker.id != 0 || depth > 1;
+			if (worker.abortable && isStopped(worker)) {
+				break;
+			}
+			int score = negamax(worker, depth, -WIN_SCORE - 1, WIN_SCORE + 1, 0);
+			if (worker.aborted) {
+				break;
+			}
+			best[0] = worker.rootMove;
+			best[1] = score;
+			best[2] = depth;
+			if (Math.abs(score) > WIN_SCORE - cellCount) {
+				// a forced result can't change at a greater depth
+				break;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Helper method that searches a position with alpha-beta pruning, scoring it
+	 * for the side to move.
+	 * 
+	 * @param worker the worker searching
+	 * @param depth  the number of moves left to search
+	 * @param alpha  the lowest score the side to move is looking for
+	 * @param beta   the highest score the opponent allows
+	 * @param ply    the number of moves made since the root
+	 * @return The score of the position.
+	 */
+	private int negamax(Worker worker, int depth, int alpha, int beta, int ply) {
+		if ((++worker.nodes % NODES_PER_CHECK) == 0 && worker.abortable
+				&& (isStopped(worker) || System.nanoTime() > deadline)) {
+			worker.aborted = true;
+		}
+		if (worker.aborted) {
+			return 0;
+		}
+		if (worker.filled == cellCount) {
+			return 0;
+		}
+		if (depth == 0) {
+			return evaluate(worker);
+		}
+		int ttMove = -1;
+		long data = table.probe(worker.hash);
+		if (data != TranspositionTable.MISS) {
+			ttMove = TranspositionTable.getMove(data);
+			if (ply > 0 && TranspositionTable.getDepth(data) >= depth) {
+				int ttScore = fromTable(TranspositionTable.getScore(data), ply);
+				int bound = TranspositionTable.getBound(data);
+				if (bound == TranspositionTable.EXACT) {
+					return ttScore;
+				} else if (bound == TranspositionTable.LOWER) {
+					alpha = Math.max(alpha, ttScore);
+				} else {
+					beta = Math.min(beta, ttScore);
+				}
+				if (alpha >= beta) {
+					return ttScore;
+				}
+			}
+		}
+		byte owner = (byte) ((worker.filled % 2 == 0) ? 1 : 2);
+		int originalAlpha = alpha, bestScore = -WIN_SCORE - 1, bestMove = -1;
+		for (int i = -1; i < cellCount; i++) {
+			int cell = (i < 0) ? ttMove : worker.order[i];
+			if (cell < 0 || cell >= cellCount || worker.cells[cell] != 0 || (i >= 0 && cell == ttMove)) {
+				continue;
+			}
+			// make the move
+			worker.cells[cell] = owner;
+			worker.hash ^= zobrist[owner - 1][cell];
+			worker.filled++;
+			int score = isWinningMove(worker.cells, cell, owner) ? WIN_SCORE - ply - 1
+					: -negamax(worker, depth - 1, -beta, -alpha, ply + 1);
+			// undo the move
+			worker.filled--;
+			worker.hash ^= zobrist[owner - 1][cell];
+			worker.cells[cell] = 0;
+			if (worker.aborted) {
+				return 0;
+			}
+			if (score > bestScore) {
+				bestScore = score;
+				bestMove = cell;
+				if (ply == 0) {
+					worker.rootMove = cell;
+				}
+			}
+			alpha = Math.max(alpha, score);
+			if (alpha >= beta) {
+				break;
+			}
+		}
+		int bound = (bestScore <= originalAlpha) ? TranspositionTable.UPPER
+				: (bestScore >= beta) ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+		table.store(worker.hash, depth, toTable(bestScore, ply), bound, bestMove);
+		return bestScore;
+	}
+
+	/**
+	 * Helper method that checks whether a move completed a run of winLength tiles.
+	 * 
+	 * @param cells the owners of the tiles after the move
+	 * @param cell  the tile of the move
+	 * @param owner the owner of the tile
+	 * @return true if the move won the game, false otherwise.
+	 */
+	private boolean isWinningMove(byte[] cells, int cell, byte owner) {
+		for (int w : windowsByCell[cell]) {
+			boolean complete = true;
+			for (int tile : windows[w]) {
+				if (cells[tile] != owner) {
+					complete = false;
+					break;
+				}
+			}
+			if (complete) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Helper method that scores a position that isn't searched any deeper, for the
+	 * side to move. Every run holding symbols of only one player is worth more the
+	 * more symbols it holds.
+	 * 
+	 * @param worker the worker whose position is scored
+	 * @return The score of the position.
+	 */
+	private int evaluate(Worker worker) {
+		byte owner = (byte) ((worker.filled % 2 == 0) ? 1 : 2);
+		int score = 0;
+		for (int[] window : windows) {
+			int mine = 0, theirs = 0;
+			for (int tile : window) {
+				if (worker.cells[tile] == owner) {
+					mine++;
+				} else if (worker.cells[tile] != 0) {
+					theirs++;
+				}
+			}
+			if (theirs == 0) {
+				score += (1 << (2 * mine)) - 1;
+			} else if (mine == 0) {
+				score -= (1 << (2 * theirs)) - 1;
+			}
+		}
+		return Math.max(-WIN_SCORE / 2, Math.min(WIN_SCORE / 2, score));
+	}
+
+	/**
+	 * Helper method that turns a score for storing in the table, so that a forced
+	 * win is measured from the stored position rather than from the root.
+	 * 
+	 * @param score the score of the position
+	 * @param ply   the number of moves made since the root
+	 * @return The score to store.
+	 */
+	private int toTable(int score, int ply) {
+		if (score > WIN_SCORE - cellCount) {
+			return score + ply;
+		} else if (score < -WIN_SCORE + cellCount) {
+			return score - ply;
+		}
+		return score;
+	}
+
+	/**
+	 * Helper method that turns a stored score back into a score from the root.
+	 * 
+	 * @param score the stored score
+	 * @param ply   the number of moves made since the root
+	 * @return The score of the position.
+	 */
+	private int fromTable(int score, int ply) {
+		if (score > WIN_SCORE - cellCount) {
+			return score - ply;
+		} else if (score < -WIN_SCORE + cellCount) {
+			return score + ply;
+		}
+		return score;
+	}
+
+	/**
+	 * Helper method that measures the distance of a tile from the centre of the
+	 * board.
+	 * 
+	 * @param cell the index of the tile
+	 * @return Twice the Chebyshev distance of the tile from the centre.
+	 */
+	private int centreDistance(int cell) {
+		int row = cell / size, col = cell % size;
+		return Math.max(Math.abs(2 * row - (size - 1)), Math.abs(2 * col - (size - 1)));
+	}
+
+	/**
+	 * Helper method that lists the tiles of every run of tiles in a row, column or
+	 * diagonal long enough to win.
+	 * 
+	 * @param size      the number of rows and columns
+	 * @param winLength the number of tiles of a run
+	 * @return The tiles of every run.
+	 */
+	static int[][] buildWindows(int size, int winLength) {
+		int[][] directions = { { 0, 1 }, { 1, 0 }, { 1, 1 }, { 1, -1 } };
+		List<int[]> windows = new ArrayList<>();
+		for (int row = 0; row < size; row++) {
+			for (int col = 0; col < size; col++) {
+				for (int[] direction : directions) {
+					int endRow = row + direction[0] * (winLength - 1);
+					int endCol = col + direction[1] * (winLength - 1);
+					if (endRow < 0 || endRow >= size || endCol < 0 || endCol >= size) {
+						continue;
+					}
+					int[] window = new int[winLength];
+					for (int i = 0; i < winLength; i++) {
+						window[i] = (row + direction[0] * i) * size + col + direction[1] * i;
+					}
+					windows.add(window);
+				}
+			}
+		}
+		return windows.toArray(new int[0][]);
+	}
+
+	/**
+	 * Helper method that lists the runs through each tile.
+	 * 
+	 * @param windows   the tiles of every run
+	 * @param cellCount the number of tiles of the board
+	 * @return The indices in windows of the runs through each tile.
+	 */
+	static int[][] buildWindowsByCell(int[][] windows, int cellCount) {
+		int[][] windowsByCell = new int[cellCount][];
+		for (int cell = 0; cell < cellCount; cell++) {
+			List<Integer> through = new ArrayList<>();
+			for (int w = 0; w < windows.length; w++) {
+				for (int tile : windows[w]) {
+					if (tile == cell) {
+						through.add(w);
+					}
+				}
+			}
+			windowsByCell[cell] = through.stream().mapToInt(Integer::intValue).toArray();
+		}
+		return windowsByCell;
+	}
+
+	/**
+	 * Measure how the search scales from one thread to every core on a fixed suite
+	 * of positions, printing the time, nodes per second, speedup and efficiency of
+	 * each number of threads. First it checks that a cancel made before a search
+	 * starts still stops it after depth 1 with a move, and doesn't stop the next
+	 * search.
+	 * 
+	 * @param args the table size in megabytes, 64 by default
+	 */
+	public static void main(String args[]) {
+		int megabytes = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+		ForkJoinPool checkPool = new ForkJoinPool(2);
+		char[] empty = new char[16];
+		Arrays.fill(empty, Board.EMPTY);
+		ParallelSearch check = new ParallelSearch(4, 4, new TranspositionTable(1), checkPool);
+		check.cancel();
+		Result cancelled = check.search(empty, 16, 0);
+		Result next = check.search(empty, 4, 0);
+		checkPool.shutdown();
+		System.out.printf("Cancelled before the search: depth %d, move %d; next search: depth %d, move %d%n",
+				cancelled.getDepth(), cancelled.getMove(), next.getDepth(), next.getMove());
+		if (cancelled.getDepth() != 1 || cancelled.getMove() < 0 || next.getDepth() != 4) {
+			System.out.println("Cancel check failed");
+			System.exit(1);
+		}
+		// each position is {size, win length, depth, moves as tile indices...}
+		int[][] suite = { { 4, 4, 16 }, { 5, 4, 8, 12 }, { 6, 4, 7, 14, 21 }, { 7, 5, 6, 24, 25, 17 } };
+		int cores = Runtime.getRuntime().availableProcessors();
+		long baseNanos = 0;
+		System.out.printf("%7s %10s %14s %12s %8s %10s%n", "Threads", "Time (ms)", "Nodes", "Nodes/s", "Speedup",
+				"Efficiency");
+		// double the threads until every core is used
+		List<Integer> threadCounts = new ArrayList<>();
+		for (int threads = 1; threads < cores; threads *= 2) {
+			threadCounts.add(threads);
+		}
+		threadCounts.add(cores);
+		for (int threads : threadCounts) {
+			ForkJoinPool pool = new ForkJoinPool(threads);
+			TranspositionTable table = new TranspositionTable(megabytes);
+			long nanos = 0, nodes = 0;
+			for (int[] position : suite) {
+				int size = position[0];
+				char[] board = new char[size * size];
+				Arrays.fill(board, Board.EMPTY);
+				for (int i = 3; i < position.length; i++) {
+					board[position[i]] = ((i - 3) % 2 == 0) ? Board.X_SYMBOL : Board.O_SYMBOL;
+				}
+				// every position starts from an empty table
+				table.clear();
+				Result result = new ParallelSearch(size, position[1], table, pool).search(board, position[2], 0);
+				nanos += result.getNanos();
+				nodes += result.getNodes();
+			}
+			pool.shutdown();
+			if (threads == 1) {
+				baseNanos = nanos;
+			}
+			double speedup = (double) baseNanos / nanos;
+			System.out.printf("%7d %10d %,14d %,12.0f %8.2f %9.0f%%%n", threads, nanos / 1000000, nodes,
+					nodes * 1e9 / nanos, speedup, 100 * speedup / threads);
+		}
+	}
+}
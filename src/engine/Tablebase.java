@@ -0,0 +1,247 @@
+package engine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import model.Board;
+
+/**
+ * This class gives constant time access to a 4x4 four-in-a-row tablebase
+ * written by the TablebaseGenerator. Every position of the board has a dense
+ * index, the base-3 number whose digit for tile row * SIZE + col is 0 for an
+ * empty tile, 1 for X and 2 for O. X always moves first, so the side to move
+ * follows from the number of filled tiles. The file is memory-mapped, so a
+ * lookup reads the operating system's page cache without copying anything
+ * onto the heap.
+ * 
+ * The file starts with a header of HEADER_SIZE bytes, followed by the value of
+ * every position at two bits each, followed by the distance to the result of
+ * every position at four bits each.
+ */
+public class Tablebase {
+	/**
+	 * Number of rows and columns of the board.
+	 */
+	public final static int SIZE = 4;
+	/**
+	 * Number of tiles on the board.
+	 */
+	public final static int CELLS = SIZE * SIZE;
+	/**
+	 * Number of positions with a dense index, 3 to the power of CELLS.
+	 */
+	public final static long POSITIONS = 43046721L;
+	/**
+	 * Value of a position that can't be reached in a game.
+	 */
+	public final static int UNREACHABLE = 0;
+	/**
+	 * Value of a position lost by the side to move with perfect play.
+	 */
+	public final static int LOSS = 1;
+	/**
+	 * Value of a position drawn with perfect play.
+	 */
+	public final static int DRAW = 2;
+	/**
+	 * Value of a position won by the side to move with perfect play.
+	 */
+	public final static int WIN = 3;
+
+	/**
+	 * Number of bytes before the values in the file.
+	 */
+	final static int HEADER_SIZE = 16;
+	/**
+	 * Magic number at the start of the file, "TTT4" in ASCII.
+	 */
+	final static int MAGIC = 0x54545434;
+	/**
+	 * Number of bytes holding the values, rounded up to whole ints. It fits in an
+	 * int, so offsets into the values and distances can be computed as ints.
+	 */
+	final static int VALUE_BYTES = (int) (((POSITIONS * 2 + 31) / 32) * 4);
+	/**
+	 * Number of bytes holding the distances, rounded up to whole ints.
+	 */
+	final static long DISTANCE_BYTES = ((POSITIONS * 4 + 31) / 32) * 4;
+	/**
+	 * Size in bytes of a complete tablebase file.
+	 */
+	final static long FILE_SIZE = HEADER_SIZE + VALUE_BYTES + DISTANCE_BYTES;
+	/**
+	 * The ten lines of four tiles that win the game, as masks of tiles.
+	 */
+	final static int[] LINE_MASKS = { 0x000F, 0x00F0, 0x0F00, 0xF000, 0x1111, 0x2222, 0x4444, 0x8888, 0x8421,
+			0x1248 };
+	/**
+	 * Powers of three, the weight of each tile's digit in the dense index.
+	 */
+	final static int[] POWERS = new int[CELLS + 1];
+	static {
+		POWERS[0] = 1;
+		for (int cell = 1; cell <= CELLS; cell++) {
+			POWERS[cell] = POWERS[cell - 1] * 3;
+		}
+	}
+
+	/**
+	 * Mapped contents of the tablebase file.
+	 */
+	private final MappedByteBuffer mapped;
+
+	/**
+	 * Construct a tablebase reading the specified mapped file.
+	 * 
+	 * @param mapped the mapped contents of a tablebase file
+	 */
+	private Tablebase(MappedByteBuffer mapped) {
+		this.mapped = mapped;
+	}
+
+	/**
+	 * Map a tablebase file written by the TablebaseGenerator.
+	 * 
+	 * @param file the tablebase file
+	 * @return A tablebase reading the file.
+	 * @throws IOException if the file can't be read or isn't a tablebase
+	 */
+	public static Tablebase open(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() != FILE_SIZE) {
+				throw new IOException("Not a 4x4 tablebase: " + file);
+			}
+			// the mapping stays valid after the channel is closed
+			MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, FILE_SIZE);
+			mapped.order(ByteOrder.nativeOrder());
+			if (mapped.getInt(0) != MAGIC) {
+				throw new IOException("Not a 4x4 tablebase: " + file);
+			}
+			return new Tablebase(mapped);
+		}
+	}
+
+	/**
+	 * Get the dense index of a position.
+	 * 
+	 * @param cells the symbols of the board's tiles, indexed by row * SIZE + col
+	 * @return The dense index of the position.
+	 */
+	public static int indexOf(char[] cells) {
+		int index = 0;
+		for (int cell = 0; cell < CELLS; cell++) {
+			if (cells[cell] == Board.X_SYMBOL) {
+				index += POWERS[cell];
+			} else if (cells[cell] == Board.O_SYMBOL) {
+				index += 2 * POWERS[cell];
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Get the value of a position for the side to move.
+	 * 
+	 * @param index the dense index of the position
+	 * @return WIN, DRAW, LOSS or UNREACHABLE.
+	 */
+	public int getValue(int index) {
+		return readValue(mapped, index);
+	}
+
+	/**
+	 * Get the number of moves left in the game with perfect play, where the
+	 * winner wins as fast as possible and the loser loses as slowly as possible.
+	 * 
+	 * @param index the dense index of the position
+	 * @return The number of moves until the game ends.
+	 */
+	public int getDistance(int index) {
+		if (getValue(index) == DRAW) {
+			return CELLS - getFilledTilesNumber(index);
+		}
+		return readDistance(mapped, index);
+	}
+
+	/**
+	 * Get the number of filled tiles of a position.
+	 * 
+	 * @param index the dense index of the position
+	 * @return The number of tiles holding X or O.
+	 */
+	public static int getFilledTilesNumber(int index) {
+		int filled = 0;
+		for (int cell = 0; cell < CELLS; cell++) {
+			if (index % 3 != 0) {
+				filled++;
+			}
+			index /= 3;
+		}
+		return filled;
+	}
+
+	/**
+	 * Choose the best move for the side to move, with one lookup per empty tile.
+	 * 
+	 * @param cells the symbols of the board's tiles, indexed by row * SIZE + col
+	 * @return The index of the best empty tile, or -1 if the game is over.
+	 */
+	public int bestMove(char[] cells) {
+		int index = indexOf(cells);
+		// X moves when an even number of tiles are filled
+		int digit = (getFilledTilesNumber(index) % 2 == 0) ? 1 : 2;
+		int bestCell = -1, bestRank = Integer.MIN_VALUE;
+		for (int cell = 0; cell < CELLS; cell++) {
+			if (cells[cell] != Board.EMPTY) {
+				continue;
+			}
+			int child = index + (digit * POWERS[cell]);
+			// the child's value is for the opponent, so their loss is our win
+			int value = getValue(child), distance = getDistance(child);
+			int rank;
+			if (value == LOSS) {
+				rank = 200 - distance;
+			} else if (value == DRAW) {
+				rank = 100;
+			} else {
+				rank = distance;
+			}
+			if (rank > bestRank) {
+				bestRank = rank;
+				bestCell = cell;
+			}
+		}
+		return (getValue(index) == UNREACHABLE || getDistance(index) == 0) ? -1 : bestCell;
+	}
+
+	/**
+	 * Read the two bit value of a position from a buffer laid out as a tablebase
+	 * file.
+	 * 
+	 * @param buffer the tablebase contents
+	 * @param index  the dense index of the position
+	 * @return The value of the position.
+	 */
+	static int readValue(ByteBuffer buffer, long index) {
+		int word = buffer.getInt((int) (HEADER_SIZE + (index >>> 4) * 4));
+		return (word >>> ((index & 15) * 2)) & 3;
+	}
+
+	/**
+	 * Read the four bit distance of a position from a buffer laid out as a
+	 * tablebase file.
+	 * 
+	 * @param buffer the tablebase contents
+	 * @param index  the dense index of the position
+	 * @return The distance of the position.
+	 */
+	static int readDistance(ByteBuffer buffer, long index) {
+		int word = buffer.getInt((int) (HEADER_SIZE + VALUE_BYTES + (index >>> 3) * 4));
+		return (word >>> ((index & 7) * 4)) & 15;
+	}
+}
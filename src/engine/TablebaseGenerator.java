@@ -0,0 +1,367 @@
+package engine;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class generates the 4x4 four-in-a-row tablebase read by the Tablebase
+ * class with retrograde analysis. Positions are grouped by the number of filled
+ * tiles, and the groups are solved from the full board back to the empty one,
+ * so every move of a position leads to a position that is already solved. The
+ * positions of a group don't depend on each other, so each group is solved in
+ * parallel on a ForkJoinPool, writing straight into the memory-mapped file.
+ * 
+ * A position is only solved if it can come up in a game, which means X has as
+ * many symbols as O or one more, the side to move doesn't have four in a row
+ * and the game wasn't over before the last move.
+ */
+public class TablebaseGenerator {
+	/**
+	 * Largest number of positions solved by a single task before it is split in
+	 * two.
+	 */
+	private final static int POSITIONS_PER_TASK = 4096;
+	/**
+	 * Version of the file format written by the generator.
+	 */
+	private final static int VERSION = 1;
+	/**
+	 * Number of symbols in a row needed to win.
+	 */
+	private final static int WIN_LENGTH = 4;
+	/**
+	 * View of the mapped file as ints, used to update the two bit values and four
+	 * bit distances of neighbouring positions from different threads.
+	 */
+	private final static VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class,
+			ByteOrder.nativeOrder());
+
+	/**
+	 * Task solving a contiguous range of the positions of one group.
+	 */
+	private class SolveTask extends RecursiveAction {
+		/**
+		 * Version number for serialization, required by RecursiveAction.
+		 */
+		private static final long serialVersionUID = 1L;
+		/**
+		 * Indices of the positions of the group.
+		 */
+		private final int[] positions;
+		/**
+		 * Number of filled tiles of every position of the group.
+		 */
+		private final int filled;
+		/**
+		 * Index in positions of the first position solved by the task.
+		 */
+		private final int first;
+		/**
+		 * Index in positions after the last position solved by the task.
+		 */
+		private final int end;
+
+		/**
+		 * Construct a task solving the positions in the specified range.
+		 * 
+		 * @param positions the indices of the positions of the group
+		 * @param filled    the number of filled tiles of the group
+		 * @param first     the index in positions of the first position to solve
+		 * @param end       the index in positions after the last position to solve
+		 */
+		private SolveTask(int[] positions, int filled, int first, int end) {
+			this.positions = positions;
+			this.filled = filled;
+			this.first = first;
+			this.end = end;
+		}
+
+		/**
+		 * Solve the positions of the task, splitting it first if it is too big.
+		 */
+		@Override
+		protected void compute() {
+			if (end - first > POSITIONS_PER_TASK) {
+				int middle = (first + end) >>> 1;
+				invokeAll(new SolveTask(positions, filled, first, middle),
+						new SolveTask(positions, filled, middle, end));
+				return;
+			}
+			for (int i = first; i < end; i++) {
+				solve(positions[i], filled);
+			}
+		}
+	}
+
+	/**
+	 * Mapped contents of the file being written.
+	 */
+	private final MappedByteBuffer mapped;
+	/**
+	 * Pool running the tasks of each group.
+	 */
+	private final ForkJoinPool pool;
+
+	/**
+	 * Construct a generator writing a tablebase to the specified file.
+	 * 
+	 * @param file the file to write, replaced if it exists
+	 * @param pool the pool to solve positions on
+	 * @throws IOException if the file can't be created
+	 */
+	public TablebaseGenerator(Path file, ForkJoinPool pool) throws IOException {
+		this.pool = pool;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			// mapping past the end grows the file, filled with zeros, which is the
+			// UNREACHABLE value of every position
+			mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, Tablebase.FILE_SIZE);
+		}
+		mapped.order(ByteOrder.nativeOrder());
+	}
+
+	/**
+	 * Solve every position and write the tablebase, printing the progress of each
+	 * group of positions.
+	 */
+	public void generate() {
+		long start = System.nanoTime();
+		int[][] groups = groupPositions();
+		System.out.printf("Grouped positions in %d ms%n", (System.nanoTime() - start) / 1000000);
+		long solved = 0;
+		for (int filled = Tablebase.CELLS; filled >= 0; filled--) {
+			long groupStart = System.nanoTime();
+			int[] positions = groups[filled];
+			pool.invoke(new SolveTask(positions, filled, 0, positions.length));
+			// each group is only needed to solve itself
+			groups[filled] = null;
+			solved += positions.length;
+			System.out.printf("Filled tiles %2d: %,10d positions in %5d ms (%,d solved)%n", filled,
+					positions.length, (System.nanoTime() - groupStart) / 1000000, solved);
+		}
+		// the header is written last so a half written file isn't mistaken for a
+		// complete one
+		mapped.putInt(4, VERSION);
+		mapped.putInt(8, Tablebase.SIZE);
+		mapped.putInt(12, WIN_LENGTH);
+		mapped.putInt(0, Tablebase.MAGIC);
+		mapped.force();
+		long elapsed = System.nanoTime() - start;
+		System.out.printf("Solved %,d positions in %d ms (%,.0f positions/s)%n", solved, elapsed / 1000000,
+				solved * 1e9 / elapsed);
+	}
+
+	/**
+	 * Helper method that lists the indices of the positions with the right number
+	 * of symbols for each number of filled tiles, by counting up through every
+	 * index in base 3.
+	 * 
+	 * @return The indices of the positions, grouped by number of filled tiles.
+	 */
+	private int[][] groupPositions() {
+		int[][] groups = new int[Tablebase.CELLS + 1][];
+		int[] sizes = new int[Tablebase.CELLS + 1];
+		for (int filled = 0; filled <= Tablebase.CELLS; filled++) {
+			// X has (filled + 1) / 2 of the symbols, so choose their tiles and then
+			// choose the tiles of O among the rest
+			groups[filled] = new int[(int) (choose(Tablebase.CELLS, filled) * choose(filled, filled / 2))];
+		}
+		int[] digits = new int[Tablebase.CELLS];
+		int xCount = 0, oCount = 0;
+		for (int index = 0; index < Tablebase.POSITIONS; index++) {
+			if (xCount == oCount || xCount == oCount + 1) {
+				int filled = xCount + oCount;
+				groups[filled][sizes[filled]++] = index;
+			}
+			// add one to the base 3 digits, carrying into the next tile
+			for (int cell = 0; cell < Tablebase.CELLS; cell++) {
+				if (digits[cell] == 1) {
+					xCount--;
+					oCount++;
+					digits[cell] = 2;
+					break;
+				} else if (digits[cell] == 2) {
+					oCount--;
+					digits[cell] = 0;
+				} else {
+					xCount++;
+					digits[cell] = 1;
+					break;
+				}
+			}
+		}
+		return groups;
+	}
+
+	/**
+	 * Helper method that solves one position, whose moves all lead to solved
+	 * positions.
+	 * 
+	 * @param index  the dense index of the position
+	 * @param filled the number of filled tiles of the position
+	 */
+	private void solve(int index, int filled) {
+		int xTiles = 0, oTiles = 0;
+		for (int cell = 0, rest = index; cell < Tablebase.CELLS; cell++, rest /= 3) {
+			int digit = rest % 3;
+			if (digit == 1) {
+				xTiles |= 1 << cell;
+			} else if (digit == 2) {
+				oTiles |= 1 << cell;
+			}
+		}
+		boolean xToMove = filled % 2 == 0;
+		int moverTiles = xToMove ? xTiles : oTiles, lastTiles = xToMove ? oTiles : xTiles;
+		if (hasLine(moverTiles)) {
+			// the game would have ended before the side to move got a line
+			return;
+		}
+		if (hasLine(lastTiles)) {
+			if (!canBeLastMove(lastTiles)) {
+				return;
+			}
+			store(index, Tablebase.LOSS, 0);
+			return;
+		}
+		if (filled == Tablebase.CELLS) {
+			store(index, Tablebase.DRAW, 0);
+			return;
+		}
+		int digit = xToMove ? 1 : 2;
+		int empty = ~(xTiles | oTiles) & 0xFFFF;
+		// fastest win, and slowest loss if there is no win or draw
+		int winDistance = Integer.MAX_VALUE, lossDistance = -1;
+		boolean draw = false;
+		for (int tiles = empty; tiles != 0; tiles &= tiles - 1) {
+			int child = index + digit * Tablebase.POWERS[Integer.numberOfTrailingZeros(tiles)];
+			int value = Tablebase.readValue(mapped, child);
+			if (value == Tablebase.LOSS) {
+				winDistance = Math.min(winDistance, Tablebase.readDistance(mapped, child) + 1);
+			} else if (value == Tablebase.DRAW) {
+				draw = true;
+			} else {
+				lossDistance = Math.max(lossDistance, Tablebase.readDistance(mapped, child) + 1);
+			}
+		}
+		if (winDistance != Integer.MAX_VALUE) {
+			store(index, Tablebase.WIN, winDistance);
+		} else if (draw) {
+			store(index, Tablebase.DRAW, 0);
+		} else {
+			store(index, Tablebase.LOSS, lossDistance);
+		}
+	}
+
+	/**
+	 * Helper method that checks whether a set of tiles contains four in a row.
+	 * 
+	 * @param tiles the mask of the tiles
+	 * @return true if the tiles contain a whole line, false otherwise.
+	 */
+	private static boolean hasLine(int tiles) {
+		for (int line : Tablebase.LINE_MASKS) {
+			if ((tiles & line) == line) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Helper method that checks whether the lines of the last player to move could
+	 * all have been completed by their last symbol. The game ends as soon as a line
+	 * is completed, so the last symbol has to lie on every one of them.
+	 * 
+	 * @param lastTiles the mask of the tiles of the last player to move
+	 * @return true if some tile lies on every completed line, false otherwise.
+	 */
+	private static boolean canBeLastMove(int lastTiles) {
+		int common = lastTiles;
+		for (int line : Tablebase.LINE_MASKS) {
+			if ((lastTiles & line) == line) {
+				common &= line;
+			}
+		}
+		return common != 0;
+	}
+
+	/**
+	 * Helper method that stores the value and distance of a position. Positions
+	 * sharing an int are solved by different threads, so the ints are updated with
+	 * compare-and-set.
+	 * 
+	 * @param index    the dense index of the position
+	 * @param value    the value of the position
+	 * @param distance the distance of the position, ignored for draws
+	 */
+	private void store(int index, int value, int distance) {
+		int valueOffset = Tablebase.HEADER_SIZE + (index >>> 4) * 4;
+		int valueBits = value << ((index & 15) * 2);
+		int word;
+		do {
+			word = (int) INTS.getVolatile(mapped, valueOffset);
+		} while (!INTS.compareAndSet(mapped, valueOffset, word, word | valueBits));
+		if (value == Tablebase.DRAW || distance == 0) {
+			return;
+		}
+		int distanceOffset = Tablebase.HEADER_SIZE + Tablebase.VALUE_BYTES + (index >>> 3) * 4;
+		int distanceBits = distance << ((index & 7) * 4);
+		do {
+			word = (int) INTS.getVolatile(mapped, distanceOffset);
+		} while (!INTS.compareAndSet(mapped, distanceOffset, word, word | distanceBits));
+	}
+
+	/**
+	 * Helper method that computes a binomial coefficient.
+	 * 
+	 * @param n the number of items
+	 * @param k the number of items chosen
+	 * @return The number of ways to choose k of n items.
+	 */
+	private static long choose(int n, int k) {
+		long result = 1;
+		for (int i = 1; i <= k; i++) {
+			result = result * (n - k + i) / i;
+		}
+		return result;
+	}
+
+	/**
+	 * Generate the tablebase and print the progress, the value of the empty board
+	 * and the peak memory used.
+	 * 
+	 * @param args the file to write, tablebase4x4.bin by default
+	 * @throws IOException if the file can't be written
+	 */
+	public static void main(String args[]) throws IOException {
+		Path file = Paths.get(args.length > 0 ? args[0] : "tablebase4x4.bin");
+		System.out.printf("Generating %s (%,d bytes) with %d threads%n", file, Tablebase.FILE_SIZE,
+				ForkJoinPool.commonPool().getParallelism());
+		new TablebaseGenerator(file, ForkJoinPool.commonPool()).generate();
+
+		Tablebase tablebase = Tablebase.open(file);
+		String[] values = { "unreachable", "loss", "draw", "win" };
+		System.out.printf("Empty board: %s for X in %d moves%n", values[tablebase.getValue(0)],
+				tablebase.getDistance(0));
+		long peakHeap = 0;
+		for (MemoryPoolMXBean memoryPool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (memoryPool.getType() == MemoryType.HEAP) {
+				peakHeap += memoryPool.getPeakUsage().getUsed();
+			}
+		}
+		// the file is mapped rather than held on the heap
+		System.out.printf("Peak heap: %,d bytes, mapped file: %,d bytes%n", peakHeap, Tablebase.FILE_SIZE);
+	}
+}
@@ -0,0 +1,602 @@
+package engine;
+
+import java.util.Arrays;
+
+import model.Board;
+
+/**
+ * This class finds forced wins on N by N boards, where a player needs K symbols
+ * in a row to win, by only looking at threats. It scales up the ideas of the
+ * ComputerPlayer's heuristic: a four is K - 1 symbols in a run of K tiles with
+ * the last tile empty, which the opponent has to block at once, and a three is
+ * a move after which the attacker can make two fours with a single move, which
+ * the opponent has to stop before it happens. The attacker only plays fours
+ * and threes, and the defender only plays the moves that stop them, so the
+ * search skips the quiet moves that make up nearly all of a full search.
+ * 
+ * Each run of K tiles keeps a count of the symbols of each player in it, which
+ * is updated for the runs through a tile whenever a symbol is placed or
+ * removed. From those counts every tile keeps how many runs a move there would
+ * turn into a four or a three for each player, and the tiles where that is more
+ * than 0 are kept in sets, so a move only touches the runs through its tile and
+ * the threats of a position are read from the sets instead of trying every
+ * tile. The buffers of each level of the search are allocated once. A win is
+ * only reported if it can't be stopped, but wins that need the attacker to
+ * answer fours of the defender are not found. An instance is not thread safe.
+ */
+public class ThreatSpaceSearch {
+	/**
+	 * Largest number of nodes searched before the search gives up.
+	 */
+	private final static int NODE_LIMIT = 1000000;
+
+	/**
+	 * This class represents a set of tiles that can be added to, removed from and
+	 * listed in constant time.
+	 */
+	private static class TileSet {
+		/**
+		 * Tiles of the set, in no particular order.
+		 */
+		private final int[] tiles;
+		/**
+		 * Index in tiles of every tile, or -1 if it isn't in the set.
+		 */
+		private final int[] positions;
+		/**
+		 * Number of tiles in the set.
+		 */
+		private int size;
+
+		/**
+		 * Construct an empty set of the tiles of a board.
+		 * 
+		 * @param cellCount the number of tiles of the board
+		 */
+		private TileSet(int cellCount) {
+			tiles = new int[cellCount];
+			positions = new int[cellCount];
+			Arrays.fill(positions, -1);
+		}
+
+		/**
+		 * Add a tile that isn't in the set.
+		 * 
+		 * @param tile the tile to add
+		 */
+		private void add(int tile) {
+			positions[tile] = size;
+			tiles[size++] = tile;
+		}
+
+		/**
+		 * Remove a tile of the set, moving the last tile into its place.
+		 * 
+		 * @param tile the tile to remove
+		 */
+		private void remove(int tile) {
+			int position = positions[tile];
+			int last = tiles[--size];
+			tiles[position] = last;
+			positions[last] = position;
+			positions[tile] = -1;
+		}
+
+		/**
+		 * Remove every tile of the set.
+		 */
+		private void clear() {
+			for (int i = 0; i < size; i++) {
+				positions[tiles[i]] = -1;
+			}
+			size = 0;
+		}
+	}
+
+	/**
+	 * Number of tiles of the board.
+	 */
+	private final int cellCount;
+	/**
+	 * Number of symbols in a row needed to win.
+	 */
+	private final int winLength;
+	/**
+	 * Tiles of every run of winLength tiles in a row, column or diagonal.
+	 */
+	private final int[][] windows;
+	/**
+	 * Indices in windows of the runs through each tile.
+	 */
+	private final int[][] windowsByCell;
+	/**
+	 * Owners of the tiles: 0 for empty, 1 for X and 2 for O.
+	 */
+	private final byte[] cells;
+	/**
+	 * Number of symbols of X, then of O, in every run.
+	 */
+	private final int[][] counts;
+	/**
+	 * Number of fours of X, then of O, on the board.
+	 */
+	private final int[] fours = new int[2];
+	/**
+	 * Number of runs through every tile that a move of X, then of O, there would
+	 * turn into a four.
+	 */
+	private final int[][] fourMakers;
+	/**
+	 * Number of runs through every tile that a move of X, then of O, there would
+	 * turn into a three.
+	 */
+	private final int[][] threeMakers;
+	/**
+	 * Tiles where fourMakers of X, then of O, is more than 0. Filled tiles can be
+	 * in the sets and are skipped when they are read.
+	 */
+	private final TileSet[] fourTiles;
+	/**
+	 * Tiles where threeMakers of X, then of O, is more than 0. Filled tiles can
+	 * be in the sets and are skipped when they are read.
+	 */
+	private final TileSet[] threeTiles;
+	/**
+	 * Threats of the attacker at every number of threats left, fours first.
+	 */
+	private int[][] threatBuffers = new int[0][];
+	/**
+	 * Tiles completing a three at every number of threats left.
+	 */
+	private int[][] completionBuffers = new int[0][];
+	/**
+	 * Answers to a three at every number of threats left.
+	 */
+	private int[][] replyBuffers = new int[0][];
+	/**
+	 * Stamp of the last list of answers each tile was added to, so a tile is only
+	 * added once to a list.
+	 */
+	private final int[] replyMarks;
+	/**
+	 * Stamp of the latest list of answers.
+	 */
+	private int replyStamp;
+	/**
+	 * First two tiles completing a four, as two fours are enough to win.
+	 */
+	private final int[] fourCompletions = new int[2];
+	/**
+	 * Tile of the first move of the win found.
+	 */
+	private int rootMove;
+	/**
+	 * Number of nodes searched by the last search.
+	 */
+	private long nodes;
+
+	/**
+	 * Construct a threat search of N by N boards.
+	 * 
+	 * @param size      the number of rows and columns of the board
+	 * @param winLength the number of symbols in a row needed to win, at least 3
+	 * @throws IllegalArgumentException if the win length doesn't fit the board
+	 */
+	public ThreatSpaceSearch(int size, int winLength) {
+		if (winLength < 3 || winLength > size) {
+			throw new IllegalArgumentException("Can't search " + size + "x" + size + " with " + winLength + " in a row");
+		}
+		this.cellCount = size * size;
+		this.winLength = winLength;
+		windows = ParallelSearch.buildWindows(size, winLength);
+		windowsByCell = ParallelSearch.buildWindowsByCell(windows, cellCount);
+		cells = new byte[cellCount];
+		counts = new int[2][windows.length];
+		fourMakers = new int[2][cellCount];
+		threeMakers = new int[2][cellCount];
+		fourTiles = new TileSet[] { new TileSet(cellCount), new TileSet(cellCount) };
+		threeTiles = new TileSet[] { new TileSet(cellCount), new TileSet(cellCount) };
+		replyMarks = new int[cellCount];
+	}
+
+	/**
+	 * Look for a forced win of the side to move, trying shorter wins first.
+	 * 
+	 * @param board      the symbols of the tiles, indexed by row * size + col,
+	 *                   where X moves first
+	 * @param maxThreats the largest number of threats the attacker may make
+	 * @return The tile of the first move of a forced win, or -1 if none was found.
+	 */
+	public int findWinningMove(char[] board, int maxThreats) {
+		Arrays.fill(cells, (byte) 0);
+		Arrays.fill(fours, 0);
+		Arrays.fill(replyMarks, 0);
+		replyStamp = 0;
+		for (int owner = 0; owner < 2; owner++) {
+			Arrays.fill(counts[owner], 0);
+			Arrays.fill(fourMakers[owner], 0);
+			Arrays.fill(threeMakers[owner], 0);
+			fourTiles[owner].clear();
+			threeTiles[owner].clear();
+		}
+		// empty runs are already threes when three in a row wins
+		for (int w = 0; w < windows.length; w++) {
+			updateRun(w, 1);
+		}
+		if (threatBuffers.length <= maxThreats) {
+			threatBuffers = new int[maxThreats + 1][cellCount];
+			completionBuffers = new int[maxThreats + 1][cellCount];
+			replyBuffers = new int[maxThreats + 1][cellCount];
+		}
+		nodes = 0;
+		int filled = 0;
+		for (int cell = 0; cell < cellCount; cell++) {
+			if (board[cell] != Board.EMPTY) {
+				place(cell, board[cell] == Board.X_SYMBOL ? 1 : 2);
+				filled++;
+			}
+		}
+		int attacker = (filled % 2 == 0) ? 1 : 2;
+		if (fours[attacker - 1] > 0) {
+			// a four only needs filling in
+			for (int[] window : windows) {
+				int cell = getCompletion(window, attacker);
+				if (cell >= 0) {
+					return cell;
+				}
+			}
+		}
+		for (int depth = 1; depth <= maxThreats && nodes < NODE_LIMIT; depth++) {
+			if (attack(attacker, depth, true)) {
+				return rootMove;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Get the number of nodes searched by the last search.
+	 * 
+	 * @return The number of nodes.
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * Helper method that checks whether the attacker, who is to move, can force a
+	 * win with threats.
+	 * 
+	 * @param attacker the owner number of the attacker
+	 * @param depth    the number of threats the attacker may still make
+	 * @param root     whether this is the position searched from
+	 * @return true if the attacker has a forced win, false otherwise.
+	 */
+	private boolean attack(int attacker, int depth, boolean root) {
+		nodes++;
+		int defender = 3 - attacker;
+		if (fours[attacker - 1] > 0) {
+			return true;
+		}
+		if (fours[defender - 1] > 0 || depth == 0 || nodes >= NODE_LIMIT) {
+			// a four of the defender has to be blocked, which isn't a threat
+			return false;
+		}
+		// copy the threats, as the sets change while they are tried, with fours
+		// first since they leave the defender a single reply
+		int[] threats = threatBuffers[depth];
+		int fourCount = 0;
+		TileSet attackerFours = fourTiles[attacker - 1];
+		for (int i = 0; i < attackerFours.size; i++) {
+			int cell = attackerFours.tiles[i];
+			if (cells[cell] == 0) {
+				threats[fourCount++] = cell;
+			}
+		}
+		int threatCount = fourCount;
+		TileSet attackerThrees = threeTiles[attacker - 1];
+		for (int i = 0; i < attackerThrees.size; i++) {
+			int cell = attackerThrees.tiles[i];
+			if (cells[cell] == 0 && fourMakers[attacker - 1][cell] == 0) {
+				threats[threatCount++] = cell;
+			}
+		}
+		for (int i = 0; i < threatCount; i++) {
+			int cell = threats[i];
+			place(cell, attacker);
+			boolean won = (i < fourCount) ? defendFour(cell, attacker, depth) : defendThree(cell, attacker, depth);
+			remove(cell, attacker);
+			if (won) {
+				if (root) {
+					rootMove = cell;
+				}
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Helper method that checks whether the attacker still wins after every
+	 * answer to a four.
+	 * 
+	 * @param cell     the tile of the four
+	 * @param attacker the owner number of the attacker
+	 * @param depth    the number of threats the attacker may still make
+	 * @return true if the attacker wins however the four is answered, false
+	 *         otherwise.
+	 */
+	private boolean defendFour(int cell, int attacker, int depth) {
+		if (getCompletions(cell, attacker, winLength - 1, fourCompletions, 2) > 1) {
+			// two fours can't both be blocked
+			return true;
+		}
+		int block = fourCompletions[0];
+		place(block, 3 - attacker);
+		boolean won = attack(attacker, depth - 1, false);
+		remove(block, 3 - attacker);
+		return won;
+	}
+
+	/**
+	 * Helper method that checks whether the attacker still wins after every
+	 * answer to a three. A move that doesn't touch the runs of the double four
+	 * threatened, and doesn't make a four of the defender's own, lets the attacker
+	 * make the double four and win, so only the other moves are tried.
+	 * 
+	 * @param cell     the tile of the three
+	 * @param attacker the owner number of the attacker
+	 * @param depth    the number of threats the attacker may still make
+	 * @return true if the attacker wins however the three is answered, false
+	 *         otherwise.
+	 */
+	private boolean defendThree(int cell, int attacker, int depth) {
+		int defender = 3 - attacker;
+		int[] nexts = completionBuffers[depth];
+		int nextCount = getCompletions(cell, attacker, winLength - 2, nexts, cellCount);
+		int[] replies = replyBuffers[depth];
+		int replyCount = 0;
+		int stamp = ++replyStamp;
+		for (int i = 0; i < nextCount; i++) {
+			int next = nexts[i];
+			if (!makesDoubleFour(next, attacker)) {
+				continue;
+			}
+			replyCount = addReply(replies, replyCount, next, stamp);
+			for (int w : windowsByCell[next]) {
+				if (counts[attacker - 1][w] == winLength - 2 && counts[defender - 1][w] == 0) {
+					for (int tile : windows[w]) {
+						replyCount = addReply(replies, replyCount, tile, stamp);
+					}
+				}
+			}
+		}
+		if (replyCount == 0) {
+			return false;
+		}
+		// a four of the defender has to be answered before the double four
+		TileSet defenderFours = fourTiles[defender - 1];
+		for (int i = 0; i < defenderFours.size; i++) {
+			replyCount = addReply(replies, replyCount, defenderFours.tiles[i], stamp);
+		}
+		for (int i = 0; i < replyCount; i++) {
+			int reply = replies[i];
+			place(reply, defender);
+			boolean won = attack(attacker, depth - 1, false);
+			remove(reply, defender);
+			if (!won) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Helper method that adds an empty tile to a list of answers to a three,
+	 * unless it is already in the list.
+	 * 
+	 * @param replies the list of answers
+	 * @param count   the number of answers in the list
+	 * @param tile    the tile to add
+	 * @param stamp   the stamp of the list
+	 * @return The number of answers in the list afterwards.
+	 */
+	private int addReply(int[] replies, int count, int tile, int stamp) {
+		if (cells[tile] != 0 || replyMarks[tile] == stamp) {
+			return count;
+		}
+		replyMarks[tile] = stamp;
+		replies[count] = tile;
+		return count + 1;
+	}
+
+	/**
+	 * Helper method that checks whether a move would leave the attacker with fours
+	 * in two different tiles. The move isn't made, since the runs it turns into
+	 * fours are the runs through its tile that are one symbol short of a four.
+	 * 
+	 * @param cell     the empty tile of the move
+	 * @param attacker the owner number of the attacker
+	 * @return true if the move makes two fours, false otherwise.
+	 */
+	private boolean makesDoubleFour(int cell, int attacker) {
+		return getCompletions(cell, attacker, winLength - 2, fourCompletions, 2) > 1;
+	}
+
+	/**
+	 * Helper method that finds the empty tiles of the runs through a tile that are
+	 * free of the opponent and hold the specified number of symbols, stopping once
+	 * enough are found.
+	 * 
+	 * @param cell        the tile whose runs are checked
+	 * @param owner       the owner number of the player
+	 * @param symbols     the number of symbols of the player in the runs
+	 * @param completions where the distinct empty tiles of those runs are written
+	 * @param limit       the most tiles to find
+	 * @return The number of tiles written to completions.
+	 */
+	private int getCompletions(int cell, int owner, int symbols, int[] completions, int limit) {
+		int count = 0;
+		for (int w : windowsByCell[cell]) {
+			if (counts[owner - 1][w] != symbols || counts[2 - owner][w] != 0) {
+				continue;
+			}
+			for (int tile : windows[w]) {
+				if (cells[tile] != 0 || tile == cell || contains(completions, count, tile)) {
+					continue;
+				}
+				completions[count++] = tile;
+				if (count == limit) {
+					return count;
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Helper method that checks whether the start of an array holds a tile. The
+	 * lists checked hold the few empty tiles of the runs through one tile, so a
+	 * linear scan is enough.
+	 * 
+	 * @param tiles the array of tiles
+	 * @param count the number of tiles at the start of the array
+	 * @param tile  the tile to look for
+	 * @return true if the tile is one of the first count tiles, false otherwise.
+	 */
+	private static boolean contains(int[] tiles, int count, int tile) {
+		for (int i = 0; i < count; i++) {
+			if (tiles[i] == tile) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Helper method that gets the empty tile of a run holding a four.
+	 * 
+	 * @param window the tiles of the run
+	 * @param owner  the owner number of the player
+	 * @return The empty tile of the run, or -1 if the run isn't a four of the
+	 *         player.
+	 */
+	private int getCompletion(int[] window, int owner) {
+		int empty = -1, mine = 0;
+		for (int tile : window) {
+			if (cells[tile] == owner) {
+				mine++;
+			} else if (cells[tile] == 0) {
+				empty = tile;
+			}
+		}
+		return (mine == winLength - 1 && empty >= 0) ? empty : -1;
+	}
+
+	/**
+	 * Helper method that places a symbol and updates the runs through its tile.
+	 * 
+	 * @param cell  the empty tile
+	 * @param owner the owner number of the symbol
+	 */
+	private void place(int cell, int owner) {
+		for (int w : windowsByCell[cell]) {
+			updateRun(w, -1);
+			counts[owner - 1][w]++;
+			updateRun(w, 1);
+		}
+		cells[cell] = (byte) owner;
+	}
+
+	/**
+	 * Helper method that removes a symbol and updates the runs through its tile.
+	 * 
+	 * @param cell  the filled tile
+	 * @param owner the owner number of the symbol
+	 */
+	private void remove(int cell, int owner) {
+		for (int w : windowsByCell[cell]) {
+			updateRun(w, -1);
+			counts[owner - 1][w]--;
+			updateRun(w, 1);
+		}
+		cells[cell] = 0;
+	}
+
+	/**
+	 * Helper method that adds or takes away what a run counts for: a four in the
+	 * totals, or a run its tiles would turn into a four or a three.
+	 * 
+	 * @param w    the index of the run
+	 * @param sign 1 to add what the run counts for, -1 to take it away
+	 */
+	private void updateRun(int w, int sign) {
+		for (int owner = 0; owner < 2; owner++) {
+			if (counts[1 - owner][w] != 0) {
+				continue;
+			}
+			int symbols = counts[owner][w];
+			if (symbols == winLength - 1) {
+				fours[owner] += sign;
+			} else if (symbols == winLength - 2) {
+				updateMakers(fourMakers[owner], fourTiles[owner], windows[w], sign);
+			} else if (symbols == winLength - 3) {
+				updateMakers(threeMakers[owner], threeTiles[owner], windows[w], sign);
+			}
+		}
+	}
+
+	/**
+	 * Helper method that adds or takes away a run from the counts of its tiles,
+	 * adding a tile to the set when its count becomes 1 and removing it when its
+	 * count becomes 0.
+	 * 
+	 * @param makers the count of runs of every tile
+	 * @param tiles  the set of tiles with a count above 0
+	 * @param window the tiles of the run
+	 * @param sign   1 to add the run, -1 to take it away
+	 */
+	private static void updateMakers(int[] makers, TileSet tiles, int[] window, int sign) {
+		for (int tile : window) {
+			makers[tile] += sign;
+			if (sign > 0 && makers[tile] == 1) {
+				tiles.add(tile);
+			} else if (sign < 0 && makers[tile] == 0) {
+				tiles.remove(tile);
+			}
+		}
+	}
+
+	/**
+	 * Look for forced wins in a few five-in-a-row positions on a 15x15 board and
+	 * print the move found, the nodes searched and the time taken.
+	 * 
+	 * @param args unused
+	 */
+	public static void main(String args[]) {
+		int size = 15;
+		// moves in order as {row, col}, X first
+		int[][][] positions = {
+				// X has an open three and wins by making it an open four
+				{ { 7, 6 }, { 0, 0 }, { 7, 7 }, { 0, 14 }, { 7, 8 }, { 14, 0 } },
+				// X has two blocked threes and wins by making two fours with one move
+				{ { 7, 7 }, { 7, 6 }, { 7, 8 }, { 11, 11 }, { 7, 9 }, { 0, 0 }, { 8, 11 }, { 0, 14 }, { 9, 11 },
+						{ 14, 0 }, { 10, 11 }, { 14, 14 } },
+				// the middle of an opening with no forced win yet
+				{ { 7, 7 }, { 7, 8 }, { 8, 7 }, { 6, 7 }, { 8, 8 }, { 6, 6 } } };
+		ThreatSpaceSearch search = new ThreatSpaceSearch(size, 5);
+		for (int[][] moves : positions) {
+			char[] board = new char[size * size];
+			Arrays.fill(board, Board.EMPTY);
+			for (int i = 0; i < moves.length; i++) {
+				board[moves[i][0] * size + moves[i][1]] = (i % 2 == 0) ? Board.X_SYMBOL : Board.O_SYMBOL;
+			}
+			long start = System.nanoTime();
+			int move = search.findWinningMove(board, 8);
+			long micros = (System.nanoTime() - start) / 1000;
+			System.out.printf("%s: %,d nodes in %,d us%n",
+					move < 0 ? "No forced win" : "Win at " + (move / size) + "," + (move % size), search.getNodes(),
+					micros);
+		}
+	}
+}
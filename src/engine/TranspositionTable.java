@@ -0,0 +1,346 @@
+package engine;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class represents a fixed-size transposition table shared by any number
+ * of search threads. The table lives outside the heap in a direct buffer, so it
+ * adds nothing for the garbage collector to scan however big it is, and it is
+ * never resized once created.
+ * 
+ * Every entry takes 16 bytes: the key of the position XORed with the entry's
+ * data, then the data itself, which packs the score, depth, bound, best move
+ * and age of the search into one long. Entries are read and written without
+ * locks, so a reader can see the halves of two different writes. The XOR makes
+ * such a torn entry fail validation, since only a matching pair of key and data
+ * gives back the key being looked up, and a torn entry is treated as a miss.
+ * 
+ * When two positions map to the same slot, the entry searched deeper is kept,
+ * unless it was stored by an earlier search.
+ */
+public class TranspositionTable {
+	/**
+	 * Number of bytes taken by one entry.
+	 */
+	public final static int ENTRY_SIZE = 16;
+	/**
+	 * Largest size of a table in megabytes, the most a single direct buffer can
+	 * hold while the number of entries stays a power of two.
+	 */
+	public final static int MAX_MEGABYTES = 1024;
+	/**
+	 * Bound of a score that is the exact value of the position.
+	 */
+	public final static int EXACT = 1;
+	/**
+	 * Bound of a score that the value of the position is at least, after a beta
+	 * cutoff.
+	 */
+	public final static int LOWER = 2;
+	/**
+	 * Bound of a score that the value of the position is at most, when no move
+	 * reached alpha.
+	 */
+	public final static int UPPER = 3;
+	/**
+	 * Value returned by probe when the table holds no entry for a key. Stored data
+	 * always has a non zero bound, so it can never be equal to MISS.
+	 */
+	public final static long MISS = 0;
+
+	/**
+	 * View of the buffer as longs, used for atomic reads and writes of each half
+	 * of an entry.
+	 */
+	private final static VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class,
+			ByteOrder.nativeOrder());
+
+	/**
+	 * Entries of the table.
+	 */
+	private final ByteBuffer entries;
+	/**
+	 * Number of entries minus one, used to turn a key into a slot.
+	 */
+	private final long slotMask;
+	/**
+	 * Age of the current search, stored with every entry.
+	 */
+	private volatile int age;
+	/**
+	 * Number of probes that found an entry for their key.
+	 */
+	private final LongAdder hits = new LongAdder();
+	/**
+	 * Number of probes that found no entry for their key.
+	 */
+	private final LongAdder misses = new LongAdder();
+	/**
+	 * Number of probes and stores whose slot held an entry for another key.
+	 */
+	private final LongAdder collisions = new LongAdder();
+	/**
+	 * Number of entries written.
+	 */
+	private final LongAdder stores = new LongAdder();
+
+	/**
+	 * Construct an empty table taking up to the specified size, rounded down to a
+	 * power of two.
+	 * 
+	 * @param megabytes the size of the table in megabytes, from 1 to MAX_MEGABYTES
+	 * @throws IllegalArgumentException if the size is out of range
+	 */
+	public TranspositionTable(int megabytes) {
+		if (megabytes < 1 || megabytes > MAX_MEGABYTES) {
+			throw new IllegalArgumentException("Table size must be 1 to " + MAX_MEGABYTES + " MB: " + megabytes);
+		}
+		int bytes = Integer.highestOneBit(megabytes) << 20;
+		entries = ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+		slotMask = bytes / ENTRY_SIZE - 1;
+	}
+
+	/**
+	 * Get the number of entries the table can hold.
+	 * 
+	 * @return The number of entries of the table.
+	 */
+	public long getCapacity() {
+		return slotMask + 1;
+	}
+
+	/**
+	 * Get the size of the table.
+	 * 
+	 * @return The size of the table in megabytes.
+	 */
+	public int getMegabytes() {
+		return entries.capacity() >>> 20;
+	}
+
+	/**
+	 * Start a new search, so that entries stored by earlier searches are replaced
+	 * first.
+	 */
+	public void newSearch() {
+		age = (age + 1) & 0xFF;
+	}
+
+	/**
+	 * Remove every entry from the table. No other thread may use the table at the
+	 * same time.
+	 */
+	public void clear() {
+		for (int offset = 0; offset < entries.capacity(); offset += 8) {
+			entries.putLong(offset, 0);
+		}
+		hits.reset();
+		misses.reset();
+		collisions.reset();
+		stores.reset();
+	}
+
+	/**
+	 * Look up the entry for a position.
+	 * 
+	 * @param key the hash of the position
+	 * @return The data of the entry, or MISS if the table holds none for the key.
+	 */
+	public long probe(long key) {
+		int offset = offsetOf(key);
+		long data = (long) LONGS.getOpaque(entries, offset + 8);
+		long storedKey = (long) LONGS.getOpaque(entries, offset) ^ data;
+		if (storedKey == key && data != MISS) {
+			hits.increment();
+			return data;
+		}
+		if (data != MISS) {
+			collisions.increment();
+		}
+		misses.increment();
+		return MISS;
+	}
+
+	/**
+	 * Store the result of searching a position, unless the slot holds a deeper
+	 * search of another position from the current search.
+	 * 
+	 * @param key   the hash of the position
+	 * @param depth the depth searched, from 0 to 255
+	 * @param score the score found, from -32768 to 32767
+	 * @param bound EXACT, LOWER or UPPER
+	 * @param move  the best move found, from 0 to 65535
+	 */
+	public void store(long key, int depth, int score, int bound, int move) {
+		int offset = offsetOf(key);
+		long oldData = (long) LONGS.getOpaque(entries, offset + 8);
+		if (oldData != MISS) {
+			long oldKey = (long) LONGS.getOpaque(entries, offset) ^ oldData;
+			if (oldKey != key) {
+				collisions.increment();
+				if (getAge(oldData) == age && getDepth(oldData) > depth) {
+					return;
+				}
+			}
+		}
+		long data = (score & 0xFFFFL) | ((long) (depth & 0xFF) << 16) | ((long) (bound & 3) << 24)
+				| ((long) (move & 0xFFFF) << 26) | ((long) age << 42);
+		LONGS.setOpaque(entries, offset, key ^ data);
+		LONGS.setOpaque(entries, offset + 8, data);
+		stores.increment();
+	}
+
+	/**
+	 * Get the score of an entry.
+	 * 
+	 * @param data the data returned by probe
+	 * @return The score of the entry.
+	 */
+	public static int getScore(long data) {
+		return (short) data;
+	}
+
+	/**
+	 * Get the depth of an entry.
+	 * 
+	 * @param data the data returned by probe
+	 * @return The depth of the entry.
+	 */
+	public static int getDepth(long data) {
+		return (int) (data >>> 16) & 0xFF;
+	}
+
+	/**
+	 * Get the bound of an entry.
+	 * 
+	 * @param data the data returned by probe
+	 * @return EXACT, LOWER or UPPER.
+	 */
+	public static int getBound(long data) {
+		return (int) (data >>> 24) & 3;
+	}
+
+	/**
+	 * Get the best move of an entry.
+	 * 
+	 * @param data the data returned by probe
+	 * @return The best move of the entry.
+	 */
+	public static int getMove(long data) {
+		return (int) (data >>> 26) & 0xFFFF;
+	}
+
+	/**
+	 * Helper method that gets the age of the search that stored an entry.
+	 * 
+	 * @param data the data of the entry
+	 * @return The age of the entry.
+	 */
+	private static int getAge(long data) {
+		return (int) (data >>> 42) & 0xFF;
+	}
+
+	/**
+	 * Get the number of probes that found an entry for their key.
+	 * 
+	 * @return The number of hits.
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * Get the number of probes that found no entry for their key.
+	 * 
+	 * @return The number of misses.
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * Get the number of probes and stores whose slot held an entry for another
+	 * key.
+	 * 
+	 * @return The number of collisions.
+	 */
+	public long getCollisions() {
+		return collisions.sum();
+	}
+
+	/**
+	 * Get the number of entries written.
+	 * 
+	 * @return The number of stores.
+	 */
+	public long getStores() {
+		return stores.sum();
+	}
+
+	/**
+	 * Helper method that gets the byte offset of the slot of a key. The high bits
+	 * are mixed in so keys that only differ there don't share a slot.
+	 * 
+	 * @param key the hash of a position
+	 * @return The offset of the key's entry in the buffer.
+	 */
+	private int offsetOf(long key) {
+		return (int) ((key ^ (key >>> 32)) & slotMask) * ENTRY_SIZE;
+	}
+
+	/**
+	 * Hammer a table from every core with random keys whose data can be checked,
+	 * and print the throughput, the counters and the number of corrupt entries
+	 * returned, which has to be zero.
+	 * 
+	 * @param args the size of the table in megabytes, 64 by default
+	 * @throws InterruptedException if interrupted while waiting for the threads
+	 */
+	public static void main(String args[]) throws InterruptedException {
+		TranspositionTable table = new TranspositionTable(args.length > 0 ? Integer.parseInt(args[0]) : 64);
+		int threadCount = Runtime.getRuntime().availableProcessors();
+		int operations = 10000000;
+		// keys are drawn from twice as many values as the table holds, so slots are
+		// fought over by different keys and by different threads
+		long keySpace = table.getCapacity() * 2;
+		long[] corrupt = new long[threadCount];
+		Thread[] threads = new Thread[threadCount];
+		long start = System.nanoTime();
+		for (int t = 0; t < threadCount; t++) {
+			int thread = t;
+			threads[t] = new Thread(() -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				for (int i = 0; i < operations; i++) {
+					long key = random.nextLong(keySpace) * 0x9E3779B97F4A7C15L;
+					// the score and move of a key are derived from it, so a torn entry
+					// would show up as a mismatch
+					int check = (int) (key >>> 48);
+					if (random.nextBoolean()) {
+						table.store(key, random.nextInt(20), (short) check, EXACT, check);
+					} else {
+						long data = table.probe(key);
+						if (data != MISS && (getMove(data) != check || getScore(data) != (short) check)) {
+							corrupt[thread]++;
+						}
+					}
+				}
+			});
+			threads[t].start();
+		}
+		long corruptTotal = 0;
+		for (int t = 0; t < threadCount; t++) {
+			threads[t].join();
+			corruptTotal += corrupt[t];
+		}
+		long elapsed = System.nanoTime() - start;
+		System.out.printf("%d MB, %,d entries, %d threads%n", table.getMegabytes(), table.getCapacity(), threadCount);
+		System.out.printf("%,.0f operations/s%n", (double) operations * threadCount * 1e9 / elapsed);
+		System.out.printf("Hits %,d, misses %,d, collisions %,d, stores %,d, corrupt %d%n", table.getHits(),
+				table.getMisses(), table.getCollisions(), table.getStores(), corruptTotal);
+	}
+}
@@ -0,0 +1,362 @@
+package engine;
+
+import model.Board;
+import model.GameState;
+
+/**
+ * This class holds a position of ultimate Tic-Tac-Toe, nine 3x3 sub-boards laid
+ * out as a 3x3 meta-board. Winning a sub-board claims its square of the
+ * meta-board, and three claimed squares in a line win the game. The tile a move
+ * is made on sends the other player to the sub-board in the same place, unless
+ * that sub-board is already won or full, in which case they may play in any
+ * open sub-board.
+ * 
+ * The tiles of each sub-board are a 9-bit mask per symbol, tile row *
+ * BOARD_COLS + col being bit row * BOARD_COLS + col, as in a BatchEvaluator
+ * position, and the meta-board is a 9-bit mask of the sub-boards won by each
+ * symbol plus one of the sub-boards that are closed. Whether a mask holds one
+ * of the lines of BatchEvaluator.LINE_MASKS is worked out once for all 512
+ * masks, so checking a sub-board or the meta-board for a win is a single array
+ * read, and the legal moves of a sub-board are the complement of its two masks.
+ * 
+ * Cells are numbered sub-board * 9 + tile, with sub-boards numbered like tiles,
+ * which is the row-major index of the coordinates {meta row, meta column, row,
+ * column}.
+ */
+public class UltimateBoard {
+	/**
+	 * Number of tiles of a sub-board, and of sub-boards of the meta-board.
+	 */
+	public final static int TILES = Board.BOARD_ROWS * Board.BOARD_COLS;
+	/**
+	 * Number of cells of the whole board.
+	 */
+	public final static int CELLS = TILES * TILES;
+	/**
+	 * Mask of all the tiles of a sub-board, or all the sub-boards.
+	 */
+	public final static int FULL = (1 << TILES) - 1;
+	/**
+	 * Whether each 9-bit mask holds a whole line.
+	 */
+	private final static boolean[] WINS = new boolean[1 << TILES];
+	/**
+	 * Index of the n-th lowest set bit of each 9-bit mask, at mask * TILES + n, so
+	 * a move can be picked from a mask of free tiles without walking its bits.
+	 */
+	private final static byte[] NTH_BIT = new byte[(1 << TILES) * TILES];
+
+	static {
+		for (int mask = 0; mask <= FULL; mask++) {
+			for (int line : BatchEvaluator.LINE_MASKS) {
+				WINS[mask] |= (mask & line) == line;
+			}
+			int n = 0;
+			for (int bit = 0; bit < TILES; bit++) {
+				if ((mask & (1 << bit)) != 0) {
+					NTH_BIT[mask * TILES + n++] = (byte) bit;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tiles filled by X on each sub-board.
+	 */
+	private final int[] xTiles = new int[TILES];
+	/**
+	 * Tiles filled by O on each sub-board.
+	 */
+	private final int[] oTiles = new int[TILES];
+	/**
+	 * Sub-boards won by X.
+	 */
+	private int xMeta;
+	/**
+	 * Sub-boards won by O.
+	 */
+	private int oMeta;
+	/**
+	 * Sub-boards won by either player or full, where no more moves can be made.
+	 */
+	private int closedMeta;
+	/**
+	 * Sub-board the player about to move is sent to, or -1 if they may play in any
+	 * open sub-board.
+	 */
+	private int nextSubBoard;
+	/**
+	 * true if X is about to move, false if O is.
+	 */
+	private boolean xToMove;
+	/**
+	 * State of the game after the last move.
+	 */
+	private GameState gameState;
+
+	/**
+	 * Construct an empty board with X about to move.
+	 */
+	public UltimateBoard() {
+		reset();
+	}
+
+	/**
+	 * Empty every sub-board, with X about to move anywhere.
+	 */
+	public void reset() {
+		for (int sub = 0; sub < TILES; sub++) {
+			xTiles[sub] = oTiles[sub] = 0;
+		}
+		xMeta = oMeta = closedMeta = 0;
+		nextSubBoard = -1;
+		xToMove = true;
+		gameState = GameState.IN_PROGRESS;
+	}
+
+	/**
+	 * Make this board a copy of another one, without allocating.
+	 * 
+	 * @param other the board to copy
+	 */
+	public void copyFrom(UltimateBoard other) {
+		System.arraycopy(other.xTiles, 0, xTiles, 0, TILES);
+		System.arraycopy(other.oTiles, 0, oTiles, 0, TILES);
+		xMeta = other.xMeta;
+		oMeta = other.oMeta;
+		closedMeta = other.closedMeta;
+		nextSubBoard = other.nextSubBoard;
+		xToMove = other.xToMove;
+		gameState = other.gameState;
+	}
+
+	/**
+	 * Get the symbol of the player about to move.
+	 * 
+	 * @return X_SYMBOL or O_SYMBOL.
+	 */
+	public char getPlayerToMove() {
+		return xToMove ? Board.X_SYMBOL : Board.O_SYMBOL;
+	}
+
+	/**
+	 * Get the state of the game.
+	 * 
+	 * @return WIN once the last move won the game, TIE once no move is left
+	 *         without a winner, or IN_PROGRESS.
+	 */
+	public GameState getGameState() {
+		return gameState;
+	}
+
+	/**
+	 * Get the symbol of a cell.
+	 * 
+	 * @param cell the cell, sub-board * TILES + tile
+	 * @return The symbol of the cell, or EMPTY.
+	 */
+	public char getSymbolAt(int cell) {
+		int bit = 1 << (cell % TILES);
+		return ((xTiles[cell / TILES] & bit) != 0) ? Board.X_SYMBOL
+				: ((oTiles[cell / TILES] & bit) != 0) ? Board.O_SYMBOL : Board.EMPTY;
+	}
+
+	/**
+	 * Get the sub-boards won by a player.
+	 * 
+	 * @param symbol the symbol of the player
+	 * @return A mask of the sub-boards, bit i standing for sub-board i.
+	 */
+	public int getMeta(char symbol) {
+		return (symbol == Board.X_SYMBOL) ? xMeta : oMeta;
+	}
+
+	/**
+	 * Get the sub-board the player about to move is sent to.
+	 * 
+	 * @return The sub-board, or -1 if any open sub-board can be played in.
+	 */
+	public int getNextSubBoard() {
+		return nextSubBoard;
+	}
+
+	/**
+	 * Get the sub-boards the player about to move can play in.
+	 * 
+	 * @return A mask of the sub-boards, bit i standing for sub-board i. It is 0
+	 *         once the game is over.
+	 */
+	public int getLegalSubBoards() {
+		if (gameState != GameState.IN_PROGRESS) {
+			return 0;
+		}
+		return (nextSubBoard >= 0) ? 1 << nextSubBoard : ~closedMeta & FULL;
+	}
+
+	/**
+	 * Get the tiles of a sub-board the player about to move can play on.
+	 * 
+	 * @param sub the sub-board
+	 * @return A mask of the tiles, bit i standing for tile i, or 0 if the
+	 *         sub-board can't be played in.
+	 */
+	public int getLegalTiles(int sub) {
+		return ((getLegalSubBoards() >>> sub) & 1) * (~(xTiles[sub] | oTiles[sub]) & FULL);
+	}
+
+	/**
+	 * Get the number of moves the player about to move can make.
+	 * 
+	 * @return The number of legal moves, 0 once the game is over.
+	 */
+	public int countLegalMoves() {
+		int count = 0;
+		for (int subs = getLegalSubBoards(); subs != 0; subs &= subs - 1) {
+			int sub = Integer.numberOfTrailingZeros(subs);
+			count += Integer.bitCount(~(xTiles[sub] | oTiles[sub]) & FULL);
+		}
+		return count;
+	}
+
+	/**
+	 * Get one of the legal moves by its index, counting the free tiles of the
+	 * legal sub-boards in order.
+	 * 
+	 * @param index the index of the move, from 0 to countLegalMoves() - 1
+	 * @return The cell of the move, sub-board * TILES + tile.
+	 * @throws IllegalArgumentException if the index is out of range
+	 */
+	public int getLegalMove(int index) {
+		for (int subs = getLegalSubBoards(); subs != 0; subs &= subs - 1) {
+			int sub = Integer.numberOfTrailingZeros(subs);
+			int free = ~(xTiles[sub] | oTiles[sub]) & FULL;
+			int count = Integer.bitCount(free);
+			if (index < count) {
+				return sub * TILES + NTH_BIT[free * TILES + index];
+			}
+			index -= count;
+		}
+		throw new IllegalArgumentException("No legal move " + index);
+	}
+
+	/**
+	 * Make a move for the player about to move, then give the turn to the other
+	 * player.
+	 * 
+	 * @param cell the cell of the move, sub-board * TILES + tile
+	 * @return The state of the game after the move, or INVALID_MOVE if the move
+	 *         isn't legal, in which case the board is left as it was.
+	 */
+	public GameState play(int cell) {
+		if (cell < 0 || cell >= CELLS || (getLegalTiles(cell / TILES) & (1 << (cell % TILES))) == 0) {
+			return GameState.INVALID_MOVE;
+		}
+		return playLegal(cell);
+	}
+
+	/**
+	 * Make a move known to be legal, such as one from getLegalMove(), without
+	 * checking it.
+	 * 
+	 * @param cell the cell of a legal move, sub-board * TILES + tile
+	 * @return The state of the game after the move.
+	 */
+	GameState playLegal(int cell) {
+		return playLegal(cell / TILES, cell % TILES);
+	}
+
+	/**
+	 * Make a legal move picked evenly among all the legal moves, for random
+	 * playouts. A move in the sub-board the player is sent to, which is most
+	 * moves, is picked without counting the moves of the other sub-boards.
+	 * 
+	 * @param random a random number, whose 32 bits pick the move
+	 * @return The state of the game after the move.
+	 */
+	GameState playRandomMove(int random) {
+		int subs = getLegalSubBoards();
+		int sub = Integer.numberOfTrailingZeros(subs);
+		int free = ~(xTiles[sub] | oTiles[sub]) & FULL;
+		if ((subs & (subs - 1)) == 0) {
+			int index = (int) (((random & 0xFFFFFFFFL) * Integer.bitCount(free)) >>> 32);
+			return playLegal(sub, NTH_BIT[free * TILES + index]);
+		}
+		return playLegal(getLegalMove((int) (((random & 0xFFFFFFFFL) * countLegalMoves()) >>> 32)));
+	}
+
+	/**
+	 * Helper method that makes a move known to be legal.
+	 * 
+	 * @param sub  the sub-board of the move
+	 * @param tile the tile of the move in its sub-board
+	 * @return The state of the game after the move.
+	 */
+	private GameState playLegal(int sub, int tile) {
+		int tiles;
+		if (xToMove) {
+			tiles = xTiles[sub] |= 1 << tile;
+		} else {
+			tiles = oTiles[sub] |= 1 << tile;
+		}
+		if (WINS[tiles]) {
+			closedMeta |= 1 << sub;
+			int meta;
+			if (xToMove) {
+				meta = xMeta |= 1 << sub;
+			} else {
+				meta = oMeta |= 1 << sub;
+			}
+			if (WINS[meta]) {
+				gameState = GameState.WIN;
+			}
+		} else if ((xTiles[sub] | oTiles[sub]) == FULL) {
+			closedMeta |= 1 << sub;
+		}
+		if (gameState == GameState.IN_PROGRESS && closedMeta == FULL) {
+			gameState = GameState.TIE;
+		}
+		// the tile played on picks the sub-board of the next move, unless it's closed
+		nextSubBoard = ((closedMeta >>> tile) & 1) == 0 ? tile : -1;
+		if (gameState == GameState.IN_PROGRESS) {
+			xToMove = !xToMove;
+		}
+		return gameState;
+	}
+
+	/**
+	 * Check if a 9-bit mask of tiles or sub-boards holds a whole line.
+	 * 
+	 * @param mask the mask, bit i standing for tile or sub-board i
+	 * @return true if the mask holds a line, false otherwise.
+	 */
+	public static boolean isWin(int mask) {
+		return WINS[mask & FULL];
+	}
+
+	/**
+	 * Get a string showing the 9x9 cells, with the sub-boards separated by lines
+	 * and empty cells as dots.
+	 * 
+	 * @return The board as 11 lines of text.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder text = new StringBuilder();
+		for (int row = 0; row < TILES; row++) {
+			if (row > 0 && row % Board.BOARD_ROWS == 0) {
+				text.append("---+---+---\n");
+			}
+			for (int col = 0; col < TILES; col++) {
+				if (col > 0 && col % Board.BOARD_COLS == 0) {
+					text.append('|');
+				}
+				int sub = (row / Board.BOARD_ROWS) * Board.BOARD_COLS + col / Board.BOARD_COLS;
+				int tile = (row % Board.BOARD_ROWS) * Board.BOARD_COLS + col % Board.BOARD_COLS;
+				char symbol = getSymbolAt(sub * TILES + tile);
+				text.append((symbol == Board.EMPTY) ? '.' : symbol);
+			}
+			text.append('\n');
+		}
+		return text.toString();
+	}
+}
@@ -0,0 +1,391 @@
+package engine;
+
+import model.Board;
+import model.GameState;
+
+/**
+ * This class chooses moves of ultimate Tic-Tac-Toe with Monte Carlo tree
+ * search. Each playout walks down the tree to a leaf, picking the child with
+ * the best upper confidence bound (UCT), adds the children of the leaf once it
+ * has been visited, plays random moves to the end of the game on an
+ * UltimateBoard, and adds the result to every node of the walk.
+ * 
+ * The tree is held in flat arrays sized when the search is constructed, one
+ * entry per node, so a search allocates nothing and the nodes of the last
+ * search are simply overwritten by the next one. When the arrays are full the
+ * tree stops growing and the playouts go on from its leaves. A search is not
+ * thread-safe; one search per thread can run at the same time.
+ */
+public class UltimateSearch {
+	/**
+	 * Weight of the exploration term of the upper confidence bound.
+	 */
+	private final static double EXPLORATION = Math.sqrt(2);
+	/**
+	 * Number of nodes of the tree by default.
+	 */
+	public final static int DEFAULT_NODES = 1 << 20;
+
+	/**
+	 * Index of the first child of each node, or -1 for a node without children.
+	 * The children of a node are next to each other.
+	 */
+	private final int[] firstChild;
+	/**
+	 * Number of children of each node.
+	 */
+	private final byte[] childCount;
+	/**
+	 * Cell of the move leading to each node.
+	 */
+	private final byte[] moves;
+	/**
+	 * Number of playouts through each node.
+	 */
+	private final int[] visits;
+	/**
+	 * Playouts through each node won by the player who made its move, a tie
+	 * counting as half a win.
+	 */
+	private final float[] wins;
+	/**
+	 * Number of nodes in use.
+	 */
+	private int nodeCount;
+	/**
+	 * Board the playouts are played on, copied from the searched board each time.
+	 */
+	private final UltimateBoard scratch = new UltimateBoard();
+	/**
+	 * Nodes of the current walk from the root.
+	 */
+	private final int[] path = new int[UltimateBoard.CELLS + 2];
+	/**
+	 * State of the xorshift random number generator.
+	 */
+	private long random;
+	/**
+	 * Number of playouts of the last search.
+	 */
+	private long playouts;
+	/**
+	 * Time the last search took in nanoseconds.
+	 */
+	private long nanos;
+
+	/**
+	 * Construct a search with a tree of DEFAULT_NODES nodes.
+	 */
+	public UltimateSearch() {
+		this(DEFAULT_NODES, System.nanoTime());
+	}
+
+	/**
+	 * Construct a search with a tree of the specified number of nodes.
+	 * 
+	 * @param maxNodes the most nodes the tree can have, at least 1 + CELLS
+	 * @param seed     the seed of the random moves of the playouts
+	 * @throws IllegalArgumentException if the tree can't hold the root's children
+	 */
+	public UltimateSearch(int maxNodes, long seed) {
+		if (maxNodes < 1 + UltimateBoard.CELLS) {
+			throw new IllegalArgumentException("The tree needs at least " + (1 + UltimateBoard.CELLS) + " nodes");
+		}
+		firstChild = new int[maxNodes];
+		childCount = new byte[maxNodes];
+		moves = new byte[maxNodes];
+		visits = new int[maxNodes];
+		wins = new float[maxNodes];
+		// xorshift needs a state that isn't 0
+		random = (seed == 0) ? 1 : seed;
+	}
+
+	/**
+	 * Choose a move for the player about to move with the specified number of
+	 * playouts.
+	 * 
+	 * @param board       the board to choose the move on, left unchanged
+	 * @param playoutLimit the number of playouts to run
+	 * @return The cell of the move played out the most, or -1 if the game is
+	 *         over.
+	 */
+	public int chooseMove(UltimateBoard board, long playoutLimit) {
+		long start = System.nanoTime();
+		if (board.getGameState() != GameState.IN_PROGRESS) {
+			return -1;
+		}
+		char rootMover = board.getPlayerToMove();
+		nodeCount = 1;
+		firstChild[0] = -1;
+		visits[0] = 0;
+		wins[0] = 0;
+		for (playouts = 0; playouts < playoutLimit; playouts++) {
+			scratch.copyFrom(board);
+			int node = 0, depth = 0;
+			path[depth++] = node;
+			// walk down to a leaf
+			while (firstChild[node] >= 0 && scratch.getGameState() == GameState.IN_PROGRESS) {
+				node = select(node);
+				scratch.playLegal(moves[node]);
+				path[depth++] = node;
+			}
+			// grow the tree below a leaf that has been played out from before
+			if (scratch.getGameState() == GameState.IN_PROGRESS && (node == 0 || visits[node] > 0)
+					&& expand(node)) {
+				node = firstChild[node] + nextInt(childCount[node]);
+				scratch.playLegal(moves[node]);
+				path[depth++] = node;
+			}
+			char winner = playout(scratch);
+			for (int i = 0; i < depth; i++) {
+				// the root's children were moved into by the root's player, their
+				// children by the other player, and so on
+				char mover = (i % 2 == 1) ? rootMover : (rootMover == Board.X_SYMBOL) ? Board.O_SYMBOL : Board.X_SYMBOL;
+				visits[path[i]]++;
+				wins[path[i]] += (winner == mover) ? 1 : (winner == Board.EMPTY) ? 0.5f : 0;
+			}
+		}
+		int best = firstChild[0];
+		for (int child = firstChild[0]; child < firstChild[0] + childCount[0]; child++) {
+			if (visits[child] > visits[best]) {
+				best = child;
+			}
+		}
+		nanos = System.nanoTime() - start;
+		return moves[best];
+	}
+
+	/**
+	 * Get the number of playouts of the last search.
+	 * 
+	 * @return The number of playouts.
+	 */
+	public long getPlayouts() {
+		return playouts;
+	}
+
+	/**
+	 * Get the number of nodes of the tree of the last search.
+	 * 
+	 * @return The number of nodes.
+	 */
+	public int getNodes() {
+		return nodeCount;
+	}
+
+	/**
+	 * Get the time the last search took.
+	 * 
+	 * @return The time in nanoseconds.
+	 */
+	public long getNanos() {
+		return nanos;
+	}
+
+	/**
+	 * Play random moves to the end of the game.
+	 * 
+	 * @param board the board to play on, left at the end of the game
+	 * @return The symbol of the winner, or EMPTY for a tie.
+	 */
+	public char playout(UltimateBoard board) {
+		while (board.getGameState() == GameState.IN_PROGRESS) {
+			board.playRandomMove(nextRandom());
+		}
+		// the player who won made the last move and kept the turn
+		return (board.getGameState() == GameState.WIN) ? board.getPlayerToMove() : Board.EMPTY;
+	}
+
+	/**
+	 * Helper method that picks the child of a node with the best upper confidence
+	 * bound, or its first child that hasn't been played out.
+	 * 
+	 * @param node the node
+	 * @return The chosen child.
+	 */
+	private int select(int node) {
+		double logVisits = Math.log(visits[node]);
+		int best = -1;
+		double bestBound = Double.NEGATIVE_INFINITY;
+		for (int child = firstChild[node]; child < firstChild[node] + childCount[node]; child++) {
+			if (visits[child] == 0) {
+				return child;
+			}
+			double bound = wins[child] / visits[child] + EXPLORATION * Math.sqrt(logVisits / visits[child]);
+			if (bound > bestBound) {
+				bestBound = bound;
+				best = child;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Helper method that adds a child to a leaf for each legal move of the scratch
+	 * board, if the tree has room for them.
+	 * 
+	 * @param node the leaf, whose position is on the scratch board
+	 * @return true if the children were added, false if the tree is full.
+	 */
+	private boolean expand(int node) {
+		int count = scratch.countLegalMoves();
+		if (nodeCount + count > firstChild.length) {
+			return false;
+		}
+		firstChild[node] = nodeCount;
+		childCount[node] = (byte) count;
+		for (int subs = scratch.getLegalSubBoards(); subs != 0; subs &= subs - 1) {
+			int sub = Integer.numberOfTrailingZeros(subs);
+			for (int tiles = scratch.getLegalTiles(sub); tiles != 0; tiles &= tiles - 1) {
+				int child = nodeCount++;
+				firstChild[child] = -1;
+				childCount[child] = 0;
+				moves[child] = (byte) (sub * UltimateBoard.TILES + Integer.numberOfTrailingZeros(tiles));
+				visits[child] = 0;
+				wins[child] = 0;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Helper method that gets a random number with xorshift.
+	 * 
+	 * @param bound the number of possible results
+	 * @return A random number from 0 to bound - 1.
+	 */
+	private int nextInt(int bound) {
+		return (int) (((nextRandom() & 0xFFFFFFFFL) * bound) >>> 32);
+	}
+
+	/**
+	 * Helper method that gets 32 random bits with xorshift.
+	 * 
+	 * @return A random int.
+	 */
+	private int nextRandom() {
+		random ^= random << 13;
+		random ^= random >>> 7;
+		random ^= random << 17;
+		return (int) (random >>> 32);
+	}
+
+	/**
+	 * Check the sub-board win table and the legal moves against the rules worked
+	 * out cell by cell, then print how many random playouts run per second on one
+	 * core and how the search does against random moves from both sides. The exit
+	 * status is 1 if a check fails or the search loses a game.
+	 * 
+	 * @param args the number of playouts per move of the search and the number of
+	 *             games against random moves for each side, by default 20,000 and
+	 *             5
+	 */
+	public static void main(String args[]) {
+		long playoutsPerMove = (args.length > 0) ? Long.parseLong(args[0]) : 20000;
+		int games = (args.length > 1) ? Integer.parseInt(args[1]) : 5;
+		int failures = 0;
+
+		// a mask wins exactly when a BatchEvaluator position of X's tiles does
+		for (int mask = 0; mask <= UltimateBoard.FULL; mask++) {
+			failures += (UltimateBoard.isWin(mask) != (BatchEvaluator.evaluate(mask) == GameState.WIN)) ? 1 : 0;
+		}
+
+		// the legal moves of random games, checked cell by cell
+		UltimateSearch search = new UltimateSearch(DEFAULT_NODES, 42);
+		UltimateBoard board = new UltimateBoard();
+		int checked = 0;
+		for (int game = 0; game < 2000; game++) {
+			board.reset();
+			int lastTile = -1;
+			while (board.getGameState() == GameState.IN_PROGRESS) {
+				int expected = 0;
+				boolean sentToOpen = lastTile >= 0 && !isClosed(board, lastTile);
+				for (int cell = 0; cell < UltimateBoard.CELLS; cell++) {
+					int sub = cell / UltimateBoard.TILES;
+					boolean legal = board.getSymbolAt(cell) == Board.EMPTY && !isClosed(board, sub)
+							&& (!sentToOpen || sub == lastTile);
+					boolean listed = (board.getLegalTiles(sub) & (1 << (cell % UltimateBoard.TILES))) != 0;
+					failures += (legal != listed) ? 1 : 0;
+					expected += legal ? 1 : 0;
+				}
+				failures += (expected != board.countLegalMoves()) ? 1 : 0;
+				int cell = board.getLegalMove(search.nextInt(board.countLegalMoves()));
+				lastTile = cell % UltimateBoard.TILES;
+				board.play(cell);
+				checked++;
+			}
+		}
+		System.out.printf("Win table and legal moves of %,d positions checked: %d failures%n", checked, failures);
+
+		// random playouts from the empty board for about a second
+		long playouts = 0, start = System.nanoTime(), elapsed;
+		do {
+			for (int i = 0; i < 10000; i++) {
+				board.reset();
+				search.playout(board);
+			}
+			playouts += 10000;
+			elapsed = System.nanoTime() - start;
+		} while (elapsed < 1000000000L);
+		// the length of the playouts is counted apart, so it isn't timed
+		long movesPlayed = 0;
+		for (int i = 0; i < 10000; i++) {
+			board.reset();
+			search.playout(board);
+			for (int cell = 0; cell < UltimateBoard.CELLS; cell++) {
+				movesPlayed += (board.getSymbolAt(cell) != Board.EMPTY) ? 1 : 0;
+			}
+		}
+		System.out.printf("%,.0f playouts/s from the empty board on one core, %.1f moves each%n",
+				playouts / (elapsed / 1e9), movesPlayed / 10000.0);
+
+		int wins = 0, losses = 0, ties = 0;
+		long searchPlayouts = 0, searchNanos = 0;
+		UltimateSearch randomMoves = new UltimateSearch(DEFAULT_NODES, 7);
+		for (int game = 0; game < 2 * games; game++) {
+			// the search plays X in the first half of the games
+			char searchSymbol = (game < games) ? Board.X_SYMBOL : Board.O_SYMBOL;
+			board.reset();
+			while (board.getGameState() == GameState.IN_PROGRESS) {
+				if (board.getPlayerToMove() == searchSymbol) {
+					board.play(search.chooseMove(board, playoutsPerMove));
+					searchPlayouts += search.getPlayouts();
+					searchNanos += search.getNanos();
+				} else {
+					board.play(board.getLegalMove(randomMoves.nextInt(board.countLegalMoves())));
+				}
+			}
+			if (board.getGameState() == GameState.TIE) {
+				ties++;
+			} else if (board.getPlayerToMove() == searchSymbol) {
+				wins++;
+			} else {
+				losses++;
+			}
+		}
+		System.out.printf("MCTS with %,d playouts per move against random moves: %d wins, %d losses, %d ties%n",
+				playoutsPerMove, wins, losses, ties);
+		System.out.printf("%,.0f playouts/s while searching%n", searchPlayouts / (searchNanos / 1e9));
+		failures += losses;
+		if (failures > 0) {
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Helper method that checks, cell by cell, if a sub-board is won or full.
+	 * 
+	 * @param board the board
+	 * @param sub   the sub-board
+	 * @return true if no more moves can be made in the sub-board, false otherwise.
+	 */
+	private static boolean isClosed(UltimateBoard board, int sub) {
+		int x = 0, o = 0;
+		for (int tile = 0; tile < UltimateBoard.TILES; tile++) {
+			char symbol = board.getSymbolAt(sub * UltimateBoard.TILES + tile);
+			x |= (symbol == Board.X_SYMBOL) ? 1 << tile : 0;
+			o |= (symbol == Board.O_SYMBOL) ? 1 << tile : 0;
+		}
+		return (x | o) == UltimateBoard.FULL || UltimateBoard.isWin(x) || UltimateBoard.isWin(o);
+	}
+}
@@ -0,0 +1,18 @@
+/**
+ * The engine package contains the classes that analyze Tic-Tac-Toe positions
+ * in bulk, separately from the game flow in the model package. It includes the
+ * BatchEvaluator class, which works on positions packed into integers instead
+ * of TicTacToeBoard objects so that huge numbers of them can be processed at
+ * once, with SIMD lanes when the VectorBatchEvaluator class has been compiled
+ * from the src-vector folder, and the Tablebase and TablebaseGenerator
+ * classes, which solve every position of a 4x4 board ahead of time and look
+ * them up from a memory-mapped file, and the TranspositionTable class, which remembers searched positions
+ * for any number of search threads, and the ParallelSearch class, which
+ * searches bigger boards on every core after the ThreatSpaceSearch class has
+ * looked for a forced win made of threats. The UltimateBoard class holds a
+ * game of ultimate Tic-Tac-Toe in 9-bit masks, and the UltimateSearch class
+ * chooses its moves with Monte Carlo tree search over random playouts. Overall,
+ * this package is responsible for providing the fast position analysis needed
+ * by self-play, analytics and stronger computer players.
+ */
+package engine;
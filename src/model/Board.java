@@ -4,10 +4,11 @@ import model.TicTacToeBoard.Tile;
 
 /**
  * This is an interface for a Tic-Tac-Toe board. It defines the methods and
- * constants for a Tic-Tac-Toe board.
+ * constants for a Tic-Tac-Toe board, on top of the players, turns and cell
+ * indices it shares with boards of other shapes through CellBoard.
  */
 
-public interface Board {
+public interface Board extends CellBoard {
 	/**
 	 * Number of rows on Tic-Tac-Toe board.
 	 */
@@ -28,87 +29,70 @@ public interface Board {
 	 * Symbol for an empty tile on the Tic-Tac-Toe board.
 	 */
 	final static char EMPTY = ' ';
-
 	/**
-	 * Get player who's going first.
-	 * 
-	 * @return Player one.
+	 * Tiles of the eight lines that win the game: the rows, then the columns, then
+	 * the diagonal from the top left and the diagonal from the top right. Tiles
+	 * are numbered row * BOARD_COLS + col.
 	 */
-	public Player getPlayerOne();
+	final static int[][] LINES = { { 0, 1, 2 }, { 3, 4, 5 }, { 6, 7, 8 }, { 0, 3, 6 }, { 1, 4, 7 }, { 2, 5, 8 },
+			{ 0, 4, 8 }, { 2, 4, 6 } };
 
 	/**
-	 * Get player whos's going second.
-	 * 
-	 * @return Player two.
-	 */
-	public Player getPlayerTwo();
-
-	/**
-	 * Get the player about to make a move.
-	 * 
-	 * @return The current player.
-	 */
-	public Player getCurrentPlayer();
-
-	/**
-	 * Get the player waiting for their turn.
+	 * Get the tile at the specified position.
 	 * 
-	 * @return The waiting player.
+	 * @param row the row of the desired tile
+	 * @param col the column of the desired tile
+	 * @return The tile at the specified position.
 	 */
-	public Player getWaitingPlayer();
+	public Tile getTileAt(int row, int col);
 
 	/**
-	 * Check if it is player one's turn.
+	 * Get the position code of the board, the base 3 number with digit 1 for X, 2
+	 * for O and 0 for an empty tile in the place of each tile (see PositionCode).
 	 * 
-	 * @return True if it is player one's turn, false otherwise.
+	 * @return The code of the board, from 0 to PositionCode.POSITIONS - 1.
 	 */
-	public boolean isPlayerOneTurn();
+	public int getPositionCode();
 
 	/**
-	 * Check if it is player two's turn.
+	 * Get the number of tiles of a line holding the specified symbol.
 	 * 
-	 * @return True if it is player two's turn, false otherwise.
+	 * @param line   the index of the line in LINES
+	 * @param symbol the symbol to count
+	 * @return The number of tiles of the line with the symbol.
 	 */
-	public boolean isPlayerTwoTurn();
+	public int getLineCount(int line, char symbol);
 
 	/**
-	 * Return whether or not the specified player is a computer player or not.
+	 * Get the lines holding two of the specified symbol and one empty tile, which
+	 * the symbol's player can win with.
 	 * 
-	 * @param player player to check for if it's a computer player
-	 * @return True if the player is a computer player, false otherwise.
+	 * @param symbol the symbol of the player
+	 * @return A bit set of the lines, where bit i stands for LINES[i].
 	 */
-	public boolean isComputerPlayer(Player player);
+	public int getLinesWithTwo(char symbol);
 
 	/**
-	 * Switch the current and waiting players.
-	 */
-	public void switchTurns();
-
-	/**
-	 * Get the current state of the game.
+	 * Get the lines holding one of the specified symbol and two empty tiles, which
+	 * the symbol's player can make two in a row on.
 	 * 
-	 * @return The current game state of the board.
+	 * @param symbol the symbol of the player
+	 * @return A bit set of the lines, where bit i stands for LINES[i].
 	 */
-	public GameState getGameState();
+	public int getLinesWithOne(char symbol);
 
 	/**
-	 * Get the tile at the specified position.
+	 * Register a listener to be notified of moves, turn switches and the end of the
+	 * game on this board.
 	 * 
-	 * @param row the row of the desired tile
-	 * @param col the column of the desired tile
-	 * @return The tile at the specified position.
+	 * @param listener the listener to register
 	 */
-	public Tile getTileAt(int row, int col);
+	public void addBoardListener(BoardListener listener);
 
 	/**
-	 * Get the number of filled tiles on the board.
+	 * Stop notifying the specified listener of changes on this board.
 	 * 
-	 * @return The number of filled tiles.
-	 */
-	public int getFilledTilesNumber();
-
-	/**
-	 * Reset the board to its initial state.
+	 * @param listener the listener to remove
 	 */
-	public void resetBoard();
+	public void removeBoardListener(BoardListener listener);
 }
\ No newline at end of file
@@ -0,0 +1,287 @@
+package model;
+
+/**
+ * This class represents a change on a Tic-Tac-Toe board that is published to
+ * every BoardListener registered on the board. There is one subclass for each
+ * kind of change: a move being made, a move being undone, the turns being
+ * switched, and the game ending. Every event knows which listener method
+ * handles it, so a queue of mixed events can be replayed to a listener in order
+ * with dispatchTo().
+ */
+
+public abstract class BoardEvent {
+	/**
+	 * Board on which the change happened.
+	 */
+	private final Board board;
+
+	/**
+	 * Construct an event that happened on the specified board.
+	 * 
+	 * @param board the board on which the change happened
+	 */
+	protected BoardEvent(Board board) {
+		this.board = board;
+	}
+
+	/**
+	 * Get the board on which the change happened.
+	 * 
+	 * @return The board that published the event.
+	 */
+	public Board getBoard() {
+		return board;
+	}
+
+	/**
+	 * Call the method of the specified listener that handles this kind of event.
+	 * 
+	 * @param listener the listener to notify of this event
+	 */
+	public abstract void dispatchTo(BoardListener listener);
+
+	/**
+	 * Event published after a tile on the board has been filled with a symbol.
+	 */
+	public static class MoveEvent extends BoardEvent {
+		/**
+		 * Row of the tile that was filled.
+		 */
+		private final int row;
+		/**
+		 * Column of the tile that was filled.
+		 */
+		private final int col;
+		/**
+		 * Symbol the tile was filled with.
+		 */
+		private final char symbol;
+
+		/**
+		 * Construct a move event for the tile at the specified position.
+		 * 
+		 * @param board  the board on which the move was made
+		 * @param row    the row of the tile that was filled
+		 * @param col    the column of the tile that was filled
+		 * @param symbol the symbol the tile was filled with
+		 */
+		public MoveEvent(Board board, int row, int col, char symbol) {
+			super(board);
+			this.row = row;
+			this.col = col;
+			this.symbol = symbol;
+		}
+
+		/**
+		 * Get the row of the tile that was filled.
+		 * 
+		 * @return The row of the filled tile.
+		 */
+		public int getRow() {
+			return row;
+		}
+
+		/**
+		 * Get the column of the tile that was filled.
+		 * 
+		 * @return The column of the filled tile.
+		 */
+		public int getCol() {
+			return col;
+		}
+
+		/**
+		 * Get the symbol the tile was filled with.
+		 * 
+		 * @return The symbol of the filled tile.
+		 */
+		public char getSymbol() {
+			return symbol;
+		}
+
+		/**
+		 * Call moveMade() on the specified listener.
+		 * 
+		 * @param listener the listener to notify of this event
+		 */
+		@Override
+		public void dispatchTo(BoardListener listener) {
+			listener.moveMade(this);
+		}
+	}
+
+	/**
+	 * Event published after the last move on the board has been undone, emptying
+	 * its tile.
+	 */
+	public static class UndoEvent extends BoardEvent {
+		/**
+		 * Row of the tile that was emptied.
+		 */
+		private final int row;
+		/**
+		 * Column of the tile that was emptied.
+		 */
+		private final int col;
+		/**
+		 * Symbol the tile held before the move was undone.
+		 */
+		private final char symbol;
+
+		/**
+		 * Construct an undo event for the tile at the specified position.
+		 * 
+		 * @param board  the board on which the move was undone
+		 * @param row    the row of the tile that was emptied
+		 * @param col    the column of the tile that was emptied
+		 * @param symbol the symbol the tile held before the move was undone
+		 */
+		public UndoEvent(Board board, int row, int col, char symbol) {
+			super(board);
+			this.row = row;
+			this.col = col;
+			this.symbol = symbol;
+		}
+
+		/**
+		 * Get the row of the tile that was emptied.
+		 * 
+		 * @return The row of the emptied tile.
+		 */
+		public int getRow() {
+			return row;
+		}
+
+		/**
+		 * Get the column of the tile that was emptied.
+		 * 
+		 * @return The column of the emptied tile.
+		 */
+		public int getCol() {
+			return col;
+		}
+
+		/**
+		 * Get the symbol the tile held before the move was undone.
+		 * 
+		 * @return The symbol of the undone move.
+		 */
+		public char getSymbol() {
+			return symbol;
+		}
+
+		/**
+		 * Call moveUndone() on the specified listener.
+		 * 
+		 * @param listener the listener to notify of this event
+		 */
+		@Override
+		public void dispatchTo(BoardListener listener) {
+			listener.moveUndone(this);
+		}
+	}
+
+	/**
+	 * Event published after the current and waiting players have been switched.
+	 */
+	public static class TurnSwitchEvent extends BoardEvent {
+		/**
+		 * Player whose turn it is after the switch.
+		 */
+		private final Player currentPlayer;
+
+		/**
+		 * Construct a turn switch event with the new current player.
+		 * 
+		 * @param board         the board on which the turns were switched
+		 * @param currentPlayer the player whose turn it is after the switch
+		 */
+		public TurnSwitchEvent(Board board, Player currentPlayer) {
+			super(board);
+			this.currentPlayer = currentPlayer;
+		}
+
+		/**
+		 * Get the player whose turn it is after the switch.
+		 * 
+		 * @return The new current player.
+		 */
+		public Player getCurrentPlayer() {
+			return currentPlayer;
+		}
+
+		/**
+		 * Check if it is player one's turn after the switch.
+		 * 
+		 * @return True if player one is the new current player, false otherwise.
+		 */
+		public boolean isPlayerOneTurn() {
+			return getBoard().getPlayerOne().equals(currentPlayer);
+		}
+
+		/**
+		 * Call turnSwitched() on the specified listener.
+		 * 
+		 * @param listener the listener to notify of this event
+		 */
+		@Override
+		public void dispatchTo(BoardListener listener) {
+			listener.turnSwitched(this);
+		}
+	}
+
+	/**
+	 * Event published after a move has ended the game in a win or a tie.
+	 */
+	public static class GameOverEvent extends BoardEvent {
+		/**
+		 * State the game ended in, either WIN or TIE.
+		 */
+		private final GameState gameState;
+		/**
+		 * Player who made the winning move, or null if the game ended in a tie.
+		 */
+		private final Player winner;
+
+		/**
+		 * Construct a game over event with the final state of the game.
+		 * 
+		 * @param board     the board on which the game ended
+		 * @param gameState the state the game ended in, either WIN or TIE
+		 * @param winner    the player who won, or null if the game ended in a tie
+		 */
+		public GameOverEvent(Board board, GameState gameState, Player winner) {
+			super(board);
+			this.gameState = gameState;
+			this.winner = winner;
+		}
+
+		/**
+		 * Get the state the game ended in.
+		 * 
+		 * @return WIN or TIE.
+		 */
+		public GameState getGameState() {
+			return gameState;
+		}
+
+		/**
+		 * Get the player who made the winning move.
+		 * 
+		 * @return The winning player, or null if the game ended in a tie.
+		 */
+		public Player getWinner() {
+			return winner;
+		}
+
+		/**
+		 * Call gameOver() on the specified listener.
+		 * 
+		 * @param listener the listener to notify of this event
+		 */
+		@Override
+		public void dispatchTo(BoardListener listener) {
+			listener.gameOver(this);
+		}
+	}
+}
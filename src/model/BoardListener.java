@@ -0,0 +1,44 @@
+package model;
+
+/**
+ * This is an interface for objects that want to be notified whenever a
+ * Tic-Tac-Toe board changes. A listener is registered on a board with
+ * Board.addBoardListener() and receives a typed event for every move, undone
+ * move, turn switch and end of game. All methods have empty default
+ * implementations so that a listener only needs to override the events it is
+ * interested in.
+ */
+
+public interface BoardListener {
+	/**
+	 * Called after a tile on the board has been filled with a symbol.
+	 * 
+	 * @param event the event describing the move that was made
+	 */
+	public default void moveMade(BoardEvent.MoveEvent event) {
+	}
+
+	/**
+	 * Called after the last move on the board has been undone, emptying its tile.
+	 * 
+	 * @param event the event describing the move that was undone
+	 */
+	public default void moveUndone(BoardEvent.UndoEvent event) {
+	}
+
+	/**
+	 * Called after the current and waiting players have been switched.
+	 * 
+	 * @param event the event describing the new current player
+	 */
+	public default void turnSwitched(BoardEvent.TurnSwitchEvent event) {
+	}
+
+	/**
+	 * Called after a move has ended the game in a win or a tie.
+	 * 
+	 * @param event the event describing how the game ended
+	 */
+	public default void gameOver(BoardEvent.GameOverEvent event) {
+	}
+}
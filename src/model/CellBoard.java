@@ -0,0 +1,169 @@
+package model;
+
+/**
+ * This is an interface for a board of any shape and number of dimensions. It
+ * defines the players and turns of a game and numbers the cells of the board
+ * with a single index, so that the same methods work on the 3x3 Tic-Tac-Toe
+ * board and the 4x4x4 Qubic cube. A cell's index is its coordinates in row-major
+ * order: on a board with dimensions {d0, d1, d2}, the cell at {a, b, c} is
+ * (a * d1 + b) * d2 + c, which is row * BOARD_COLS + col on the 3x3 board.
+ * 
+ * Cells hold the symbols of Board: X_SYMBOL, O_SYMBOL or EMPTY.
+ */
+public interface CellBoard {
+	/**
+	 * Get player who's going first.
+	 * 
+	 * @return Player one.
+	 */
+	public Player getPlayerOne();
+
+	/**
+	 * Get player whos's going second.
+	 * 
+	 * @return Player two.
+	 */
+	public Player getPlayerTwo();
+
+	/**
+	 * Get the player about to make a move.
+	 * 
+	 * @return The current player.
+	 */
+	public Player getCurrentPlayer();
+
+	/**
+	 * Get the player waiting for their turn.
+	 * 
+	 * @return The waiting player.
+	 */
+	public Player getWaitingPlayer();
+
+	/**
+	 * Check if it is player one's turn.
+	 * 
+	 * @return True if it is player one's turn, false otherwise.
+	 */
+	public boolean isPlayerOneTurn();
+
+	/**
+	 * Check if it is player two's turn.
+	 * 
+	 * @return True if it is player two's turn, false otherwise.
+	 */
+	public boolean isPlayerTwoTurn();
+
+	/**
+	 * Return whether or not the specified player is a computer player or not.
+	 * 
+	 * @param player player to check for if it's a computer player
+	 * @return True if the player is a computer player, false otherwise.
+	 */
+	public boolean isComputerPlayer(Player player);
+
+	/**
+	 * Switch the current and waiting players.
+	 */
+	public void switchTurns();
+
+	/**
+	 * Get the current state of the game.
+	 * 
+	 * @return The current game state of the board.
+	 */
+	public GameState getGameState();
+
+	/**
+	 * Get the number of filled tiles on the board.
+	 * 
+	 * @return The number of filled tiles.
+	 */
+	public int getFilledTilesNumber();
+
+	/**
+	 * Reset the board to its initial state.
+	 */
+	public void resetBoard();
+
+	/**
+	 * Get the size of each dimension of the board, the rows then the columns on a
+	 * flat board.
+	 * 
+	 * @return A new array of the number of cells along each dimension.
+	 */
+	public int[] getDimensions();
+
+	/**
+	 * Get the number of cells of the board, the product of its dimensions.
+	 * 
+	 * @return The number of cells.
+	 */
+	public int getCellCount();
+
+	/**
+	 * Get the symbol of a cell.
+	 * 
+	 * @param cell the index of the cell
+	 * @return The symbol of the cell, or EMPTY.
+	 */
+	public char getSymbolAt(int cell);
+
+	/**
+	 * Fill an empty cell with a symbol. The state of the game isn't checked, so
+	 * getGameState() has to be called after the move.
+	 * 
+	 * @param cell   the index of the cell
+	 * @param symbol the symbol to fill the cell with
+	 * @throws IllegalArgumentException if the symbol is invalid or the cell is not
+	 *                                  empty
+	 */
+	public void fillCell(int cell, char symbol);
+
+	/**
+	 * Empty a cell, taking back the move made on it.
+	 * 
+	 * @param cell the index of the cell
+	 */
+	public void clearCell(int cell);
+
+	/**
+	 * Get the index of the cell at the specified coordinates.
+	 * 
+	 * @param coordinates the coordinate of the cell along each dimension
+	 * @return The index of the cell.
+	 * @throws IllegalArgumentException if the number of coordinates doesn't match
+	 *                                  the dimensions or one is out of range
+	 */
+	public default int getCell(int... coordinates) {
+		int[] dimensions = getDimensions();
+		if (coordinates.length != dimensions.length) {
+			throw new IllegalArgumentException(
+					"Expected " + dimensions.length + " coordinates, got " + coordinates.length);
+		}
+		int cell = 0;
+		for (int i = 0; i < dimensions.length; i++) {
+			if (coordinates[i] < 0 || coordinates[i] >= dimensions[i]) {
+				throw new IllegalArgumentException("Coordinate " + i + " out of range: " + coordinates[i]);
+			}
+			cell = cell * dimensions[i] + coordinates[i];
+		}
+		return cell;
+	}
+
+	/**
+	 * Get the coordinates of a cell.
+	 * 
+	 * @param cell the index of the cell
+	 * @return The coordinate of the cell along each dimension.
+	 */
+	public default int[] getCoordinates(int cell) {
+		int[] dimensions = getDimensions();
+		int[] coordinates = new int[dimensions.length];
+		// the last dimension varies fastest
+		for (int i = dimensions.length - 1; i >= 0; i--) {
+			coordinates[i] = cell % dimensions[i];
+			cell /= dimensions[i];
+		}
+		return coordinates;
+	}
+}
@@ -0,0 +1,219 @@
+package model;
+
+/**
+ * This class is a compiled form of the heuristic move strategy. The five step
+ * algorithm of HeuristicStrategy is run once on every position where a move can
+ * be chosen, and its decision is stored in a table, so choosing a move takes a
+ * single array read instead of running the algorithm. The random choices the
+ * algorithm makes are left in the table and made when the move is chosen, so
+ * the moves are chosen exactly as the heuristic strategy chooses them.
+ * 
+ * There is a table for each symbol the current player can have, indexed by the
+ * position code of the board, which the board keeps up to date as moves are
+ * made.
+ */
+public class CompiledHeuristicStrategy implements MoveStrategy {
+	/**
+	 * Number of tiles of the board.
+	 */
+	private final static int TILES = Board.BOARD_ROWS * Board.BOARD_COLS;
+	/**
+	 * Decision stored for positions where no move is chosen, because they can't
+	 * come up in a game or the game is over.
+	 */
+	final static byte NO_MOVE = -1;
+	/**
+	 * Decision of the heuristic strategy for every position where X is the
+	 * current player, as returned by HeuristicStrategy.decide.
+	 */
+	private final static PositionStore.OfByte X_DECISIONS = compile(new HeuristicStrategy(), Board.X_SYMBOL);
+	/**
+	 * Decision of the heuristic strategy for every position where O is the
+	 * current player, as returned by HeuristicStrategy.decide.
+	 */
+	private final static PositionStore.OfByte O_DECISIONS = compile(new HeuristicStrategy(), Board.O_SYMBOL);
+
+	/**
+	 * Get the name of the strategy shown to the user.
+	 * 
+	 * @return The name of the strategy.
+	 */
+	@Override
+	public String getName() {
+		return "Heuristic (compiled)";
+	}
+
+	/**
+	 * Get how hard the strategy is to beat.
+	 * 
+	 * @return MEDIUM, the same as the heuristic strategy.
+	 */
+	@Override
+	public Difficulty getDifficulty() {
+		return Difficulty.MEDIUM;
+	}
+
+	/**
+	 * Get how expensive it is for the strategy to choose a move.
+	 * 
+	 * @return CHEAP.
+	 */
+	@Override
+	public Cost getCost() {
+		return Cost.CHEAP;
+	}
+
+	/**
+	 * Choose the next move of the current player of the board by looking up the
+	 * decision of the heuristic strategy.
+	 * 
+	 * @param board the board to choose a move on, with at least one empty tile
+	 * @return The coordinates {row, column} of the chosen empty tile.
+	 */
+	@Override
+	public int[] chooseMove(Board board) {
+		return HeuristicStrategy.resolveDecision(getDecision(board), board);
+	}
+
+	/**
+	 * Get the decision stored for a board.
+	 * 
+	 * @param board the board to look up
+	 * @return The decision of the heuristic strategy, or NO_MOVE if there is none.
+	 */
+	static int getDecision(Board board) {
+		return getDecisions(board.getCurrentPlayer().getSymbol()).get(board.getPositionCode());
+	}
+
+	/**
+	 * Helper method that gets the table of decisions for a current player.
+	 * 
+	 * @param symbol the symbol of the current player
+	 * @return The decisions for positions where the player has the symbol.
+	 */
+	private static PositionStore.OfByte getDecisions(char symbol) {
+		return (symbol == Board.X_SYMBOL) ? X_DECISIONS : O_DECISIONS;
+	}
+
+	/**
+	 * Helper method that runs the heuristic strategy on every position where a
+	 * move can be chosen by the player with the specified symbol. Those are the
+	 * positions where the player has as many symbols as the other player, or one
+	 * fewer, and the game isn't over.
+	 * 
+	 * @param heuristic the strategy to compile
+	 * @param symbol    the symbol of the current player
+	 * @return The decision for every position.
+	 */
+	private static PositionStore.OfByte compile(HeuristicStrategy heuristic, char symbol) {
+		PositionStore.OfByte decisions = new PositionStore.OfByte(NO_MOVE);
+		int mineDigit = PositionCode.getDigit(symbol);
+		for (int code = 0; code < PositionCode.POSITIONS; code++) {
+			int mine = 0, theirs = 0;
+			for (int rest = code; rest > 0; rest /= 3) {
+				mine += (rest % 3 == mineDigit) ? 1 : 0;
+				theirs += (rest % 3 != 0 && rest % 3 != mineDigit) ? 1 : 0;
+			}
+			if (mine != theirs && mine != theirs - 1) {
+				continue;
+			}
+			TicTacToeBoard board = createBoard(code, symbol);
+			if (board.getFilledTilesNumber() < TILES && !GameState.winningMoveMade(board)) {
+				decisions.set(code, (byte) heuristic.decide(board));
+			}
+		}
+		return decisions;
+	}
+
+	/**
+	 * Helper method that creates a board for a position where the current player
+	 * has the specified symbol. The current player moves first unless they have
+	 * fewer symbols than the other player.
+	 * 
+	 * @param code   the code of the position
+	 * @param symbol the symbol of the current player
+	 * @return A board holding the position.
+	 */
+	private static TicTacToeBoard createBoard(int code, char symbol) {
+		char otherSymbol = (symbol == Board.X_SYMBOL) ? Board.O_SYMBOL : Board.X_SYMBOL;
+		Player current = new UserPlayer(symbol), other = new UserPlayer(otherSymbol);
+		int balance = 0;
+		for (int tile = 0; tile < TILES; tile++) {
+			char tileSymbol = PositionCode.getSymbolAt(code, tile);
+			balance += (tileSymbol == symbol) ? 1 : (tileSymbol == otherSymbol) ? -1 : 0;
+		}
+		TicTacToeBoard board = (balance == 0) ? new TicTacToeBoard(current, other)
+				: new TicTacToeBoard(other, current);
+		if (balance != 0) {
+			board.switchTurns();
+		}
+		board.setPosition(code);
+		return board;
+	}
+
+	/**
+	 * Check that the compiled strategy matches the heuristic strategy move for
+	 * move. Every position is played with the current player on either symbol, and
+	 * the table's decision is compared with the heuristic's decision on that board.
+	 * The moves both strategies choose over many tries have to be exactly the tiles
+	 * the decision allows, so a random decision has to reach every empty tile. The
+	 * number of positions checked and mismatches found is printed, and the exit
+	 * status is 1 if there are any mismatches.
+	 * 
+	 * @param args unused
+	 */
+	public static void main(String args[]) {
+		HeuristicStrategy heuristic = new HeuristicStrategy();
+		CompiledHeuristicStrategy compiled = new CompiledHeuristicStrategy();
+		int checked = 0, mismatches = 0;
+		for (int code = 0; code < PositionCode.POSITIONS; code++) {
+			for (char symbol : new char[] { Board.X_SYMBOL, Board.O_SYMBOL }) {
+				if (getDecisions(symbol).get(code) == NO_MOVE) {
+					continue;
+				}
+				TicTacToeBoard board = createBoard(code, symbol);
+				checked++;
+				if (!conforms(board, heuristic, compiled)) {
+					mismatches++;
+					System.out.println("Mismatch for " + symbol + " on:\n" + board);
+				}
+			}
+		}
+		System.out.printf("Checked %d positions, %d mismatches%n", checked, mismatches);
+		if (mismatches > 0) {
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Helper method that checks the compiled strategy against the heuristic
+	 * strategy on one board.
+	 * 
+	 * @param board     the board to check
+	 * @param heuristic the heuristic strategy
+	 * @param compiled  the compiled strategy
+	 * @return true if the strategies agree on the board, false otherwise.
+	 */
+	private static boolean conforms(Board board, HeuristicStrategy heuristic, CompiledHeuristicStrategy compiled) {
+		int decision = getDecision(board);
+		if (decision != heuristic.decide(board)) {
+			return false;
+		}
+		// tiles each strategy chose over many tries, as bit sets
+		int heuristicTiles = 0, compiledTiles = 0;
+		for (int i = 0; i < 200; i++) {
+			int[] heuristicMove = heuristic.chooseMove(board), compiledMove = compiled.chooseMove(board);
+			heuristicTiles |= 1 << (heuristicMove[0] * Board.BOARD_COLS + heuristicMove[1]);
+			compiledTiles |= 1 << (compiledMove[0] * Board.BOARD_COLS + compiledMove[1]);
+		}
+		int allowed = 0;
+		for (int tile = 0; tile < TILES; tile++) {
+			boolean empty = board.getTileAt(tile / Board.BOARD_COLS, tile % Board.BOARD_COLS).isEmpty();
+			if (decision < HeuristicStrategy.RANDOM_TILE ? tile == decision : empty) {
+				allowed |= 1 << tile;
+			}
+		}
+		// a random choice can land on any empty tile, and otherwise only one tile
+		return heuristicTiles == allowed && compiledTiles == allowed;
+	}
+}
@@ -0,0 +1,257 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * This class records the moves of a series of games so that they can be
+ * replayed. Each move takes a single byte holding its tile and symbol, and each
+ * game is the range of moves up to its end plus its winner, so a recording of a
+ * million games takes around 12 megabytes.
+ * 
+ * A recording is also a BoardListener: registered on a board, it records every
+ * move made on it, drops moves that are undone, and ends a game when the board
+ * says it is over. A game left before it is over is dropped when the first move
+ * of the next game is made.
+ * 
+ * A recording is not thread-safe. It must be filled on one thread, usually the
+ * thread making the moves, and only handed to another thread once it is
+ * filled.
+ */
+public class GameRecording implements BoardListener {
+	/**
+	 * Number of bits of a move holding its tile. The bits above hold the digit of
+	 * its symbol, as given by PositionCode.getDigit().
+	 */
+	private final static int TILE_BITS = 4;
+	/**
+	 * Mask of the bits of a move holding its tile.
+	 */
+	private final static int TILE_MASK = (1 << TILE_BITS) - 1;
+
+	/**
+	 * Recorded moves, one byte each, in the order they were made.
+	 */
+	private byte[] moves = new byte[64];
+	/**
+	 * Number of moves recorded, including the moves of the game not over yet.
+	 */
+	private int moveCount;
+	/**
+	 * Index in moves after the last move of each finished game.
+	 */
+	private int[] gameEnds = new int[16];
+	/**
+	 * Symbol of the winner of each finished game, or EMPTY for a tie.
+	 */
+	private char[] winners = new char[16];
+	/**
+	 * Number of finished games.
+	 */
+	private int gameCount;
+
+	/**
+	 * Record a move of the game being played.
+	 * 
+	 * @param tile   the tile of the move, row * BOARD_COLS + col
+	 * @param symbol the symbol of the player who made the move
+	 * @throws IllegalArgumentException if the tile or symbol is invalid
+	 */
+	public void addMove(int tile, char symbol) {
+		if (tile < 0 || tile >= Board.BOARD_ROWS * Board.BOARD_COLS
+				|| (symbol != Board.X_SYMBOL && symbol != Board.O_SYMBOL)) {
+			throw new IllegalArgumentException("Invalid move: " + symbol + " on tile " + tile);
+		}
+		if (moveCount == moves.length) {
+			moves = Arrays.copyOf(moves, moves.length * 2);
+		}
+		moves[moveCount++] = (byte) (tile | (PositionCode.getDigit(symbol) << TILE_BITS));
+	}
+
+	/**
+	 * Drop the last move of the game being played, if it has one.
+	 */
+	public void removeMove() {
+		if (moveCount > getGameStart(gameCount)) {
+			moveCount--;
+		}
+	}
+
+	/**
+	 * End the game being played, so that its moves can be replayed.
+	 * 
+	 * @param winner the symbol of the winner, or EMPTY for a tie
+	 */
+	public void endGame(char winner) {
+		if (gameCount == gameEnds.length) {
+			gameEnds = Arrays.copyOf(gameEnds, gameEnds.length * 2);
+			winners = Arrays.copyOf(winners, winners.length * 2);
+		}
+		gameEnds[gameCount] = moveCount;
+		winners[gameCount] = winner;
+		gameCount++;
+	}
+
+	/**
+	 * Get the number of finished games.
+	 * 
+	 * @return The number of games that can be replayed.
+	 */
+	public int getGames() {
+		return gameCount;
+	}
+
+	/**
+	 * Get the number of moves of the finished games.
+	 * 
+	 * @return The number of moves that can be replayed.
+	 */
+	public int getMoves() {
+		return getGameStart(gameCount);
+	}
+
+	/**
+	 * Get the index of the first move of a game.
+	 * 
+	 * @param game the index of the game, or getGames() for the game not over yet
+	 * @return The index of the game's first move.
+	 */
+	public int getGameStart(int game) {
+		return (game == 0) ? 0 : gameEnds[game - 1];
+	}
+
+	/**
+	 * Get the index after the last move of a finished game.
+	 * 
+	 * @param game the index of the game
+	 * @return The index after the game's last move.
+	 */
+	public int getGameEnd(int game) {
+		return gameEnds[game];
+	}
+
+	/**
+	 * Get the symbol of the winner of a finished game.
+	 * 
+	 * @param game the index of the game
+	 * @return The symbol of the winner, or EMPTY if the game was tied.
+	 */
+	public char getWinner(int game) {
+		return winners[game];
+	}
+
+	/**
+	 * Get the tile of a move.
+	 * 
+	 * @param move the index of the move
+	 * @return The tile of the move, row * BOARD_COLS + col.
+	 */
+	public int getTile(int move) {
+		return moves[move] & TILE_MASK;
+	}
+
+	/**
+	 * Get the symbol of a move.
+	 * 
+	 * @param move the index of the move
+	 * @return The symbol of the player who made the move.
+	 */
+	public char getSymbol(int move) {
+		return PositionCode.getSymbol(moves[move] >>> TILE_BITS);
+	}
+
+	/**
+	 * Record a move made on the board. The first move of a game drops the moves
+	 * of a game that was left before it was over.
+	 * 
+	 * @param event the event describing the move that was made
+	 */
+	@Override
+	public void moveMade(BoardEvent.MoveEvent event) {
+		if (event.getBoard().getFilledTilesNumber() == 1) {
+			moveCount = getGameStart(gameCount);
+		}
+		addMove(event.getRow() * Board.BOARD_COLS + event.getCol(), event.getSymbol());
+	}
+
+	/**
+	 * Drop the move undone on the board.
+	 * 
+	 * @param event the event describing the move that was undone
+	 */
+	@Override
+	public void moveUndone(BoardEvent.UndoEvent event) {
+		removeMove();
+	}
+
+	/**
+	 * End the game that is over on the board.
+	 * 
+	 * @param event the event describing how the game ended
+	 */
+	@Override
+	public void gameOver(BoardEvent.GameOverEvent event) {
+		endGame((event.getWinner() == null) ? Board.EMPTY : event.getWinner().getSymbol());
+	}
+
+	/**
+	 * Record games between two computer players. Player one plays X and moves
+	 * first in every game.
+	 * 
+	 * @param playerOne the strategy of the player playing X
+	 * @param playerTwo the strategy of the player playing O
+	 * @param games     the number of games to play
+	 * @return A recording of the games.
+	 */
+	public static GameRecording simulate(MoveStrategy playerOne, MoveStrategy playerTwo, int games) {
+		GameRecording recording = new GameRecording();
+		TicTacToeBoard board = new TicTacToeBoard(new ComputerPlayer(Board.X_SYMBOL, playerOne),
+				new ComputerPlayer(Board.O_SYMBOL, playerTwo));
+		board.addBoardListener(recording);
+		for (int game = 0; game < games; game++) {
+			GameState gameState = GameState.IN_PROGRESS;
+			while (gameState == GameState.IN_PROGRESS) {
+				gameState = ((ComputerPlayer) board.getCurrentPlayer()).makeMove(board);
+				if (gameState == GameState.IN_PROGRESS) {
+					board.switchTurns();
+				}
+			}
+			// the same board is reused, with player one moving first again
+			board.resetBoard();
+			if (board.isPlayerTwoTurn()) {
+				board.switchTurns();
+			}
+		}
+		return recording;
+	}
+
+	/**
+	 * Record games between two strategies and print how fast they were recorded,
+	 * how many bytes they take and how they ended.
+	 * 
+	 * @param args the name of the strategy playing X, the name of the strategy
+	 *             playing O and the number of games, by default 100,000 games of
+	 *             the heuristic strategy against the random one
+	 */
+	public static void main(String args[]) {
+		MoveStrategy playerOne = MoveStrategies.getByName((args.length > 0) ? args[0] : "Heuristic");
+		MoveStrategy playerTwo = MoveStrategies.getByName((args.length > 1) ? args[1] : "Random");
+		int games = (args.length > 2) ? Integer.parseInt(args[2]) : 100000;
+		if (playerOne == null || playerTwo == null) {
+			System.err.println("Usage: GameRecording [strategy of X] [strategy of O] [games]");
+			System.exit(2);
+		}
+		long start = System.nanoTime();
+		GameRecording recording = simulate(playerOne, playerTwo, games);
+		double seconds = (System.nanoTime() - start) / 1e9;
+		int xWins = 0, oWins = 0;
+		for (int game = 0; game < recording.getGames(); game++) {
+			xWins += (recording.getWinner(game) == Board.X_SYMBOL) ? 1 : 0;
+			oWins += (recording.getWinner(game) == Board.O_SYMBOL) ? 1 : 0;
+		}
+		System.out.printf("%,d games, %,d moves recorded in %.2f s (%,.0f moves/s), %,d bytes of moves%n",
+				recording.getGames(), recording.getMoves(), seconds, recording.getMoves() / seconds,
+				recording.moves.length);
+		System.out.printf("X wins: %,d, O wins: %,d, ties: %,d%n", xWins, oWins,
+				recording.getGames() - xWins - oWins);
+	}
+}
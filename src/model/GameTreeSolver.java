@@ -0,0 +1,584 @@
+package model;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class solves 3x3 Tic-Tac-Toe by playing out every possible game, and
+ * serves as an oracle of the exact value of every position. The game tree is
+ * walked in parallel on a ForkJoinPool: each of the first few moves is a task
+ * of its own, and the games below it are played out one by one without any
+ * memoization, so every one of the 255,168 games of a player moving first is
+ * visited and counted.
+ * 
+ * The value of a position is stored for the player about to move, in a
+ * PositionStore for each symbol that can be about to move. A value above zero
+ * is a win and below zero a loss, WIN_SCORE minus the number of moves left in
+ * the game when both players play perfectly, and 0 is a tie.
+ * 
+ * Either player can move first on a TicTacToeBoard, so the games where X moves
+ * first and the games where O moves first are both solved. The player about to
+ * move is the player moving first exactly when both have the same number of
+ * symbols, so every position and player about to move are solved once.
+ */
+public class GameTreeSolver {
+	/**
+	 * Score of a win with no moves left to make. A win with more moves left scores
+	 * less.
+	 */
+	public final static int WIN_SCORE = 10;
+	/**
+	 * Value stored for positions that can't come up in a game or are never
+	 * reached, such as the positions after a game is over.
+	 */
+	public final static byte UNSOLVED = Byte.MIN_VALUE;
+	/**
+	 * Number of moves played out in tasks of their own. Below them each task
+	 * plays out its games on its own.
+	 */
+	private final static int SPLIT_DEPTH = 3;
+	/**
+	 * Number of tiles of the board.
+	 */
+	private final static int TILES = Board.BOARD_ROWS * Board.BOARD_COLS;
+	/**
+	 * Lines of the board through each tile, as indexes in Board.LINES.
+	 */
+	private final static int[][] TILE_LINES = new int[TILES][];
+
+	static {
+		for (int tile = 0; tile < TILES; tile++) {
+			int count = 0;
+			int[] lines = new int[4];
+			for (int line = 0; line < Board.LINES.length; line++) {
+				for (int lineTile : Board.LINES[line]) {
+					if (lineTile == tile) {
+						lines[count++] = line;
+					}
+				}
+			}
+			TILE_LINES[tile] = Arrays.copyOf(lines, count);
+		}
+	}
+
+	/**
+	 * Task playing out every game from a position and scoring it.
+	 */
+	private class SolveTask extends RecursiveTask<Integer> {
+		/**
+		 * Version number for serialization, required by RecursiveTask.
+		 */
+		private static final long serialVersionUID = 1L;
+		/**
+		 * Symbols of the tiles of the position, indexed by tile. The task owns the
+		 * array.
+		 */
+		private final char[] cells;
+		/**
+		 * Code of the position.
+		 */
+		private final int code;
+		/**
+		 * Symbol of the player about to move.
+		 */
+		private final char toMove;
+		/**
+		 * Tile the last move was made on, or -1 before the first move.
+		 */
+		private final int lastTile;
+		/**
+		 * Number of moves made before the position.
+		 */
+		private final int movesMade;
+
+		/**
+		 * Construct a task for a position.
+		 * 
+		 * @param cells     the symbols of the tiles, owned by the task
+		 * @param code      the code of the position
+		 * @param toMove    the symbol of the player about to move
+		 * @param lastTile  the tile of the last move, or -1 before the first move
+		 * @param movesMade the number of moves made before the position
+		 */
+		private SolveTask(char[] cells, int code, char toMove, int lastTile, int movesMade) {
+			this.cells = cells;
+			this.code = code;
+			this.toMove = toMove;
+			this.lastTile = lastTile;
+			this.movesMade = movesMade;
+		}
+
+		/**
+		 * Score the position, forking a task for every move while the position is
+		 * close enough to the start of the game.
+		 * 
+		 * @return The value of the position for the player about to move.
+		 */
+		@Override
+		protected Integer compute() {
+			if (movesMade >= SPLIT_DEPTH || isOver(cells, lastTile, movesMade)) {
+				long[] tally = new long[TALLY_SIZE];
+				int value = solve(cells, code, toMove, lastTile, movesMade, tally);
+				positions.add(tally[POSITIONS]);
+				xWins.add(tally[X_WINS]);
+				oWins.add(tally[O_WINS]);
+				ties.add(tally[TIES]);
+				return value;
+			}
+			positions.increment();
+			char opponent = opponentOf(toMove);
+			SolveTask[] children = new SolveTask[TILES];
+			for (int tile = 0; tile < TILES; tile++) {
+				if (cells[tile] == Board.EMPTY) {
+					char[] childCells = cells.clone();
+					childCells[tile] = toMove;
+					children[tile] = new SolveTask(childCells, (int) PositionCode.update(code, tile, Board.EMPTY, toMove),
+							opponent, tile, movesMade + 1);
+					children[tile].fork();
+				}
+			}
+			int best = -WIN_SCORE - 1;
+			for (int tile = TILES - 1; tile >= 0; tile--) {
+				if (children[tile] != null) {
+					best = Math.max(best, -children[tile].join());
+				}
+			}
+			// a win or loss is a move further away from here
+			best -= Integer.signum(best);
+			getValues(toMove).set(code, (byte) best);
+			return best;
+		}
+	}
+
+	/**
+	 * Index in a tally of the number of positions visited.
+	 */
+	private final static int POSITIONS = 0;
+	/**
+	 * Index in a tally of the number of games won by X.
+	 */
+	private final static int X_WINS = 1;
+	/**
+	 * Index in a tally of the number of games won by O.
+	 */
+	private final static int O_WINS = 2;
+	/**
+	 * Index in a tally of the number of tied games.
+	 */
+	private final static int TIES = 3;
+	/**
+	 * Number of counts in a tally.
+	 */
+	private final static int TALLY_SIZE = 4;
+
+	/**
+	 * Values of the positions where X is about to move.
+	 */
+	private final PositionStore.OfByte xValues = new PositionStore.OfByte(UNSOLVED);
+	/**
+	 * Values of the positions where O is about to move.
+	 */
+	private final PositionStore.OfByte oValues = new PositionStore.OfByte(UNSOLVED);
+	/**
+	 * Number of positions visited, counting a position once for every game
+	 * passing through it.
+	 */
+	private final LongAdder positions = new LongAdder();
+	/**
+	 * Number of games won by X.
+	 */
+	private final LongAdder xWins = new LongAdder();
+	/**
+	 * Number of games won by O.
+	 */
+	private final LongAdder oWins = new LongAdder();
+	/**
+	 * Number of tied games.
+	 */
+	private final LongAdder ties = new LongAdder();
+
+	/**
+	 * Play out every game with either player moving first and store the value of
+	 * every position reached.
+	 * 
+	 * @param pool the pool to play the games on
+	 */
+	public void solve(ForkJoinPool pool) {
+		pool.invoke(new RecursiveTask<Void>() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected Void compute() {
+				invokeAll(new SolveTask(emptyCells(), 0, Board.X_SYMBOL, -1, 0),
+						new SolveTask(emptyCells(), 0, Board.O_SYMBOL, -1, 0));
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * Get the value of a position.
+	 * 
+	 * @param code   the code of the position
+	 * @param toMove the symbol of the player about to move
+	 * @return The value for the player about to move, or UNSOLVED if the position
+	 *         wasn't reached or the game is over.
+	 */
+	public int getValue(int code, char toMove) {
+		return getValues(toMove).get(code);
+	}
+
+	/**
+	 * Get the value of the position after a move, for the player making it.
+	 * 
+	 * @param code   the code of the position before the move
+	 * @param toMove the symbol of the player making the move
+	 * @param tile   the empty tile the move is made on
+	 * @return The value of the move for the player making it.
+	 */
+	public int getMoveValue(int code, char toMove, int tile) {
+		int childCode = (int) PositionCode.update(code, tile, Board.EMPTY, toMove);
+		int value = getValue(childCode, opponentOf(toMove));
+		// a position where the game is over isn't stored, and the move ended it
+		if (value == UNSOLVED) {
+			char[] cells = new char[TILES];
+			PositionCode.decode(childCode, cells);
+			value = completesLine(cells, tile) ? -WIN_SCORE : 0;
+		}
+		return -value;
+	}
+
+	/**
+	 * Get the moves keeping the best outcome of a position, a win, a tie or a
+	 * loss, however many moves they take to get there.
+	 * 
+	 * @param code   the code of the position
+	 * @param toMove the symbol of the player about to move
+	 * @return A bit set of the tiles of the moves, where bit i stands for tile i.
+	 */
+	public int getBestMoves(int code, char toMove) {
+		int outcome = Integer.signum(getValue(code, toMove));
+		int moves = 0;
+		for (int tile = 0; tile < TILES; tile++) {
+			if (PositionCode.getSymbolAt(code, tile) == Board.EMPTY
+					&& Integer.signum(getMoveValue(code, toMove, tile)) == outcome) {
+				moves |= 1 << tile;
+			}
+		}
+		return moves;
+	}
+
+	/**
+	 * Get the number of positions visited by the last solve, counting a position
+	 * once for every game passing through it.
+	 * 
+	 * @return The number of positions visited.
+	 */
+	public long getPositionsVisited() {
+		return positions.sum();
+	}
+
+	/**
+	 * Get the number of games played out, with either player moving first.
+	 * 
+	 * @return The number of games.
+	 */
+	public long getGames() {
+		return xWins.sum() + oWins.sum() + ties.sum();
+	}
+
+	/**
+	 * Helper method that gets the values of the positions where a player is about
+	 * to move.
+	 * 
+	 * @param toMove the symbol of the player about to move
+	 * @return The store of the values.
+	 */
+	private PositionStore.OfByte getValues(char toMove) {
+		return (toMove == Board.X_SYMBOL) ? xValues : oValues;
+	}
+
+	/**
+	 * Helper method that plays out every game from a position on a single thread
+	 * and scores it.
+	 * 
+	 * @param cells     the symbols of the tiles, restored before returning
+	 * @param code      the code of the position
+	 * @param toMove    the symbol of the player about to move
+	 * @param lastTile  the tile of the last move, or -1 before the first move
+	 * @param movesMade the number of moves made before the position
+	 * @param tally     the counts of positions and game results to add to
+	 * @return The value of the position for the player about to move.
+	 */
+	private int solve(char[] cells, int code, char toMove, int lastTile, int movesMade, long[] tally) {
+		tally[POSITIONS]++;
+		if (lastTile >= 0 && completesLine(cells, lastTile)) {
+			// the player who just moved won
+			tally[(cells[lastTile] == Board.X_SYMBOL) ? X_WINS : O_WINS]++;
+			return -WIN_SCORE;
+		}
+		if (movesMade == TILES) {
+			tally[TIES]++;
+			return 0;
+		}
+		char opponent = opponentOf(toMove);
+		int best = -WIN_SCORE - 1;
+		for (int tile = 0; tile < TILES; tile++) {
+			if (cells[tile] == Board.EMPTY) {
+				cells[tile] = toMove;
+				int value = -solve(cells, (int) PositionCode.update(code, tile, Board.EMPTY, toMove), opponent,
+						tile, movesMade + 1, tally);
+				cells[tile] = Board.EMPTY;
+				best = Math.max(best, value);
+			}
+		}
+		// a win or loss is a move further away from here
+		best -= Integer.signum(best);
+		getValues(toMove).set(code, (byte) best);
+		return best;
+	}
+
+	/**
+	 * Helper method that creates the tiles of an empty board.
+	 * 
+	 * @return The symbols of the tiles, all EMPTY.
+	 */
+	private static char[] emptyCells() {
+		char[] cells = new char[TILES];
+		Arrays.fill(cells, Board.EMPTY);
+		return cells;
+	}
+
+	/**
+	 * Helper method that checks if a game is over.
+	 * 
+	 * @param cells     the symbols of the tiles
+	 * @param lastTile  the tile of the last move, or -1 before the first move
+	 * @param movesMade the number of moves made
+	 * @return true if the last move won or filled the board, false otherwise.
+	 */
+	private static boolean isOver(char[] cells, int lastTile, int movesMade) {
+		return movesMade == TILES || (lastTile >= 0 && completesLine(cells, lastTile));
+	}
+
+	/**
+	 * Helper method that checks whether the last move completed a line.
+	 * 
+	 * @param cells    the symbols of the tiles
+	 * @param lastTile the tile the last move was made on
+	 * @return true if a line through the tile is filled with its symbol, false
+	 *         otherwise.
+	 */
+	private static boolean completesLine(char[] cells, int lastTile) {
+		char symbol = cells[lastTile];
+		for (int line : TILE_LINES[lastTile]) {
+			int[] tiles = Board.LINES[line];
+			if (cells[tiles[0]] == symbol && cells[tiles[1]] == symbol && cells[tiles[2]] == symbol) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Helper method that gets the symbol of the other player.
+	 * 
+	 * @param symbol the symbol of a player
+	 * @return The symbol of the other player.
+	 */
+	private static char opponentOf(char symbol) {
+		return (symbol == Board.X_SYMBOL) ? Board.O_SYMBOL : Board.X_SYMBOL;
+	}
+
+	/**
+	 * Helper method that marks every position where a player is about to move
+	 * that can come up when the player uses the heuristic strategy and the other
+	 * player makes any move.
+	 * 
+	 * @param board     a board holding the position, with the player about to move
+	 *                  as the current player
+	 * @param heuristic the heuristic strategy
+	 * @param player    the symbol of the player using the heuristic strategy
+	 * @param reached   the positions already marked, with the player about to move
+	 * @param lastTile  the tile of the last move, or -1 before the first move
+	 */
+	private static void markReached(TicTacToeBoard board, HeuristicStrategy heuristic, char player,
+			PositionStore.OfByte reached, int lastTile) {
+		int code = board.getPositionCode();
+		char toMove = board.getCurrentPlayer().getSymbol();
+		char[] cells = new char[TILES];
+		PositionCode.decode(code, cells);
+		if (isOver(cells, lastTile, board.getFilledTilesNumber())) {
+			return;
+		}
+		if (toMove == player) {
+			if (reached.get(code) != 0) {
+				return;
+			}
+			reached.set(code, (byte) 1);
+		}
+		int moves = (toMove == player) ? getCandidateMoves(heuristic, board) : getEmptyTiles(code);
+		for (int tile = 0; tile < TILES; tile++) {
+			if ((moves & (1 << tile)) != 0) {
+				TicTacToeBoard child = createBoard((int) PositionCode.update(code, tile, Board.EMPTY, toMove),
+						opponentOf(toMove));
+				markReached(child, heuristic, player, reached, tile);
+			}
+		}
+	}
+
+	/**
+	 * Helper method that gets every move the heuristic strategy can choose on a
+	 * board.
+	 * 
+	 * @param heuristic the heuristic strategy
+	 * @param board     the board to choose a move on
+	 * @return A bit set of the tiles of the moves, where bit i stands for tile i.
+	 */
+	private static int getCandidateMoves(HeuristicStrategy heuristic, Board board) {
+		int decision = heuristic.decide(board);
+		// a decision that can be random can land on any empty tile
+		return (decision < HeuristicStrategy.RANDOM_TILE) ? 1 << decision
+				: getEmptyTiles(board.getPositionCode());
+	}
+
+	/**
+	 * Helper method that gets the empty tiles of a position.
+	 * 
+	 * @param code the code of the position
+	 * @return A bit set of the empty tiles, where bit i stands for tile i.
+	 */
+	private static int getEmptyTiles(int code) {
+		int tiles = 0;
+		for (int tile = 0; tile < TILES; tile++) {
+			if (PositionCode.getSymbolAt(code, tile) == Board.EMPTY) {
+				tiles |= 1 << tile;
+			}
+		}
+		return tiles;
+	}
+
+	/**
+	 * Helper method that creates a board holding a position, with the specified
+	 * player about to move.
+	 * 
+	 * @param code   the code of the position
+	 * @param toMove the symbol of the player about to move
+	 * @return A board holding the position.
+	 */
+	private static TicTacToeBoard createBoard(int code, char toMove) {
+		TicTacToeBoard board = new TicTacToeBoard(new UserPlayer(toMove), new UserPlayer(opponentOf(toMove)));
+		board.setPosition(code);
+		return board;
+	}
+
+	/**
+	 * Helper method that lists the tiles of a bit set, numbered from 1 to 9.
+	 * 
+	 * @param tiles the bit set of tiles
+	 * @return The numbers of the tiles, separated by spaces.
+	 */
+	private static String listTiles(int tiles) {
+		StringBuilder list = new StringBuilder();
+		for (int tile = 0; tile < TILES; tile++) {
+			if ((tiles & (1 << tile)) != 0) {
+				list.append((list.length() > 0) ? " " : "").append(tile + 1);
+			}
+		}
+		return list.toString();
+	}
+
+	/**
+	 * Helper method that describes the outcome of a value.
+	 * 
+	 * @param value the value of a position or move
+	 * @return "wins", "ties" or "loses".
+	 */
+	private static String describe(int value) {
+		return (value > 0) ? "wins" : (value < 0) ? "loses" : "ties";
+	}
+
+	/**
+	 * Solve the game several times and print the number of games, their results
+	 * and the best throughput in positions per second. Then check the heuristic
+	 * strategy against the solution: every position where a move it can choose
+	 * has a worse outcome than the best move is counted, and the ones that can
+	 * come up when the heuristic plays that side are printed with the moves it can
+	 * choose and the best moves. Tiles are numbered 1 to 9 in row order. The
+	 * perfect strategy is checked the same way, and the exit status is 1 if it
+	 * ever chooses a worse move or the number of games is wrong.
+	 * 
+	 * @param args the number of times to solve the game, 5 by default
+	 */
+	public static void main(String args[]) {
+		int rounds = (args.length > 0) ? Integer.parseInt(args[0]) : 5;
+		ForkJoinPool pool = ForkJoinPool.commonPool();
+		GameTreeSolver solver = null;
+		long fastest = Long.MAX_VALUE;
+		for (int round = 0; round < rounds; round++) {
+			solver = new GameTreeSolver();
+			long start = System.nanoTime();
+			solver.solve(pool);
+			fastest = Math.min(fastest, System.nanoTime() - start);
+		}
+		System.out.printf("%,d games with each player moving first: %,d won by X, %,d won by O, %,d tied%n",
+				solver.getGames() / 2, solver.xWins.sum(), solver.oWins.sum(), solver.ties.sum());
+		System.out.printf("%,d positions in %.1f ms on %d threads, %,.0f positions/s%n",
+				solver.getPositionsVisited(), fastest / 1e6, pool.getParallelism(),
+				solver.getPositionsVisited() * 1e9 / fastest);
+		System.out.printf("Empty board: the player moving first %s%n",
+				describe(solver.getValue(0, Board.X_SYMBOL)));
+
+		HeuristicStrategy heuristic = new HeuristicStrategy();
+		int flawed = 0, flawedReached = 0, forcedFlaws = 0;
+		for (char player : new char[] { Board.X_SYMBOL, Board.O_SYMBOL }) {
+			// the positions the heuristic can reach, moving first or second
+			PositionStore.OfByte reached = new PositionStore.OfByte((byte) 0);
+			markReached(createBoard(0, player), heuristic, player, reached, -1);
+			markReached(createBoard(0, opponentOf(player)), heuristic, player, reached, -1);
+			for (int code = 0; code < PositionCode.POSITIONS; code++) {
+				int value = solver.getValue(code, player);
+				if (value == UNSOLVED) {
+					continue;
+				}
+				TicTacToeBoard board = createBoard(code, player);
+				int candidates = getCandidateMoves(heuristic, board);
+				int worse = candidates & ~solver.getBestMoves(code, player);
+				if (worse == 0) {
+					continue;
+				}
+				flawed++;
+				forcedFlaws += (worse == candidates) ? 1 : 0;
+				if (reached.get(code) == 0) {
+					continue;
+				}
+				flawedReached++;
+				int worstTile = Integer.numberOfTrailingZeros(worse);
+				System.out.printf("%n%c to move %s with %s, but the heuristic can play %s, which %s:%n%s", player,
+						describe(value), listTiles(solver.getBestMoves(code, player)), listTiles(worse),
+						describe(solver.getMoveValue(code, player, worstTile)), board);
+			}
+		}
+		System.out.printf("%nThe heuristic can choose a worse move in %,d positions, %,d of them reachable "
+				+ "in its own games, and always does in %,d%n", flawed, flawedReached, forcedFlaws);
+
+		// the perfect strategy has to keep the best outcome everywhere
+		PerfectStrategy perfect = new PerfectStrategy();
+		int perfectFlaws = 0;
+		for (char player : new char[] { Board.X_SYMBOL, Board.O_SYMBOL }) {
+			for (int code = 0; code < PositionCode.POSITIONS; code++) {
+				if (solver.getValue(code, player) != UNSOLVED) {
+					int[] move = perfect.chooseMove(createBoard(code, player));
+					int tile = move[0] * Board.BOARD_COLS + move[1];
+					perfectFlaws += ((solver.getBestMoves(code, player) & (1 << tile)) == 0) ? 1 : 0;
+				}
+			}
+		}
+		System.out.printf("The perfect strategy chooses a worse move in %d positions%n", perfectFlaws);
+		if (solver.getGames() != 2 * 255168 || perfectFlaws > 0) {
+			System.exit(1);
+		}
+	}
+}
@@ -0,0 +1,298 @@
+package model;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * This class is the heuristic move strategy, which uses a five step algorithm
+ * to choose its moves: 1. Try to fill in tile to win the game. 2. If no tile
+ * exists, fill in tile blocking user from winning the game. 3. If no tile
+ * exists, fill in tile to get in two in a row. 4. If no tile exists, fill in
+ * tile blocking user from getting two in a row. 5. If none of these moves
+ * exist, place symbol on a random empty tile. On the first move of each player
+ * it either blocks the user from getting two in a row or picks a random tile.
+ */
+public class HeuristicStrategy implements MoveStrategy {
+	/**
+	 * Decision of choosing a random empty tile.
+	 */
+	final static int RANDOM_TILE = 9;
+	/**
+	 * Decision of choosing a tile or a random empty tile with equal chances, added
+	 * to the number of the tile.
+	 */
+	final static int BLOCK_OR_RANDOM = 16;
+	/**
+	 * The checks made when looking for a winning move, in the order they are made,
+	 * as {tile with the symbol, other tile with the symbol, empty tile to move
+	 * on}. Tiles are numbered row * BOARD_COLS + col. The checks go through the
+	 * tiles from the top left, and don't cover every winning move, so the move
+	 * chosen depends on this order.
+	 */
+	private final static int[][] WINNING_RULES = { { 0, 4, 8 }, { 0, 8, 4 }, { 0, 3, 6 }, { 0, 6, 3 },
+			{ 0, 1, 2 }, { 0, 2, 1 }, { 1, 4, 7 }, { 1, 7, 4 }, { 1, 2, 0 }, { 2, 4, 6 }, { 2, 6, 4 }, { 2, 5, 8 },
+			{ 2, 8, 5 }, { 3, 6, 0 }, { 3, 4, 5 }, { 3, 5, 4 }, { 4, 0, 8 }, { 4, 2, 6 }, { 4, 8, 0 }, { 4, 6, 2 },
+			{ 4, 7, 1 }, { 4, 5, 3 }, { 5, 8, 2 }, { 6, 7, 8 }, { 6, 8, 7 }, { 7, 8, 6 } };
+	/**
+	 * The checks made when looking for a move making two in a row, in the order
+	 * they are made, as {tile with the symbol, empty tile to move on, other empty
+	 * tile}.
+	 */
+	private final static int[][] TWO_IN_A_ROW_RULES = { { 0, 4, 8 }, { 0, 1, 2 }, { 0, 3, 6 }, { 1, 0, 2 },
+			{ 1, 4, 7 }, { 2, 4, 6 }, { 2, 1, 0 }, { 2, 5, 8 }, { 3, 4, 5 }, { 3, 0, 6 }, { 4, 3, 5 }, { 4, 1, 7 },
+			{ 5, 4, 3 }, { 5, 2, 8 }, { 6, 4, 2 }, { 6, 7, 8 }, { 6, 3, 0 }, { 7, 6, 8 }, { 7, 4, 1 }, { 8, 4, 0 },
+			{ 8, 7, 6 }, { 8, 5, 2 } };
+	/**
+	 * Rank of the first winning check of each line and empty tile, indexed by line
+	 * and tile, or Integer.MAX_VALUE if no check finds that move.
+	 */
+	private final static int[][] WINNING_RANKS = new int[Board.LINES.length][Board.BOARD_ROWS * Board.BOARD_COLS];
+	/**
+	 * Rank of the two in a row check of each line and tile with the symbol,
+	 * indexed by line and tile, or Integer.MAX_VALUE if no check covers it.
+	 */
+	private final static int[][] TWO_IN_A_ROW_RANKS = new int[Board.LINES.length][Board.BOARD_ROWS
+			* Board.BOARD_COLS];
+	/**
+	 * Tile moved on by the two in a row check of each line and tile with the
+	 * symbol.
+	 */
+	private final static int[][] TWO_IN_A_ROW_TILES = new int[Board.LINES.length][Board.BOARD_ROWS
+			* Board.BOARD_COLS];
+	static {
+		for (int line = 0; line < Board.LINES.length; line++) {
+			Arrays.fill(WINNING_RANKS[line], Integer.MAX_VALUE);
+			Arrays.fill(TWO_IN_A_ROW_RANKS[line], Integer.MAX_VALUE);
+		}
+		// rules are listed in order, so the first rule for a move keeps its rank
+		for (int rank = WINNING_RULES.length - 1; rank >= 0; rank--) {
+			int[] rule = WINNING_RULES[rank];
+			WINNING_RANKS[lineOf(rule[0], rule[1], rule[2])][rule[2]] = rank;
+		}
+		for (int rank = TWO_IN_A_ROW_RULES.length - 1; rank >= 0; rank--) {
+			int[] rule = TWO_IN_A_ROW_RULES[rank];
+			int line = lineOf(rule[0], rule[1], rule[2]);
+			TWO_IN_A_ROW_RANKS[line][rule[0]] = rank;
+			TWO_IN_A_ROW_TILES[line][rule[0]] = rule[1];
+		}
+	}
+
+	/**
+	 * Get the name of the strategy shown to the user.
+	 * 
+	 * @return The name of the strategy.
+	 */
+	@Override
+	public String getName() {
+		return "Heuristic";
+	}
+
+	/**
+	 * Get how hard the strategy is to beat.
+	 * 
+	 * @return MEDIUM.
+	 */
+	@Override
+	public Difficulty getDifficulty() {
+		return Difficulty.MEDIUM;
+	}
+
+	/**
+	 * Get how expensive it is for the strategy to choose a move.
+	 * 
+	 * @return CHEAP.
+	 */
+	@Override
+	public Cost getCost() {
+		return Cost.CHEAP;
+	}
+
+	/**
+	 * Choose the next move of the current player of the board by following the
+	 * five step algorithm.
+	 * 
+	 * @param board the board to choose a move on, with at least one empty tile
+	 * @return The coordinates {row, column} of the chosen empty tile.
+	 */
+	@Override
+	public int[] chooseMove(Board board) {
+		return resolveDecision(decide(board), board);
+	}
+
+	/**
+	 * Follow the five step algorithm up to the point where a random choice is
+	 * made. The decision only depends on which tiles hold the current player's
+	 * symbol, which hold the other symbol and which are empty.
+	 * 
+	 * @param board the board to choose a move on, with at least one empty tile
+	 * @return The number row * BOARD_COLS + col of the chosen tile, RANDOM_TILE if
+	 *         a random empty tile is chosen, or BLOCK_OR_RANDOM plus the number of
+	 *         a tile if that tile and a random empty tile are equally likely.
+	 */
+	int decide(Board board) {
+		char symbol = board.getCurrentPlayer().getSymbol();
+		char userSymbol = board.getWaitingPlayer().getSymbol();
+		int[] nextMove;
+		// on the first move of each player either block the user from getting two in
+		// a row or pick a random tile, but only block user if their symbol is on the
+		// board
+		if (board.getFilledTilesNumber() == 0) {
+			return RANDOM_TILE;
+		} else if (board.getFilledTilesNumber() == 1) {
+			return BLOCK_OR_RANDOM + getTileNumber(getTwoInARow(userSymbol, board));
+			// otherwise follow these steps
+			// try to get winning move by calling getWinningMove
+		} else if ((nextMove = getWinningMove(symbol, board)) != null) {
+			return getTileNumber(nextMove);
+			// try to block user from getting winning move by calling getWinningMove with
+			// the user symbol
+		} else if ((nextMove = getWinningMove(userSymbol, board)) != null) {
+			return getTileNumber(nextMove);
+			// try to get two in a row by calling getTwoInARow
+		} else if ((nextMove = getTwoInARow(symbol, board)) != null) {
+			return getTileNumber(nextMove);
+			// try to block user from getting to in a row by calling getTwoInARow with user
+			// symbol
+		} else if ((nextMove = getTwoInARow(userSymbol, board)) != null) {
+			return getTileNumber(nextMove);
+		} else {
+			// place randomly on board if none of these moves exists
+			return RANDOM_TILE;
+		}
+	}
+
+	/**
+	 * Turn a decision of the five step algorithm into a move, making the random
+	 * choice it leaves if there is one.
+	 * 
+	 * @param decision the decision returned by decide
+	 * @param board    the board to choose a move on
+	 * @return The coordinates {row, column} of the chosen empty tile.
+	 */
+	static int[] resolveDecision(int decision, Board board) {
+		if (decision >= BLOCK_OR_RANDOM) {
+			// will make one of two moves randomly in the first turn
+			int min = 1, max = 2,
+					// random number between range inclusive
+					random = ThreadLocalRandom.current().nextInt(min, max + 1);
+			// try to block user from getting two in a row if random number is 1
+			decision = (random == 1) ? decision - BLOCK_OR_RANDOM : RANDOM_TILE;
+		}
+		if (decision == RANDOM_TILE) {
+			// otherwise put symbol on a random empty tile
+			return RandomStrategy.getRandomEmptyTile(board);
+		}
+		return new int[] { decision / Board.BOARD_COLS, decision % Board.BOARD_COLS };
+	}
+
+	/**
+	 * Helper method that numbers the tile of a move.
+	 * 
+	 * @param move the coordinates {row, column} of the move
+	 * @return The number row * BOARD_COLS + col of the tile.
+	 */
+	private static int getTileNumber(int[] move) {
+		return move[0] * Board.BOARD_COLS + move[1];
+	}
+
+	/**
+	 * Utility method that will get the next move that forms two in a row for the
+	 * specified symbol, if it exists. The board's bit set of lines with one of the
+	 * symbol and two empty tiles is scanned, and the move with the lowest rank in
+	 * TWO_IN_A_ROW_RULES is chosen.
+	 * 
+	 * @param symbol the symbol to attempt to make two in a row of
+	 * @param board  the board to make the move on
+	 * @return The move that forms two in a row for the symbol, or null if no such
+	 *         move is found.
+	 */
+	private int[] getTwoInARow(char symbol, Board board) {
+		int bestRank = Integer.MAX_VALUE, bestTile = -1;
+		for (int lines = board.getLinesWithOne(symbol); lines != 0; lines &= lines - 1) {
+			int line = Integer.numberOfTrailingZeros(lines);
+			// the rule depends on which tile of the line holds the symbol
+			for (int tile : Board.LINES[line]) {
+				if (getSymbolAt(board, tile) == symbol && TWO_IN_A_ROW_RANKS[line][tile] < bestRank) {
+					bestRank = TWO_IN_A_ROW_RANKS[line][tile];
+					bestTile = TWO_IN_A_ROW_TILES[line][tile];
+				}
+			}
+		}
+		// return null if no two in a row move exist
+		return (bestTile < 0) ? null : getMoveCoordinates(bestTile / Board.BOARD_COLS, bestTile % Board.BOARD_COLS);
+	}
+
+	/**
+	 * Utility method that will get the winning move for the specified symbol on the
+	 * board, if it exists. The board's bit set of lines with two of the symbol and
+	 * one empty tile is scanned, and the move with the lowest rank in WINNING_RULES
+	 * is chosen.
+	 * 
+	 * @param symbol the symbol to get the winning move for
+	 * @param board  the board to get the winning move on
+	 * @return The winning move, or null if no winning move is available.
+	 */
+	private int[] getWinningMove(char symbol, Board board) {
+		int bestRank = Integer.MAX_VALUE, bestTile = -1;
+		for (int lines = board.getLinesWithTwo(symbol); lines != 0; lines &= lines - 1) {
+			int line = Integer.numberOfTrailingZeros(lines);
+			// the rule depends on which tile of the line is empty
+			for (int tile : Board.LINES[line]) {
+				if (getSymbolAt(board, tile) == Board.EMPTY && WINNING_RANKS[line][tile] < bestRank) {
+					bestRank = WINNING_RANKS[line][tile];
+					bestTile = tile;
+				}
+			}
+		}
+		// return null if no winning move exists
+		return (bestTile < 0) ? null : getMoveCoordinates(bestTile / Board.BOARD_COLS, bestTile % Board.BOARD_COLS);
+	}
+
+	/**
+	 * Helper method that gets the symbol of a numbered tile.
+	 * 
+	 * @param board the board the tile is on
+	 * @param tile  the number of the tile, row * BOARD_COLS + col
+	 * @return The symbol of the tile.
+	 */
+	private static char getSymbolAt(Board board, int tile) {
+		return board.getTileAt(tile / Board.BOARD_COLS, tile % Board.BOARD_COLS).getSymbol();
+	}
+
+	/**
+	 * Helper method that finds the line holding three tiles.
+	 * 
+	 * @param a the first tile
+	 * @param b the second tile
+	 * @param c the third tile
+	 * @return The index of the line in Board.LINES.
+	 */
+	private static int lineOf(int a, int b, int c) {
+		int tiles = (1 << a) | (1 << b) | (1 << c);
+		for (int line = 0; line < Board.LINES.length; line++) {
+			int[] lineTiles = Board.LINES[line];
+			if (tiles == ((1 << lineTiles[0]) | (1 << lineTiles[1]) | (1 << lineTiles[2]))) {
+				return line;
+			}
+		}
+		throw new IllegalArgumentException("Tiles are not in a line");
+	}
+
+	/**
+	 * Return a move on the board represented by the the given coordinates (row and
+	 * column values).
+	 * 
+	 * @param row the row value to put in the array
+	 * @param col the column value to put in the array
+	 * @return An int array containing the given row and col values represented as
+	 *         {row, column}.
+	 */
+	private int[] getMoveCoordinates(int row, int col) {
+		int[] move = new int[2];
+		// move array represented as {row, col}
+		move[0] = row;
+		move[1] = col;
+		return move;
+	}
+
+}
@@ -0,0 +1,189 @@
+package model;
+
+/**
+ * This class holds the evaluation of every legal move of a position: whether
+ * the move wins, ties or loses for the player making it when both players play
+ * perfectly afterwards, and in how many plies the game ends. A ply is a single
+ * move by either player, counting the evaluated move itself, so a move that
+ * wins right away wins in 1 ply.
+ * 
+ * An analysis never changes once it is created, so it can be cached and shared
+ * between threads.
+ */
+public class MoveAnalysis {
+	/**
+	 * Outcome of a move that wins.
+	 */
+	public final static int WIN = 1;
+	/**
+	 * Outcome of a move that ties.
+	 */
+	public final static int TIE = 0;
+	/**
+	 * Outcome of a move that loses.
+	 */
+	public final static int LOSS = -1;
+	/**
+	 * Number of tiles of the board.
+	 */
+	private final static int TILES = Board.BOARD_ROWS * Board.BOARD_COLS;
+
+	/**
+	 * Symbol of the player about to move.
+	 */
+	private final char toMove;
+	/**
+	 * Value of the move on each tile for the player making it, as scored by the
+	 * GameTreeSolver, or GameTreeSolver.UNSOLVED if the tile isn't a legal move.
+	 */
+	private final byte[] values;
+	/**
+	 * Number of plies until the game ends after the move on each tile, counting
+	 * the move, or 0 if the tile isn't a legal move.
+	 */
+	private final byte[] plies;
+
+	/**
+	 * Construct an analysis from the values of the moves on each tile.
+	 * 
+	 * @param toMove the symbol of the player about to move
+	 * @param values the value of the move on each tile, or GameTreeSolver.UNSOLVED
+	 *               for a tile that isn't a legal move. The analysis owns the array.
+	 * @param empty  the number of empty tiles of the position
+	 */
+	MoveAnalysis(char toMove, byte[] values, int empty) {
+		this.toMove = toMove;
+		this.values = values;
+		this.plies = new byte[TILES];
+		for (int tile = 0; tile < TILES; tile++) {
+			if (values[tile] == GameTreeSolver.UNSOLVED) {
+				continue;
+			}
+			// a tied game goes on until the board is full, and a win or loss takes
+			// the evaluated move plus the moves left after it
+			plies[tile] = (byte) ((values[tile] == 0) ? empty : GameTreeSolver.WIN_SCORE - Math.abs(values[tile]) + 1);
+		}
+	}
+
+	/**
+	 * Get the symbol of the player about to move.
+	 * 
+	 * @return The symbol of the player the moves are evaluated for.
+	 */
+	public char getPlayerToMove() {
+		return toMove;
+	}
+
+	/**
+	 * Check if a tile is a legal move.
+	 * 
+	 * @param tile the tile, row * BOARD_COLS + col
+	 * @return true if a move can be made on the tile, false otherwise.
+	 */
+	public boolean isLegalMove(int tile) {
+		return values[tile] != GameTreeSolver.UNSOLVED;
+	}
+
+	/**
+	 * Get the outcome of the move on a tile.
+	 * 
+	 * @param tile a legal move, row * BOARD_COLS + col
+	 * @return WIN, TIE or LOSS for the player making the move.
+	 * @throws IllegalArgumentException if the tile isn't a legal move
+	 */
+	public int getOutcome(int tile) {
+		checkLegal(tile);
+		return Integer.signum(values[tile]);
+	}
+
+	/**
+	 * Get the number of plies until the game ends after the move on a tile.
+	 * 
+	 * @param tile a legal move, row * BOARD_COLS + col
+	 * @return The number of plies, counting the move itself.
+	 * @throws IllegalArgumentException if the tile isn't a legal move
+	 */
+	public int getPlies(int tile) {
+		checkLegal(tile);
+		return plies[tile];
+	}
+
+	/**
+	 * Get the value of the move on a tile, as scored by the GameTreeSolver. A
+	 * quicker win and a slower loss have a higher value.
+	 * 
+	 * @param tile a legal move, row * BOARD_COLS + col
+	 * @return The value of the move for the player making it.
+	 * @throws IllegalArgumentException if the tile isn't a legal move
+	 */
+	public int getValue(int tile) {
+		checkLegal(tile);
+		return values[tile];
+	}
+
+	/**
+	 * Get the legal moves of the position.
+	 * 
+	 * @return A bit set of the tiles of the legal moves, where bit i stands for
+	 *         tile i. It is 0 once the game is over.
+	 */
+	public int getLegalMoves() {
+		int moves = 0;
+		for (int tile = 0; tile < TILES; tile++) {
+			if (values[tile] != GameTreeSolver.UNSOLVED) {
+				moves |= 1 << tile;
+			}
+		}
+		return moves;
+	}
+
+	/**
+	 * Get an analysis of the same position turned or flipped, used to read an
+	 * analysis cached for a symmetric position.
+	 * 
+	 * @param tileMap the tile each tile of this analysis moves to
+	 * @return The analysis of the turned or flipped position.
+	 */
+	MoveAnalysis transform(int[] tileMap) {
+		byte[] mapped = new byte[TILES];
+		int empty = 0;
+		for (int tile = 0; tile < TILES; tile++) {
+			mapped[tileMap[tile]] = values[tile];
+			empty += (values[tile] != GameTreeSolver.UNSOLVED) ? 1 : 0;
+		}
+		return new MoveAnalysis(toMove, mapped, empty);
+	}
+
+	/**
+	 * Helper method that checks that a tile is a legal move.
+	 * 
+	 * @param tile the tile
+	 * @throws IllegalArgumentException if the tile isn't a legal move
+	 */
+	private void checkLegal(int tile) {
+		if (values[tile] == GameTreeSolver.UNSOLVED) {
+			throw new IllegalArgumentException("Tile " + tile + " isn't a legal move");
+		}
+	}
+
+	/**
+	 * Describe the moves as a 3x3 grid, each tile showing W, T or L and the number
+	 * of plies, or -- if it isn't a legal move.
+	 * 
+	 * @return The evaluation of every tile, one row per line.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder grid = new StringBuilder();
+		for (int tile = 0; tile < TILES; tile++) {
+			if (isLegalMove(tile)) {
+				int outcome = getOutcome(tile);
+				grid.append((outcome == WIN) ? 'W' : (outcome == LOSS) ? 'L' : 'T').append(plies[tile]);
+			} else {
+				grid.append("--");
+			}
+			grid.append(((tile + 1) % Board.BOARD_COLS == 0) ? '\n' : ' ');
+		}
+		return grid.toString();
+	}
+}
@@ -0,0 +1,51 @@
+package model;
+
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * This class decides where the move of a computer player is computed, based on
+ * the cost profile of its strategy. Cheap strategies choose their move right
+ * away on the calling thread. Expensive strategies choose their move on a
+ * separate executor, so that the thread hosting the game, such as the JavaFX
+ * application thread, is never blocked by a long search.
+ */
+public class MoveScheduler {
+	/**
+	 * Executor that expensive strategies choose their moves on.
+	 */
+	private final Executor expensiveExecutor;
+
+	/**
+	 * Construct a scheduler that runs expensive strategies on the specified
+	 * executor.
+	 * 
+	 * @param expensiveExecutor the executor expensive strategies run on
+	 */
+	public MoveScheduler(Executor expensiveExecutor) {
+		this.expensiveExecutor = expensiveExecutor;
+	}
+
+	/**
+	 * Choose the next move of a computer player and pass it to the callback. The
+	 * board must not change until the callback has run.
+	 * 
+	 * @param player           the computer player choosing a move
+	 * @param board            the board to choose the move on
+	 * @param callbackExecutor the executor the callback runs on when the move was
+	 *                         chosen on another thread, for example
+	 *                         Platform::runLater
+	 * @param callback         receives the coordinates {row, column} of the move
+	 */
+	public void chooseMove(ComputerPlayer player, Board board, Executor callbackExecutor, Consumer<int[]> callback) {
+		if (player.getStrategy().getCost() == MoveStrategy.Cost.CHEAP) {
+			// cheap strategies run inline, without a thread hop
+			callback.accept(player.chooseMove(board));
+		} else {
+			expensiveExecutor.execute(() -> {
+				int[] move = player.chooseMove(board);
+				callbackExecutor.execute(() -> callback.accept(move));
+			});
+		}
+	}
+}
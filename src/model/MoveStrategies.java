@@ -0,0 +1,86 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * This class gives access to the built-in move strategies and to any other
+ * strategy listed in META-INF/services/model.MoveStrategy. The built-in ones
+ * are always available, even when the services file isn't on the class path,
+ * and the others are loaded once with a ServiceLoader. The strategies are
+ * sorted from easiest to hardest.
+ */
+public class MoveStrategies {
+	/**
+	 * Every available strategy, sorted by difficulty. null represents that the
+	 * strategies haven't been loaded yet.
+	 */
+	private static List<MoveStrategy> available = null;
+
+	/**
+	 * Get every available strategy, sorted from easiest to hardest.
+	 * 
+	 * @return An unmodifiable list of the available strategies.
+	 */
+	public static synchronized List<MoveStrategy> getAvailable() {
+		if (available == null) {
+			List<MoveStrategy> loaded = new ArrayList<MoveStrategy>();
+			loaded.add(new RandomStrategy());
+			loaded.add(new HeuristicStrategy());
+			loaded.add(new PerfectStrategy());
+			try {
+				for (MoveStrategy strategy : ServiceLoader.load(MoveStrategy.class)) {
+					// a built-in strategy listed again is only offered once
+					if (getByName(loaded, strategy.getName()) == null) {
+						loaded.add(strategy);
+					}
+				}
+			} catch (ServiceConfigurationError e) {
+				System.err.println("Extra move strategies could not be loaded: " + e.getMessage());
+			}
+			loaded.sort(Comparator.comparing(MoveStrategy::getDifficulty));
+			available = Collections.unmodifiableList(loaded);
+		}
+		return available;
+	}
+
+	/**
+	 * Get the available strategy with the specified name.
+	 * 
+	 * @param name the name of the strategy
+	 * @return The strategy with the name, or null if there is no such strategy.
+	 */
+	public static MoveStrategy getByName(String name) {
+		return getByName(getAvailable(), name);
+	}
+
+	/**
+	 * Helper method that finds the strategy with the specified name in a list.
+	 * 
+	 * @param strategies the strategies to look in
+	 * @param name       the name of the strategy
+	 * @return The strategy with the name, or null if there is no such strategy.
+	 */
+	private static MoveStrategy getByName(List<MoveStrategy> strategies, String name) {
+		for (MoveStrategy strategy : strategies) {
+			if (strategy.getName().equals(name)) {
+				return strategy;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Get the strategy used by computer players when none is chosen.
+	 * 
+	 * @return The heuristic strategy.
+	 */
+	public static MoveStrategy getDefault() {
+		MoveStrategy heuristic = getByName("Heuristic");
+		return (heuristic != null) ? heuristic : new HeuristicStrategy();
+	}
+}
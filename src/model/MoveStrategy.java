@@ -0,0 +1,76 @@
+package model;
+
+/**
+ * This is an interface for an algorithm that chooses the moves of a computer
+ * player. The built-in strategies are always available, and others are
+ * discovered with java.util.ServiceLoader, so a new one only has to be listed
+ * in META-INF/services/model.MoveStrategy to be offered in the GUI and entered
+ * in tournaments. A strategy must have a public no argument constructor and
+ * must be safe to use from several threads at once, since one instance is
+ * shared by every computer player using it.
+ */
+
+public interface MoveStrategy {
+	/**
+	 * How hard a strategy is to beat.
+	 */
+	public enum Difficulty {
+		/**
+		 * Easy to beat.
+		 */
+		EASY,
+		/**
+		 * Beatable with some care.
+		 */
+		MEDIUM,
+		/**
+		 * Never loses.
+		 */
+		HARD
+	}
+
+	/**
+	 * How expensive it is for a strategy to choose a move.
+	 */
+	public enum Cost {
+		/**
+		 * Chooses a move in a few microseconds, so it can run on any thread,
+		 * including the JavaFX application thread.
+		 */
+		CHEAP,
+		/**
+		 * May search for a long time, so it should run on a separate executor.
+		 */
+		EXPENSIVE
+	}
+
+	/**
+	 * Get the name of the strategy shown to the user.
+	 * 
+	 * @return The name of the strategy.
+	 */
+	public String getName();
+
+	/**
+	 * Get how hard the strategy is to beat.
+	 * 
+	 * @return The difficulty of the strategy.
+	 */
+	public Difficulty getDifficulty();
+
+	/**
+	 * Get how expensive it is for the strategy to choose a move.
+	 * 
+	 * @return The cost profile of the strategy.
+	 */
+	public Cost getCost();
+
+	/**
+	 * Choose the next move of the current player of the board. The board is not
+	 * changed.
+	 * 
+	 * @param board the board to choose a move on, with at least one empty tile
+	 * @return The coordinates {row, column} of the chosen empty tile.
+	 */
+	public int[] chooseMove(Board board);
+}
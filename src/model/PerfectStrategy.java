@@ -0,0 +1,166 @@
+package model;
+
+/**
+ * This class is the hardest move strategy. It searches every possible
+ * continuation of the game with minimax and alpha-beta pruning, so it never
+ * loses. Among equally good moves it prefers the one that wins fastest or loses
+ * slowest, and ties are broken by the first such tile in row order. The move
+ * chosen on a position is remembered, so each position is only searched the
+ * first time it comes up.
+ */
+public class PerfectStrategy implements MoveStrategy {
+	/**
+	 * Score of a win with no moves left to make. A win after more moves scores
+	 * less.
+	 */
+	private final static int WIN_SCORE = 10;
+	/**
+	 * Move stored for positions that haven't been searched yet.
+	 */
+	private final static byte NO_MOVE = -1;
+	/**
+	 * Cell of the move chosen on every position already searched where X is the
+	 * current player, or NO_MOVE. Threads may search the same position at once,
+	 * but they all choose the same cell, so any of them may store it.
+	 */
+	private final static PositionStore.OfByte X_MOVES = new PositionStore.OfByte(NO_MOVE);
+	/**
+	 * Cell of the move chosen on every position already searched where O is the
+	 * current player, or NO_MOVE.
+	 */
+	private final static PositionStore.OfByte O_MOVES = new PositionStore.OfByte(NO_MOVE);
+
+	/**
+	 * Get the name of the strategy shown to the user.
+	 * 
+	 * @return The name of the strategy.
+	 */
+	@Override
+	public String getName() {
+		return "Perfect";
+	}
+
+	/**
+	 * Get how hard the strategy is to beat.
+	 * 
+	 * @return HARD.
+	 */
+	@Override
+	public Difficulty getDifficulty() {
+		return Difficulty.HARD;
+	}
+
+	/**
+	 * Get how expensive it is for the strategy to choose a move.
+	 * 
+	 * @return EXPENSIVE, since it searches the whole game tree the first time it
+	 *         meets a position.
+	 */
+	@Override
+	public Cost getCost() {
+		return Cost.EXPENSIVE;
+	}
+
+	/**
+	 * Choose the best move of the current player of the board.
+	 * 
+	 * @param board the board to choose a move on, with at least one empty tile
+	 * @return The coordinates {row, column} of the chosen empty tile.
+	 */
+	@Override
+	public int[] chooseMove(Board board) {
+		char symbol = board.getCurrentPlayer().getSymbol();
+		PositionStore.OfByte moves = (symbol == Board.X_SYMBOL) ? X_MOVES : O_MOVES;
+		int code = board.getPositionCode();
+		int bestCell = moves.get(code);
+		if (bestCell == NO_MOVE) {
+			bestCell = search(board);
+			moves.set(code, (byte) bestCell);
+		}
+		return new int[] { bestCell / Board.BOARD_COLS, bestCell % Board.BOARD_COLS };
+	}
+
+	/**
+	 * Helper method that searches for the best move of the current player of the
+	 * board.
+	 * 
+	 * @param board the board to search, with at least one empty tile
+	 * @return The cell of the best move, row * BOARD_COLS + col.
+	 */
+	private int search(Board board) {
+		// search on a copy of the board's symbols so the board isn't changed
+		char[] cells = new char[Board.BOARD_ROWS * Board.BOARD_COLS];
+		for (int row = 0; row < Board.BOARD_ROWS; row++) {
+			for (int col = 0; col < Board.BOARD_COLS; col++) {
+				cells[(row * Board.BOARD_COLS) + col] = board.getTileAt(row, col).getSymbol();
+			}
+		}
+		char symbol = board.getCurrentPlayer().getSymbol();
+		char opponent = board.getWaitingPlayer().getSymbol();
+
+		int bestCell = -1, bestScore = -Integer.MAX_VALUE;
+		for (int cell = 0; cell < cells.length; cell++) {
+			if (cells[cell] == Board.EMPTY) {
+				cells[cell] = symbol;
+				int score = -search(cells, opponent, symbol, cell, 1, -Integer.MAX_VALUE, -bestScore);
+				cells[cell] = Board.EMPTY;
+				if (score > bestScore) {
+					bestScore = score;
+					bestCell = cell;
+				}
+			}
+		}
+		return bestCell;
+	}
+
+	/**
+	 * Helper method that scores a position with negamax and alpha-beta pruning,
+	 * from the point of view of the player about to move.
+	 * 
+	 * @param cells    the symbols of the board's tiles, indexed by cell
+	 * @param toMove   the symbol of the player about to move
+	 * @param opponent the symbol of the player who just moved
+	 * @param lastCell the cell the last move was made on
+	 * @param depth    the number of moves made since the search started
+	 * @param alpha    the lowest score the player about to move is assured of
+	 * @param beta     the highest score the opponent allows
+	 * @return The score of the position for the player about to move.
+	 */
+	private int search(char[] cells, char toMove, char opponent, int lastCell, int depth, int alpha, int beta) {
+		if (completesLine(cells, lastCell)) {
+			// the opponent just won, faster wins being worse for us
+			return depth - WIN_SCORE;
+		}
+		boolean moveMade = false;
+		for (int cell = 0; cell < cells.length && alpha < beta; cell++) {
+			if (cells[cell] == Board.EMPTY) {
+				moveMade = true;
+				cells[cell] = toMove;
+				int score = -search(cells, opponent, toMove, cell, depth + 1, -beta, -alpha);
+				cells[cell] = Board.EMPTY;
+				alpha = Math.max(alpha, score);
+			}
+		}
+		// a full board without a winner is a tie
+		return moveMade ? alpha : 0;
+	}
+
+	/**
+	 * Helper method that checks whether the last move completed a line.
+	 * 
+	 * @param cells    the symbols of the board's tiles, indexed by cell
+	 * @param lastCell the cell the last move was made on
+	 * @return True if a line through the cell is filled with its symbol, false
+	 *         otherwise.
+	 */
+	private boolean completesLine(char[] cells, int lastCell) {
+		char symbol = cells[lastCell];
+		for (int[] line : Board.LINES) {
+			if ((line[0] == lastCell || line[1] == lastCell || line[2] == lastCell) && cells[line[0]] == symbol
+					&& cells[line[1]] == symbol && cells[line[2]] == symbol) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
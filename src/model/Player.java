@@ -13,6 +13,13 @@ public interface Player {
 	 */
 	public char getSymbol();
 
+	/**
+	 * Get the name that identifies the player across games.
+	 * 
+	 * @return The name of the player.
+	 */
+	public String getName();
+
 	/**
 	 * Get the score of the player.
 	 * 
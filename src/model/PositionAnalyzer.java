@@ -0,0 +1,291 @@
+package model;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This class evaluates every legal move of a position, telling whether it
+ * wins, ties or loses and in how many plies. The values come from a
+ * GameTreeSolver, which solves the whole game once, the first time a position
+ * is analyzed.
+ * 
+ * The board can be turned 4 ways and flipped, and the 8 boards this gives are
+ * the same position as far as the game goes. Analyses are cached per canonical
+ * position, the one of the 8 with the lowest code, so the 9,040 positions that
+ * can come up with either player moving first are analyzed at most 1,254 times
+ * and a position seen again is only looked up and turned back into place. The
+ * canonical code of every position is worked out once, when the class is
+ * loaded, so finding it takes a single array read.
+ * 
+ * Analyses never change, so the cache can be read from any thread while
+ * another one fills it: a position analyzed twice at the same time is simply
+ * stored twice with the same result.
+ */
+public class PositionAnalyzer {
+	/**
+	 * Number of tiles of the board.
+	 */
+	private final static int TILES = Board.BOARD_ROWS * Board.BOARD_COLS;
+	/**
+	 * Tile each tile moves to under each of the 8 symmetries of the board. The
+	 * first symmetry leaves the board as it is.
+	 */
+	private final static int[][] SYMMETRIES = new int[8][TILES];
+	/**
+	 * Tile each tile moves back to under each symmetry, undoing SYMMETRIES.
+	 */
+	private final static int[][] INVERSES = new int[8][TILES];
+	/**
+	 * Canonical code of every position.
+	 */
+	private final static PositionStore.OfInt CANONICAL_CODES = new PositionStore.OfInt();
+	/**
+	 * Index in SYMMETRIES of the symmetry taking every position to its canonical
+	 * position.
+	 */
+	private final static PositionStore.OfByte CANONICAL_SYMMETRIES = new PositionStore.OfByte((byte) 0);
+
+	static {
+		int last = Board.BOARD_ROWS - 1;
+		for (int row = 0; row < Board.BOARD_ROWS; row++) {
+			for (int col = 0; col < Board.BOARD_COLS; col++) {
+				// the square's 4 turns, then the same turns of the flipped square
+				int[][] images = { { row, col }, { col, last - row }, { last - row, last - col }, { last - col, row },
+						{ row, last - col }, { last - row, col }, { col, row }, { last - col, last - row } };
+				int tile = row * Board.BOARD_COLS + col;
+				for (int symmetry = 0; symmetry < images.length; symmetry++) {
+					int image = images[symmetry][0] * Board.BOARD_COLS + images[symmetry][1];
+					SYMMETRIES[symmetry][tile] = image;
+					INVERSES[symmetry][image] = tile;
+				}
+			}
+		}
+		for (int code = 0; code < PositionCode.POSITIONS; code++) {
+			int best = 0, lowest = code;
+			for (int symmetry = 1; symmetry < SYMMETRIES.length; symmetry++) {
+				int transformed = transform(code, SYMMETRIES[symmetry]);
+				if (transformed < lowest) {
+					lowest = transformed;
+					best = symmetry;
+				}
+			}
+			CANONICAL_CODES.set(code, lowest);
+			CANONICAL_SYMMETRIES.set(code, (byte) best);
+		}
+	}
+
+	/**
+	 * Solver the moves are evaluated with. null represents that no position has
+	 * been analyzed yet.
+	 */
+	private volatile GameTreeSolver solver = null;
+	/**
+	 * Analyses of the canonical positions where X is about to move.
+	 */
+	private final PositionStore<MoveAnalysis> xAnalyses = new PositionStore<>();
+	/**
+	 * Analyses of the canonical positions where O is about to move.
+	 */
+	private final PositionStore<MoveAnalysis> oAnalyses = new PositionStore<>();
+
+	/**
+	 * Analyze the position of a board for its current player.
+	 * 
+	 * @param board the board holding the position
+	 * @return The evaluation of every legal move of the current player.
+	 */
+	public MoveAnalysis analyze(Board board) {
+		return analyze(board.getPositionCode(), board.getCurrentPlayer().getSymbol());
+	}
+
+	/**
+	 * Analyze a position, solving the game first if it hasn't been solved yet.
+	 * 
+	 * @param code   the code of the position
+	 * @param toMove the symbol of the player about to move
+	 * @return The evaluation of every legal move. It has no legal moves if the
+	 *         game is over or the position can't come up with the player about to
+	 *         move.
+	 */
+	public MoveAnalysis analyze(int code, char toMove) {
+		MoveAnalysis analysis = getCachedAnalysis(code, toMove);
+		if (analysis != null) {
+			return analysis;
+		}
+		int symmetry = CANONICAL_SYMMETRIES.get(code);
+		int canonical = CANONICAL_CODES.get(code);
+		GameTreeSolver solved = getSolver();
+		byte[] values = new byte[TILES];
+		int empty = 0;
+		boolean inProgress = solved.getValue(canonical, toMove) != GameTreeSolver.UNSOLVED;
+		for (int tile = 0; tile < TILES; tile++) {
+			values[tile] = GameTreeSolver.UNSOLVED;
+			if (PositionCode.getSymbolAt(canonical, tile) == Board.EMPTY) {
+				empty++;
+				if (inProgress) {
+					values[tile] = (byte) solved.getMoveValue(canonical, toMove, tile);
+				}
+			}
+		}
+		analysis = new MoveAnalysis(toMove, values, empty);
+		getAnalyses(toMove).set(canonical, analysis);
+		return (symmetry == 0) ? analysis : analysis.transform(INVERSES[symmetry]);
+	}
+
+	/**
+	 * Get the analysis of a position if it is cached, without analyzing it.
+	 * 
+	 * @param code   the code of the position
+	 * @param toMove the symbol of the player about to move
+	 * @return The evaluation of every legal move, or null if the position, or a
+	 *         turned or flipped copy of it, hasn't been analyzed yet.
+	 */
+	public MoveAnalysis getCachedAnalysis(int code, char toMove) {
+		int symmetry = CANONICAL_SYMMETRIES.get(code);
+		MoveAnalysis analysis = getAnalyses(toMove).get(CANONICAL_CODES.get(code));
+		if (analysis == null || symmetry == 0) {
+			return analysis;
+		}
+		return analysis.transform(INVERSES[symmetry]);
+	}
+
+	/**
+	 * Analyze a position on the specified executor. A cached position is returned
+	 * right away without using the executor.
+	 * 
+	 * @param code     the code of the position
+	 * @param toMove   the symbol of the player about to move
+	 * @param executor the executor the position is analyzed on
+	 * @return A future completed with the evaluation of every legal move.
+	 */
+	public CompletableFuture<MoveAnalysis> analyzeAsync(int code, char toMove, Executor executor) {
+		MoveAnalysis analysis = getCachedAnalysis(code, toMove);
+		if (analysis != null) {
+			return CompletableFuture.completedFuture(analysis);
+		}
+		return CompletableFuture.supplyAsync(() -> analyze(code, toMove), executor);
+	}
+
+	/**
+	 * Get the canonical code of a position, the lowest code of the position
+	 * turned and flipped every way.
+	 * 
+	 * @param code the code of a position
+	 * @return The canonical code, the same for all 8 copies of the position.
+	 */
+	public static int getCanonicalCode(int code) {
+		return CANONICAL_CODES.get(code);
+	}
+
+	/**
+	 * Helper method that moves the symbols of a position to other tiles.
+	 * 
+	 * @param code    the code of the position
+	 * @param tileMap the tile each tile's symbol moves to
+	 * @return The code of the moved position.
+	 */
+	private static int transform(int code, int[] tileMap) {
+		long transformed = 0;
+		for (int tile = 0; tile < TILES; tile++) {
+			char symbol = PositionCode.getSymbolAt(code, tile);
+			if (symbol != Board.EMPTY) {
+				transformed = PositionCode.update(transformed, tileMap[tile], Board.EMPTY, symbol);
+			}
+		}
+		return (int) transformed;
+	}
+
+	/**
+	 * Helper method that gets the solver, solving the game the first time.
+	 * 
+	 * @return The solved GameTreeSolver.
+	 */
+	private GameTreeSolver getSolver() {
+		GameTreeSolver solved = solver;
+		if (solved == null) {
+			synchronized (this) {
+				solved = solver;
+				if (solved == null) {
+					solved = new GameTreeSolver();
+					solved.solve(ForkJoinPool.commonPool());
+					solver = solved;
+				}
+			}
+		}
+		return solved;
+	}
+
+	/**
+	 * Helper method that gets the cached analyses of the positions where a player
+	 * is about to move.
+	 * 
+	 * @param toMove the symbol of the player about to move
+	 * @return The store of the analyses.
+	 */
+	private PositionStore<MoveAnalysis> getAnalyses(char toMove) {
+		return (toMove == Board.X_SYMBOL) ? xAnalyses : oAnalyses;
+	}
+
+	/**
+	 * Analyze every position twice and print how long the first analysis, which
+	 * solves the game, the rest of the first pass and the cached second pass
+	 * take. Every analysis is checked against the solver's values for the
+	 * position as it is, without turning it, and the exit status is 1 if any move
+	 * differs.
+	 * 
+	 * @param args unused
+	 */
+	public static void main(String args[]) {
+		PositionAnalyzer analyzer = new PositionAnalyzer();
+		long start = System.nanoTime();
+		analyzer.analyze(0, Board.X_SYMBOL);
+		long solveTime = System.nanoTime() - start;
+		System.out.printf("First analysis, solving the game: %.1f ms%n", solveTime / 1e6);
+		System.out.print(analyzer.analyze(0, Board.X_SYMBOL));
+
+		for (int pass = 1; pass <= 2; pass++) {
+			start = System.nanoTime();
+			for (char toMove : new char[] { Board.X_SYMBOL, Board.O_SYMBOL }) {
+				for (int code = 0; code < PositionCode.POSITIONS; code++) {
+					analyzer.analyze(code, toMove);
+				}
+			}
+			long elapsed = System.nanoTime() - start;
+			System.out.printf("Pass %d: %,d positions in %.1f ms, %.0f ns per position%n", pass,
+					PositionCode.POSITIONS * 2, elapsed / 1e6, (double) elapsed / (PositionCode.POSITIONS * 2));
+		}
+
+		GameTreeSolver solver = analyzer.getSolver();
+		int analyzed = 0, mismatches = 0;
+		for (char toMove : new char[] { Board.X_SYMBOL, Board.O_SYMBOL }) {
+			for (int code = 0; code < PositionCode.POSITIONS; code++) {
+				MoveAnalysis analysis = analyzer.analyze(code, toMove);
+				if (solver.getValue(code, toMove) == GameTreeSolver.UNSOLVED) {
+					mismatches += (analysis.getLegalMoves() != 0) ? 1 : 0;
+					continue;
+				}
+				analyzed++;
+				for (int tile = 0; tile < TILES; tile++) {
+					if (PositionCode.getSymbolAt(code, tile) != Board.EMPTY) {
+						mismatches += analysis.isLegalMove(tile) ? 1 : 0;
+					} else if (!analysis.isLegalMove(tile)
+							|| analysis.getValue(tile) != solver.getMoveValue(code, toMove, tile)) {
+						mismatches++;
+					}
+				}
+			}
+		}
+		int canonical = 0;
+		for (char toMove : new char[] { Board.X_SYMBOL, Board.O_SYMBOL }) {
+			for (int code = 0; code < PositionCode.POSITIONS; code++) {
+				canonical += (analyzer.getAnalyses(toMove).get(code) != null
+						&& solver.getValue(code, toMove) != GameTreeSolver.UNSOLVED) ? 1 : 0;
+			}
+		}
+		System.out.printf("%,d positions in play, %,d canonical, %d mismatches%n", analyzed, canonical, mismatches);
+		if (mismatches > 0) {
+			System.exit(1);
+		}
+	}
+}
@@ -0,0 +1,162 @@
+package model;
+
+/**
+ * This class converts the tiles of a board to and from a single base 3 number,
+ * the position code. The digit of cell i (tile row * columns + col) is 0 if the
+ * tile is empty, 1 if it holds X and 2 if it holds O, and it is worth 3 to the
+ * power of i, so the codes of a 3x3 board are the numbers 0 to 19,682 and two
+ * boards have the same code exactly when they hold the same symbols.
+ * 
+ * Codes of boards with up to MAX_CELLS cells fit in a long. Codes of 40 cells
+ * go past Long.MAX_VALUE and are read as unsigned numbers.
+ * 
+ * Making a move changes a single digit, so a code kept next to a board is
+ * updated with two lookups in a table of place values instead of being
+ * computed again from every tile.
+ */
+public final class PositionCode {
+	/**
+	 * Largest number of cells whose codes fit in a long.
+	 */
+	public final static int MAX_CELLS = 40;
+	/**
+	 * Number of codes of the 3x3 board, 3 to the power of 9.
+	 */
+	public final static int POSITIONS = 19683;
+	/**
+	 * Value of each digit in each cell, PLACE_VALUES[cell][digit] being digit * 3
+	 * to the power of cell.
+	 */
+	private final static long[][] PLACE_VALUES = new long[MAX_CELLS][3];
+
+	static {
+		long power = 1;
+		for (int cell = 0; cell < MAX_CELLS; cell++) {
+			PLACE_VALUES[cell][1] = power;
+			PLACE_VALUES[cell][2] = power * 2;
+			power *= 3;
+		}
+	}
+
+	/**
+	 * Codes are only used through the static methods.
+	 */
+	private PositionCode() {
+	}
+
+	/**
+	 * Get the digit of a symbol.
+	 * 
+	 * @param symbol X_SYMBOL, O_SYMBOL or EMPTY
+	 * @return 1 for X, 2 for O and 0 for an empty tile.
+	 */
+	public static int getDigit(char symbol) {
+		return (symbol == Board.X_SYMBOL) ? 1 : (symbol == Board.O_SYMBOL) ? 2 : 0;
+	}
+
+	/**
+	 * Get the symbol of a digit.
+	 * 
+	 * @param digit 0, 1 or 2
+	 * @return EMPTY for 0, X_SYMBOL for 1 and O_SYMBOL for 2.
+	 */
+	public static char getSymbol(int digit) {
+		return (digit == 1) ? Board.X_SYMBOL : (digit == 2) ? Board.O_SYMBOL : Board.EMPTY;
+	}
+
+	/**
+	 * Get the code of the symbols of a board's cells.
+	 * 
+	 * @param cells the symbols of the cells, at most MAX_CELLS
+	 * @return The code of the cells.
+	 * @throws IllegalArgumentException if there are more than MAX_CELLS cells
+	 */
+	public static long encode(char[] cells) {
+		checkCells(cells.length);
+		long code = 0;
+		for (int cell = 0; cell < cells.length; cell++) {
+			code += PLACE_VALUES[cell][getDigit(cells[cell])];
+		}
+		return code;
+	}
+
+	/**
+	 * Get the code of a board.
+	 * 
+	 * @param board the board to encode
+	 * @return The code of the board's tiles, from 0 to POSITIONS - 1.
+	 */
+	public static int encode(Board board) {
+		long code = 0;
+		for (int cell = 0; cell < Board.BOARD_ROWS * Board.BOARD_COLS; cell++) {
+			char symbol = board.getTileAt(cell / Board.BOARD_COLS, cell % Board.BOARD_COLS).getSymbol();
+			code += PLACE_VALUES[cell][getDigit(symbol)];
+		}
+		return (int) code;
+	}
+
+	/**
+	 * Fill an array with the symbols of the cells of a code.
+	 * 
+	 * @param code  the code to decode, read as an unsigned number
+	 * @param cells the array to fill, as long as the number of cells
+	 * @throws IllegalArgumentException if there are more than MAX_CELLS cells
+	 */
+	public static void decode(long code, char[] cells) {
+		checkCells(cells.length);
+		for (int cell = 0; cell < cells.length; cell++) {
+			cells[cell] = getSymbol((int) Long.remainderUnsigned(code, 3));
+			code = Long.divideUnsigned(code, 3);
+		}
+	}
+
+	/**
+	 * Get the symbol of one cell of a code.
+	 * 
+	 * @param code the code of a 3x3 board
+	 * @param cell the cell to read, row * BOARD_COLS + col
+	 * @return The symbol of the cell, or EMPTY.
+	 */
+	public static char getSymbolAt(int code, int cell) {
+		return getSymbol((int) (code / PLACE_VALUES[cell][1] % 3));
+	}
+
+	/**
+	 * Get the code after the symbol of one cell changes.
+	 * 
+	 * @param code      the code before the change
+	 * @param cell      the cell that changes
+	 * @param oldSymbol the symbol the cell held, or EMPTY
+	 * @param newSymbol the symbol the cell holds now, or EMPTY
+	 * @return The code after the change.
+	 */
+	public static long update(long code, int cell, char oldSymbol, char newSymbol) {
+		return code - PLACE_VALUES[cell][getDigit(oldSymbol)] + PLACE_VALUES[cell][getDigit(newSymbol)];
+	}
+
+	/**
+	 * Get the number of codes of a board with the specified number of cells.
+	 * 
+	 * @param cells the number of cells, at most 19 so the count fits in an int
+	 * @return 3 to the power of the number of cells.
+	 * @throws IllegalArgumentException if the count doesn't fit in an int
+	 */
+	public static int getPositions(int cells) {
+		if (cells < 0 || cells > 19) {
+			throw new IllegalArgumentException("Positions of 0 to 19 cells can be counted: " + cells);
+		}
+		return (cells == 0) ? 1 : (int) (PLACE_VALUES[cells - 1][1] * 3);
+	}
+
+	/**
+	 * Helper method that checks that codes of a number of cells fit in a long.
+	 * 
+	 * @param cells the number of cells
+	 * @throws IllegalArgumentException if there are more than MAX_CELLS cells
+	 */
+	private static void checkCells(int cells) {
+		if (cells > MAX_CELLS) {
+			throw new IllegalArgumentException("Codes fit up to " + MAX_CELLS + " cells: " + cells);
+		}
+	}
+}
@@ -0,0 +1,275 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * This class stores a value for every position of a board in an array indexed
+ * by the position code, so a value is found with a single array read, without
+ * hashing. The nested classes OfByte, OfInt and OfLong store primitive values
+ * in primitive arrays, so counts, scores and moves are never boxed.
+ * 
+ * A store holds 3 to the power of the number of cells values whether they are
+ * used or not, which is 19,683 for the 3x3 board, so it is meant for small
+ * boards only.
+ * 
+ * @param <V> the type of the values
+ */
+public class PositionStore<V> {
+	/**
+	 * Value of every position, null for a position without one.
+	 */
+	private final Object[] values;
+
+	/**
+	 * Construct a store for the positions of the 3x3 board.
+	 */
+	public PositionStore() {
+		this(Board.BOARD_ROWS * Board.BOARD_COLS);
+	}
+
+	/**
+	 * Construct a store for the positions of a board with the specified number of
+	 * cells.
+	 * 
+	 * @param cells the number of cells of the board, at most 19
+	 * @throws IllegalArgumentException if the board has too many positions
+	 */
+	public PositionStore(int cells) {
+		values = new Object[PositionCode.getPositions(cells)];
+	}
+
+	/**
+	 * Get the value of a position.
+	 * 
+	 * @param code the code of the position
+	 * @return The value of the position, or null if it has none.
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(int code) {
+		return (V) values[code];
+	}
+
+	/**
+	 * Set the value of a position.
+	 * 
+	 * @param code  the code of the position
+	 * @param value the value of the position, or null to remove it
+	 */
+	public void set(int code, V value) {
+		values[code] = value;
+	}
+
+	/**
+	 * Get the number of positions in the store.
+	 * 
+	 * @return The number of positions.
+	 */
+	public int getPositions() {
+		return values.length;
+	}
+
+	/**
+	 * This class stores a byte for every position, such as a game value or a
+	 * move.
+	 */
+	public static class OfByte {
+		/**
+		 * Value of every position.
+		 */
+		private final byte[] values;
+
+		/**
+		 * Construct a store for the positions of the 3x3 board, with every value set
+		 * to the specified initial value.
+		 * 
+		 * @param initialValue the value of every position until it is set
+		 */
+		public OfByte(byte initialValue) {
+			this(Board.BOARD_ROWS * Board.BOARD_COLS, initialValue);
+		}
+
+		/**
+		 * Construct a store for the positions of a board with the specified number
+		 * of cells, with every value set to the specified initial value.
+		 * 
+		 * @param cells        the number of cells of the board, at most 19
+		 * @param initialValue the value of every position until it is set
+		 * @throws IllegalArgumentException if the board has too many positions
+		 */
+		public OfByte(int cells, byte initialValue) {
+			values = new byte[PositionCode.getPositions(cells)];
+			if (initialValue != 0) {
+				Arrays.fill(values, initialValue);
+			}
+		}
+
+		/**
+		 * Get the value of a position.
+		 * 
+		 * @param code the code of the position
+		 * @return The value of the position.
+		 */
+		public byte get(int code) {
+			return values[code];
+		}
+
+		/**
+		 * Set the value of a position.
+		 * 
+		 * @param code  the code of the position
+		 * @param value the value of the position
+		 */
+		public void set(int code, byte value) {
+			values[code] = value;
+		}
+
+		/**
+		 * Get the number of positions in the store.
+		 * 
+		 * @return The number of positions.
+		 */
+		public int getPositions() {
+			return values.length;
+		}
+	}
+
+	/**
+	 * This class stores an int for every position, such as a visit count or a
+	 * score.
+	 */
+	public static class OfInt {
+		/**
+		 * Value of every position.
+		 */
+		private final int[] values;
+
+		/**
+		 * Construct a store for the positions of the 3x3 board, with every value set
+		 * to 0.
+		 */
+		public OfInt() {
+			this(Board.BOARD_ROWS * Board.BOARD_COLS);
+		}
+
+		/**
+		 * Construct a store for the positions of a board with the specified number
+		 * of cells, with every value set to 0.
+		 * 
+		 * @param cells the number of cells of the board, at most 19
+		 * @throws IllegalArgumentException if the board has too many positions
+		 */
+		public OfInt(int cells) {
+			values = new int[PositionCode.getPositions(cells)];
+		}
+
+		/**
+		 * Get the value of a position.
+		 * 
+		 * @param code the code of the position
+		 * @return The value of the position.
+		 */
+		public int get(int code) {
+			return values[code];
+		}
+
+		/**
+		 * Set the value of a position.
+		 * 
+		 * @param code  the code of the position
+		 * @param value the value of the position
+		 */
+		public void set(int code, int value) {
+			values[code] = value;
+		}
+
+		/**
+		 * Add to the value of a position.
+		 * 
+		 * @param code   the code of the position
+		 * @param amount the amount to add
+		 * @return The value of the position after the addition.
+		 */
+		public int add(int code, int amount) {
+			return values[code] += amount;
+		}
+
+		/**
+		 * Get the number of positions in the store.
+		 * 
+		 * @return The number of positions.
+		 */
+		public int getPositions() {
+			return values.length;
+		}
+	}
+
+	/**
+	 * This class stores a long for every position, such as a total over many
+	 * games or packed data.
+	 */
+	public static class OfLong {
+		/**
+		 * Value of every position.
+		 */
+		private final long[] values;
+
+		/**
+		 * Construct a store for the positions of the 3x3 board, with every value set
+		 * to 0.
+		 */
+		public OfLong() {
+			this(Board.BOARD_ROWS * Board.BOARD_COLS);
+		}
+
+		/**
+		 * Construct a store for the positions of a board with the specified number
+		 * of cells, with every value set to 0.
+		 * 
+		 * @param cells the number of cells of the board, at most 19
+		 * @throws IllegalArgumentException if the board has too many positions
+		 */
+		public OfLong(int cells) {
+			values = new long[PositionCode.getPositions(cells)];
+		}
+
+		/**
+		 * Get the value of a position.
+		 * 
+		 * @param code the code of the position
+		 * @return The value of the position.
+		 */
+		public long get(int code) {
+			return values[code];
+		}
+
+		/**
+		 * Set the value of a position.
+		 * 
+		 * @param code  the code of the position
+		 * @param value the value of the position
+		 */
+		public void set(int code, long value) {
+			values[code] = value;
+		}
+
+		/**
+		 * Add to the value of a position.
+		 * 
+		 * @param code   the code of the position
+		 * @param amount the amount to add
+		 * @return The value of the position after the addition.
+		 */
+		public long add(int code, long amount) {
+			return values[code] += amount;
+		}
+
+		/**
+		 * Get the number of positions in the store.
+		 * 
+		 * @return The number of positions.
+		 */
+		public int getPositions() {
+			return values.length;
+		}
+	}
+}
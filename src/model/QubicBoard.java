@@ -0,0 +1,343 @@
+package model;
+
+/**
+ * This class represents the board of Qubic, Tic-Tac-Toe on a 4x4x4 cube where
+ * four in a row along any of its 76 lines wins: the rows, columns and pillars,
+ * the diagonals of every layer in each of the three directions, and the four
+ * diagonals through the middle of the cube. Cells are numbered (layer *
+ * QUBIC_SIZE + row) * QUBIC_SIZE + col, so the whole position is two 64-bit
+ * masks, one bit per cell for each symbol, and every line is a mask of its four
+ * cells. A win is found by checking each line's mask against the player's mask,
+ * without looking at the cells one by one.
+ */
+public class QubicBoard implements CellBoard {
+	/**
+	 * Number of cells along each edge of the cube.
+	 */
+	public final static int QUBIC_SIZE = 4;
+	/**
+	 * Number of cells of the cube.
+	 */
+	public final static int QUBIC_CELLS = QUBIC_SIZE * QUBIC_SIZE * QUBIC_SIZE;
+	/**
+	 * Masks of the 76 lines that win the game, bit i standing for cell i.
+	 */
+	public final static long[] LINES = new long[76];
+
+	static {
+		int lines = 0;
+		// the 13 directions whose first step that isn't 0 is forward, so that each
+		// line is found once, from its first cell
+		for (int dl = -1; dl <= 1; dl++) {
+			for (int dr = -1; dr <= 1; dr++) {
+				for (int dc = -1; dc <= 1; dc++) {
+					if (dl < 0 || (dl == 0 && (dr < 0 || (dr == 0 && dc <= 0)))) {
+						continue;
+					}
+					for (int cell = 0; cell < QUBIC_CELLS; cell++) {
+						int layer = cell / (QUBIC_SIZE * QUBIC_SIZE), row = cell / QUBIC_SIZE % QUBIC_SIZE,
+								col = cell % QUBIC_SIZE;
+						int last = QUBIC_SIZE - 1;
+						if (isInCube(layer + last * dl, row + last * dr, col + last * dc)) {
+							long line = 0;
+							for (int step = 0; step < QUBIC_SIZE; step++) {
+								line |= 1L << getIndex(layer + step * dl, row + step * dr, col + step * dc);
+							}
+							LINES[lines++] = line;
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Player who's going first.
+	 */
+	private final Player playerOne;
+	/**
+	 * Player who's going second.
+	 */
+	private final Player playerTwo;
+	/**
+	 * Player about to make a move.
+	 */
+	private Player currentPlayer;
+	/**
+	 * Cells holding X, bit i standing for cell i.
+	 */
+	private long xMask;
+	/**
+	 * Cells holding O, bit i standing for cell i.
+	 */
+	private long oMask;
+
+	/**
+	 * Construct an empty cube for the specified players.
+	 * 
+	 * @param playerOne the player who makes the first move
+	 * @param playerTwo the player who makes the second move
+	 * @throws IllegalArgumentException if either symbol is invalid or both players
+	 *                                  have the same symbol
+	 */
+	public QubicBoard(Player playerOne, Player playerTwo) {
+		if ((playerOne.getSymbol() != Board.X_SYMBOL && playerOne.getSymbol() != Board.O_SYMBOL)
+				|| (playerTwo.getSymbol() != Board.X_SYMBOL && playerTwo.getSymbol() != Board.O_SYMBOL)
+				|| playerOne.getSymbol() == playerTwo.getSymbol()) {
+			throw new IllegalArgumentException("Valid symbols: X/O, one per player");
+		}
+		this.playerOne = playerOne;
+		this.playerTwo = playerTwo;
+		// player one always makes the first move
+		currentPlayer = playerOne;
+	}
+
+	/**
+	 * Get player who's going first.
+	 * 
+	 * @return Player one.
+	 */
+	@Override
+	public Player getPlayerOne() {
+		return playerOne;
+	}
+
+	/**
+	 * Get player whos's going second.
+	 * 
+	 * @return Player two.
+	 */
+	@Override
+	public Player getPlayerTwo() {
+		return playerTwo;
+	}
+
+	/**
+	 * Get the player about to make a move.
+	 * 
+	 * @return The current player.
+	 */
+	@Override
+	public Player getCurrentPlayer() {
+		return currentPlayer;
+	}
+
+	/**
+	 * Get the player waiting for their turn.
+	 * 
+	 * @return The waiting player.
+	 */
+	@Override
+	public Player getWaitingPlayer() {
+		return currentPlayer.equals(playerOne) ? playerTwo : playerOne;
+	}
+
+	/**
+	 * Check if it is player one's turn.
+	 * 
+	 * @return True if it is player one's turn, false otherwise.
+	 */
+	@Override
+	public boolean isPlayerOneTurn() {
+		return currentPlayer.equals(playerOne);
+	}
+
+	/**
+	 * Check if it is player two's turn.
+	 * 
+	 * @return True if it is player two's turn, false otherwise.
+	 */
+	@Override
+	public boolean isPlayerTwoTurn() {
+		return currentPlayer.equals(playerTwo);
+	}
+
+	/**
+	 * Return whether or not the specified player is a computer player or not.
+	 * 
+	 * @param player player to check for if it's a computer player
+	 * @return True if the player is a computer player, false otherwise.
+	 */
+	@Override
+	public boolean isComputerPlayer(Player player) {
+		return player instanceof QubicPlayer || player instanceof ComputerPlayer;
+	}
+
+	/**
+	 * Switch the current and waiting players.
+	 */
+	@Override
+	public void switchTurns() {
+		currentPlayer = getWaitingPlayer();
+	}
+
+	/**
+	 * Get the current state of the game. The current player is taken to have made
+	 * the last move, and their score is increased if it won.
+	 * 
+	 * @return The current game state of the board.
+	 */
+	@Override
+	public GameState getGameState() {
+		if (hasLine(xMask) || hasLine(oMask)) {
+			getCurrentPlayer().increaseScore();
+			return GameState.WIN;
+		}
+		return ((xMask | oMask) == -1L) ? GameState.TIE : GameState.IN_PROGRESS;
+	}
+
+	/**
+	 * Get the number of filled cells of the cube.
+	 * 
+	 * @return The number of filled cells.
+	 */
+	@Override
+	public int getFilledTilesNumber() {
+		return Long.bitCount(xMask | oMask);
+	}
+
+	/**
+	 * Empty every cell of the cube. The turns are left as they are.
+	 */
+	@Override
+	public void resetBoard() {
+		xMask = oMask = 0;
+	}
+
+	/**
+	 * Get the size of each dimension of the cube.
+	 * 
+	 * @return {QUBIC_SIZE, QUBIC_SIZE, QUBIC_SIZE}, the layers, rows and columns.
+	 */
+	@Override
+	public int[] getDimensions() {
+		return new int[] { QUBIC_SIZE, QUBIC_SIZE, QUBIC_SIZE };
+	}
+
+	/**
+	 * Get the number of cells of the cube.
+	 * 
+	 * @return QUBIC_CELLS.
+	 */
+	@Override
+	public int getCellCount() {
+		return QUBIC_CELLS;
+	}
+
+	/**
+	 * Get the symbol of a cell.
+	 * 
+	 * @param cell the index of the cell
+	 * @return The symbol of the cell, or EMPTY.
+	 */
+	@Override
+	public char getSymbolAt(int cell) {
+		long bit = 1L << cell;
+		return ((xMask & bit) != 0) ? Board.X_SYMBOL : ((oMask & bit) != 0) ? Board.O_SYMBOL : Board.EMPTY;
+	}
+
+	/**
+	 * Fill an empty cell with a symbol.
+	 * 
+	 * @param cell   the index of the cell
+	 * @param symbol the symbol to fill the cell with
+	 * @throws IllegalArgumentException if the symbol is invalid or the cell is not
+	 *                                  empty
+	 */
+	@Override
+	public void fillCell(int cell, char symbol) {
+		if (symbol != Board.X_SYMBOL && symbol != Board.O_SYMBOL) {
+			throw new IllegalArgumentException("Valid symbols: X/O");
+		}
+		long bit = 1L << cell;
+		if (((xMask | oMask) & bit) != 0) {
+			throw new IllegalArgumentException("Cell " + cell + " is not empty");
+		}
+		if (symbol == Board.X_SYMBOL) {
+			xMask |= bit;
+		} else {
+			oMask |= bit;
+		}
+	}
+
+	/**
+	 * Empty a cell.
+	 * 
+	 * @param cell the index of the cell
+	 */
+	@Override
+	public void clearCell(int cell) {
+		xMask &= ~(1L << cell);
+		oMask &= ~(1L << cell);
+	}
+
+	/**
+	 * Get the cells holding a symbol.
+	 * 
+	 * @param symbol the symbol
+	 * @return A mask of the cells with the symbol, bit i standing for cell i.
+	 */
+	public long getMask(char symbol) {
+		return (symbol == Board.X_SYMBOL) ? xMask : (symbol == Board.O_SYMBOL) ? oMask : ~(xMask | oMask);
+	}
+
+	/**
+	 * Check if a set of cells holds all four cells of a line.
+	 * 
+	 * @param mask a mask of cells, bit i standing for cell i
+	 * @return true if the cells complete one of the 76 lines, false otherwise.
+	 */
+	public static boolean hasLine(long mask) {
+		for (long line : LINES) {
+			if ((mask & line) == line) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Get the index of the cell at the specified coordinates.
+	 * 
+	 * @param layer the layer of the cell
+	 * @param row   the row of the cell in its layer
+	 * @param col   the column of the cell in its layer
+	 * @return The index of the cell.
+	 */
+	public static int getIndex(int layer, int row, int col) {
+		return (layer * QUBIC_SIZE + row) * QUBIC_SIZE + col;
+	}
+
+	/**
+	 * Helper method that checks if coordinates are inside the cube.
+	 * 
+	 * @param layer the layer
+	 * @param row   the row
+	 * @param col   the column
+	 * @return true if the cell is in the cube, false otherwise.
+	 */
+	private static boolean isInCube(int layer, int row, int col) {
+		return layer >= 0 && layer < QUBIC_SIZE && row >= 0 && row < QUBIC_SIZE && col >= 0 && col < QUBIC_SIZE;
+	}
+
+	/**
+	 * Get a string showing the four layers of the cube side by side, empty cells
+	 * as dots.
+	 * 
+	 * @return The board as four lines of text.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder text = new StringBuilder();
+		for (int row = 0; row < QUBIC_SIZE; row++) {
+			for (int layer = 0; layer < QUBIC_SIZE; layer++) {
+				for (int col = 0; col < QUBIC_SIZE; col++) {
+					char symbol = getSymbolAt(getIndex(layer, row, col));
+					text.append((symbol == Board.EMPTY) ? '.' : symbol);
+				}
+				text.append((layer < QUBIC_SIZE - 1) ? "  " : "\n");
+			}
+		}
+		return text.toString();
+	}
+}
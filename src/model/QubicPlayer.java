@@ -0,0 +1,339 @@
+package model;
+
+import java.util.Random;
+
+/**
+ * This class represents a computer player for Qubic, the counterpart of
+ * ComputerPlayer on the 4x4x4 QubicBoard. It chooses its moves with an
+ * alpha-beta search a fixed number of plies deep, working on the two masks of
+ * the position only. Each position of the search finds the cells that complete
+ * a line for either player with one pass over the 76 line masks: a player with
+ * such a cell wins on the spot, and a player facing one must take it, which
+ * keeps the search narrow wherever there are threats. The positions at the
+ * depth limit are scored by the lines still open to each player.
+ */
+public class QubicPlayer extends UserPlayer {
+	/**
+	 * Number of plies searched by default.
+	 */
+	public final static int DEFAULT_DEPTH = 4;
+	/**
+	 * Score of a won position, above any score of the evaluation. Wins found
+	 * sooner score higher.
+	 */
+	private final static int WIN_SCORE = 1000000;
+	/**
+	 * Score of a line open to a player for each number of the player's symbols on
+	 * it.
+	 */
+	private final static int[] LINE_WEIGHTS = { 0, 1, 8, 64, 0 };
+	/**
+	 * Cells in the order they are searched: the 16 corners and middle cells,
+	 * which are on 7 lines each, then the other cells, which are on 4.
+	 */
+	private final static int[] MOVE_ORDER = new int[QubicBoard.QUBIC_CELLS];
+
+	static {
+		int[] lineCounts = new int[QubicBoard.QUBIC_CELLS];
+		for (long line : QubicBoard.LINES) {
+			for (int cell = 0; cell < QubicBoard.QUBIC_CELLS; cell++) {
+				lineCounts[cell] += (int) ((line >>> cell) & 1);
+			}
+		}
+		int next = 0;
+		for (int lines = QubicBoard.LINES.length; lines >= 0; lines--) {
+			for (int cell = 0; cell < QubicBoard.QUBIC_CELLS; cell++) {
+				if (lineCounts[cell] == lines) {
+					MOVE_ORDER[next++] = cell;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Number of plies searched.
+	 */
+	private final int depth;
+	/**
+	 * Number of positions visited by the last search.
+	 */
+	private long nodes;
+
+	/**
+	 * Construct a Qubic computer player searching DEFAULT_DEPTH plies.
+	 * 
+	 * @param symbol the symbol for the player
+	 */
+	public QubicPlayer(char symbol) {
+		this(symbol, DEFAULT_DEPTH);
+	}
+
+	/**
+	 * Construct a Qubic computer player searching the specified number of plies.
+	 * The player is named after the depth, such as "Computer (Qubic, 4 plies)".
+	 * 
+	 * @param symbol the symbol for the player
+	 * @param depth  the number of plies to search, at least 1
+	 * @throws IllegalArgumentException if the depth isn't positive
+	 */
+	public QubicPlayer(char symbol, int depth) {
+		super(symbol, "Computer (Qubic, " + depth + " plies)");
+		if (depth < 1) {
+			throw new IllegalArgumentException("Invalid search depth: " + depth);
+		}
+		this.depth = depth;
+	}
+
+	/**
+	 * Get the number of plies the player searches.
+	 * 
+	 * @return The search depth.
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * Get the number of positions visited by the last search.
+	 * 
+	 * @return The number of positions.
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * Choose the next move without making it.
+	 * 
+	 * @param board the board to choose the move on
+	 * @return The cell of the chosen move, or -1 if the cube is full.
+	 */
+	public int chooseMove(QubicBoard board) {
+		char opponent = (getSymbol() == Board.X_SYMBOL) ? Board.O_SYMBOL : Board.X_SYMBOL;
+		long own = board.getMask(getSymbol()), opp = board.getMask(opponent);
+		nodes = 0;
+		long moves = getForcedMoves(own, opp);
+		int bestMove = -1, alpha = -Integer.MAX_VALUE;
+		for (int cell : MOVE_ORDER) {
+			long bit = 1L << cell;
+			if ((moves & bit) == 0) {
+				continue;
+			}
+			int score = -search(opp, own | bit, depth - 1, -Integer.MAX_VALUE, -alpha);
+			if (bestMove == -1 || score > alpha) {
+				alpha = score;
+				bestMove = cell;
+			}
+		}
+		return bestMove;
+	}
+
+	/**
+	 * Make a move on the board chosen by the search.
+	 * 
+	 * @param board the board to make the move on
+	 * @return The state of the game after the move.
+	 */
+	public GameState makeMove(QubicBoard board) {
+		return makeMove(chooseMove(board), board);
+	}
+
+	/**
+	 * Helper method that scores a position for the player about to move with an
+	 * alpha-beta search.
+	 * 
+	 * @param own   the cells of the player about to move
+	 * @param opp   the cells of the other player
+	 * @param plies the number of plies left to search
+	 * @param alpha the score the player is already sure of
+	 * @param beta  the score the other player is already sure of, negated
+	 * @return The score of the position for the player about to move.
+	 */
+	private int search(long own, long opp, int plies, int alpha, int beta) {
+		nodes++;
+		// the other player just moved, so only they can have completed a line
+		if (QubicBoard.hasLine(opp)) {
+			return -(WIN_SCORE + plies + 1);
+		}
+		long empty = ~(own | opp);
+		if (empty == 0) {
+			return 0;
+		}
+		if (getCompletingCells(own, opp) != 0) {
+			// a line can be completed right away
+			return WIN_SCORE + plies;
+		}
+		if (plies == 0) {
+			return evaluate(own, opp);
+		}
+		long moves = getForcedMoves(own, opp);
+		for (int cell : MOVE_ORDER) {
+			long bit = 1L << cell;
+			if ((moves & bit) == 0) {
+				continue;
+			}
+			int score = -search(opp, own | bit, plies - 1, -beta, -alpha);
+			if (score > alpha) {
+				alpha = score;
+				if (alpha >= beta) {
+					break;
+				}
+			}
+		}
+		return alpha;
+	}
+
+	/**
+	 * Helper method that gets the moves worth searching: the cells blocking the
+	 * other player's lines if they have any, and every empty cell otherwise.
+	 * 
+	 * @param own the cells of the player about to move
+	 * @param opp the cells of the other player
+	 * @return A mask of the moves, bit i standing for cell i.
+	 */
+	private static long getForcedMoves(long own, long opp) {
+		long empty = ~(own | opp);
+		if (getCompletingCells(own, opp) != 0) {
+			return getCompletingCells(own, opp);
+		}
+		long blocks = getCompletingCells(opp, own);
+		return (blocks != 0) ? blocks : empty;
+	}
+
+	/**
+	 * Helper method that finds the cells completing a line for a player: the
+	 * empty cell of each line holding three of the player's symbols.
+	 * 
+	 * @param own the cells of the player
+	 * @param opp the cells of the other player
+	 * @return A mask of the completing cells, bit i standing for cell i.
+	 */
+	private static long getCompletingCells(long own, long opp) {
+		long cells = 0;
+		for (long line : QubicBoard.LINES) {
+			if ((line & opp) == 0 && Long.bitCount(line & own) == QubicBoard.QUBIC_SIZE - 1) {
+				cells |= line & ~own;
+			}
+		}
+		return cells;
+	}
+
+	/**
+	 * Helper method that scores a position by the lines open to each player,
+	 * weighting each line by the number of symbols on it.
+	 * 
+	 * @param own the cells of the player about to move
+	 * @param opp the cells of the other player
+	 * @return The score of the position for the player about to move.
+	 */
+	private static int evaluate(long own, long opp) {
+		int score = 0;
+		for (long line : QubicBoard.LINES) {
+			if ((line & opp) == 0) {
+				score += LINE_WEIGHTS[Long.bitCount(line & own)];
+			} else if ((line & own) == 0) {
+				score -= LINE_WEIGHTS[Long.bitCount(line & opp)];
+			}
+		}
+		return score;
+	}
+
+	/**
+	 * Check the 76 lines of the cube, then play the search against random moves
+	 * from both sides and against itself, printing the results and the time per
+	 * move. The exit status is 1 if the lines are wrong or the search loses to
+	 * random moves.
+	 * 
+	 * @param args the number of plies to search and the number of games against
+	 *             random moves for each side, by default DEFAULT_DEPTH and 10
+	 */
+	public static void main(String args[]) {
+		int depth = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+		int games = (args.length > 1) ? Integer.parseInt(args[1]) : 10;
+		int failures = 0;
+
+		// every line has 4 cells, and the corners and middle cells are on 7 lines
+		// while the other cells are on 4
+		long seven = 0;
+		int sevenCount = 0, fourCount = 0;
+		for (int cell = 0; cell < QubicBoard.QUBIC_CELLS; cell++) {
+			int lines = 0;
+			for (long line : QubicBoard.LINES) {
+				lines += (int) ((line >>> cell) & 1);
+			}
+			sevenCount += (lines == 7) ? 1 : 0;
+			fourCount += (lines == 4) ? 1 : 0;
+			seven |= (lines == 7) ? 1L << cell : 0;
+		}
+		int distinct = 0;
+		for (int i = 0; i < QubicBoard.LINES.length; i++) {
+			boolean repeated = Long.bitCount(QubicBoard.LINES[i]) != QubicBoard.QUBIC_SIZE;
+			for (int j = 0; j < i; j++) {
+				repeated |= QubicBoard.LINES[i] == QubicBoard.LINES[j];
+			}
+			distinct += repeated ? 0 : 1;
+		}
+		System.out.printf("%d distinct lines of 4 cells; %d cells on 7 lines, %d on 4%n", distinct, sevenCount,
+				fourCount);
+		failures += (distinct != 76 || sevenCount != 16 || fourCount != 48 || !QubicBoard.hasLine(seven)) ? 1 : 0;
+
+		Random random = new Random(7);
+		int wins = 0, losses = 0, ties = 0, moves = 0;
+		long nodes = 0, searchTime = 0;
+		for (int game = 0; game < 2 * games; game++) {
+			// the search moves first in the first half of the games
+			QubicPlayer searcher = new QubicPlayer(Board.X_SYMBOL, depth);
+			UserPlayer randomPlayer = new UserPlayer(Board.O_SYMBOL);
+			QubicBoard board = (game < games) ? new QubicBoard(searcher, randomPlayer)
+					: new QubicBoard(randomPlayer, searcher);
+			GameState gameState = GameState.IN_PROGRESS;
+			while (gameState == GameState.IN_PROGRESS) {
+				if (board.getCurrentPlayer() == searcher) {
+					long start = System.nanoTime();
+					gameState = searcher.makeMove(board);
+					searchTime += System.nanoTime() - start;
+					nodes += searcher.getNodes();
+					moves++;
+				} else {
+					long empty = board.getMask(Board.EMPTY);
+					int pick = random.nextInt(Long.bitCount(empty));
+					for (int i = 0; i < pick; i++) {
+						empty &= empty - 1;
+					}
+					gameState = randomPlayer.makeMove(Long.numberOfTrailingZeros(empty), board);
+				}
+				if (gameState == GameState.IN_PROGRESS) {
+					board.switchTurns();
+				}
+			}
+			if (gameState == GameState.TIE) {
+				ties++;
+			} else if (board.getCurrentPlayer() == searcher) {
+				wins++;
+			} else {
+				losses++;
+			}
+		}
+		System.out.printf("Depth %d against random moves: %d wins, %d losses, %d ties%n", depth, wins, losses, ties);
+		System.out.printf("%.2f ms and %,d positions per move, %,.0f positions/s%n", searchTime / 1e6 / moves,
+				nodes / moves, nodes / (searchTime / 1e9));
+		failures += (losses > 0) ? 1 : 0;
+
+		QubicPlayer one = new QubicPlayer(Board.X_SYMBOL, depth), two = new QubicPlayer(Board.O_SYMBOL, depth);
+		QubicBoard board = new QubicBoard(one, two);
+		GameState gameState = GameState.IN_PROGRESS;
+		long start = System.nanoTime();
+		while (gameState == GameState.IN_PROGRESS) {
+			gameState = ((QubicPlayer) board.getCurrentPlayer()).makeMove(board);
+			if (gameState == GameState.IN_PROGRESS) {
+				board.switchTurns();
+			}
+		}
+		System.out.printf("Against itself: %s after %d moves in %.0f ms%n%s",
+				(gameState == GameState.TIE) ? "tie" : board.getCurrentPlayer().getSymbol() + " wins",
+				board.getFilledTilesNumber(), (System.nanoTime() - start) / 1e6, board);
+		if (failures > 0) {
+			System.exit(1);
+		}
+	}
+}
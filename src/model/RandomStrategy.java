@@ -0,0 +1,71 @@
+package model;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * This class is the easiest move strategy. It doesn't follow any algorithm and
+ * always chooses a random empty tile.
+ */
+public class RandomStrategy implements MoveStrategy {
+
+	/**
+	 * Get the name of the strategy shown to the user.
+	 * 
+	 * @return The name of the strategy.
+	 */
+	@Override
+	public String getName() {
+		return "Random";
+	}
+
+	/**
+	 * Get how hard the strategy is to beat.
+	 * 
+	 * @return EASY.
+	 */
+	@Override
+	public Difficulty getDifficulty() {
+		return Difficulty.EASY;
+	}
+
+	/**
+	 * Get how expensive it is for the strategy to choose a move.
+	 * 
+	 * @return CHEAP.
+	 */
+	@Override
+	public Cost getCost() {
+		return Cost.CHEAP;
+	}
+
+	/**
+	 * Choose a random empty tile of the board.
+	 * 
+	 * @param board the board to choose a move on, with at least one empty tile
+	 * @return The coordinates {row, column} of the chosen empty tile.
+	 */
+	@Override
+	public int[] chooseMove(Board board) {
+		return getRandomEmptyTile(board);
+	}
+
+	/**
+	 * Choose a random empty tile of the board. Used by other strategies when none
+	 * of their moves apply.
+	 * 
+	 * @param board the board to choose a move on, with at least one empty tile
+	 * @return The coordinates {row, column} of the chosen empty tile.
+	 */
+	public static int[] getRandomEmptyTile(Board board) {
+		int row, col;
+		do {
+			// generate random number between 0-2 inclusive for row and column
+			// coordinates. a thread local generator is used so that computer
+			// players on different threads don't contend
+			row = ThreadLocalRandom.current().nextInt(Board.BOARD_ROWS);
+			col = ThreadLocalRandom.current().nextInt(Board.BOARD_COLS);
+			// loop runs until retrieve empty tile to fill
+		} while (!board.getTileAt(row, col).isEmpty());
+		return new int[] { row, col };
+	}
+}
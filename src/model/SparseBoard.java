@@ -0,0 +1,462 @@
+package model;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * This class is a board without edges, for playing k-in-a-row on an infinite
+ * grid. Only the occupied cells are stored, in an open-addressing hash table
+ * keyed by the cell's coordinates packed into a long, with the symbols in a
+ * parallel byte array, so nothing is boxed and the memory used grows with the
+ * number of symbols played, not with how far apart they are. The table is kept
+ * at most half full, and a cell is found by probing the slots after the one its
+ * key hashes to.
+ * 
+ * A move is checked for a win by counting the symbols in a row along the four
+ * lines through it, so the check takes the same time however many symbols are
+ * on the board. The bounding box of the symbols is kept up to date as they are
+ * placed, for drawing the part of the grid that is in use.
+ * 
+ * A board is not thread-safe.
+ */
+public class SparseBoard {
+	/**
+	 * Number of slots of an empty table. Always a power of two.
+	 */
+	private final static int INITIAL_CAPACITY = 16;
+	/**
+	 * Multiplier spreading the bits of a key over the high bits of its hash.
+	 */
+	private final static long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+	/**
+	 * Steps along the four lines through a cell: across, down, and both
+	 * diagonals.
+	 */
+	private final static int[][] DIRECTIONS = { { 1, 0 }, { 0, 1 }, { 1, 1 }, { 1, -1 } };
+
+	/**
+	 * Number of symbols in a row that wins.
+	 */
+	private final int winLength;
+	/**
+	 * Packed coordinates of the cell in each slot of the table.
+	 */
+	private long[] keys;
+	/**
+	 * Digit of the symbol in each slot of the table, as given by
+	 * PositionCode.getDigit(), or 0 for a free slot.
+	 */
+	private byte[] digits;
+	/**
+	 * Number of bits of a slot index, the table having 2 to that many slots.
+	 */
+	private int slotBits;
+	/**
+	 * Number of symbols on the board.
+	 */
+	private int stones;
+	/**
+	 * Bounding box of the symbols on the board, all 0 while it is empty.
+	 */
+	private int minX, maxX, minY, maxY;
+	/**
+	 * true if a symbol on the edge of the bounding box was removed, so the box has
+	 * to be worked out again before it is read, false otherwise.
+	 */
+	private boolean boundsStale = false;
+
+	/**
+	 * Construct an empty board.
+	 * 
+	 * @param winLength the number of symbols in a row that wins
+	 * @throws IllegalArgumentException if the win length isn't positive
+	 */
+	public SparseBoard(int winLength) {
+		if (winLength < 1) {
+			throw new IllegalArgumentException("Invalid win length: " + winLength);
+		}
+		this.winLength = winLength;
+		clear();
+	}
+
+	/**
+	 * Get the number of symbols in a row that wins.
+	 * 
+	 * @return The win length of the board.
+	 */
+	public int getWinLength() {
+		return winLength;
+	}
+
+	/**
+	 * Get the number of symbols on the board.
+	 * 
+	 * @return The number of occupied cells.
+	 */
+	public int getStones() {
+		return stones;
+	}
+
+	/**
+	 * Check if no symbol has been placed on the board.
+	 * 
+	 * @return true if every cell is empty, false otherwise.
+	 */
+	public boolean isEmpty() {
+		return stones == 0;
+	}
+
+	/**
+	 * Get the symbol of a cell.
+	 * 
+	 * @param x the column of the cell
+	 * @param y the row of the cell
+	 * @return The symbol in the cell, or EMPTY.
+	 */
+	public char getSymbol(int x, int y) {
+		int slot = findSlot(pack(x, y));
+		return (digits[slot] == 0) ? Board.EMPTY : PositionCode.getSymbol(digits[slot]);
+	}
+
+	/**
+	 * Place a symbol in an empty cell and check if it completed a row of
+	 * getWinLength() symbols.
+	 * 
+	 * @param x      the column of the cell
+	 * @param y      the row of the cell
+	 * @param symbol the symbol to place, X_SYMBOL or O_SYMBOL
+	 * @return WIN if the move won the game, IN_PROGRESS if it didn't, or
+	 *         INVALID_MOVE if the cell is taken or the symbol is invalid, in which
+	 *         case the board is left as it was. An unbounded board is never tied.
+	 */
+	public GameState placeSymbol(int x, int y, char symbol) {
+		if (symbol != Board.X_SYMBOL && symbol != Board.O_SYMBOL) {
+			return GameState.INVALID_MOVE;
+		}
+		long key = pack(x, y);
+		int slot = findSlot(key);
+		if (digits[slot] != 0) {
+			return GameState.INVALID_MOVE;
+		}
+		// grow before the table is more than half full, keeping probes short
+		if ((stones + 1) * 2 > keys.length) {
+			resize(keys.length * 2);
+			slot = findSlot(key);
+		}
+		keys[slot] = key;
+		digits[slot] = (byte) PositionCode.getDigit(symbol);
+		if (stones == 0) {
+			minX = maxX = x;
+			minY = maxY = y;
+		} else {
+			minX = Math.min(minX, x);
+			maxX = Math.max(maxX, x);
+			minY = Math.min(minY, y);
+			maxY = Math.max(maxY, y);
+		}
+		stones++;
+		return isWinningMove(x, y) ? GameState.WIN : GameState.IN_PROGRESS;
+	}
+
+	/**
+	 * Remove the symbol of a cell, to undo a move.
+	 * 
+	 * @param x the column of the cell
+	 * @param y the row of the cell
+	 * @return true if a symbol was removed, false if the cell was empty.
+	 */
+	public boolean removeSymbol(int x, int y) {
+		int slot = findSlot(pack(x, y));
+		if (digits[slot] == 0) {
+			return false;
+		}
+		// shift back the entries after the free slot that would no longer be found
+		// from their home slot, so that no tombstones are needed
+		int mask = keys.length - 1;
+		int free = slot;
+		for (int next = (free + 1) & mask; digits[next] != 0; next = (next + 1) & mask) {
+			int home = homeSlot(keys[next]);
+			if (((next - home) & mask) >= ((next - free) & mask)) {
+				keys[free] = keys[next];
+				digits[free] = digits[next];
+				free = next;
+			}
+		}
+		digits[free] = 0;
+		stones--;
+		if (stones == 0) {
+			minX = maxX = minY = maxY = 0;
+			boundsStale = false;
+		} else if (x == minX || x == maxX || y == minY || y == maxY) {
+			boundsStale = true;
+		}
+		return true;
+	}
+
+	/**
+	 * Remove every symbol from the board, shrinking the table back to its initial
+	 * size.
+	 */
+	public void clear() {
+		keys = new long[INITIAL_CAPACITY];
+		digits = new byte[INITIAL_CAPACITY];
+		slotBits = Integer.numberOfTrailingZeros(INITIAL_CAPACITY);
+		stones = 0;
+		minX = maxX = minY = maxY = 0;
+		boundsStale = false;
+	}
+
+	/**
+	 * Check if the symbol in a cell is part of a row of getWinLength() symbols.
+	 * Only the four lines through the cell are looked at.
+	 * 
+	 * @param x the column of the cell
+	 * @param y the row of the cell
+	 * @return true if the cell's symbol completes a row, false otherwise or if
+	 *         the cell is empty.
+	 */
+	public boolean isWinningMove(int x, int y) {
+		char symbol = getSymbol(x, y);
+		if (symbol == Board.EMPTY) {
+			return false;
+		}
+		for (int[] direction : DIRECTIONS) {
+			int inRow = 1 + countSymbols(x, y, direction[0], direction[1], symbol)
+					+ countSymbols(x, y, -direction[0], -direction[1], symbol);
+			if (inRow >= winLength) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Get the lowest column holding a symbol.
+	 * 
+	 * @return The left edge of the bounding box, or 0 if the board is empty.
+	 */
+	public int getMinX() {
+		updateBounds();
+		return minX;
+	}
+
+	/**
+	 * Get the highest column holding a symbol.
+	 * 
+	 * @return The right edge of the bounding box, or 0 if the board is empty.
+	 */
+	public int getMaxX() {
+		updateBounds();
+		return maxX;
+	}
+
+	/**
+	 * Get the lowest row holding a symbol.
+	 * 
+	 * @return The top edge of the bounding box, or 0 if the board is empty.
+	 */
+	public int getMinY() {
+		updateBounds();
+		return minY;
+	}
+
+	/**
+	 * Get the highest row holding a symbol.
+	 * 
+	 * @return The bottom edge of the bounding box, or 0 if the board is empty.
+	 */
+	public int getMaxY() {
+		updateBounds();
+		return maxY;
+	}
+
+	/**
+	 * Helper method that counts the symbols in a row next to a cell in one
+	 * direction, stopping at the first other symbol or empty cell, and at
+	 * getWinLength() since more can't matter.
+	 * 
+	 * @param x      the column of the cell
+	 * @param y      the row of the cell
+	 * @param dx     the step between columns
+	 * @param dy     the step between rows
+	 * @param symbol the symbol to count
+	 * @return The number of symbols next to the cell, not counting the cell.
+	 */
+	private int countSymbols(int x, int y, int dx, int dy, char symbol) {
+		int count = 0;
+		while (count < winLength && getSymbol(x + (count + 1) * dx, y + (count + 1) * dy) == symbol) {
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Helper method that works the bounding box out again from every symbol, if a
+	 * symbol on its edge was removed.
+	 */
+	private void updateBounds() {
+		if (!boundsStale) {
+			return;
+		}
+		minX = minY = Integer.MAX_VALUE;
+		maxX = maxY = Integer.MIN_VALUE;
+		for (int slot = 0; slot < keys.length; slot++) {
+			if (digits[slot] != 0) {
+				int x = (int) (keys[slot] >> 32), y = (int) keys[slot];
+				minX = Math.min(minX, x);
+				maxX = Math.max(maxX, x);
+				minY = Math.min(minY, y);
+				maxY = Math.max(maxY, y);
+			}
+		}
+		boundsStale = false;
+	}
+
+	/**
+	 * Helper method that finds the slot of a key: the slot holding it, or the free
+	 * slot it would go in.
+	 * 
+	 * @param key the packed coordinates of a cell
+	 * @return The index of the slot.
+	 */
+	private int findSlot(long key) {
+		int mask = keys.length - 1;
+		int slot = homeSlot(key);
+		while (digits[slot] != 0 && keys[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Helper method that gets the slot a key is looked for from first.
+	 * 
+	 * @param key the packed coordinates of a cell
+	 * @return The index of the key's home slot.
+	 */
+	private int homeSlot(long key) {
+		return (int) ((key * HASH_MULTIPLIER) >>> (64 - slotBits));
+	}
+
+	/**
+	 * Helper method that moves every symbol into a table with a different number
+	 * of slots.
+	 * 
+	 * @param capacity the new number of slots, a power of two
+	 */
+	private void resize(int capacity) {
+		long[] oldKeys = keys;
+		byte[] oldDigits = digits;
+		keys = new long[capacity];
+		digits = new byte[capacity];
+		slotBits = Integer.numberOfTrailingZeros(capacity);
+		for (int slot = 0; slot < oldKeys.length; slot++) {
+			if (oldDigits[slot] != 0) {
+				int newSlot = findSlot(oldKeys[slot]);
+				keys[newSlot] = oldKeys[slot];
+				digits[newSlot] = oldDigits[slot];
+			}
+		}
+	}
+
+	/**
+	 * Helper method that packs the coordinates of a cell into a key, the column in
+	 * the high 32 bits and the row in the low 32 bits.
+	 * 
+	 * @param x the column of the cell
+	 * @param y the row of the cell
+	 * @return The key of the cell.
+	 */
+	private static long pack(int x, int y) {
+		return ((long) x << 32) | (y & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Place symbols on cells scattered over billions of coordinates, then remove
+	 * half of them, checking the symbols, the bounding box and the win checks
+	 * against a HashMap of boxed keys doing the same. Prints the time per
+	 * operation of both and the bytes per symbol of the board's table, and the
+	 * exit status is 1 if anything differs.
+	 * 
+	 * @param args the number of symbols to place, by default 1,000,000
+	 */
+	public static void main(String args[]) {
+		int count = (args.length > 0) ? Integer.parseInt(args[0]) : 1000000;
+		Random random = new Random(42);
+		int[] xs = new int[count], ys = new int[count];
+		for (int i = 0; i < count; i++) {
+			xs[i] = random.nextInt(2000000000) - 1000000000;
+			ys[i] = random.nextInt(2000000000) - 1000000000;
+		}
+		int mismatches = 0;
+
+		SparseBoard board = new SparseBoard(5);
+		long start = System.nanoTime();
+		for (int i = 0; i < count; i++) {
+			board.placeSymbol(xs[i], ys[i], (i % 2 == 0) ? Board.X_SYMBOL : Board.O_SYMBOL);
+		}
+		long placeTime = System.nanoTime() - start;
+		start = System.nanoTime();
+		for (int i = 0; i < count; i++) {
+			mismatches += (board.getSymbol(xs[i], ys[i]) == Board.EMPTY) ? 1 : 0;
+		}
+		long getTime = System.nanoTime() - start;
+		long tableBytes = (long) board.keys.length * (Long.BYTES + Byte.BYTES);
+
+		Map<Long, Character> reference = new HashMap<Long, Character>();
+		start = System.nanoTime();
+		for (int i = 0; i < count; i++) {
+			reference.putIfAbsent(pack(xs[i], ys[i]), (i % 2 == 0) ? Board.X_SYMBOL : Board.O_SYMBOL);
+		}
+		long referencePlaceTime = System.nanoTime() - start;
+		start = System.nanoTime();
+		for (int i = 0; i < count; i++) {
+			mismatches += (reference.get(pack(xs[i], ys[i])) == null) ? 1 : 0;
+		}
+		long referenceGetTime = System.nanoTime() - start;
+
+		// remove every other symbol, then compare every cell and the bounding box
+		for (int i = 0; i < count; i += 2) {
+			boolean removed = board.removeSymbol(xs[i], ys[i]);
+			mismatches += (removed != (reference.remove(pack(xs[i], ys[i])) != null)) ? 1 : 0;
+		}
+		int minX = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, minY = Integer.MAX_VALUE, maxY = Integer.MIN_VALUE;
+		for (int i = 0; i < count; i++) {
+			Character symbol = reference.get(pack(xs[i], ys[i]));
+			mismatches += (board.getSymbol(xs[i], ys[i]) != ((symbol == null) ? Board.EMPTY : symbol)) ? 1 : 0;
+			if (symbol != null) {
+				minX = Math.min(minX, xs[i]);
+				maxX = Math.max(maxX, xs[i]);
+				minY = Math.min(minY, ys[i]);
+				maxY = Math.max(maxY, ys[i]);
+			}
+		}
+		mismatches += (board.getStones() != reference.size()) ? 1 : 0;
+		mismatches += (board.getMinX() != minX || board.getMaxX() != maxX || board.getMinY() != minY
+				|| board.getMaxY() != maxY) ? 1 : 0;
+
+		// a diagonal of five far from the origin wins only when its middle is filled
+		SparseBoard winBoard = new SparseBoard(5);
+		int[] order = { 0, 1, 3, 4 };
+		for (int step : order) {
+			mismatches += (winBoard.placeSymbol(7000000 + step, -3000000 - step, Board.O_SYMBOL) != GameState.IN_PROGRESS)
+					? 1
+					: 0;
+		}
+		mismatches += (winBoard.placeSymbol(7000002, -3000002, Board.X_SYMBOL) != GameState.IN_PROGRESS) ? 1 : 0;
+		winBoard.removeSymbol(7000002, -3000002);
+		mismatches += (winBoard.placeSymbol(7000002, -3000002, Board.O_SYMBOL) != GameState.WIN) ? 1 : 0;
+		mismatches += (winBoard.placeSymbol(7000002, -3000002, Board.X_SYMBOL) != GameState.INVALID_MOVE) ? 1 : 0;
+
+		System.out.printf("SparseBoard: %,d symbols placed in %.1f ns each, found in %.1f ns each%n", count,
+				(double) placeTime / count, (double) getTime / count);
+		System.out.printf("HashMap:     %,d symbols placed in %.1f ns each, found in %.1f ns each%n", count,
+				(double) referencePlaceTime / count, (double) referenceGetTime / count);
+		System.out.printf("Table of %,d slots, %.1f bytes per symbol; %d mismatches%n", board.keys.length,
+				(double) tableBytes / count, mismatches);
+		if (mismatches > 0) {
+			System.exit(1);
+		}
+	}
+}
@@ -1,5 +1,11 @@
 package model;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import scores.Leaderboard;
+
 /**
  * This class represents a Tic-Tac-Toe board and implements the Board interface.
  * It allows for the creation of single and multi-player boards. It also
@@ -20,17 +26,30 @@ public class TicTacToeBoard implements Board {
 		 * Symbol that is on the tile on the board.
 		 */
 		private char symbol;
+		/**
+		 * Row of the board that the tile is on.
+		 */
+		private final int row;
+		/**
+		 * Column of the board that the tile is on.
+		 */
+		private final int col;
 
 		/**
-		 * Constructs an empty tile.
+		 * Constructs an empty tile at the specified position on the board.
+		 * 
+		 * @param row the row of the board that the tile is on
+		 * @param col the column of the board that the tile is on
 		 */
-		public Tile() {
+		public Tile(int row, int col) {
 			symbol = EMPTY;
+			this.row = row;
+			this.col = col;
 		}
 
 		/**
 		 * Fill in tile with specified symbol, increasing the number of filled tiles on
-		 * the board.
+		 * the board and notifying the board listeners of the move.
 		 * 
 		 * @param symbol the symbol for the tile
 		 * @throws IllegalArgumentException if symbol is an invalid symbol
@@ -39,9 +58,69 @@ public class TicTacToeBoard implements Board {
 			if (symbol != X_SYMBOL && symbol != O_SYMBOL) {
 				throw new IllegalArgumentException("Valid symbols: X/O");
 			}
+			int tile = row * BOARD_COLS + col;
+			if (this.symbol != EMPTY) {
+				// take the replaced symbol out of the line counts
+				updateLines(row, col, this.symbol, -1);
+				// the replaced symbol can't be brought back, so the moves before it
+				// can't be undone either
+				movesMade = historyLength = 0;
+			} else if (movesMade < historyLength && moveTiles[movesMade] == tile && moveSymbols[movesMade] == symbol) {
+				// making the move that was undone keeps the moves undone after it
+				movesMade++;
+			} else {
+				// any other move starts a new history from here
+				moveTiles[movesMade] = tile;
+				moveSymbols[movesMade] = symbol;
+				historyLength = ++movesMade;
+			}
+			positionCode = (int) PositionCode.update(positionCode, tile, this.symbol, symbol);
 			this.symbol = symbol;
+			updateLines(row, col, symbol, 1);
 			// number of filled tiles on the board
 			filledTiles++;
+			if (!listeners.isEmpty()) {
+				fireEvent(new BoardEvent.MoveEvent(TicTacToeBoard.this, row, col, symbol));
+			}
+		}
+
+		/**
+		 * Empty the tile, undoing the move made on it and decreasing the number of
+		 * filled tiles on the board. If it was the last move, it can be made again
+		 * with redoMove(). Board listeners are not notified.
+		 */
+		public void clearTile() {
+			if (symbol == EMPTY) {
+				return;
+			}
+			if (movesMade > 0 && moveTiles[movesMade - 1] == row * BOARD_COLS + col) {
+				movesMade--;
+			} else {
+				// a move from the middle of the history breaks it
+				movesMade = historyLength = 0;
+			}
+			updateLines(row, col, symbol, -1);
+			positionCode = (int) PositionCode.update(positionCode, row * BOARD_COLS + col, symbol, EMPTY);
+			symbol = EMPTY;
+			filledTiles--;
+		}
+
+		/**
+		 * Get the row of the board that the tile is on.
+		 * 
+		 * @return The row of the tile.
+		 */
+		public int getRow() {
+			return row;
+		}
+
+		/**
+		 * Get the column of the board that the tile is on.
+		 * 
+		 * @return The column of the tile.
+		 */
+		public int getCol() {
+			return col;
 		}
 
 		/**
@@ -104,6 +183,82 @@ public class TicTacToeBoard implements Board {
 	 * Number of tiles filled on the board by both players.
 	 */
 	private int filledTiles;
+	/**
+	 * Lines through each tile, as indices in LINES.
+	 */
+	private final static int[][] TILE_LINES = new int[BOARD_ROWS * BOARD_COLS][];
+	static {
+		for (int tile = 0; tile < TILE_LINES.length; tile++) {
+			int count = 0;
+			int[] through = new int[4];
+			for (int line = 0; line < LINES.length; line++) {
+				for (int lineTile : LINES[line]) {
+					if (lineTile == tile) {
+						through[count++] = line;
+					}
+				}
+			}
+			TILE_LINES[tile] = Arrays.copyOf(through, count);
+		}
+	}
+	/**
+	 * Number of X symbols in each line of LINES.
+	 */
+	private final int[] xCounts = new int[LINES.length];
+	/**
+	 * Number of O symbols in each line of LINES.
+	 */
+	private final int[] oCounts = new int[LINES.length];
+	/**
+	 * Bit set of the lines with two X symbols and one empty tile.
+	 */
+	private int xTwoLines;
+	/**
+	 * Bit set of the lines with two O symbols and one empty tile.
+	 */
+	private int oTwoLines;
+	/**
+	 * Bit set of the lines with one X symbol and two empty tiles.
+	 */
+	private int xOneLines;
+	/**
+	 * Bit set of the lines with one O symbol and two empty tiles.
+	 */
+	private int oOneLines;
+	/**
+	 * Position code of the board, updated on every move.
+	 */
+	private int positionCode;
+	/**
+	 * Tiles of the moves of the game in the order they were made, followed by the
+	 * moves that were undone and can be made again. Tiles are numbered row *
+	 * BOARD_COLS + col.
+	 */
+	private final int[] moveTiles = new int[BOARD_ROWS * BOARD_COLS];
+	/**
+	 * Symbols of the moves in moveTiles.
+	 */
+	private final char[] moveSymbols = new char[BOARD_ROWS * BOARD_COLS];
+	/**
+	 * Number of moves of moveTiles on the board, the top of the move stack.
+	 */
+	private int movesMade;
+	/**
+	 * Number of moves in moveTiles, those on the board and those that can be
+	 * redone.
+	 */
+	private int historyLength;
+	/**
+	 * Listeners notified of every move, turn switch and end of game on the board.
+	 * A copy-on-write list is used since listeners are registered from the UI
+	 * thread while events may be published from the thread making the moves.
+	 */
+	private final List<BoardListener> listeners = new CopyOnWriteArrayList<BoardListener>();
+	/**
+	 * Leaderboard the winner of each game on this board is given a point on. null
+	 * represents that wins are only kept in the players' scores.
+	 */
+	private volatile Leaderboard leaderboard;
 
 	/**
 	 * Construct a multi-player TicTacToeBoard by initializing player one and two
@@ -142,24 +297,66 @@ public class TicTacToeBoard implements Board {
 	 * @throws IllegalArgumentException if either symbol is invalid
 	 */
 	public TicTacToeBoard(char playerOneSymbol, char computerPlayerSymbol, boolean userFirst) {
+		this(playerOneSymbol, computerPlayerSymbol, userFirst, MoveStrategies.getDefault());
+	}
+
+	/**
+	 * Construct a single-player TicTacToeBoard with the user choosing if they want
+	 * to go first or not and which strategy the computer player uses. Depending on
+	 * what the user picks, player one and two will be either a user player or a
+	 * computer player, initialized with their respective symbols.
+	 * 
+	 * @param playerOneSymbol      the symbol for player one
+	 * @param computerPlayerSymbol the symbol for the computer player
+	 * @param userFirst            true if user wants to go first, false otherwise
+	 * @param strategy             the strategy used by the computer player
+	 * @throws IllegalArgumentException if either symbol is invalid
+	 */
+	public TicTacToeBoard(char playerOneSymbol, char computerPlayerSymbol, boolean userFirst,
+			MoveStrategy strategy) {
 		// initialize players and other fields using "this"
 		this(playerOneSymbol, computerPlayerSymbol);
 		if (userFirst) {
 			// if user wants to go first,
 			// then player two is the computer player
-			playerTwo = new ComputerPlayer(playerTwo.getSymbol());
+			playerTwo = new ComputerPlayer(playerTwo.getSymbol(), strategy);
 		} else {
 			// if user wants to go second,
 			// player one is computer player and
 			// player two is user player.
 			// their symbols also get switched when the
 			// user goes first
-			playerOne = new ComputerPlayer(computerPlayerSymbol);
+			playerOne = new ComputerPlayer(computerPlayerSymbol, strategy);
 			playerTwo = new UserPlayer(playerOneSymbol);
 			currentPlayer = playerOne;
 		}
 	}
 
+	/**
+	 * Construct a TicTacToeBoard played by the two specified players, such as two
+	 * computer players. As with the single-player board, player one makes the
+	 * first move whatever their symbol is.
+	 * 
+	 * @param playerOne the player who makes the first move
+	 * @param playerTwo the player who makes the second move
+	 * @throws IllegalArgumentException if either symbol is invalid or both players
+	 *                                  have the same symbol
+	 */
+	public TicTacToeBoard(Player playerOne, Player playerTwo) {
+		if ((playerOne.getSymbol() != X_SYMBOL && playerOne.getSymbol() != O_SYMBOL)
+				|| (playerTwo.getSymbol() != X_SYMBOL && playerTwo.getSymbol() != O_SYMBOL)
+				|| playerOne.getSymbol() == playerTwo.getSymbol()) {
+			throw new IllegalArgumentException("Valid symbols: X/O, one per player");
+		}
+		this.playerOne = playerOne;
+		this.playerTwo = playerTwo;
+		// initialize game board
+		initBoard();
+		// player one always makes the first move
+		currentPlayer = playerOne;
+		filledTiles = 0;
+	}
+
 	/**
 	 * Get player who's going first.
 	 * 
@@ -247,7 +444,9 @@ public class TicTacToeBoard implements Board {
 			// otherwise, switch current player to player one
 			currentPlayer = playerOne;
 		}
-
+		if (!listeners.isEmpty()) {
+			fireEvent(new BoardEvent.TurnSwitchEvent(this, currentPlayer));
+		}
 	}
 
 	/**
@@ -262,6 +461,10 @@ public class TicTacToeBoard implements Board {
 			gameState = GameState.WIN;
 			// increase score of player who made winning move
 			getCurrentPlayer().increaseScore();
+			Leaderboard ranking = leaderboard;
+			if (ranking != null) {
+				ranking.increment(getCurrentPlayer().getName());
+			}
 		} else if (GameState.isTie(this)) {
 			gameState = GameState.TIE;
 		} else {
@@ -269,6 +472,11 @@ public class TicTacToeBoard implements Board {
 			// is IN_PROGRESS
 			gameState = GameState.IN_PROGRESS;
 		}
+		if (gameState != GameState.IN_PROGRESS && !listeners.isEmpty()) {
+			// the current player is the one who made the last move
+			Player winner = (gameState == GameState.WIN) ? getCurrentPlayer() : null;
+			fireEvent(new BoardEvent.GameOverEvent(this, gameState, winner));
+		}
 		return gameState;
 	}
 
@@ -305,39 +513,321 @@ public class TicTacToeBoard implements Board {
 		return filledTiles;
 	}
 
+	/**
+	 * Get the size of each dimension of the board.
+	 * 
+	 * @return {BOARD_ROWS, BOARD_COLS}.
+	 */
+	@Override
+	public int[] getDimensions() {
+		return new int[] { BOARD_ROWS, BOARD_COLS };
+	}
+
+	/**
+	 * Get the number of cells of the board.
+	 * 
+	 * @return BOARD_ROWS * BOARD_COLS.
+	 */
+	@Override
+	public int getCellCount() {
+		return BOARD_ROWS * BOARD_COLS;
+	}
+
+	/**
+	 * Get the symbol of a cell.
+	 * 
+	 * @param cell the index of the cell, row * BOARD_COLS + col
+	 * @return The symbol of the cell's tile.
+	 */
+	@Override
+	public char getSymbolAt(int cell) {
+		return gameBoard[cell / BOARD_COLS][cell % BOARD_COLS].getSymbol();
+	}
+
+	/**
+	 * Fill the tile of an empty cell with a symbol, notifying the board listeners
+	 * of the move.
+	 * 
+	 * @param cell   the index of the cell, row * BOARD_COLS + col
+	 * @param symbol the symbol to fill the cell with
+	 * @throws IllegalArgumentException if the symbol is invalid or the cell is not
+	 *                                  empty
+	 */
+	@Override
+	public void fillCell(int cell, char symbol) {
+		Tile tile = gameBoard[cell / BOARD_COLS][cell % BOARD_COLS];
+		if (!tile.isEmpty()) {
+			throw new IllegalArgumentException("Cell " + cell + " is not empty");
+		}
+		tile.fillTile(symbol);
+	}
+
+	/**
+	 * Empty the tile of a cell. Board listeners are not notified.
+	 * 
+	 * @param cell the index of the cell, row * BOARD_COLS + col
+	 */
+	@Override
+	public void clearCell(int cell) {
+		gameBoard[cell / BOARD_COLS][cell % BOARD_COLS].clearTile();
+	}
+
+	/**
+	 * Get the position code of the board, which is kept up to date as tiles are
+	 * filled and cleared.
+	 * 
+	 * @return The code of the board, from 0 to PositionCode.POSITIONS - 1.
+	 */
+	@Override
+	public int getPositionCode() {
+		return positionCode;
+	}
+
+	/**
+	 * Clear the board and fill its tiles with the symbols of a position code. The
+	 * board listeners are notified of each filled tile, and the turns are left as
+	 * they are.
+	 * 
+	 * @param code the code of the position, from 0 to PositionCode.POSITIONS - 1
+	 * @throws IllegalArgumentException if the code is out of range
+	 */
+	public void setPosition(int code) {
+		if (code < 0 || code >= PositionCode.POSITIONS) {
+			throw new IllegalArgumentException("Position code must be 0 to " + (PositionCode.POSITIONS - 1) + ": " + code);
+		}
+		resetBoard();
+		for (int cell = 0; cell < BOARD_ROWS * BOARD_COLS; cell++) {
+			char symbol = PositionCode.getSymbolAt(code, cell);
+			if (symbol != EMPTY) {
+				gameBoard[cell / BOARD_COLS][cell % BOARD_COLS].fillTile(symbol);
+			}
+		}
+	}
+
+	/**
+	 * Take back the last move, emptying its tile and giving the turn back to the
+	 * player who made it. The move can be made again with redoMove() until another
+	 * move is made. The board listeners are notified of the undone move, then of
+	 * the turn switch if the turns change.
+	 * 
+	 * Undoing the move that ended a game doesn't take back the point the winner
+	 * was given.
+	 * 
+	 * @return The tile of the undone move, row * BOARD_COLS + col, or -1 if there
+	 *         is no move to undo.
+	 */
+	public int undoMove() {
+		if (movesMade == 0) {
+			return -1;
+		}
+		int tile = moveTiles[movesMade - 1];
+		char symbol = moveSymbols[movesMade - 1];
+		gameBoard[tile / BOARD_COLS][tile % BOARD_COLS].clearTile();
+		if (!listeners.isEmpty()) {
+			fireEvent(new BoardEvent.UndoEvent(this, tile / BOARD_COLS, tile % BOARD_COLS, symbol));
+		}
+		// the player who made the move is the one to make it again
+		if (currentPlayer.getSymbol() != symbol) {
+			switchTurns();
+		}
+		return tile;
+	}
+
+	/**
+	 * Make the last undone move again. The current player must be the one who
+	 * made it, which they are right after it was undone. As with any other move,
+	 * the caller switches the turns if the game goes on.
+	 * 
+	 * @return The state of the game after the move, or INVALID_MOVE if there is
+	 *         no move to redo or the current player didn't make it.
+	 */
+	public GameState redoMove() {
+		if (movesMade == historyLength || moveSymbols[movesMade] != currentPlayer.getSymbol()) {
+			return GameState.INVALID_MOVE;
+		}
+		int tile = moveTiles[movesMade];
+		gameBoard[tile / BOARD_COLS][tile % BOARD_COLS].fillTile(moveSymbols[movesMade]);
+		return getGameState();
+	}
+
+	/**
+	 * Check if there is a move to undo.
+	 * 
+	 * @return true if a move has been made since the board was reset, false
+	 *         otherwise.
+	 */
+	public boolean canUndo() {
+		return movesMade > 0;
+	}
+
+	/**
+	 * Check if there is an undone move to make again.
+	 * 
+	 * @return true if a move was undone and no other move has been made since,
+	 *         false otherwise.
+	 */
+	public boolean canRedo() {
+		return movesMade < historyLength;
+	}
+
+	/**
+	 * Get the number of moves on the move stack, which is the number of filled
+	 * tiles unless a symbol was replaced.
+	 * 
+	 * @return The number of moves that can be undone.
+	 */
+	public int getMovesMade() {
+		return movesMade;
+	}
+
+	/**
+	 * Get the number of tiles of a line holding the specified symbol.
+	 * 
+	 * @param line   the index of the line in LINES
+	 * @param symbol the symbol to count
+	 * @return The number of tiles of the line with the symbol.
+	 */
+	@Override
+	public int getLineCount(int line, char symbol) {
+		return (symbol == X_SYMBOL) ? xCounts[line] : oCounts[line];
+	}
+
+	/**
+	 * Get the lines holding two of the specified symbol and one empty tile.
+	 * 
+	 * @param symbol the symbol of the player
+	 * @return A bit set of the lines, where bit i stands for LINES[i].
+	 */
+	@Override
+	public int getLinesWithTwo(char symbol) {
+		return (symbol == X_SYMBOL) ? xTwoLines : oTwoLines;
+	}
+
+	/**
+	 * Get the lines holding one of the specified symbol and two empty tiles.
+	 * 
+	 * @param symbol the symbol of the player
+	 * @return A bit set of the lines, where bit i stands for LINES[i].
+	 */
+	@Override
+	public int getLinesWithOne(char symbol) {
+		return (symbol == X_SYMBOL) ? xOneLines : oOneLines;
+	}
+
+	/**
+	 * Helper method that adds or removes a symbol from the counts of the lines
+	 * through a tile, and updates the bit sets of those lines.
+	 * 
+	 * @param row    the row of the tile
+	 * @param col    the column of the tile
+	 * @param symbol the symbol placed on or taken off the tile
+	 * @param change 1 if the symbol was placed, -1 if it was taken off
+	 */
+	private void updateLines(int row, int col, char symbol, int change) {
+		int[] counts = (symbol == X_SYMBOL) ? xCounts : oCounts;
+		for (int line : TILE_LINES[row * BOARD_COLS + col]) {
+			counts[line] += change;
+			int bit = 1 << line, x = xCounts[line], o = oCounts[line];
+			// clear the line's bits, then set the ones that hold now
+			xTwoLines &= ~bit;
+			oTwoLines &= ~bit;
+			xOneLines &= ~bit;
+			oOneLines &= ~bit;
+			if (o == 0 && x == 2) {
+				xTwoLines |= bit;
+			} else if (o == 0 && x == 1) {
+				xOneLines |= bit;
+			} else if (x == 0 && o == 2) {
+				oTwoLines |= bit;
+			} else if (x == 0 && o == 1) {
+				oOneLines |= bit;
+			}
+		}
+	}
+
 	/**
 	 * Helper method that initialize the board with a new blank tile in all the rows
 	 * and columns.
 	 */
 	private void initBoard() {
+		// a new board has no symbols in any line
+		Arrays.fill(xCounts, 0);
+		Arrays.fill(oCounts, 0);
+		xTwoLines = oTwoLines = xOneLines = oOneLines = 0;
+		positionCode = 0;
+		movesMade = historyLength = 0;
 		for (int row = 0; row < BOARD_ROWS; row++) {
 			for (int col = 0; col < BOARD_COLS; col++) {
 				// new Tile() initializes a blank tile at
 				// current row and column on the board
-				gameBoard[row][col] = new Tile();
+				gameBoard[row][col] = new Tile(row, col);
 			}
 		}
 
 	}
 
+	/**
+	 * Set the leaderboard the winner of each game on this board is given a point
+	 * on, by name.
+	 * 
+	 * @param leaderboard the leaderboard, or null to stop giving points
+	 */
+	public void setLeaderboard(Leaderboard leaderboard) {
+		this.leaderboard = leaderboard;
+	}
+
+	/**
+	 * Register a listener to be notified of moves, turn switches and the end of the
+	 * game on this board.
+	 * 
+	 * @param listener the listener to register
+	 */
+	@Override
+	public void addBoardListener(BoardListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Stop notifying the specified listener of changes on this board.
+	 * 
+	 * @param listener the listener to remove
+	 */
+	@Override
+	public void removeBoardListener(BoardListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Helper method that publishes an event to every registered listener, in the
+	 * order the listeners were registered.
+	 * 
+	 * @param event the event to publish
+	 */
+	private void fireEvent(BoardEvent event) {
+		for (BoardListener listener : listeners) {
+			event.dispatchTo(listener);
+		}
+	}
+
 	// for testing purposes
 	// string representation of the board
 	@Override
 	public String toString() {
-		String board = "";
+		// 3 rows of 6 characters and 2 separator lines of 6 characters
+		StringBuilder board = new StringBuilder(5 * 6);
 		for (int row = 0; row < Board.BOARD_ROWS; row++) {
 			for (int col = 0; col < Board.BOARD_COLS; col++) {
-				board += getTileAt(row, col).getSymbol();
+				board.append(getTileAt(row, col).getSymbol());
 				if (col != Board.BOARD_COLS - 1) {
-					board += "|";
+					board.append('|');
 				}
 			}
-			board += "\n";
+			board.append('\n');
 			if (row != Board.BOARD_ROWS - 1) {
-				board += "-+-+-\n";
+				board.append("-+-+-\n");
 			}
 		}
-		return board;
+		return board.toString();
 	}
 
 }
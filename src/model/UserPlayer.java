@@ -2,9 +2,9 @@ package model;
 
 /**
  * This class represents a human player in a Tic-Tac-Toe game and implements the
- * Player interface. A player has a symbol and a score, and it provides methods
- * for getting the symbol and score, increasing the score, and making a move on
- * the board.
+ * Player interface. A player has a symbol, a name and a score, and it provides
+ * methods for getting the symbol, name and score, increasing the score, and
+ * making a move on the board.
  */
 
 public class UserPlayer implements Player {
@@ -12,18 +12,34 @@ public class UserPlayer implements Player {
 	 * Symbol that the player will play with.
 	 */
 	private char symbol;
+	/**
+	 * Name that identifies the player across games.
+	 */
+	private final String name;
 	/**
 	 * Score of the player against the opposing player in the Tic-Tac-Toe game.
 	 */
 	private int score;
 
 	/**
-	 * Construct a user player by initializing its symbol field.
+	 * Construct a user player by initializing its symbol field. The player is
+	 * named after their symbol, such as "Player X".
 	 * 
 	 * @param symbol the symbol for the player
 	 */
 	public UserPlayer(char symbol) {
+		this(symbol, "Player " + symbol);
+	}
+
+	/**
+	 * Construct a user player with the specified symbol and name.
+	 * 
+	 * @param symbol the symbol for the player
+	 * @param name   the name that identifies the player across games
+	 */
+	public UserPlayer(char symbol, String name) {
 		this.symbol = symbol;
+		this.name = name;
 		// players start out with a score of zero when initialized
 		score = 0;
 	}
@@ -37,6 +53,15 @@ public class UserPlayer implements Player {
 		return symbol;
 	}
 
+	/**
+	 * Get the name that identifies the player across games.
+	 * 
+	 * @return The name of the player.
+	 */
+	public String getName() {
+		return name;
+	}
+
 	/**
 	 * Get the score of the player.
 	 * 
@@ -93,4 +118,21 @@ public class UserPlayer implements Player {
 			return GameState.INVALID_MOVE;
 		}
 	}
+
+	/**
+	 * Make a move on a cell of a board of any shape, with the user's symbol.
+	 * 
+	 * @param cell  the index of the cell to make the move on
+	 * @param board the board to make the move on
+	 * @return The state of the game after the move, return INVALID_MOVE if the move
+	 *         is not valid.
+	 */
+	public GameState makeMove(int cell, CellBoard board) {
+		if (cell < 0 || cell >= board.getCellCount() || board.getSymbolAt(cell) != Board.EMPTY) {
+			// invalid move if the cell is off the board or full
+			return GameState.INVALID_MOVE;
+		}
+		board.fillCell(cell, getSymbol());
+		return board.getGameState();
+	}
 }
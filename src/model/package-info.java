@@ -3,8 +3,17 @@
  * Tic-Tac-Toe game (in progress, invalid move, win, tie). It includes the
  * Board, Player, GameState, UserPlayer, ComputerPlayer, and Board classes.
  * These classes work together to control the game flow, maintain and change the
- * state of the game when approptiate, and validate moves. Overall, this package
- * is responsible for providing the underlying data and logic needed for the
- * game to function properly.
+ * state of the game when approptiate, and validate moves. The PositionCode and
+ * PositionStore classes number every position of the board and store data for
+ * each position in plain arrays, and the GameTreeSolver class plays out every
+ * game to find the exact value of each position. The PositionAnalyzer class
+ * uses those values to evaluate every move of a position as a MoveAnalysis.
+ * The SparseBoard class is a board without edges for k-in-a-row, storing only
+ * the occupied cells in a hash table keyed by their coordinates. The CellBoard
+ * interface numbers the cells of a board of any shape with a single index, and
+ * the QubicBoard and QubicPlayer classes use it to play Qubic, four in a row on
+ * a 4x4x4 cube, with the position held in two 64-bit masks. Overall, this
+ * package is responsible for providing the underlying data and logic needed for
+ * the game to function properly.
  */
 package model;
\ No newline at end of file
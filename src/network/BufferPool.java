@@ -0,0 +1,82 @@
+package network;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class is a pool of direct byte buffers that all have the same capacity.
+ * Direct buffers are expensive to allocate and are only freed by the garbage
+ * collector, so the server reuses them instead of allocating one for every
+ * connection or frame. Buffers taken from the pool must be given back with
+ * release() once they are no longer used.
+ */
+public class BufferPool {
+	/**
+	 * Capacity in bytes of every buffer handed out by the pool.
+	 */
+	private final int bufferCapacity;
+	/**
+	 * Maximum number of free buffers kept by the pool. Buffers released when the
+	 * pool is full are left to the garbage collector.
+	 */
+	private final int maxFreeBuffers;
+	/**
+	 * Buffers that have been released and are ready to be handed out again.
+	 */
+	private final ConcurrentLinkedQueue<ByteBuffer> freeBuffers = new ConcurrentLinkedQueue<ByteBuffer>();
+	/**
+	 * Number of buffers in freeBuffers, kept separately since counting a
+	 * concurrent queue walks the whole queue.
+	 */
+	private final AtomicInteger freeCount = new AtomicInteger();
+
+	/**
+	 * Construct an empty pool of direct buffers with the specified capacity.
+	 * 
+	 * @param bufferCapacity the capacity in bytes of every buffer
+	 * @param maxFreeBuffers the maximum number of free buffers kept by the pool
+	 * @throws IllegalArgumentException if either argument isn't positive
+	 */
+	public BufferPool(int bufferCapacity, int maxFreeBuffers) {
+		if (bufferCapacity <= 0 || maxFreeBuffers <= 0) {
+			throw new IllegalArgumentException("Buffer capacity and pool size must be positive");
+		}
+		this.bufferCapacity = bufferCapacity;
+		this.maxFreeBuffers = maxFreeBuffers;
+	}
+
+	/**
+	 * Take a cleared buffer from the pool, allocating a new one if the pool is
+	 * empty.
+	 * 
+	 * @return A cleared direct buffer.
+	 */
+	public ByteBuffer acquire() {
+		ByteBuffer buffer = freeBuffers.poll();
+		if (buffer == null) {
+			return ByteBuffer.allocateDirect(bufferCapacity);
+		}
+		freeCount.decrementAndGet();
+		buffer.clear();
+		return buffer;
+	}
+
+	/**
+	 * Give a buffer back to the pool so that it can be handed out again.
+	 * 
+	 * @param buffer the buffer to give back, which must not be used afterwards
+	 */
+	public void release(ByteBuffer buffer) {
+		if (buffer.capacity() != bufferCapacity || !buffer.isDirect()) {
+			return;
+		}
+		// the count may briefly overshoot under contention, which only means a
+		// buffer is dropped instead of pooled
+		if (freeCount.incrementAndGet() <= maxFreeBuffers) {
+			freeBuffers.offer(buffer);
+		} else {
+			freeCount.decrementAndGet();
+		}
+	}
+}
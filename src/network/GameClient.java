@@ -0,0 +1,271 @@
+package network;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+import model.*;
+
+/**
+ * This class represents a client connected to a GameServer. It sends JOIN and
+ * MOVE frames to the server, and a background thread reads the frames sent back
+ * and passes them on to a GameClient.Listener. The listener is called on the
+ * background thread, so a user interface has to hand the calls over to its own
+ * thread.
+ */
+public class GameClient {
+
+	/**
+	 * This is an interface for objects that want to be notified of the frames sent
+	 * by the server to a client.
+	 */
+	public interface Listener {
+		/**
+		 * Called when the client has been added to a game.
+		 * 
+		 * @param gameId the id of the game
+		 * @param symbol the symbol the client plays with
+		 */
+		public void joined(int gameId, char symbol);
+
+		/**
+		 * Called when both players have joined and the game can begin.
+		 */
+		public void started();
+
+		/**
+		 * Called when a move was made by either player.
+		 * 
+		 * @param cell      the index of the tile the move was made on
+		 * @param symbol    the symbol of the player who made the move
+		 * @param gameState the state of the game after the move
+		 * @param sequence  the sequence number of the move
+		 */
+		public void moveMade(int cell, char symbol, GameState gameState, int sequence);
+
+		/**
+		 * Called when the last move sent by the client was not accepted.
+		 * 
+		 * @param cell the index of the tile of the rejected move
+		 */
+		public void moveRejected(int cell);
+
+		/**
+		 * Called when the opponent disconnected, which ends the game.
+		 */
+		public void opponentLeft();
+
+		/**
+		 * Called when the connection to the server was closed.
+		 */
+		public void disconnected();
+
+		/**
+		 * Called when the client started watching a game, and whenever the client
+		 * fell too far behind to be sent every move of it.
+		 * 
+		 * @param gameId   the id of the game being watched
+		 * @param cells    the symbols of the board's tiles, indexed by cell
+		 * @param sequence the number of moves made on the board
+		 */
+		public default void snapshot(int gameId, char[] cells, int sequence) {
+		}
+
+		/**
+		 * Called when the game the client was watching is over, either finished or
+		 * left by one of its players. The client no longer watches it.
+		 * 
+		 * @param gameId    the id of the game that was watched
+		 * @param gameState the state of the game after its last move, IN_PROGRESS
+		 *                  if a player left before the end
+		 * @param sequence  the number of moves made in the game
+		 */
+		public default void watchEnded(int gameId, GameState gameState, int sequence) {
+		}
+	}
+
+	/**
+	 * Channel connected to the server.
+	 */
+	private final SocketChannel channel;
+	/**
+	 * Listener notified of the frames sent by the server.
+	 */
+	private final Listener listener;
+	/**
+	 * Buffer that frames are written from. Writes are synchronized on it.
+	 */
+	private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(Protocol.FRAME_SIZE);
+	/**
+	 * Buffer that frames are read into by the reader thread.
+	 */
+	private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(Protocol.FRAME_SIZE * 16);
+	/**
+	 * Id of the game the client joined, or 0 if it hasn't joined one.
+	 */
+	private volatile int gameId;
+	/**
+	 * Sequence number of the last move made in the game.
+	 */
+	private volatile int sequence;
+
+	/**
+	 * Connect to a game server and start reading the frames it sends.
+	 * 
+	 * @param address  the address of the server
+	 * @param listener the listener to notify of the frames sent by the server
+	 * @throws IOException if the client can't connect to the server
+	 */
+	public GameClient(InetSocketAddress address, Listener listener) throws IOException {
+		this.listener = listener;
+		channel = SocketChannel.open(address);
+		channel.socket().setTcpNoDelay(true);
+		Thread reader = new Thread(this::readFrames, "game-client-reader");
+		// the reader thread shouldn't keep the application running
+		reader.setDaemon(true);
+		reader.start();
+	}
+
+	/**
+	 * Ask the server to add this client to a game.
+	 * 
+	 * @throws IOException if the frame can't be sent
+	 */
+	public void join() throws IOException {
+		send(Protocol.JOIN, 0, 0, 0);
+	}
+
+	/**
+	 * Ask the server to let this client watch a game. The client is sent a
+	 * snapshot of the board followed by every move made in the game.
+	 * 
+	 * @param watchedGameId the id of the game to watch
+	 * @throws IOException if the frame can't be sent
+	 */
+	public void spectate(int watchedGameId) throws IOException {
+		send(Protocol.SPECTATE, watchedGameId, 0, 0);
+	}
+
+	/**
+	 * Ask the server to make a move on the tile at the specified position.
+	 * 
+	 * @param row the row of the tile to make a move on
+	 * @param col the column of the tile to make a move on
+	 * @throws IOException if the frame can't be sent
+	 */
+	public void sendMove(int row, int col) throws IOException {
+		sendMove(row, col, sequence + 1);
+	}
+
+	/**
+	 * Ask the server to make a move on the tile at the specified position with the
+	 * specified sequence number. The server rejects the move unless the sequence
+	 * number is one more than the number of moves made in the game.
+	 * 
+	 * @param row          the row of the tile to make a move on
+	 * @param col          the column of the tile to make a move on
+	 * @param moveSequence the sequence number the move is expected to have
+	 * @throws IOException if the frame can't be sent
+	 */
+	public void sendMove(int row, int col, int moveSequence) throws IOException {
+		send(Protocol.MOVE, gameId, Protocol.getCell(row, col), moveSequence);
+	}
+
+	/**
+	 * Close the connection to the server.
+	 */
+	public void close() {
+		try {
+			channel.close();
+		} catch (IOException e) {
+			// the channel is unusable either way
+		}
+	}
+
+	/**
+	 * Helper method that writes a frame to the server.
+	 * 
+	 * @param type     the type of the frame
+	 * @param frameId  the id of the game the frame is about
+	 * @param cell     the index of the tile the frame is about
+	 * @param frameSeq the sequence number of the frame
+	 * @throws IOException if the frame can't be sent
+	 */
+	private void send(byte type, int frameId, int cell, int frameSeq) throws IOException {
+		synchronized (writeBuffer) {
+			writeBuffer.clear();
+			Protocol.putFrame(writeBuffer, type, frameId, cell, Board.EMPTY, 0, frameSeq);
+			writeBuffer.flip();
+			while (writeBuffer.hasRemaining()) {
+				channel.write(writeBuffer);
+			}
+		}
+	}
+
+	/**
+	 * Helper method run on the reader thread that reads frames until the
+	 * connection is closed, passing each one to the listener.
+	 */
+	private void readFrames() {
+		try {
+			while (channel.read(readBuffer) >= 0) {
+				readBuffer.flip();
+				int start = 0;
+				while (readBuffer.limit() - start >= Protocol.FRAME_SIZE) {
+					handleFrame(start);
+					start += Protocol.FRAME_SIZE;
+				}
+				// keep any partial frame at the start of the buffer
+				readBuffer.position(start);
+				readBuffer.compact();
+			}
+		} catch (IOException e) {
+			// the connection was closed, either by us or by the server
+		}
+		close();
+		listener.disconnected();
+	}
+
+	/**
+	 * Helper method that passes one frame sent by the server to the listener.
+	 * 
+	 * @param start the index of the first byte of the frame in the read buffer
+	 */
+	private void handleFrame(int start) {
+		int cell = Protocol.getCell(readBuffer, start);
+		char symbol = Protocol.getSymbol(readBuffer, start);
+		switch (Protocol.getType(readBuffer, start)) {
+		case Protocol.JOINED:
+			gameId = Protocol.getGameId(readBuffer, start);
+			sequence = 0;
+			listener.joined(gameId, symbol);
+			break;
+		case Protocol.START:
+			listener.started();
+			break;
+		case Protocol.MOVED:
+			sequence = Protocol.getSequence(readBuffer, start);
+			listener.moveMade(cell, symbol, GameState.values()[Protocol.getState(readBuffer, start)], sequence);
+			break;
+		case Protocol.REJECTED:
+			listener.moveRejected(cell);
+			break;
+		case Protocol.SNAPSHOT:
+			sequence = Protocol.getSequence(readBuffer, start);
+			listener.snapshot(Protocol.getGameId(readBuffer, start), Protocol.getSnapshot(readBuffer, start),
+					sequence);
+			break;
+		case Protocol.LEFT:
+			listener.opponentLeft();
+			break;
+		case Protocol.ENDED:
+			listener.watchEnded(Protocol.getGameId(readBuffer, start),
+					GameState.values()[Protocol.getState(readBuffer, start)], Protocol.getSequence(readBuffer, start));
+			break;
+		default:
+			// unknown frames are ignored
+			break;
+		}
+	}
+}
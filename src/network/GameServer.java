@@ -0,0 +1,1110 @@
+package network;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import model.*;
+
+/**
+ * This class represents a server hosting many networked Tic-Tac-Toe games. A
+ * single thread multiplexes every client connection with a Selector, so the
+ * number of games is limited by memory and not by threads. Clients join a game
+ * with a JOIN frame and are paired with the next client to join. Every game is
+ * played on its own TicTacToeBoard, which the server uses to validate moves
+ * before sending them to both players. Any number of clients can also watch a
+ * game with a SPECTATE frame, and are sent an ENDED frame once the game is
+ * over, whether it was finished or a player left. Each move is encoded once
+ * into a shared frame that is written to both players and every spectator
+ * without being copied. All reads and writes use direct buffers taken from
+ * BufferPools.
+ */
+public class GameServer implements Runnable {
+	/**
+	 * Default port the server listens on.
+	 */
+	public final static int DEFAULT_PORT = 5555;
+	/**
+	 * Number of frames that fit in the read buffer of one connection.
+	 */
+	private final static int FRAMES_PER_READ = 32;
+	/**
+	 * Maximum number of frames queued for a spectator. A spectator that falls
+	 * further behind stops being sent moves and is sent a snapshot of the board
+	 * once it has caught up.
+	 */
+	private final static int MAX_SPECTATOR_FRAMES = 32;
+	/**
+	 * Maximum number of spectators written to between two checks for frames sent
+	 * by clients, so that a game with many spectators doesn't hold up the moves of
+	 * any game.
+	 */
+	private final static int SPECTATORS_PER_PASS = 64;
+	/**
+	 * Number of connections the operating system may hold waiting to be accepted,
+	 * enough for a crowd of spectators arriving at once.
+	 */
+	private final static int ACCEPT_BACKLOG = 4096;
+	/**
+	 * Time the loopback check waits for a frame before failing, in nanoseconds.
+	 */
+	private final static long CHECK_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(10);
+	/**
+	 * Number of spectators watching the second game of the loopback check by
+	 * default. Each takes two file descriptors, one per end of its connection.
+	 */
+	private final static int CHECK_SPECTATORS = 5000;
+
+	/**
+	 * Inner class representing an encoded frame that may be queued for many
+	 * connections at once. The frame is read-only and each connection writes it
+	 * through its own view, so it is never copied. Its pooled buffer goes back to
+	 * the pool once every connection has written or dropped it.
+	 */
+	private class SharedFrame {
+		/**
+		 * Pooled buffer holding the encoded frame.
+		 */
+		private final ByteBuffer pooledBuffer;
+		/**
+		 * Read-only view of the encoded frame that connections write from.
+		 */
+		private final ByteBuffer frame;
+		/**
+		 * Number of connections that have the frame queued.
+		 */
+		private int references;
+
+		/**
+		 * Construct a shared frame from a pooled buffer holding one encoded frame.
+		 * 
+		 * @param pooledBuffer the buffer holding the frame, flipped for reading
+		 */
+		private SharedFrame(ByteBuffer pooledBuffer) {
+			this.pooledBuffer = pooledBuffer;
+			frame = pooledBuffer.asReadOnlyBuffer();
+		}
+
+		/**
+		 * Drop one connection's reference to the frame, giving the buffer back to
+		 * the pool when no connection has it queued anymore.
+		 */
+		private void release() {
+			references--;
+			if (references == 0) {
+				frameBufferPool.release(pooledBuffer);
+			}
+		}
+	}
+
+	/**
+	 * Inner class representing a client connected to the server. It holds the
+	 * channel of the client, its pooled read buffer, the frames waiting to be
+	 * written to it, and the game it is playing.
+	 */
+	private class Connection {
+		/**
+		 * Channel connected to the client.
+		 */
+		private final SocketChannel channel;
+		/**
+		 * Selection key of the channel registered with the server's selector.
+		 */
+		private final SelectionKey key;
+		/**
+		 * Buffer that frames sent by the client are read into. It may hold a partial
+		 * frame between reads.
+		 */
+		private final ByteBuffer readBuffer;
+		/**
+		 * Frames waiting to be written to the client, in order.
+		 */
+		private final ArrayDeque<SharedFrame> writeQueue = new ArrayDeque<SharedFrame>();
+		/**
+		 * Number of bytes of the first queued frame already written to the client.
+		 */
+		private int headBytesWritten;
+		/**
+		 * Game the client is playing, or null if the client hasn't joined one.
+		 */
+		private NetworkGame game;
+		/**
+		 * Game the client is watching, or null if the client isn't a spectator.
+		 */
+		private NetworkGame watching;
+		/**
+		 * true if the client is a spectator that fell behind and had moves dropped,
+		 * false otherwise.
+		 */
+		private boolean behind;
+		/**
+		 * true if the client is a spectator waiting in spectatorsToFlush, false
+		 * otherwise.
+		 */
+		private boolean flushPending;
+		/**
+		 * Symbol the client plays with, or EMPTY if the client hasn't joined a game.
+		 */
+		private char symbol = Board.EMPTY;
+
+		/**
+		 * Construct a connection for the specified channel.
+		 * 
+		 * @param channel the channel connected to the client
+		 * @param key     the selection key of the channel
+		 */
+		private Connection(SocketChannel channel, SelectionKey key) {
+			this.channel = channel;
+			this.key = key;
+			readBuffer = readBufferPool.acquire();
+		}
+	}
+
+	/**
+	 * Inner class representing one game hosted by the server, played by two
+	 * connections on a TicTacToeBoard.
+	 */
+	private class NetworkGame {
+		/**
+		 * Id of the game, unique on the server.
+		 */
+		private final int id;
+		/**
+		 * Board the game is played on. Player one always plays X.
+		 */
+		private final TicTacToeBoard board = new TicTacToeBoard(Board.X_SYMBOL, Board.O_SYMBOL);
+		/**
+		 * Connections of player one and player two. Player two is null until a second
+		 * client joins.
+		 */
+		private final Connection[] players = new Connection[2];
+		/**
+		 * Connections watching the game, in the order they started watching.
+		 */
+		private final Set<Connection> spectators = new LinkedHashSet<Connection>();
+		/**
+		 * Number of moves made in the game.
+		 */
+		private int sequence;
+
+		/**
+		 * Construct a game with the specified id.
+		 * 
+		 * @param id the id of the game
+		 */
+		private NetworkGame(int id) {
+			this.id = id;
+		}
+	}
+
+	/**
+	 * Inner class representing a client listener that records every frame sent
+	 * to its client as a line of text, used by the loopback check.
+	 */
+	private static class RecordingListener implements GameClient.Listener {
+		/**
+		 * Frames recorded so far, in the order they were received.
+		 */
+		private final List<String> frames = new ArrayList<String>();
+		/**
+		 * Id of the game the client joined, or 0 if it hasn't joined one.
+		 */
+		private volatile int gameId;
+
+		@Override
+		public void joined(int gameId, char symbol) {
+			this.gameId = gameId;
+			record("JOINED " + symbol);
+		}
+
+		@Override
+		public void started() {
+			record("START");
+		}
+
+		@Override
+		public void moveMade(int cell, char symbol, GameState gameState, int sequence) {
+			record("MOVED " + cell + " " + symbol + " " + gameState + " " + sequence);
+		}
+
+		@Override
+		public void moveRejected(int cell) {
+			record("REJECTED " + cell);
+		}
+
+		@Override
+		public void opponentLeft() {
+			record("LEFT");
+		}
+
+		@Override
+		public void disconnected() {
+			record("DISCONNECTED");
+		}
+
+		@Override
+		public void snapshot(int gameId, char[] cells, int sequence) {
+			record("SNAPSHOT " + gameId + " " + sequence);
+		}
+
+		@Override
+		public void watchEnded(int gameId, GameState gameState, int sequence) {
+			record("ENDED " + gameId + " " + gameState + " " + sequence);
+		}
+
+		/**
+		 * Record a frame and wake up the threads waiting for frames.
+		 * 
+		 * @param frame the frame as a line of text
+		 */
+		private synchronized void record(String frame) {
+			frames.add(frame);
+			notifyAll();
+		}
+
+		/**
+		 * Get the frames recorded so far of one type.
+		 * 
+		 * @param type the type of the frames, such as "MOVED"
+		 * @return The frames of the type, in the order they were received.
+		 */
+		private synchronized List<String> getFrames(String type) {
+			List<String> ofType = new ArrayList<String>();
+			for (String frame : frames) {
+				if (frame.startsWith(type)) {
+					ofType.add(frame);
+				}
+			}
+			return ofType;
+		}
+
+		/**
+		 * Wait until a number of frames of one type have been recorded, or
+		 * CHECK_TIMEOUT_NANOS has passed.
+		 * 
+		 * @param type  the type of the frames, such as "MOVED"
+		 * @param count the number of frames to wait for
+		 * @return true if the frames were recorded in time, false otherwise.
+		 * @throws InterruptedException if interrupted while waiting
+		 */
+		private synchronized boolean await(String type, int count) throws InterruptedException {
+			long deadline = System.nanoTime() + CHECK_TIMEOUT_NANOS;
+			while (getFrames(type).size() < count) {
+				long left = deadline - System.nanoTime();
+				if (left <= 0) {
+					return false;
+				}
+				TimeUnit.NANOSECONDS.timedWait(this, left);
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Selector that every channel of the server is registered with.
+	 */
+	private final Selector selector;
+	/**
+	 * Channel accepting new client connections.
+	 */
+	private final ServerSocketChannel serverChannel;
+	/**
+	 * Pool of buffers used for reading from connections.
+	 */
+	private final BufferPool readBufferPool;
+	/**
+	 * Pool of single frame buffers used for writing to connections.
+	 */
+	private final BufferPool frameBufferPool;
+	/**
+	 * Games being played on the server, by id.
+	 */
+	private final Map<Integer, NetworkGame> games = new HashMap<Integer, NetworkGame>();
+	/**
+	 * Spectators with frames queued that haven't been written to yet, in the
+	 * order the frames were queued.
+	 */
+	private final ArrayDeque<Connection> spectatorsToFlush = new ArrayDeque<Connection>();
+	/**
+	 * Game with one player waiting for an opponent, or null if nobody is waiting.
+	 */
+	private NetworkGame waitingGame;
+	/**
+	 * Id given to the next game created.
+	 */
+	private int nextGameId = 1;
+	/**
+	 * true while the server is running, false once it has been asked to stop.
+	 */
+	private volatile boolean running;
+
+	/**
+	 * Construct a server listening on the specified address. The server doesn't
+	 * accept any connections until run() is called.
+	 * 
+	 * @param address the address to listen on, use port 0 for any free port
+	 * @throws IOException if the server can't listen on the address
+	 */
+	public GameServer(InetSocketAddress address) throws IOException {
+		selector = Selector.open();
+		serverChannel = ServerSocketChannel.open();
+		serverChannel.configureBlocking(false);
+		serverChannel.bind(address, ACCEPT_BACKLOG);
+		serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+		readBufferPool = new BufferPool(Protocol.FRAME_SIZE * FRAMES_PER_READ, 1024);
+		frameBufferPool = new BufferPool(Protocol.FRAME_SIZE, 4096);
+	}
+
+	/**
+	 * Get the port the server is listening on.
+	 * 
+	 * @return The local port of the server.
+	 */
+	public int getPort() {
+		return serverChannel.socket().getLocalPort();
+	}
+
+	/**
+	 * Run the server on the calling thread until stop() is called.
+	 */
+	@Override
+	public void run() {
+		running = true;
+		try {
+			while (running) {
+				// spectators left to write to mustn't wait for the next frame to arrive
+				if (spectatorsToFlush.isEmpty()) {
+					selector.select();
+				} else {
+					selector.selectNow();
+				}
+				Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+				while (keys.hasNext()) {
+					SelectionKey key = keys.next();
+					keys.remove();
+					handleKey(key);
+				}
+				flushSpectators();
+			}
+		} catch (IOException e) {
+			// the selector itself failed, so the server can't continue
+			throw new IllegalStateException("Game server stopped unexpectedly", e);
+		} finally {
+			closeAll();
+		}
+	}
+
+	/**
+	 * Ask the server to stop. The server closes every connection and returns from
+	 * run() shortly after.
+	 */
+	public void stop() {
+		running = false;
+		selector.wakeup();
+	}
+
+	/**
+	 * Helper method that handles a key selected by the selector.
+	 * 
+	 * @param key the selected key
+	 */
+	private void handleKey(SelectionKey key) {
+		if (!key.isValid()) {
+			return;
+		}
+		if (key.isAcceptable()) {
+			accept();
+			return;
+		}
+		Connection connection = (Connection) key.attachment();
+		try {
+			if (key.isReadable()) {
+				read(connection);
+			}
+			if (key.isValid() && key.isWritable()) {
+				flush(connection);
+			}
+		} catch (IOException e) {
+			// the client went away without closing the connection cleanly
+			close(connection);
+		}
+	}
+
+	/**
+	 * Helper method that accepts every pending client connection.
+	 */
+	private void accept() {
+		try {
+			SocketChannel channel;
+			while ((channel = serverChannel.accept()) != null) {
+				channel.configureBlocking(false);
+				channel.socket().setTcpNoDelay(true);
+				SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+				key.attach(new Connection(channel, key));
+			}
+		} catch (IOException e) {
+			// a failed accept only affects the client being accepted
+		}
+	}
+
+	/**
+	 * Helper method that reads from a connection and handles every complete frame
+	 * read. A partial frame is kept in the read buffer until the rest arrives.
+	 * 
+	 * @param connection the connection to read from
+	 * @throws IOException if reading from the channel fails
+	 */
+	private void read(Connection connection) throws IOException {
+		ByteBuffer buffer = connection.readBuffer;
+		if (connection.channel.read(buffer) < 0) {
+			close(connection);
+			return;
+		}
+		buffer.flip();
+		int start = 0;
+		while (buffer.limit() - start >= Protocol.FRAME_SIZE) {
+			handleFrame(connection, buffer, start);
+			if (!connection.channel.isOpen()) {
+				// the read buffer went back to the pool when the connection closed
+				return;
+			}
+			start += Protocol.FRAME_SIZE;
+		}
+		// keep any partial frame at the start of the buffer
+		buffer.position(start);
+		buffer.compact();
+	}
+
+	/**
+	 * Helper method that handles one frame sent by a client.
+	 * 
+	 * @param connection the connection that sent the frame
+	 * @param buffer     the buffer holding the frame
+	 * @param start      the index of the first byte of the frame
+	 */
+	private void handleFrame(Connection connection, ByteBuffer buffer, int start) {
+		switch (Protocol.getType(buffer, start)) {
+		case Protocol.JOIN:
+			join(connection);
+			break;
+		case Protocol.MOVE:
+			move(connection, Protocol.getGameId(buffer, start), Protocol.getCell(buffer, start),
+					Protocol.getSequence(buffer, start));
+			break;
+		case Protocol.SPECTATE:
+			spectate(connection, Protocol.getGameId(buffer, start));
+			break;
+		default:
+			// unknown frames are ignored
+			break;
+		}
+	}
+
+	/**
+	 * Helper method that adds a connection to the waiting game, or creates a new
+	 * game if nobody is waiting.
+	 * 
+	 * @param connection the connection joining a game
+	 */
+	private void join(Connection connection) {
+		if (connection.game != null) {
+			// a client can only play one game per connection
+			send(connection, Protocol.REJECTED, connection.game.id, 0, connection.symbol, 0, 0);
+			return;
+		}
+		if (connection.watching != null) {
+			// a spectator that joins a game stops watching
+			connection.watching.spectators.remove(connection);
+			connection.watching = null;
+			connection.behind = false;
+		}
+		NetworkGame game = waitingGame;
+		int playerIndex;
+		if (game == null) {
+			game = new NetworkGame(nextGameId++);
+			games.put(game.id, game);
+			waitingGame = game;
+			playerIndex = 0;
+		} else {
+			waitingGame = null;
+			playerIndex = 1;
+		}
+		game.players[playerIndex] = connection;
+		connection.game = game;
+		connection.symbol = (playerIndex == 0) ? game.board.getPlayerOne().getSymbol()
+				: game.board.getPlayerTwo().getSymbol();
+		send(connection, Protocol.JOINED, game.id, 0, connection.symbol, 0, 0);
+		if (playerIndex == 1) {
+			// both players are here, so the game can begin
+			for (Connection player : game.players) {
+				send(player, Protocol.START, game.id, 0, player.symbol, GameState.IN_PROGRESS.ordinal(), 0);
+			}
+		}
+	}
+
+	/**
+	 * Helper method that validates a move sent by a client, makes it on the board
+	 * of the game, and sends it to both players.
+	 * 
+	 * @param connection the connection that sent the move
+	 * @param gameId     the id of the game the move is for
+	 * @param cell       the index of the tile the move is on
+	 * @param sequence   the sequence number the client expects the move to have
+	 */
+	private void move(Connection connection, int gameId, int cell, int sequence) {
+		NetworkGame game = connection.game;
+		// reject moves for another game, before the game starts, out of turn,
+		// out of sequence or off the board
+		if (game == null || game.id != gameId || game.players[1] == null
+				|| game.board.getCurrentPlayer().getSymbol() != connection.symbol || sequence != game.sequence + 1
+				|| cell < 0 || cell >= Board.BOARD_ROWS * Board.BOARD_COLS) {
+			send(connection, Protocol.REJECTED, gameId, cell, connection.symbol, 0, sequence);
+			return;
+		}
+		UserPlayer player = new UserPlayer(connection.symbol);
+		GameState gameState = player.makeMove(Protocol.getRow(cell), Protocol.getCol(cell), game.board);
+		if (gameState == GameState.INVALID_MOVE) {
+			send(connection, Protocol.REJECTED, gameId, cell, connection.symbol, 0, sequence);
+			return;
+		}
+		game.sequence++;
+		// encode the move once and share the frame with every connection
+		SharedFrame frame = encode(Protocol.MOVED, gameId, cell, connection.symbol, gameState.ordinal(),
+				game.sequence);
+		frame.references++;
+		// the players are written to right away, before any spectator is queued
+		for (Connection each : game.players) {
+			send(each, frame);
+		}
+		for (Connection spectator : game.spectators) {
+			queueForSpectator(spectator, frame);
+		}
+		frame.release();
+		if (gameState == GameState.IN_PROGRESS) {
+			game.board.switchTurns();
+		} else {
+			// the game is over, so the players are free to join another one
+			endGame(game, gameState, Board.EMPTY);
+		}
+	}
+
+	/**
+	 * Helper method that adds a connection to the spectators of a game and sends
+	 * it a snapshot of the board.
+	 * 
+	 * @param connection the connection that wants to watch the game
+	 * @param gameId     the id of the game to watch
+	 */
+	private void spectate(Connection connection, int gameId) {
+		NetworkGame game = games.get(gameId);
+		if (game == null || connection.game != null) {
+			// only games in progress can be watched, and not by their players
+			send(connection, encode(Protocol.REJECTED, gameId, 0, Board.EMPTY, 0, 0));
+			return;
+		}
+		if (connection.watching != null) {
+			connection.watching.spectators.remove(connection);
+		}
+		connection.watching = game;
+		connection.behind = false;
+		game.spectators.add(connection);
+		send(connection, encodeSnapshot(game));
+	}
+
+	/**
+	 * Helper method that queues a move frame for a spectator without writing it.
+	 * The frame is written by flushSpectators() once the frames sent by clients
+	 * have been handled, so watching a game doesn't slow down the players. If the
+	 * spectator already has too many frames queued, its queued moves are dropped
+	 * and it is sent a snapshot of the board once it catches up.
+	 * 
+	 * @param spectator the spectator to queue the frame for
+	 * @param frame     the shared move frame
+	 */
+	private void queueForSpectator(Connection spectator, SharedFrame frame) {
+		if (spectator.behind) {
+			// the snapshot sent on catching up will include this move
+			return;
+		}
+		if (spectator.writeQueue.size() >= MAX_SPECTATOR_FRAMES) {
+			// keep only the frame being written, since the client already has part
+			// of it
+			SharedFrame head = (spectator.headBytesWritten > 0) ? spectator.writeQueue.poll() : null;
+			for (SharedFrame dropped : spectator.writeQueue) {
+				dropped.release();
+			}
+			spectator.writeQueue.clear();
+			if (head != null) {
+				spectator.writeQueue.add(head);
+			}
+			spectator.behind = true;
+			return;
+		}
+		queue(spectator, frame);
+	}
+
+	/**
+	 * Helper method that queues a frame for a spectator without writing it. The
+	 * frame is written by flushSpectators(), in turn with the other spectators.
+	 * 
+	 * @param spectator the spectator to queue the frame for
+	 * @param frame     the frame to queue
+	 */
+	private void queue(Connection spectator, SharedFrame frame) {
+		frame.references++;
+		spectator.writeQueue.add(frame);
+		if (!spectator.flushPending) {
+			spectator.flushPending = true;
+			spectatorsToFlush.add(spectator);
+		}
+	}
+
+	/**
+	 * Helper method that writes the queued frames of up to SPECTATORS_PER_PASS
+	 * spectators, leaving the others for the next pass. Frames sent by clients are
+	 * handled between passes, so a move reaches its players after at most one
+	 * pass however many spectators are watching.
+	 */
+	private void flushSpectators() {
+		for (int flushed = 0; flushed < SPECTATORS_PER_PASS && !spectatorsToFlush.isEmpty(); flushed++) {
+			Connection spectator = spectatorsToFlush.poll();
+			spectator.flushPending = false;
+			if (!spectator.channel.isOpen()) {
+				continue;
+			}
+			try {
+				flush(spectator);
+			} catch (IOException e) {
+				close(spectator);
+			}
+		}
+	}
+
+	/**
+	 * Helper method that removes a game from the server and detaches its players
+	 * and spectators. Every spectator is queued an ENDED frame, after a snapshot
+	 * of the board if it had moves dropped, and stops watching the game.
+	 * 
+	 * @param game       the game to remove
+	 * @param gameState  the state of the game after its last move, IN_PROGRESS if
+	 *                   a player left before the end
+	 * @param leftSymbol the symbol of the player who left, or EMPTY if the game
+	 *                   was finished
+	 */
+	private void endGame(NetworkGame game, GameState gameState, char leftSymbol) {
+		games.remove(game.id);
+		if (waitingGame == game) {
+			waitingGame = null;
+		}
+		for (Connection player : game.players) {
+			if (player != null) {
+				player.game = null;
+				player.symbol = Board.EMPTY;
+			}
+		}
+		if (game.spectators.isEmpty()) {
+			return;
+		}
+		SharedFrame ended = encode(Protocol.ENDED, game.id, 0, leftSymbol, gameState.ordinal(), game.sequence);
+		ended.references++;
+		for (Connection spectator : game.spectators) {
+			if (spectator.behind) {
+				// the dropped moves won't be replaced by a snapshot once the spectator
+				// stops watching, so queue the final board now
+				spectator.behind = false;
+				queue(spectator, encodeSnapshot(game));
+			}
+			queue(spectator, ended);
+			spectator.watching = null;
+		}
+		game.spectators.clear();
+		ended.release();
+	}
+
+	/**
+	 * Helper method that encodes a frame into a shared frame taken from the frame
+	 * buffer pool.
+	 * 
+	 * @param type     the type of the frame
+	 * @param gameId   the id of the game the frame is about
+	 * @param cell     the index of the tile the frame is about
+	 * @param symbol   the symbol of the player the frame is about
+	 * @param state    the ordinal of the game state
+	 * @param sequence the sequence number of the move
+	 * @return The encoded frame, not yet queued for any connection.
+	 */
+	private SharedFrame encode(byte type, int gameId, int cell, char symbol, int state, int sequence) {
+		ByteBuffer buffer = frameBufferPool.acquire();
+		Protocol.putFrame(buffer, type, gameId, cell, symbol, state, sequence);
+		buffer.flip();
+		return new SharedFrame(buffer);
+	}
+
+	/**
+	 * Helper method that encodes a snapshot of a game's board into a shared frame
+	 * taken from the frame buffer pool.
+	 * 
+	 * @param game the game whose board is packed into the frame
+	 * @return The encoded snapshot, not yet queued for any connection.
+	 */
+	private SharedFrame encodeSnapshot(NetworkGame game) {
+		ByteBuffer buffer = frameBufferPool.acquire();
+		Protocol.putSnapshot(buffer, game.id, game.board, game.sequence);
+		buffer.flip();
+		return new SharedFrame(buffer);
+	}
+
+	/**
+	 * Helper method that encodes a frame and sends it to a single connection.
+	 * 
+	 * @param connection the connection to send the frame to
+	 * @param type       the type of the frame
+	 * @param gameId     the id of the game the frame is about
+	 * @param cell       the index of the tile the frame is about
+	 * @param symbol     the symbol of the player the frame is about
+	 * @param state      the ordinal of the game state
+	 * @param sequence   the sequence number of the move
+	 */
+	private void send(Connection connection, byte type, int gameId, int cell, char symbol, int state,
+			int sequence) {
+		send(connection, encode(type, gameId, cell, symbol, state, sequence));
+	}
+
+	/**
+	 * Helper method that queues a frame to be written to a connection, writing it
+	 * right away if nothing else is queued.
+	 * 
+	 * @param connection the connection to send the frame to
+	 * @param frame      the frame to send
+	 */
+	private void send(Connection connection, SharedFrame frame) {
+		frame.references++;
+		if (!connection.channel.isOpen()) {
+			frame.release();
+			return;
+		}
+		connection.writeQueue.add(frame);
+		try {
+			flush(connection);
+		} catch (IOException e) {
+			close(connection);
+		}
+	}
+
+	/**
+	 * Helper method that writes as many queued frames to a connection as the
+	 * channel accepts without blocking. A spectator that had moves dropped is sent
+	 * a snapshot of the board once everything else has been written. The
+	 * connection is only registered for write readiness while frames are left
+	 * over.
+	 * 
+	 * @param connection the connection to write to
+	 * @throws IOException if writing to the channel fails
+	 */
+	private void flush(Connection connection) throws IOException {
+		while (true) {
+			SharedFrame head = connection.writeQueue.peek();
+			if (head == null && connection.behind && connection.watching != null) {
+				// caught up, so send the current board instead of the dropped moves
+				connection.behind = false;
+				SharedFrame snapshot = encodeSnapshot(connection.watching);
+				snapshot.references++;
+				connection.writeQueue.add(snapshot);
+				continue;
+			}
+			if (head == null) {
+				break;
+			}
+			// every connection writes through its own view of the shared frame
+			ByteBuffer view = head.frame.duplicate();
+			view.position(connection.headBytesWritten);
+			connection.channel.write(view);
+			if (view.hasRemaining()) {
+				// the socket buffer is full, wait until it can take more
+				connection.headBytesWritten = view.position();
+				connection.key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+				return;
+			}
+			connection.headBytesWritten = 0;
+			connection.writeQueue.poll();
+			head.release();
+		}
+		connection.key.interestOps(SelectionKey.OP_READ);
+	}
+
+	/**
+	 * Helper method that closes a connection, gives its buffers back to the pools,
+	 * and tells its opponent that it left.
+	 * 
+	 * @param connection the connection to close
+	 */
+	private void close(Connection connection) {
+		if (!connection.channel.isOpen()) {
+			return;
+		}
+		connection.key.cancel();
+		try {
+			connection.channel.close();
+		} catch (IOException e) {
+			// the channel is unusable either way
+		}
+		readBufferPool.release(connection.readBuffer);
+		for (SharedFrame frame : connection.writeQueue) {
+			frame.release();
+		}
+		connection.writeQueue.clear();
+		if (connection.watching != null) {
+			connection.watching.spectators.remove(connection);
+			connection.watching = null;
+		}
+
+		NetworkGame game = connection.game;
+		if (game != null) {
+			// endGame() clears the symbol, so remember it for the LEFT frame
+			char symbol = connection.symbol;
+			endGame(game, GameState.IN_PROGRESS, symbol);
+			for (Connection player : game.players) {
+				if (player != null && player != connection) {
+					send(player, Protocol.LEFT, game.id, 0, symbol, 0, game.sequence);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Helper method that closes every connection and the server itself.
+	 */
+	private void closeAll() {
+		for (SelectionKey key : selector.keys()) {
+			if (key.attachment() instanceof Connection) {
+				close((Connection) key.attachment());
+			}
+		}
+		try {
+			serverChannel.close();
+			selector.close();
+		} catch (IOException e) {
+			// nothing more can be done while shutting down
+		}
+	}
+
+	/**
+	 * Helper method that checks the server over loopback. Two clients play a full
+	 * game while a third one watches it, after one move out of turn and one move
+	 * out of sequence that must both be rejected. The players and the spectator
+	 * must be sent the same moves, and the spectator must be told when the game
+	 * ends. The players then play the same game again with many more spectators,
+	 * comparing the time each move takes to reach the players with and without
+	 * them, and every spectator must be sent every move and the end of the game.
+	 * Last, a player leaves a third game, and its spectator must be told.
+	 * 
+	 * @param spectators the number of spectators of the second game
+	 * @return The number of checks that failed.
+	 * @throws IOException          if a client can't connect to the server
+	 * @throws InterruptedException if interrupted while waiting for a frame
+	 */
+	private static int checkLoopback(int spectators) throws IOException, InterruptedException {
+		int failures = 0;
+		InetAddress loopback = InetAddress.getLoopbackAddress();
+		GameServer server = new GameServer(new InetSocketAddress(loopback, 0));
+		Thread serverThread = new Thread(server, "game-server");
+		// a server stuck on a failed check shouldn't keep the check from exiting
+		serverThread.setDaemon(true);
+		serverThread.start();
+		InetSocketAddress address = new InetSocketAddress(loopback, server.getPort());
+		RecordingListener one = new RecordingListener(), two = new RecordingListener(),
+				watcher = new RecordingListener();
+		GameClient first = new GameClient(address, one), second = new GameClient(address, two),
+				spectator = new GameClient(address, watcher);
+
+		first.join();
+		boolean joined = one.await("JOINED", 1);
+		second.join();
+		joined &= one.await("START", 1) && two.await("START", 1);
+		int gameId = one.gameId;
+		spectator.spectate(gameId);
+		joined &= watcher.await("SNAPSHOT", 1);
+		System.out.printf("Two players joined game %d and a spectator is watching it: %b%n", gameId, joined);
+		failures += joined ? 0 : 1;
+
+		// O moving first is out of turn, and X moving with sequence 2 is out of
+		// sequence, so neither move is made
+		second.sendMove(1, 1);
+		first.sendMove(1, 1, 2);
+		boolean rejected = two.await("REJECTED", 1) && one.await("REJECTED", 1);
+		System.out.printf("Move out of turn and move out of sequence rejected: %b%n", rejected);
+		failures += rejected ? 0 : 1;
+
+		// X takes the top row while O takes two tiles of the middle row
+		int[] cells = { 0, 3, 1, 4, 2 };
+		List<String> expected = new ArrayList<String>();
+		for (int move = 0; move < cells.length; move++) {
+			GameState gameState = (move == cells.length - 1) ? GameState.WIN : GameState.IN_PROGRESS;
+			expected.add("MOVED " + cells[move] + " " + ((move % 2 == 0) ? Board.X_SYMBOL : Board.O_SYMBOL) + " "
+					+ gameState + " " + (move + 1));
+		}
+		long watchedNanos = playMoves(first, second, one, two, cells);
+		watcher.await("MOVED", cells.length);
+		boolean same = expected.equals(one.getFrames("MOVED")) && expected.equals(two.getFrames("MOVED"))
+				&& expected.equals(watcher.getFrames("MOVED"));
+		System.out.printf("%d moves sent alike to both players and the spectator: %b%n", cells.length, same);
+		failures += same ? 0 : 1;
+		if (!same) {
+			System.out.println("Expected " + expected + "\nPlayer one " + one.getFrames("MOVED") + "\nPlayer two "
+					+ two.getFrames("MOVED") + "\nSpectator " + watcher.getFrames("MOVED"));
+		}
+		boolean ended = watcher.await("ENDED", 1)
+				&& watcher.getFrames("ENDED").get(0).equals("ENDED " + gameId + " WIN " + cells.length);
+		System.out.printf("Spectator told the game was won: %b%n", ended);
+		failures += ended ? 0 : 1;
+
+		// the same game again, watched by many spectators that only read once it
+		// is over
+		first.join();
+		boolean crowdJoined = one.await("JOINED", 2);
+		second.join();
+		crowdJoined &= one.await("START", 2) && two.await("START", 2);
+		gameId = one.gameId;
+		Socket[] crowd = new Socket[spectators];
+		ByteBuffer frame = ByteBuffer.allocate(Protocol.FRAME_SIZE);
+		Protocol.putFrame(frame, Protocol.SPECTATE, gameId, 0, Board.EMPTY, 0, 0);
+		for (int index = 0; index < spectators; index++) {
+			crowd[index] = new Socket(loopback, server.getPort());
+			crowd[index].setSoTimeout((int) TimeUnit.NANOSECONDS.toMillis(CHECK_TIMEOUT_NANOS));
+			crowd[index].getOutputStream().write(frame.array());
+		}
+		// each spectator is watching once it has been sent its snapshot
+		for (Socket watching : crowd) {
+			crowdJoined &= Protocol.getType(readFrame(watching, frame), 0) == Protocol.SNAPSHOT;
+		}
+		long start = System.nanoTime();
+		long crowdNanos = playMoves(first, second, one, two, cells);
+		int complete = 0;
+		for (Socket watching : crowd) {
+			int moves = 0;
+			byte type;
+			try {
+				do {
+					type = Protocol.getType(readFrame(watching, frame), 0);
+					moves += (type == Protocol.MOVED) ? 1 : 0;
+				} while (type == Protocol.MOVED);
+			} catch (IOException e) {
+				// the spectator wasn't sent the whole game in time
+				type = 0;
+			}
+			complete += (type == Protocol.ENDED && moves == cells.length) ? 1 : 0;
+			watching.close();
+		}
+		long fanOutNanos = System.nanoTime() - start;
+		System.out.printf("Mean time for a move to reach both players: %,.0f us with 1 spectator, %,.0f us with "
+				+ "%,d%n", watchedNanos / 1e3, crowdNanos / 1e3, spectators + 0L);
+		System.out.printf("%,d of %,d spectators sent every move and the end of the game, %,d frames in %.0f ms, "
+				+ "%,.0f frames/s%n", complete, spectators, complete * (cells.length + 1L), fanOutNanos / 1e6,
+				complete * (cells.length + 1L) / (fanOutNanos / 1e9));
+		failures += (crowdJoined && complete == spectators) ? 0 : 1;
+
+		// a player leaving a game ends it for its spectators too
+		first.join();
+		boolean left = one.await("JOINED", 3);
+		second.join();
+		left &= one.await("START", 3) && two.await("START", 3);
+		gameId = one.gameId;
+		spectator.spectate(gameId);
+		left &= watcher.await("SNAPSHOT", 2);
+		first.close();
+		left &= two.await("LEFT", 1) && watcher.await("ENDED", 2)
+				&& watcher.getFrames("ENDED").get(1).equals("ENDED " + gameId + " IN_PROGRESS 0");
+		System.out.printf("Opponent and spectator told a player left: %b%n", left);
+		failures += left ? 0 : 1;
+
+		second.close();
+		spectator.close();
+		server.stop();
+		serverThread.join();
+		return failures;
+	}
+
+	/**
+	 * Helper method that makes moves for the loopback check, X and O in turn,
+	 * waiting for both players to be sent each move before making the next one.
+	 * 
+	 * @param first  the client playing X
+	 * @param second the client playing O
+	 * @param one    the listener of the client playing X
+	 * @param two    the listener of the client playing O
+	 * @param cells  the cells of the moves, in order
+	 * @return The mean time from sending a move to both players being sent it, in
+	 *         nanoseconds.
+	 * @throws IOException          if a move can't be sent
+	 * @throws InterruptedException if interrupted while waiting for a move
+	 */
+	private static long playMoves(GameClient first, GameClient second, RecordingListener one, RecordingListener two,
+			int[] cells) throws IOException, InterruptedException {
+		int before = one.getFrames("MOVED").size();
+		long nanos = 0;
+		for (int move = 0; move < cells.length; move++) {
+			long start = System.nanoTime();
+			GameClient mover = (move % 2 == 0) ? first : second;
+			mover.sendMove(Protocol.getRow(cells[move]), Protocol.getCol(cells[move]));
+			// the next move is only valid once the clients know this one's sequence
+			one.await("MOVED", before + move + 1);
+			two.await("MOVED", before + move + 1);
+			nanos += System.nanoTime() - start;
+		}
+		return nanos / cells.length;
+	}
+
+	/**
+	 * Helper method that reads one frame from a socket, waiting for it.
+	 * 
+	 * @param socket the socket to read from
+	 * @param frame  a heap buffer of FRAME_SIZE bytes to read the frame into
+	 * @return The buffer, holding the frame at index 0.
+	 * @throws IOException if no frame arrives within the socket's timeout
+	 */
+	private static ByteBuffer readFrame(Socket socket, ByteBuffer frame) throws IOException {
+		new DataInputStream(socket.getInputStream()).readFully(frame.array());
+		return frame;
+	}
+
+	/**
+	 * Main method to run a game server. With "check" as the first argument, it
+	 * runs the loopback check instead, on a free port of the loopback address,
+	 * and the exit status is 1 if the check fails.
+	 * 
+	 * @param args command line arguments, optionally the port to listen on, or
+	 *             "check" and the number of spectators of the second game, by
+	 *             default 5,000
+	 * @throws IOException          if the server can't listen on the port
+	 * @throws InterruptedException if interrupted while running the check
+	 */
+	public static void main(String args[]) throws IOException, InterruptedException {
+		if (args.length > 0 && args[0].equals("check")) {
+			int spectators = (args.length > 1) ? Integer.parseInt(args[1]) : CHECK_SPECTATORS;
+			if (checkLoopback(spectators) > 0) {
+				System.exit(1);
+			}
+			return;
+		}
+		int port = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+		GameServer server = new GameServer(new InetSocketAddress(port));
+		System.out.println("Tic-Tac-Toe server listening on port " + server.getPort());
+		server.run();
+	}
+}
@@ -0,0 +1,274 @@
+package network;
+
+import java.nio.ByteBuffer;
+
+import model.Board;
+
+/**
+ * This class defines the binary protocol spoken between the GameServer and its
+ * clients. Every message is a frame of exactly FRAME_SIZE bytes, so frames can
+ * be read and written without any length prefix or parsing of variable sized
+ * data. A frame is laid out as follows (big-endian):
+ * 
+ * <pre>
+ * offset 0   type      one of the frame type constants
+ * offset 1   cell      index of a tile on the board, row * BOARD_COLS + col
+ * offset 2   symbol    symbol of the player the frame is about
+ * offset 3   state     ordinal of the GameState after a move
+ * offset 4   game id   id of the game on the server
+ * offset 8   sequence  number of moves made in the game, including this one
+ * </pre>
+ * 
+ * SNAPSHOT frames reuse bytes 1 to 3 to hold the whole board, packed two bits
+ * per tile with tile 0 in the lowest bits (0 empty, 1 X, 2 O).
+ */
+public class Protocol {
+	/**
+	 * Size in bytes of every frame.
+	 */
+	public final static int FRAME_SIZE = 12;
+
+	/**
+	 * Client to server: join a game. The server pairs the client with a waiting
+	 * player, or creates a new game if nobody is waiting.
+	 */
+	public final static byte JOIN = 1;
+	/**
+	 * Server to client: the client has been added to a game. The frame carries the
+	 * game id and the symbol the client plays with.
+	 */
+	public final static byte JOINED = 2;
+	/**
+	 * Server to client: both players have joined and the game can begin.
+	 */
+	public final static byte START = 3;
+	/**
+	 * Client to server: make a move. The frame carries the game id, the cell and
+	 * the sequence number the move is expected to have.
+	 */
+	public final static byte MOVE = 4;
+	/**
+	 * Server to client: a move was made. The frame carries the cell, the symbol,
+	 * the state of the game after the move and its sequence number.
+	 */
+	public final static byte MOVED = 5;
+	/**
+	 * Server to client: the last move sent by the client was not accepted.
+	 */
+	public final static byte REJECTED = 6;
+	/**
+	 * Server to client: the opponent disconnected and the game is over.
+	 */
+	public final static byte LEFT = 7;
+	/**
+	 * Client to server: watch the game with the id carried by the frame.
+	 */
+	public final static byte SPECTATE = 8;
+	/**
+	 * Server to client: the complete board of a game being watched, sent when a
+	 * spectator starts watching and whenever it fell too far behind to be sent
+	 * every move.
+	 */
+	public final static byte SNAPSHOT = 9;
+	/**
+	 * Server to spectator: the game being watched is over and the spectator no
+	 * longer watches it. The frame carries the state of the game after its last
+	 * move, which is IN_PROGRESS if a player left before the end, the symbol of
+	 * the player who left, or EMPTY, and the number of moves made.
+	 */
+	public final static byte ENDED = 10;
+
+	/**
+	 * Offset of the frame type.
+	 */
+	private final static int TYPE_OFFSET = 0;
+	/**
+	 * Offset of the cell index.
+	 */
+	private final static int CELL_OFFSET = 1;
+	/**
+	 * Offset of the player symbol.
+	 */
+	private final static int SYMBOL_OFFSET = 2;
+	/**
+	 * Offset of the game state ordinal.
+	 */
+	private final static int STATE_OFFSET = 3;
+	/**
+	 * Offset of the game id.
+	 */
+	private final static int GAME_ID_OFFSET = 4;
+	/**
+	 * Offset of the sequence number.
+	 */
+	private final static int SEQUENCE_OFFSET = 8;
+
+	/**
+	 * Write a frame at the current position of the buffer and advance the position
+	 * by FRAME_SIZE.
+	 * 
+	 * @param buffer   the buffer to write the frame into
+	 * @param type     the type of the frame
+	 * @param gameId   the id of the game the frame is about
+	 * @param cell     the index of the tile the frame is about, or 0
+	 * @param symbol   the symbol of the player the frame is about, or EMPTY
+	 * @param state    the ordinal of the game state, or 0
+	 * @param sequence the sequence number of the move, or 0
+	 */
+	public static void putFrame(ByteBuffer buffer, byte type, int gameId, int cell, char symbol, int state,
+			int sequence) {
+		int start = buffer.position();
+		buffer.put(start + TYPE_OFFSET, type);
+		buffer.put(start + CELL_OFFSET, (byte) cell);
+		buffer.put(start + SYMBOL_OFFSET, (byte) symbol);
+		buffer.put(start + STATE_OFFSET, (byte) state);
+		buffer.putInt(start + GAME_ID_OFFSET, gameId);
+		buffer.putInt(start + SEQUENCE_OFFSET, sequence);
+		buffer.position(start + FRAME_SIZE);
+	}
+
+	/**
+	 * Write a SNAPSHOT frame of the specified board at the current position of the
+	 * buffer and advance the position by FRAME_SIZE.
+	 * 
+	 * @param buffer   the buffer to write the frame into
+	 * @param gameId   the id of the game the board belongs to
+	 * @param board    the board to pack into the frame
+	 * @param sequence the number of moves made on the board
+	 */
+	public static void putSnapshot(ByteBuffer buffer, int gameId, Board board, int sequence) {
+		int packed = 0;
+		for (int row = 0; row < Board.BOARD_ROWS; row++) {
+			for (int col = 0; col < Board.BOARD_COLS; col++) {
+				char symbol = board.getTileAt(row, col).getSymbol();
+				int bits = (symbol == Board.X_SYMBOL) ? 1 : (symbol == Board.O_SYMBOL) ? 2 : 0;
+				packed |= bits << (2 * getCell(row, col));
+			}
+		}
+		int start = buffer.position();
+		buffer.put(start + TYPE_OFFSET, SNAPSHOT);
+		// the packed board takes the cell, symbol and state bytes
+		buffer.put(start + CELL_OFFSET, (byte) packed);
+		buffer.put(start + SYMBOL_OFFSET, (byte) (packed >>> 8));
+		buffer.put(start + STATE_OFFSET, (byte) (packed >>> 16));
+		buffer.putInt(start + GAME_ID_OFFSET, gameId);
+		buffer.putInt(start + SEQUENCE_OFFSET, sequence);
+		buffer.position(start + FRAME_SIZE);
+	}
+
+	/**
+	 * Get the board packed into the SNAPSHOT frame starting at the specified
+	 * index.
+	 * 
+	 * @param buffer the buffer holding the frame
+	 * @param start  the index of the first byte of the frame
+	 * @return The symbols of the board's tiles, indexed by cell.
+	 */
+	public static char[] getSnapshot(ByteBuffer buffer, int start) {
+		int packed = (buffer.get(start + CELL_OFFSET) & 0xFF) | ((buffer.get(start + SYMBOL_OFFSET) & 0xFF) << 8)
+				| ((buffer.get(start + STATE_OFFSET) & 0xFF) << 16);
+		char[] cells = new char[Board.BOARD_ROWS * Board.BOARD_COLS];
+		for (int cell = 0; cell < cells.length; cell++) {
+			int bits = (packed >>> (2 * cell)) & 3;
+			cells[cell] = (bits == 1) ? Board.X_SYMBOL : (bits == 2) ? Board.O_SYMBOL : Board.EMPTY;
+		}
+		return cells;
+	}
+
+	/**
+	 * Get the type of the frame starting at the specified index.
+	 * 
+	 * @param buffer the buffer holding the frame
+	 * @param start  the index of the first byte of the frame
+	 * @return The frame type.
+	 */
+	public static byte getType(ByteBuffer buffer, int start) {
+		return buffer.get(start + TYPE_OFFSET);
+	}
+
+	/**
+	 * Get the cell index of the frame starting at the specified index.
+	 * 
+	 * @param buffer the buffer holding the frame
+	 * @param start  the index of the first byte of the frame
+	 * @return The cell index, row * BOARD_COLS + col.
+	 */
+	public static int getCell(ByteBuffer buffer, int start) {
+		return buffer.get(start + CELL_OFFSET);
+	}
+
+	/**
+	 * Get the player symbol of the frame starting at the specified index.
+	 * 
+	 * @param buffer the buffer holding the frame
+	 * @param start  the index of the first byte of the frame
+	 * @return The player symbol.
+	 */
+	public static char getSymbol(ByteBuffer buffer, int start) {
+		return (char) buffer.get(start + SYMBOL_OFFSET);
+	}
+
+	/**
+	 * Get the game state ordinal of the frame starting at the specified index.
+	 * 
+	 * @param buffer the buffer holding the frame
+	 * @param start  the index of the first byte of the frame
+	 * @return The ordinal of the game state.
+	 */
+	public static int getState(ByteBuffer buffer, int start) {
+		return buffer.get(start + STATE_OFFSET);
+	}
+
+	/**
+	 * Get the game id of the frame starting at the specified index.
+	 * 
+	 * @param buffer the buffer holding the frame
+	 * @param start  the index of the first byte of the frame
+	 * @return The game id.
+	 */
+	public static int getGameId(ByteBuffer buffer, int start) {
+		return buffer.getInt(start + GAME_ID_OFFSET);
+	}
+
+	/**
+	 * Get the sequence number of the frame starting at the specified index.
+	 * 
+	 * @param buffer the buffer holding the frame
+	 * @param start  the index of the first byte of the frame
+	 * @return The sequence number.
+	 */
+	public static int getSequence(ByteBuffer buffer, int start) {
+		return buffer.getInt(start + SEQUENCE_OFFSET);
+	}
+
+	/**
+	 * Get the row of the specified cell index.
+	 * 
+	 * @param cell the cell index
+	 * @return The row of the cell on the board.
+	 */
+	public static int getRow(int cell) {
+		return cell / Board.BOARD_COLS;
+	}
+
+	/**
+	 * Get the column of the specified cell index.
+	 * 
+	 * @param cell the cell index
+	 * @return The column of the cell on the board.
+	 */
+	public static int getCol(int cell) {
+		return cell % Board.BOARD_COLS;
+	}
+
+	/**
+	 * Get the cell index of the tile at the specified position.
+	 * 
+	 * @param row the row of the tile
+	 * @param col the column of the tile
+	 * @return The cell index, row * BOARD_COLS + col.
+	 */
+	public static int getCell(int row, int col) {
+		return (row * Board.BOARD_COLS) + col;
+	}
+}
@@ -0,0 +1,12 @@
+/**
+ * The network package contains the classes that allow a Tic-Tac-Toe game to be
+ * played between two people on different devices. It includes the GameServer,
+ * GameClient, Protocol and BufferPool classes. The server hosts many
+ * TicTacToeBoard games on a single thread using non-blocking channels, and the
+ * client connects the GUI to one of those games. Clients can also watch a game
+ * as spectators, who are told when it ends. Both sides talk to each other with
+ * the small fixed-size binary frames defined in the Protocol class. Overall,
+ * this package is responsible for providing the networked multi-player mode of
+ * the game. Start a server by running the GameServer.java file.
+ */
+package network;
@@ -0,0 +1,495 @@
+package scores;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * This class ranks players by score, highest first, for any number of games
+ * updating it at once. Players with the same score are ranked by name.
+ * 
+ * The players are kept in an indexable skip list: besides the link to the next
+ * node on each level, every node stores how many players that link skips. A
+ * search adds up the skipped players on its way down, so the rank of a player,
+ * the player at a rank and the increment of a score (which moves the player's
+ * node) all take logarithmic time, and a page of the leaderboard is found
+ * without walking the players above it.
+ * 
+ * Every player has an Entry, a handle on their node, kept in a concurrent map
+ * so it can be looked up without locking. Moving a node takes the write lock of
+ * the list for the few links it changes, and queries share the read lock, so a
+ * query always sees every increment either fully done or not started.
+ */
+public class Leaderboard {
+	/**
+	 * Most levels a node can be linked on, enough for billions of players.
+	 */
+	private final static int MAX_LEVEL = 16;
+
+	/**
+	 * This class is the handle of one player on the leaderboard, and the node of
+	 * the skip list holding them.
+	 */
+	public static class Entry {
+		/**
+		 * Name of the player.
+		 */
+		private final String name;
+		/**
+		 * Score of the player, only changed while holding the write lock.
+		 */
+		private volatile int score;
+		/**
+		 * Next node on each level the node is linked on.
+		 */
+		private final Entry[] next;
+		/**
+		 * Number of players from this node to the next node on each level, counting
+		 * the next node.
+		 */
+		private final int[] span;
+
+		/**
+		 * Construct an entry linked on the specified number of levels.
+		 * 
+		 * @param name   the name of the player
+		 * @param score  the score of the player
+		 * @param levels the number of levels the entry is linked on
+		 */
+		private Entry(String name, int score, int levels) {
+			this.name = name;
+			this.score = score;
+			next = new Entry[levels];
+			span = new int[levels];
+		}
+
+		/**
+		 * Get the name of the player.
+		 * 
+		 * @return The name of the player.
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Get the score of the player.
+		 * 
+		 * @return The score of the player.
+		 */
+		public int getScore() {
+			return score;
+		}
+	}
+
+	/**
+	 * This class is the place of a player on the leaderboard when a page was read.
+	 * It doesn't change when the leaderboard does.
+	 */
+	public static class Standing {
+		/**
+		 * Rank of the player, 1 for the highest score.
+		 */
+		private final int rank;
+		/**
+		 * Name of the player.
+		 */
+		private final String name;
+		/**
+		 * Score of the player.
+		 */
+		private final int score;
+
+		/**
+		 * Construct a standing.
+		 * 
+		 * @param rank  the rank of the player
+		 * @param name  the name of the player
+		 * @param score the score of the player
+		 */
+		private Standing(int rank, String name, int score) {
+			this.rank = rank;
+			this.name = name;
+			this.score = score;
+		}
+
+		/**
+		 * Get the rank of the player.
+		 * 
+		 * @return The rank of the player, 1 for the highest score.
+		 */
+		public int getRank() {
+			return rank;
+		}
+
+		/**
+		 * Get the name of the player.
+		 * 
+		 * @return The name of the player.
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * Get the score of the player.
+		 * 
+		 * @return The score of the player.
+		 */
+		public int getScore() {
+			return score;
+		}
+	}
+
+	/**
+	 * Entry of every player, by name.
+	 */
+	private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+	/**
+	 * Lock guarding the links of the skip list.
+	 */
+	private final StampedLock lock = new StampedLock();
+	/**
+	 * Node before the highest ranked player, linked on every level.
+	 */
+	private final Entry head = new Entry(null, 0, MAX_LEVEL);
+	/**
+	 * Number of levels in use.
+	 */
+	private int levels = 1;
+	/**
+	 * Number of players on the leaderboard.
+	 */
+	private int size;
+
+	/**
+	 * Get the handle of a player, adding the player with a score of 0 if they
+	 * aren't on the leaderboard yet.
+	 * 
+	 * @param name the name of the player
+	 * @return The entry of the player.
+	 * @throws IllegalArgumentException if the name is null or empty
+	 */
+	public Entry getEntry(String name) {
+		Entry entry = entries.get(name);
+		if (entry != null) {
+			return entry;
+		}
+		if (name == null || name.isEmpty()) {
+			throw new IllegalArgumentException("Player name must not be empty");
+		}
+		return entries.computeIfAbsent(name, newName -> {
+			Entry newEntry = new Entry(newName, 0, randomLevels());
+			long stamp = lock.writeLock();
+			try {
+				insert(newEntry);
+			} finally {
+				lock.unlockWrite(stamp);
+			}
+			return newEntry;
+		});
+	}
+
+	/**
+	 * Create a leaderboard ranking every player of a score ledger by their wins.
+	 * 
+	 * @param ledger the ledger to read the wins from
+	 * @return The leaderboard of the ledger's players.
+	 */
+	public static Leaderboard fromWins(ScoreLedger ledger) {
+		Leaderboard leaderboard = new Leaderboard();
+		for (String name : ledger.getPlayerNames()) {
+			leaderboard.add(leaderboard.getEntry(name), ledger.getWins(name));
+		}
+		return leaderboard;
+	}
+
+	/**
+	 * Add one point to the score of a player.
+	 * 
+	 * @param name the name of the player
+	 * @throws IllegalArgumentException if the name is null or empty
+	 */
+	public void increment(String name) {
+		add(getEntry(name), 1);
+	}
+
+	/**
+	 * Add points to the score of a player, moving them up or down the leaderboard.
+	 * 
+	 * @param entry  the entry of the player
+	 * @param points the points to add, negative to take points away
+	 */
+	public void add(Entry entry, int points) {
+		if (points == 0) {
+			return;
+		}
+		long stamp = lock.writeLock();
+		try {
+			// the node keeps its levels, and is linked again at its new place
+			remove(entry);
+			entry.score += points;
+			insert(entry);
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Get the rank of a player.
+	 * 
+	 * @param entry the entry of the player
+	 * @return The rank of the player, 1 for the highest score.
+	 */
+	public int getRank(Entry entry) {
+		long stamp = lock.readLock();
+		try {
+			int rank = 0;
+			Entry node = head;
+			for (int level = levels - 1; level >= 0; level--) {
+				while (node.next[level] != null && !ranksBefore(entry, node.next[level])) {
+					rank += node.span[level];
+					node = node.next[level];
+				}
+				if (node == entry) {
+					return rank;
+				}
+			}
+			// every entry is linked, so the search always ends on it
+			throw new IllegalStateException("Entry is not on the leaderboard: " + entry.name);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Get the players with the highest scores.
+	 * 
+	 * @param count the number of players to get
+	 * @return The standings of the top players, highest first.
+	 */
+	public List<Standing> getTop(int count) {
+		return getPage(0, count);
+	}
+
+	/**
+	 * Get a page of the leaderboard. Only the players on the page are copied.
+	 * 
+	 * @param offset the number of players before the page
+	 * @param count  the most players on the page
+	 * @return The standings of the players on the page, highest first, empty if
+	 *         the page is past the last player.
+	 * @throws IllegalArgumentException if the offset or count is negative
+	 */
+	public List<Standing> getPage(int offset, int count) {
+		if (offset < 0 || count < 0) {
+			throw new IllegalArgumentException("Offset and count must not be negative");
+		}
+		List<Standing> page = new ArrayList<Standing>(Math.min(count, 64));
+		long stamp = lock.readLock();
+		try {
+			// skip to the player ranked just before the page
+			int rank = 0;
+			Entry node = head;
+			for (int level = levels - 1; level >= 0; level--) {
+				while (node.next[level] != null && rank + node.span[level] <= offset) {
+					rank += node.span[level];
+					node = node.next[level];
+				}
+			}
+			for (node = node.next[0]; node != null && page.size() < count; node = node.next[0]) {
+				page.add(new Standing(++rank, node.name, node.score));
+			}
+		} finally {
+			lock.unlockRead(stamp);
+		}
+		return page;
+	}
+
+	/**
+	 * Get the number of players on the leaderboard.
+	 * 
+	 * @return The number of players.
+	 */
+	public int size() {
+		long stamp = lock.readLock();
+		try {
+			return size;
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Helper method that links an entry at the place of its score. The write lock
+	 * must be held.
+	 * 
+	 * @param entry the entry to link
+	 */
+	private void insert(Entry entry) {
+		Entry[] before = new Entry[MAX_LEVEL];
+		// rank of the node before the entry on each level
+		int[] rank = new int[MAX_LEVEL];
+		Entry node = head;
+		for (int level = levels - 1; level >= 0; level--) {
+			rank[level] = (level == levels - 1) ? 0 : rank[level + 1];
+			while (node.next[level] != null && ranksBefore(node.next[level], entry)) {
+				rank[level] += node.span[level];
+				node = node.next[level];
+			}
+			before[level] = node;
+		}
+		int entryLevels = entry.next.length;
+		// levels not in use yet start at the head and skip every player
+		for (int level = levels; level < entryLevels; level++) {
+			rank[level] = 0;
+			before[level] = head;
+			head.span[level] = size;
+		}
+		levels = Math.max(levels, entryLevels);
+		for (int level = 0; level < entryLevels; level++) {
+			entry.next[level] = before[level].next[level];
+			before[level].next[level] = entry;
+			// the players skipped by the link before the entry are split around it
+			entry.span[level] = before[level].span[level] - (rank[0] - rank[level]);
+			before[level].span[level] = (rank[0] - rank[level]) + 1;
+		}
+		// links over the entry on the levels above it now skip one more player
+		for (int level = entryLevels; level < levels; level++) {
+			before[level].span[level]++;
+		}
+		size++;
+	}
+
+	/**
+	 * Helper method that unlinks an entry. The write lock must be held.
+	 * 
+	 * @param entry the entry to unlink
+	 */
+	private void remove(Entry entry) {
+		Entry node = head;
+		for (int level = levels - 1; level >= 0; level--) {
+			while (node.next[level] != null && ranksBefore(node.next[level], entry)) {
+				node = node.next[level];
+			}
+			if (node.next[level] == entry) {
+				node.span[level] += entry.span[level] - 1;
+				node.next[level] = entry.next[level];
+			} else {
+				node.span[level]--;
+			}
+		}
+		while (levels > 1 && head.next[levels - 1] == null) {
+			levels--;
+		}
+		size--;
+	}
+
+	/**
+	 * Helper method that checks if one entry is ranked above another.
+	 * 
+	 * @param entry the entry to check
+	 * @param other the entry to compare with
+	 * @return true if the entry has a higher score, or the same score and a name
+	 *         that comes first, false otherwise.
+	 */
+	private static boolean ranksBefore(Entry entry, Entry other) {
+		if (entry.score != other.score) {
+			return entry.score > other.score;
+		}
+		return entry.name.compareTo(other.name) < 0;
+	}
+
+	/**
+	 * Helper method that picks the number of levels of a new node, each level
+	 * being a quarter as likely as the one below it.
+	 * 
+	 * @return The number of levels, from 1 to MAX_LEVEL.
+	 */
+	private static int randomLevels() {
+		int random = ThreadLocalRandom.current().nextInt();
+		int levels = 1;
+		while (levels < MAX_LEVEL && (random & 3) == 0) {
+			levels++;
+			random >>>= 2;
+		}
+		return levels;
+	}
+
+	/**
+	 * Give random wins to a hundred thousand players from every core while other
+	 * threads read ranks and the top ten, and print the throughput. The scores,
+	 * ranks and order of the leaderboard are then checked against each other, and
+	 * the exit status is 1 if they don't match.
+	 * 
+	 * @param args unused
+	 * @throws InterruptedException if interrupted while waiting for the threads
+	 */
+	public static void main(String args[]) throws InterruptedException {
+		Leaderboard leaderboard = new Leaderboard();
+		int players = 100000, increments = 2000000;
+		for (int player = 0; player < players; player++) {
+			leaderboard.getEntry("Player " + player);
+		}
+		int threadCount = Math.max(2, Runtime.getRuntime().availableProcessors());
+		long[] reads = new long[threadCount];
+		Thread[] threads = new Thread[threadCount];
+		long start = System.nanoTime();
+		for (int t = 0; t < threadCount; t++) {
+			int thread = t;
+			threads[t] = new Thread(() -> {
+				ThreadLocalRandom random = ThreadLocalRandom.current();
+				for (int i = 0; i < increments / threadCount; i++) {
+					// a few players win far more often, as on a real leaderboard
+					int player = (random.nextInt(4) == 0) ? random.nextInt(100) : random.nextInt(players);
+					Entry entry = leaderboard.getEntry("Player " + player);
+					leaderboard.add(entry, 1);
+					if (i % 4 == 0) {
+						leaderboard.getRank(entry);
+						leaderboard.getTop(10);
+						reads[thread] += 2;
+					}
+				}
+			});
+			threads[t].start();
+		}
+		long totalReads = 0;
+		for (int t = 0; t < threadCount; t++) {
+			threads[t].join();
+			totalReads += reads[t];
+		}
+		long elapsed = System.nanoTime() - start;
+		int done = increments / threadCount * threadCount;
+		System.out.printf("%,d players, %d threads%n", leaderboard.size(), threadCount);
+		System.out.printf("%,.0f increments/s with %,.0f rank and top 10 queries/s%n", done * 1e9 / elapsed,
+				totalReads * 1e9 / elapsed);
+		for (Standing standing : leaderboard.getTop(5)) {
+			System.out.printf("%d. %s %,d%n", standing.getRank(), standing.getName(), standing.getScore());
+		}
+
+		// every page has to be in order, ranked as getRank says, and add up to the
+		// increments made
+		long total = 0;
+		int errors = 0, previous = Integer.MAX_VALUE, expectedRank = 1;
+		for (int offset = 0; offset < players; offset += 1000) {
+			for (Standing standing : leaderboard.getPage(offset, 1000)) {
+				Entry entry = leaderboard.getEntry(standing.getName());
+				if (standing.getScore() > previous || standing.getRank() != expectedRank++
+						|| leaderboard.getRank(entry) != standing.getRank()) {
+					errors++;
+				}
+				previous = standing.getScore();
+				total += standing.getScore();
+			}
+		}
+		if (total != done) {
+			errors++;
+		}
+		System.out.printf("Checked %,d points, %d errors%n", total, errors);
+		if (errors > 0) {
+			System.exit(1);
+		}
+	}
+}
@@ -0,0 +1,679 @@
+package scores;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This class keeps the wins, losses and ties of every player across sessions
+ * in a local append-only file. Players are identified by their name.
+ * 
+ * Recording a result never blocks: the result is added to a lock-free queue and
+ * the calling thread moves on, so results can be recorded from the JavaFX
+ * application thread or a server's selector loop. A background writer thread
+ * takes the queued results in batches, adds them up per player, appends one
+ * record per player of the batch to the file and then publishes a new snapshot
+ * of the scores. Lookups read the latest snapshot without locking, so a result
+ * shows up in lookups once its batch is written, at most FLUSH_INTERVAL_MILLIS
+ * after it was recorded.
+ * 
+ * Every record of the file holds a player's name followed by the number of
+ * wins, losses and ties added by one batch. The scores are rebuilt by adding up
+ * the records when the ledger is opened. A record cut short by a crash is
+ * dropped, and the file is truncated to the last whole record.
+ */
+public class ScoreLedger implements AutoCloseable {
+	/**
+	 * Most time a recorded result waits in the queue before it is written.
+	 */
+	public final static long FLUSH_INTERVAL_MILLIS = 100;
+	/**
+	 * Number of queued results that wakes the writer up before the flush interval
+	 * is over.
+	 */
+	public final static int BATCH_SIZE = 4096;
+	/**
+	 * Longest player name in bytes of modified UTF-8, the most writeUTF can
+	 * write.
+	 */
+	public final static int MAX_NAME_BYTES = 65535;
+
+	/**
+	 * Outcome of a game for one player.
+	 */
+	private enum Outcome {
+		WIN, LOSS, TIE
+	}
+
+	/**
+	 * This class represents the outcome of one game for one player, as queued for
+	 * the writer.
+	 */
+	private static class Result {
+		/**
+		 * Name of the player.
+		 */
+		private final String player;
+		/**
+		 * Outcome of the game for the player.
+		 */
+		private final Outcome outcome;
+
+		/**
+		 * Construct a result.
+		 * 
+		 * @param player  the name of the player
+		 * @param outcome the outcome of the game for the player
+		 */
+		private Result(String player, Outcome outcome) {
+			this.player = player;
+			this.outcome = outcome;
+		}
+	}
+
+	/**
+	 * This class maps player names to their wins, losses and ties. Names are kept
+	 * in an open addressing table whose slots index plain int arrays, so the
+	 * scores are never boxed. A table is only changed by the writer thread; the
+	 * copies it publishes are never changed again.
+	 */
+	private static class ScoreTable {
+		/**
+		 * Names of the players, indexed by slot, null for an empty slot.
+		 */
+		private String[] names;
+		/**
+		 * Wins of the players, indexed by slot.
+		 */
+		private int[] wins;
+		/**
+		 * Losses of the players, indexed by slot.
+		 */
+		private int[] losses;
+		/**
+		 * Ties of the players, indexed by slot.
+		 */
+		private int[] ties;
+		/**
+		 * Number of players in the table.
+		 */
+		private int size;
+
+		/**
+		 * Construct an empty table with the specified number of slots.
+		 * 
+		 * @param capacity the number of slots, a power of two
+		 */
+		private ScoreTable(int capacity) {
+			names = new String[capacity];
+			wins = new int[capacity];
+			losses = new int[capacity];
+			ties = new int[capacity];
+		}
+
+		/**
+		 * Get the slot of a player.
+		 * 
+		 * @param name the name of the player
+		 * @return The slot holding the player, or the empty slot where the player
+		 *         would be added.
+		 */
+		private int slotOf(String name) {
+			int mask = names.length - 1;
+			// spread the hash so names differing in the high bits don't share a slot
+			int hash = name.hashCode() * 0x9E3779B9;
+			int slot = (hash ^ (hash >>> 16)) & mask;
+			while (names[slot] != null && !names[slot].equals(name)) {
+				slot = (slot + 1) & mask;
+			}
+			return slot;
+		}
+
+		/**
+		 * Get the slot of a player, adding the player with no results if they aren't
+		 * in the table yet.
+		 * 
+		 * @param name the name of the player
+		 * @return The slot holding the player.
+		 */
+		private int add(String name) {
+			// keep the table at most half full so probes stay short
+			if ((size + 1) * 2 > names.length) {
+				ScoreTable grown = copy(names.length * 2);
+				names = grown.names;
+				wins = grown.wins;
+				losses = grown.losses;
+				ties = grown.ties;
+			}
+			int slot = slotOf(name);
+			if (names[slot] == null) {
+				names[slot] = name;
+				size++;
+			}
+			return slot;
+		}
+
+		/**
+		 * Copy the table into a new table with the specified number of slots.
+		 * 
+		 * @param capacity the number of slots of the copy, a power of two
+		 * @return The copy of the table.
+		 */
+		private ScoreTable copy(int capacity) {
+			ScoreTable copy = new ScoreTable(capacity);
+			for (int slot = 0; slot < names.length; slot++) {
+				if (names[slot] != null) {
+					int copySlot = copy.slotOf(names[slot]);
+					copy.names[copySlot] = names[slot];
+					copy.wins[copySlot] = wins[slot];
+					copy.losses[copySlot] = losses[slot];
+					copy.ties[copySlot] = ties[slot];
+					copy.size++;
+				}
+			}
+			return copy;
+		}
+	}
+
+	/**
+	 * File the results are appended to.
+	 */
+	private final FileChannel file;
+	/**
+	 * Results recorded but not yet taken by the writer.
+	 */
+	private final ConcurrentLinkedQueue<Result> queue = new ConcurrentLinkedQueue<Result>();
+	/**
+	 * Number of results recorded.
+	 */
+	private final AtomicLong recorded = new AtomicLong();
+	/**
+	 * Number of threads in the middle of recording, counted before they check
+	 * whether the ledger is closed. The writer only stops once the ledger is
+	 * closed and this is 0, so a result that got past the check is always
+	 * written.
+	 */
+	private final AtomicInteger recording = new AtomicInteger();
+	/**
+	 * Number of results written, only changed by the writer while holding the
+	 * lock of the ledger.
+	 */
+	private long written;
+	/**
+	 * Scores kept up to date by the writer.
+	 */
+	private final ScoreTable table;
+	/**
+	 * Latest copy of the scores published by the writer, read by lookups.
+	 */
+	private volatile ScoreTable snapshot;
+	/**
+	 * Error the writer got from the file, or null if every batch was written.
+	 */
+	private volatile IOException failure;
+	/**
+	 * true once the ledger is closed, false otherwise.
+	 */
+	private volatile boolean closed;
+	/**
+	 * Background thread writing the queued results.
+	 */
+	private final Thread writer;
+
+	/**
+	 * Open the ledger kept in the specified file, creating the file if it doesn't
+	 * exist, and rebuild the scores from it.
+	 * 
+	 * @param path the file of the ledger
+	 * @throws IOException if the file can't be read or opened for writing
+	 */
+	public ScoreLedger(Path path) throws IOException {
+		file = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		ScoreTable loaded;
+		try {
+			loaded = load();
+		} catch (IOException e) {
+			file.close();
+			throw e;
+		}
+		table = loaded;
+		snapshot = table.copy(table.names.length);
+		writer = new Thread(this::writeResults, "score-ledger-writer");
+		// the writer must not keep the app running once the window is closed
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * Record that a player won against another player.
+	 * 
+	 * @param winner the name of the player who won
+	 * @param loser  the name of the player who lost
+	 * @throws IllegalArgumentException if either name is empty or longer than
+	 *                                  MAX_NAME_BYTES
+	 * @throws IllegalStateException    if the ledger is closed
+	 */
+	public void recordWin(String winner, String loser) {
+		checkName(winner);
+		checkName(loser);
+		record(new Result(winner, Outcome.WIN), new Result(loser, Outcome.LOSS));
+	}
+
+	/**
+	 * Record that two players tied.
+	 * 
+	 * @param playerOne the name of one of the players
+	 * @param playerTwo the name of the other player
+	 * @throws IllegalArgumentException if either name is empty or longer than
+	 *                                  MAX_NAME_BYTES
+	 * @throws IllegalStateException    if the ledger is closed
+	 */
+	public void recordTie(String playerOne, String playerTwo) {
+		checkName(playerOne);
+		checkName(playerTwo);
+		record(new Result(playerOne, Outcome.TIE), new Result(playerTwo, Outcome.TIE));
+	}
+
+	/**
+	 * Get the number of games a player has won.
+	 * 
+	 * @param name the name of the player
+	 * @return The number of wins of the player, 0 if they have no results.
+	 */
+	public int getWins(String name) {
+		ScoreTable scores = snapshot;
+		return scores.wins[scores.slotOf(name)];
+	}
+
+	/**
+	 * Get the number of games a player has lost.
+	 * 
+	 * @param name the name of the player
+	 * @return The number of losses of the player, 0 if they have no results.
+	 */
+	public int getLosses(String name) {
+		ScoreTable scores = snapshot;
+		return scores.losses[scores.slotOf(name)];
+	}
+
+	/**
+	 * Get the number of games a player has tied.
+	 * 
+	 * @param name the name of the player
+	 * @return The number of ties of the player, 0 if they have no results.
+	 */
+	public int getTies(String name) {
+		ScoreTable scores = snapshot;
+		return scores.ties[scores.slotOf(name)];
+	}
+
+	/**
+	 * Get the names of the players with results in the ledger.
+	 * 
+	 * @return The names of the players, in no particular order.
+	 */
+	public List<String> getPlayerNames() {
+		ScoreTable scores = snapshot;
+		List<String> names = new ArrayList<String>(scores.size);
+		for (String name : scores.names) {
+			if (name != null) {
+				names.add(name);
+			}
+		}
+		return names;
+	}
+
+	/**
+	 * Get the number of players with results in the ledger.
+	 * 
+	 * @return The number of players.
+	 */
+	public int getPlayerCount() {
+		return snapshot.size;
+	}
+
+	/**
+	 * Wait until every result recorded so far is written to the file. This blocks,
+	 * so it must not be called from the JavaFX application thread.
+	 * 
+	 * @throws IOException          if the writer couldn't write to the file
+	 * @throws InterruptedException if interrupted while waiting
+	 */
+	public void flush() throws IOException, InterruptedException {
+		long target = recorded.get();
+		LockSupport.unpark(writer);
+		synchronized (this) {
+			while (written < target && writer.isAlive()) {
+				wait(FLUSH_INTERVAL_MILLIS);
+			}
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Write every result recorded so far, stop the writer and close the file.
+	 * Nothing can be recorded once the ledger is closed, and a game recorded while
+	 * it closes is either written or rejected.
+	 * 
+	 * @throws IOException if the writer couldn't write to the file
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		LockSupport.unpark(writer);
+		try {
+			writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		file.close();
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Helper method that queues the results of both players of a game for the
+	 * writer, waking it up when a full batch is waiting or the ledger is closing.
+	 * 
+	 * @param one the result of one of the players
+	 * @param two the result of the other player
+	 */
+	private void record(Result one, Result two) {
+		// count this thread before checking closed, so the writer waits for it
+		recording.incrementAndGet();
+		try {
+			if (closed) {
+				throw new IllegalStateException("Score ledger is closed");
+			}
+			queue.offer(one);
+			queue.offer(two);
+		} finally {
+			recording.decrementAndGet();
+		}
+		long count = recorded.addAndGet(2);
+		if (count % BATCH_SIZE == 0 || closed) {
+			LockSupport.unpark(writer);
+		}
+	}
+
+	/**
+	 * Helper method that checks that a player name can be kept in the ledger.
+	 * 
+	 * @param name the name of the player
+	 * @throws IllegalArgumentException if the name is null, empty or longer than
+	 *                                  MAX_NAME_BYTES
+	 */
+	private static void checkName(String name) {
+		if (name == null || name.isEmpty()) {
+			throw new IllegalArgumentException("Player name must not be empty");
+		}
+		// only long names can be too long, as a character takes at most 3 bytes
+		if (name.length() > MAX_NAME_BYTES / 3 && modifiedUtf8Length(name) > MAX_NAME_BYTES) {
+			throw new IllegalArgumentException("Player name must be at most " + MAX_NAME_BYTES + " bytes long");
+		}
+	}
+
+	/**
+	 * Helper method run by the writer thread. It writes a batch whenever results
+	 * are queued, sleeping for up to the flush interval when there are none, until
+	 * the ledger is closed, no thread is recording and the queue is empty.
+	 */
+	private void writeResults() {
+		// players in the current batch and what the batch adds to their scores
+		ScoreTable batch = new ScoreTable(16);
+		while (true) {
+			// read closed and the recording threads before draining, so results
+			// queued before close are written
+			boolean closing = closed && recording.get() == 0;
+			int count = 0;
+			for (Result result = queue.poll(); result != null; result = queue.poll()) {
+				int slot = batch.add(result.player);
+				switch (result.outcome) {
+				case WIN:
+					batch.wins[slot]++;
+					break;
+				case LOSS:
+					batch.losses[slot]++;
+					break;
+				default:
+					batch.ties[slot]++;
+				}
+				count++;
+			}
+			if (count > 0) {
+				writeBatch(batch);
+				batch = new ScoreTable(16);
+				synchronized (this) {
+					written += count;
+					notifyAll();
+				}
+			} else if (closing) {
+				return;
+			} else if (closed) {
+				// a thread that got past the check is still queuing its results
+				Thread.yield();
+			} else {
+				LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(FLUSH_INTERVAL_MILLIS));
+			}
+		}
+	}
+
+	/**
+	 * Helper method that adds a batch to the scores, appends it to the file and
+	 * publishes the new scores. The scores are published even if the file can't
+	 * be written, so lookups stay correct for the rest of the session.
+	 * 
+	 * @param batch the players of the batch and what it adds to their scores
+	 */
+	private void writeBatch(ScoreTable batch) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream records = new DataOutputStream(bytes);
+		try {
+			for (int slot = 0; slot < batch.names.length; slot++) {
+				if (batch.names[slot] != null) {
+					int tableSlot = table.add(batch.names[slot]);
+					table.wins[tableSlot] += batch.wins[slot];
+					table.losses[tableSlot] += batch.losses[slot];
+					table.ties[tableSlot] += batch.ties[slot];
+					records.writeUTF(batch.names[slot]);
+					records.writeInt(batch.wins[slot]);
+					records.writeInt(batch.losses[slot]);
+					records.writeInt(batch.ties[slot]);
+				}
+			}
+			if (failure == null) {
+				ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+				while (buffer.hasRemaining()) {
+					file.write(buffer);
+				}
+				file.force(false);
+			}
+		} catch (IOException e) {
+			failure = e;
+		}
+		snapshot = table.copy(table.names.length);
+	}
+
+	/**
+	 * Helper method that rebuilds the scores from the records of the file and
+	 * leaves the file positioned after the last whole record.
+	 * 
+	 * @return The scores kept in the file.
+	 * @throws IOException if the file can't be read
+	 */
+	private ScoreTable load() throws IOException {
+		ScoreTable scores = new ScoreTable(16);
+		long wholeRecords = 0;
+		file.position(0);
+		// the stream must not be closed, since that closes the file
+		DataInputStream records = new DataInputStream(
+				new BufferedInputStream(Channels.newInputStream(file)));
+		try {
+			while (true) {
+				String name = records.readUTF();
+				int wins = records.readInt(), losses = records.readInt(), ties = records.readInt();
+				int slot = scores.add(name);
+				scores.wins[slot] += wins;
+				scores.losses[slot] += losses;
+				scores.ties[slot] += ties;
+				// a UTF string is written as its length in two bytes, then its bytes
+				wholeRecords += 2 + modifiedUtf8Length(name) + 12;
+			}
+		} catch (EOFException e) {
+			// the end of the file, or a record cut short
+		}
+		if (wholeRecords < file.size()) {
+			file.truncate(wholeRecords);
+		}
+		file.position(wholeRecords);
+		return scores;
+	}
+
+	/**
+	 * Helper method that gets the number of bytes writeUTF uses for a string's
+	 * characters.
+	 * 
+	 * @param name the string to measure
+	 * @return The number of bytes of the string in modified UTF-8.
+	 */
+	private static int modifiedUtf8Length(String name) {
+		int length = 0;
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			length += (c >= 1 && c <= 0x7F) ? 1 : (c <= 0x7FF) ? 2 : 3;
+		}
+		return length;
+	}
+
+	/**
+	 * Record a million results from every core as fast as possible, print how long
+	 * recording took per result and how long the writer took to catch up, then
+	 * reopen the ledger and check that the scores rebuilt from the file add up.
+	 * Then it closes a ledger while threads are recording and checks that every
+	 * game they recorded without an exception was written, and that a name too
+	 * long for the file is rejected. The exit status is 1 if a check fails.
+	 * 
+	 * @param args the file to use, a temporary file by default
+	 * @throws Exception if the file can't be used or the threads are interrupted
+	 */
+	public static void main(String args[]) throws Exception {
+		Path path = (args.length > 0) ? Path.of(args[0]) : Files.createTempFile("scores", ".ledger");
+		Files.deleteIfExists(path);
+		String[] players = { "Player X", "Player O", "Computer (Heuristic)", "Computer (Perfect)" };
+		int threadCount = Runtime.getRuntime().availableProcessors();
+		int games = 1000000 / threadCount;
+		long[] recordNanos = new long[threadCount];
+		ScoreLedger ledger = new ScoreLedger(path);
+		Thread[] threads = new Thread[threadCount];
+		long start = System.nanoTime();
+		for (int t = 0; t < threadCount; t++) {
+			int thread = t;
+			threads[t] = new Thread(() -> {
+				long threadStart = System.nanoTime();
+				for (int game = 0; game < games; game++) {
+					String one = players[game % players.length], two = players[(game + 1) % players.length];
+					// every third game is a tie, the others are won by player one
+					if (game % 3 == 0) {
+						ledger.recordTie(one, two);
+					} else {
+						ledger.recordWin(one, two);
+					}
+				}
+				recordNanos[thread] = System.nanoTime() - threadStart;
+			});
+			threads[t].start();
+		}
+		long slowest = 0;
+		for (int t = 0; t < threadCount; t++) {
+			threads[t].join();
+			slowest = Math.max(slowest, recordNanos[t]);
+		}
+		ledger.flush();
+		long elapsed = System.nanoTime() - start;
+		ledger.close();
+		long results = 2L * games * threadCount;
+		System.out.printf("%,d results from %d threads%n", results, threadCount);
+		System.out.printf("Recording: %.0f ns per result, %,.0f results/s%n", (double) slowest * threadCount / results,
+				results * 1e9 / slowest);
+		System.out.printf("Written to disk: %,.0f results/s, file %,d bytes%n", results * 1e9 / elapsed,
+				Files.size(path));
+
+		long loadStart = System.nanoTime();
+		ScoreLedger reopened = new ScoreLedger(path);
+		long loadNanos = System.nanoTime() - loadStart;
+		long total = 0;
+		for (String player : players) {
+			total += reopened.getWins(player) + reopened.getLosses(player) + reopened.getTies(player);
+			System.out.printf("%-22s %,9d wins %,9d losses %,9d ties%n", player, reopened.getWins(player),
+					reopened.getLosses(player), reopened.getTies(player));
+		}
+		reopened.close();
+		System.out.printf("Rebuilt %,d results in %.1f ms%n", total, loadNanos / 1e6);
+		boolean failed = total != results;
+
+		// record from every thread until the ledger closes under them
+		Files.delete(path);
+		ScoreLedger closing = new ScoreLedger(path);
+		AtomicLong accepted = new AtomicLong();
+		for (int t = 0; t < threadCount; t++) {
+			threads[t] = new Thread(() -> {
+				try {
+					while (true) {
+						closing.recordWin(players[0], players[1]);
+						accepted.incrementAndGet();
+					}
+				} catch (IllegalStateException e) {
+					// the ledger is closed
+				}
+			});
+			threads[t].start();
+		}
+		Thread.sleep(FLUSH_INTERVAL_MILLIS);
+		closing.close();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		ScoreLedger afterClose = new ScoreLedger(path);
+		long kept = afterClose.getWins(players[0]);
+		afterClose.close();
+		System.out.printf("Closed while recording: %,d games accepted, %,d written%n", accepted.get(), kept);
+		failed |= kept != accepted.get();
+
+		boolean rejected = false;
+		try (ScoreLedger longName = new ScoreLedger(path)) {
+			longName.recordTie("\u20ac".repeat(MAX_NAME_BYTES / 3 + 1), players[0]);
+		} catch (IllegalArgumentException e) {
+			rejected = true;
+		}
+		System.out.println("Name over " + MAX_NAME_BYTES + " bytes rejected: " + rejected);
+		failed |= !rejected;
+		if (args.length == 0) {
+			Files.delete(path);
+		}
+		if (failed) {
+			System.exit(1);
+		}
+	}
+}
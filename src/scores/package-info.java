@@ -0,0 +1,12 @@
+/**
+ * The scores package contains the classes that keep the results of the
+ * Tic-Tac-Toe games played by each player across sessions. It includes the
+ * ScoreLedger class, which records wins, losses and ties without blocking the
+ * thread that ended the game, writes them in batches to an append-only file in
+ * the background and serves lookups from memory, and the Leaderboard class,
+ * which ranks the players by score for many games at once and pages through
+ * the ranking without copying it. Overall, this package is responsible for
+ * making sure scores outlive the game they were earned in and for ranking the
+ * players by them.
+ */
+package scores;
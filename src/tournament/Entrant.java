@@ -0,0 +1,53 @@
+package tournament;
+
+import java.util.function.Function;
+
+import model.ComputerPlayer;
+
+/**
+ * This class represents a computer player algorithm taking part in a
+ * tournament. Since computer players remember their last move, an entrant
+ * creates a new computer player for every game instead of sharing one between
+ * games played at the same time.
+ */
+public class Entrant {
+	/**
+	 * Name of the entrant shown in the tournament report.
+	 */
+	private final String name;
+	/**
+	 * Function creating a computer player of this entrant with the given symbol.
+	 */
+	private final Function<Character, ComputerPlayer> playerFactory;
+
+	/**
+	 * Construct an entrant with the specified name and computer player factory.
+	 * 
+	 * @param name          the name shown in the tournament report
+	 * @param playerFactory function creating a computer player of this entrant
+	 *                      with the given symbol, for example ComputerPlayer::new
+	 */
+	public Entrant(String name, Function<Character, ComputerPlayer> playerFactory) {
+		this.name = name;
+		this.playerFactory = playerFactory;
+	}
+
+	/**
+	 * Get the name of the entrant.
+	 * 
+	 * @return The name shown in the tournament report.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Create a new computer player of this entrant for one game.
+	 * 
+	 * @param symbol the symbol the player plays with
+	 * @return A new computer player.
+	 */
+	public ComputerPlayer createPlayer(char symbol) {
+		return playerFactory.apply(symbol);
+	}
+}
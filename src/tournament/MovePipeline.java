@@ -0,0 +1,724 @@
+package tournament;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import engine.BatchEvaluator;
+import model.*;
+
+/**
+ * This class referees the moves of many games played by computer players on
+ * other threads, such as the games of a match farm. The players publish each
+ * move as an event into a ring buffer whose slots are allocated once, and four
+ * stages, each on its own thread, handle the events in order: validate checks
+ * the move against the turn and the tiles already taken, apply adds it to the
+ * game's position, packed like a BatchEvaluator position, evaluate works out
+ * the state of the game, and record counts the results and the time from
+ * publishing to recording. The apply stage may already be making later moves
+ * while the evaluate stage is still behind it, so apply leaves the position
+ * after each move in the event, and evaluate works from that.
+ * 
+ * Each stage takes every event its previous stage has finished with as one
+ * batch and publishes its progress once per batch, so a stage that falls behind
+ * catches up with a single read of the shared counters. Each game must have a
+ * single writer, which keeps its moves in order, while many writers can publish
+ * at the same time. Stages and writers waiting for events or free slots either
+ * spin or park, as chosen with a WaitStrategy. An exception thrown by a stage
+ * is kept and thrown again by drain(), and the event is rejected, so the stages
+ * never stop while writers wait on them.
+ */
+public class MovePipeline {
+	/**
+	 * How stages and writers wait for events or free slots.
+	 */
+	public enum WaitStrategy {
+		/**
+		 * Spin without giving up the core, for the lowest latency when every stage
+		 * and writer has a core of its own.
+		 */
+		BUSY_SPIN,
+		/**
+		 * Spin briefly, then park the thread, leaving the cores to other threads at
+		 * the cost of latency.
+		 */
+		PARK
+	}
+
+	/**
+	 * Tile of an event that starts a new game instead of making a move.
+	 */
+	public final static int NEW_GAME = -1;
+	/**
+	 * Number of stages: validate, apply, evaluate and record.
+	 */
+	private final static int STAGES = 4;
+	/**
+	 * Names of the stages, used to name their threads.
+	 */
+	private final static String[] STAGE_NAMES = { "validate", "apply", "evaluate", "record" };
+	/**
+	 * Index of the record stage, the last one.
+	 */
+	private final static int RECORD = STAGES - 1;
+	/**
+	 * Number of times a PARK wait spins before parking.
+	 */
+	private final static int SPINS_BEFORE_PARK = 100;
+	/**
+	 * Time a PARK wait parks for at a time, in nanoseconds.
+	 */
+	private final static long PARK_NANOS = 10000;
+	/**
+	 * Number of latency buckets, one per power of two of nanoseconds.
+	 */
+	private final static int LATENCY_BUCKETS = 64;
+	/**
+	 * Mask of the bits of a sequence number giving its slot in the ring.
+	 */
+	private final int mask;
+	/**
+	 * How stages and writers wait.
+	 */
+	private final WaitStrategy waitStrategy;
+
+	/**
+	 * Game of the event in each slot.
+	 */
+	private final int[] eventGames;
+	/**
+	 * Tile of the move of the event in each slot, or NEW_GAME.
+	 */
+	private final byte[] eventTiles;
+	/**
+	 * Symbol of the move of the event in each slot.
+	 */
+	private final char[] eventSymbols;
+	/**
+	 * Time the event in each slot was published, from System.nanoTime().
+	 */
+	private final long[] eventNanos;
+	/**
+	 * Position of the game after the event in each slot, packed like a
+	 * BatchEvaluator position, set by the apply stage.
+	 */
+	private final int[] eventPositions;
+	/**
+	 * Whether the event in each slot passed validation, set by the validate stage.
+	 */
+	private final boolean[] eventValid;
+	/**
+	 * State of the game after the event in each slot, set by the evaluate stage.
+	 */
+	private final GameState[] eventStates;
+
+	/**
+	 * Next sequence number to be claimed by a writer.
+	 */
+	private final AtomicLong claimed = new AtomicLong();
+	/**
+	 * Sequence number of the event published in each slot, -1 for a slot never
+	 * published. A slot is readable once it holds the sequence number expected.
+	 */
+	private final AtomicLongArray published;
+	/**
+	 * Sequence number of the last event each stage has finished with.
+	 */
+	private final AtomicLong[] finished = new AtomicLong[STAGES];
+
+	/**
+	 * Tiles taken in each game, as seen by the validate stage.
+	 */
+	private final int[] validatedTiles;
+	/**
+	 * Symbol of the last valid move of each game, as seen by the validate stage.
+	 */
+	private final char[] lastSymbols;
+	/**
+	 * Position of each game, packed like a BatchEvaluator position, kept by the
+	 * apply stage.
+	 */
+	private final int[] positions;
+	/**
+	 * Whether each game is over, as seen by the evaluate stage.
+	 */
+	private final boolean[] gamesOver;
+
+	/**
+	 * Counts kept by the record stage: moves made, events rejected, games won by X
+	 * and O, and games tied.
+	 */
+	private long moves, rejected, xWins, oWins, ties;
+	/**
+	 * Number of events recorded with a latency in each power of two of
+	 * nanoseconds, bucket i counting latencies from 2^(i-1) to 2^i - 1.
+	 */
+	private final long[] latencies = new long[LATENCY_BUCKETS];
+	/**
+	 * Sum of the latencies of the recorded events, in nanoseconds.
+	 */
+	private long latencySum;
+	/**
+	 * Number of batches each stage has handled.
+	 */
+	private final long[] batches = new long[STAGES];
+	/**
+	 * Threads of the stages, while the pipeline runs.
+	 */
+	private final List<Thread> stageThreads = new ArrayList<Thread>();
+	/**
+	 * true while the pipeline runs, false once it is stopped.
+	 */
+	private volatile boolean running = false;
+	/**
+	 * First exception thrown by a stage, or null if every event was handled.
+	 */
+	private volatile RuntimeException failure;
+
+	/**
+	 * Construct a pipeline for the specified number of games with a ring of the
+	 * specified number of slots.
+	 * 
+	 * @param games        the number of games, numbered from 0
+	 * @param capacity     the number of slots of the ring, a power of two
+	 * @param waitStrategy how stages and writers wait
+	 * @throws IllegalArgumentException if the capacity isn't a power of two
+	 */
+	public MovePipeline(int games, int capacity, WaitStrategy waitStrategy) {
+		if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+			throw new IllegalArgumentException("The capacity must be a power of two: " + capacity);
+		}
+		this.mask = capacity - 1;
+		this.waitStrategy = waitStrategy;
+		eventGames = new int[capacity];
+		eventTiles = new byte[capacity];
+		eventSymbols = new char[capacity];
+		eventNanos = new long[capacity];
+		eventPositions = new int[capacity];
+		eventValid = new boolean[capacity];
+		eventStates = new GameState[capacity];
+		published = new AtomicLongArray(capacity);
+		for (int slot = 0; slot < capacity; slot++) {
+			published.set(slot, -1);
+		}
+		for (int stage = 0; stage < STAGES; stage++) {
+			finished[stage] = new AtomicLong(-1);
+		}
+		validatedTiles = new int[games];
+		lastSymbols = new char[games];
+		positions = new int[games];
+		gamesOver = new boolean[games];
+		for (int game = 0; game < games; game++) {
+			lastSymbols[game] = Board.EMPTY;
+		}
+	}
+
+	/**
+	 * Start a thread for each stage. A stopped pipeline can be started again, and
+	 * each stage carries on after the last event it finished with.
+	 */
+	public synchronized void start() {
+		if (running) {
+			return;
+		}
+		running = true;
+		for (int stage = 0; stage < STAGES; stage++) {
+			int current = stage;
+			Thread thread = new Thread(() -> runStage(current), "pipeline-" + STAGE_NAMES[stage]);
+			thread.setDaemon(true);
+			stageThreads.add(thread);
+			thread.start();
+		}
+	}
+
+	/**
+	 * Stop the stage threads once they have handled every event published so far.
+	 * 
+	 * @throws InterruptedException if interrupted while waiting for the stages
+	 */
+	public synchronized void stop() throws InterruptedException {
+		drain();
+		running = false;
+		for (Thread thread : stageThreads) {
+			thread.join();
+		}
+		stageThreads.clear();
+	}
+
+	/**
+	 * Wait until every event published so far has been recorded. The counts of
+	 * the record stage can be read once this returns.
+	 * 
+	 * @throws IllegalStateException if a stage threw an exception while handling
+	 *                               an event
+	 */
+	public void drain() {
+		long last = claimed.get() - 1;
+		for (int waits = 0; finished[RECORD].get() < last; waits++) {
+			await(waits);
+		}
+		if (failure != null) {
+			throw new IllegalStateException("A pipeline stage failed", failure);
+		}
+	}
+
+	/**
+	 * Publish the start of a new game, emptying the game's position. Must only be
+	 * called by the game's writer.
+	 * 
+	 * @param game the game
+	 * @throws IllegalArgumentException if the game isn't one of the pipeline's
+	 */
+	public void startGame(int game) {
+		checkGame(game);
+		publish(game, NEW_GAME, Board.EMPTY);
+	}
+
+	/**
+	 * Publish a move of a game. Must only be called by the game's writer, which
+	 * waits if the ring is full.
+	 * 
+	 * @param game   the game
+	 * @param tile   the tile of the move, row * BOARD_COLS + col
+	 * @param symbol the symbol of the player making the move
+	 * @throws IllegalArgumentException if the game isn't one of the pipeline's or
+	 *                                  the tile isn't on the board
+	 */
+	public void publishMove(int game, int tile, char symbol) {
+		checkGame(game);
+		if (tile < 0 || tile >= Board.BOARD_ROWS * Board.BOARD_COLS) {
+			throw new IllegalArgumentException("Tile not on the board: " + tile);
+		}
+		publish(game, tile, symbol);
+	}
+
+	/**
+	 * Get the number of valid moves recorded.
+	 * 
+	 * @return The number of moves, read after drain().
+	 */
+	public long getMoves() {
+		return moves;
+	}
+
+	/**
+	 * Get the number of events rejected, by the validate stage or for coming
+	 * after the end of their game.
+	 * 
+	 * @return The number of rejected events, read after drain().
+	 */
+	public long getRejected() {
+		return rejected;
+	}
+
+	/**
+	 * Get the number of games won by a player.
+	 * 
+	 * @param symbol the symbol of the player
+	 * @return The number of games won, read after drain().
+	 */
+	public long getWins(char symbol) {
+		return (symbol == Board.X_SYMBOL) ? xWins : oWins;
+	}
+
+	/**
+	 * Get the number of games tied.
+	 * 
+	 * @return The number of ties, read after drain().
+	 */
+	public long getTies() {
+		return ties;
+	}
+
+	/**
+	 * Get the mean time from publishing an event to recording it.
+	 * 
+	 * @return The mean latency in nanoseconds, read after drain().
+	 */
+	public double getMeanLatency() {
+		long events = 0;
+		for (long count : latencies) {
+			events += count;
+		}
+		return (events == 0) ? 0 : (double) latencySum / events;
+	}
+
+	/**
+	 * Get a percentile of the time from publishing an event to recording it.
+	 * Latencies are counted per power of two, so the result is the upper bound of
+	 * the power of two holding the percentile.
+	 * 
+	 * @param percentile the percentile, from 0 to 100
+	 * @return The latency in nanoseconds that the percentile of events were
+	 *         recorded within, read after drain().
+	 */
+	public long getLatencyPercentile(double percentile) {
+		long events = 0;
+		for (long count : latencies) {
+			events += count;
+		}
+		long seen = 0;
+		for (int bucket = 0; bucket < LATENCY_BUCKETS; bucket++) {
+			seen += latencies[bucket];
+			if (seen > 0 && seen >= events * percentile / 100) {
+				return (1L << bucket) - 1;
+			}
+		}
+		return Long.MAX_VALUE;
+	}
+
+	/**
+	 * Get the mean number of events a stage handled per batch.
+	 * 
+	 * @param stage the stage, 0 for validate to 3 for record
+	 * @return The mean batch size, read after drain().
+	 */
+	public double getMeanBatchSize(int stage) {
+		return (batches[stage] == 0) ? 0 : (double) (finished[stage].get() + 1) / batches[stage];
+	}
+
+	/**
+	 * Helper method that checks a game number on the writer's thread, before it
+	 * can reach a stage.
+	 * 
+	 * @param game the game
+	 * @throws IllegalArgumentException if the game isn't one of the pipeline's
+	 */
+	private void checkGame(int game) {
+		if (game < 0 || game >= positions.length) {
+			throw new IllegalArgumentException("No game " + game + " in a pipeline of " + positions.length);
+		}
+	}
+
+	/**
+	 * Helper method that claims a slot, fills it with an event and publishes it,
+	 * waiting first if the slot's last event hasn't been recorded yet.
+	 * 
+	 * @param game   the game of the event
+	 * @param tile   the tile of the move, or NEW_GAME
+	 * @param symbol the symbol of the move
+	 */
+	private void publish(int game, int tile, char symbol) {
+		long sequence = claimed.getAndIncrement();
+		// the slot is free once the event a whole ring earlier has been recorded
+		for (int waits = 0; sequence - (mask + 1) > finished[RECORD].get(); waits++) {
+			await(waits);
+		}
+		int slot = (int) (sequence & mask);
+		eventGames[slot] = game;
+		eventTiles[slot] = (byte) tile;
+		eventSymbols[slot] = symbol;
+		eventNanos[slot] = System.nanoTime();
+		published.lazySet(slot, sequence);
+	}
+
+	/**
+	 * Helper method that runs a stage until the pipeline stops, handling the
+	 * events its previous stage has finished with in batches. An exception thrown
+	 * by an event is kept for drain() and the event is rejected, so that the stage
+	 * carries on.
+	 * 
+	 * @param stage the stage
+	 */
+	private void runStage(int stage) {
+		// a restarted stage carries on after the events it already handled
+		long next = finished[stage].get() + 1;
+		int waits = 0;
+		while (running || next <= claimed.get() - 1) {
+			long available = getAvailable(stage, next);
+			if (available < next) {
+				await(waits++);
+				continue;
+			}
+			waits = 0;
+			for (long sequence = next; sequence <= available; sequence++) {
+				int slot = (int) (sequence & mask);
+				try {
+					handle(stage, slot);
+				} catch (RuntimeException e) {
+					if (failure == null) {
+						failure = e;
+					}
+					eventValid[slot] = false;
+					eventStates[slot] = GameState.INVALID_MOVE;
+				}
+			}
+			batches[stage]++;
+			// one release per batch makes the whole batch visible to the next stage
+			finished[stage].lazySet(available);
+			next = available + 1;
+		}
+	}
+
+	/**
+	 * Helper method that gets the last event a stage can handle.
+	 * 
+	 * @param stage the stage
+	 * @param next  the sequence number of the next event the stage handles
+	 * @return The sequence number of the last event ready for the stage, below
+	 *         next if none is.
+	 */
+	private long getAvailable(int stage, long next) {
+		if (stage > 0) {
+			return finished[stage - 1].get();
+		}
+		// writers publish out of order, so the batch ends at the first gap
+		long last = next - 1;
+		while (last - next < mask && published.get((int) ((last + 1) & mask)) == last + 1) {
+			last++;
+		}
+		return last;
+	}
+
+	/**
+	 * Helper method that handles the event in a slot for a stage.
+	 * 
+	 * @param stage the stage
+	 * @param slot  the slot of the event
+	 */
+	private void handle(int stage, int slot) {
+		int game = eventGames[slot], tile = eventTiles[slot];
+		char symbol = eventSymbols[slot];
+		switch (stage) {
+		case 0:
+			// validate: the tile is free and the symbol is the one whose turn it is
+			if (tile == NEW_GAME) {
+				validatedTiles[game] = 0;
+				lastSymbols[game] = Board.EMPTY;
+				eventValid[slot] = true;
+			} else {
+				// the writer already checked that the tile is on the board
+				boolean valid = (symbol == Board.X_SYMBOL || symbol == Board.O_SYMBOL) && symbol != lastSymbols[game]
+						&& (validatedTiles[game] & (1 << tile)) == 0;
+				if (valid) {
+					validatedTiles[game] |= 1 << tile;
+					lastSymbols[game] = symbol;
+				}
+				eventValid[slot] = valid;
+			}
+			break;
+		case 1:
+			// apply: add the move to the game's position
+			if (eventValid[slot]) {
+				if (tile == NEW_GAME) {
+					positions[game] = 0;
+				} else {
+					positions[game] |= 1 << ((symbol == Board.X_SYMBOL) ? tile : tile + BatchEvaluator.O_SHIFT);
+				}
+			}
+			eventPositions[slot] = positions[game];
+			break;
+		case 2:
+			// evaluate: the state of the game after the move
+			if (!eventValid[slot]) {
+				eventStates[slot] = GameState.INVALID_MOVE;
+			} else if (tile == NEW_GAME) {
+				gamesOver[game] = false;
+				eventStates[slot] = GameState.IN_PROGRESS;
+			} else if (gamesOver[game]) {
+				eventStates[slot] = GameState.INVALID_MOVE;
+			} else {
+				GameState gameState = BatchEvaluator.evaluate(eventPositions[slot]);
+				gamesOver[game] = gameState != GameState.IN_PROGRESS;
+				eventStates[slot] = gameState;
+			}
+			break;
+		default:
+			// record: the results and the latency of the event
+			long latency = System.nanoTime() - eventNanos[slot];
+			latencies[LATENCY_BUCKETS - Long.numberOfLeadingZeros(Math.max(latency, 0))]++;
+			latencySum += latency;
+			GameState gameState = eventStates[slot];
+			if (gameState == GameState.INVALID_MOVE) {
+				rejected++;
+			} else if (tile != NEW_GAME) {
+				moves++;
+				if (gameState == GameState.WIN) {
+					if (symbol == Board.X_SYMBOL) {
+						xWins++;
+					} else {
+						oWins++;
+					}
+				} else if (gameState == GameState.TIE) {
+					ties++;
+				}
+			}
+			break;
+		}
+	}
+
+	/**
+	 * Helper method that waits once with the wait strategy.
+	 * 
+	 * @param waits the number of times the caller has already waited for the same
+	 *              thing
+	 */
+	private void await(int waits) {
+		if (waitStrategy == WaitStrategy.PARK && waits >= SPINS_BEFORE_PARK) {
+			LockSupport.parkNanos(PARK_NANOS);
+		} else {
+			Thread.onSpinWait();
+		}
+	}
+
+	/**
+	 * Play games between computer players on several writer threads, once making
+	 * the moves synchronously with makeMove() and once publishing them into a
+	 * pipeline for each wait strategy, and print the throughput, the latency and
+	 * the batch sizes, after checking that invalid moves are rejected, that a
+	 * restarted pipeline doesn't handle events twice and that events out of range
+	 * are refused. The
+	 * busy-spin pipeline is skipped when there are fewer cores than threads. The
+	 * exit status is 1 if a pipeline's results differ from the writers' own.
+	 * 
+	 * @param args the number of writers and the number of games each plays, by
+	 *             default 2 and 50,000
+	 * @throws InterruptedException if interrupted while waiting for the writers
+	 */
+	public static void main(String args[]) throws InterruptedException {
+		int writers = (args.length > 0) ? Integer.parseInt(args[0]) : 2;
+		int games = (args.length > 1) ? Integer.parseInt(args[1]) : 50000;
+		int failures = 0;
+
+		// a move out of turn and a move on a taken tile are rejected
+		MovePipeline check = new MovePipeline(1, 8, WaitStrategy.PARK);
+		check.start();
+		check.startGame(0);
+		check.publishMove(0, 4, Board.X_SYMBOL);
+		check.publishMove(0, 0, Board.X_SYMBOL);
+		check.publishMove(0, 4, Board.O_SYMBOL);
+		check.publishMove(0, 0, Board.O_SYMBOL);
+		check.stop();
+		System.out.printf("Invalid moves: %d of 4 moves rejected%n", check.getRejected());
+		failures += (check.getMoves() != 2 || check.getRejected() != 2) ? 1 : 0;
+
+		// a restarted pipeline only handles the events published since it stopped
+		check.start();
+		check.publishMove(0, 8, Board.X_SYMBOL);
+		check.stop();
+		System.out.printf("Restarted: %d moves, %d rejected in total%n", check.getMoves(), check.getRejected());
+		failures += (check.getMoves() != 3 || check.getRejected() != 2) ? 1 : 0;
+
+		// a game or tile out of range is refused on the writer's thread
+		int refused = 0;
+		int[][] outOfRange = { { 1, 0 }, { -1, 0 }, { 0, 255 }, { 0, -1 }, { 0, 9 } };
+		for (int[] event : outOfRange) {
+			try {
+				check.publishMove(event[0], event[1], Board.X_SYMBOL);
+			} catch (IllegalArgumentException e) {
+				refused++;
+			}
+		}
+		System.out.printf("Out of range: %d of %d events refused%n", refused, outOfRange.length);
+		failures += (refused != outOfRange.length) ? 1 : 0;
+
+		long[] results = playFarm(null, writers, games);
+		System.out.printf("Synchronous makeMove: %,d moves in %.0f ms, %,.0f moves/s%n", results[0],
+				results[4] / 1e6, results[0] / (results[4] / 1e9));
+
+		for (WaitStrategy strategy : WaitStrategy.values()) {
+			if (strategy == WaitStrategy.BUSY_SPIN
+					&& Runtime.getRuntime().availableProcessors() < writers + STAGES) {
+				System.out.printf("%s: skipped, %d cores for %d threads%n", strategy,
+						Runtime.getRuntime().availableProcessors(), writers + STAGES);
+				continue;
+			}
+			MovePipeline pipeline = new MovePipeline(writers, 1 << 14, strategy);
+			pipeline.start();
+			long[] expected = playFarm(pipeline, writers, games);
+			pipeline.stop();
+			System.out.printf("%s: %,d moves in %.0f ms, %,.0f moves/s, latency mean %,.0f ns, p50 <= %,d ns, "
+					+ "p99 <= %,d ns%n", strategy, pipeline.getMoves(), expected[4] / 1e6,
+					pipeline.getMoves() / (expected[4] / 1e9), pipeline.getMeanLatency(),
+					pipeline.getLatencyPercentile(50), pipeline.getLatencyPercentile(99));
+			System.out.printf("  mean batch: validate %.1f, apply %.1f, evaluate %.1f, record %.1f; X wins %,d, "
+					+ "O wins %,d, ties %,d, rejected %d%n", pipeline.getMeanBatchSize(0),
+					pipeline.getMeanBatchSize(1), pipeline.getMeanBatchSize(2), pipeline.getMeanBatchSize(3),
+					pipeline.getWins(Board.X_SYMBOL), pipeline.getWins(Board.O_SYMBOL), pipeline.getTies(),
+					pipeline.getRejected());
+			if (pipeline.getMoves() != expected[0] || pipeline.getWins(Board.X_SYMBOL) != expected[1]
+					|| pipeline.getWins(Board.O_SYMBOL) != expected[2] || pipeline.getTies() != expected[3]
+					|| pipeline.getRejected() != 0) {
+				failures++;
+			}
+		}
+		if (failures > 0) {
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Helper method that plays the heuristic strategy against the random one on
+	 * several writer threads, each writer playing its games one after the other
+	 * on its own board, and publishing them into a pipeline as game number
+	 * writer.
+	 * 
+	 * @param pipeline the pipeline the moves are published into, or null to only
+	 *                 make them with makeMove()
+	 * @param writers  the number of writer threads
+	 * @param games    the number of games each writer plays
+	 * @return The moves made, the games won by X and by O and tied, as counted by
+	 *         the writers, then the time taken in nanoseconds, including draining
+	 *         the pipeline.
+	 * @throws InterruptedException if interrupted while waiting for the writers
+	 */
+	private static long[] playFarm(MovePipeline pipeline, int writers, int games) throws InterruptedException {
+		long[][] counts = new long[writers][4];
+		Thread[] threads = new Thread[writers];
+		long start = System.nanoTime();
+		for (int writer = 0; writer < writers; writer++) {
+			int game = writer;
+			long[] count = counts[writer];
+			threads[writer] = new Thread(() -> {
+				TicTacToeBoard board = new TicTacToeBoard(
+						new ComputerPlayer(Board.X_SYMBOL, MoveStrategies.getByName("Heuristic")),
+						new ComputerPlayer(Board.O_SYMBOL, MoveStrategies.getByName("Random")));
+				for (int played = 0; played < games; played++) {
+					if (pipeline != null) {
+						pipeline.startGame(game);
+					}
+					GameState gameState = GameState.IN_PROGRESS;
+					while (gameState == GameState.IN_PROGRESS) {
+						ComputerPlayer player = (ComputerPlayer) board.getCurrentPlayer();
+						gameState = player.makeMove(board);
+						count[0]++;
+						if (pipeline != null) {
+							int[] move = player.getNextMoveMade();
+							pipeline.publishMove(game, move[0] * Board.BOARD_COLS + move[1], player.getSymbol());
+						}
+						if (gameState == GameState.IN_PROGRESS) {
+							board.switchTurns();
+						}
+					}
+					if (gameState == GameState.WIN) {
+						count[(board.getCurrentPlayer().getSymbol() == Board.X_SYMBOL) ? 1 : 2]++;
+					} else {
+						count[3]++;
+					}
+					// the same board is reused, with player one moving first again
+					board.resetBoard();
+					if (board.isPlayerTwoTurn()) {
+						board.switchTurns();
+					}
+				}
+			}, "writer-" + writer);
+			threads[writer].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		if (pipeline != null) {
+			pipeline.drain();
+		}
+		long[] totals = new long[5];
+		for (long[] count : counts) {
+			for (int i = 0; i < count.length; i++) {
+				totals[i] += count[i];
+			}
+		}
+		totals[4] = System.nanoTime() - start;
+		return totals;
+	}
+}
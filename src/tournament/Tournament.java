@@ -0,0 +1,235 @@
+package tournament;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import model.*;
+
+/**
+ * This class represents a round-robin tournament between computer players.
+ * Every pair of entrants plays the same number of games in both orders of
+ * turns, where as with the single-player TicTacToeBoard, player one makes the
+ * first move. The games are split into tasks run on a ForkJoinPool, and results
+ * are recorded in lock-free counters shared by all tasks. Running the
+ * tournament returns a TournamentResult with Elo ratings for every entrant.
+ */
+public class Tournament {
+	/**
+	 * Largest number of games played by a single task before it is split in two.
+	 */
+	private final static int GAMES_PER_TASK = 512;
+
+	/**
+	 * Task playing a contiguous range of the tournament's games. Tasks bigger than
+	 * GAMES_PER_TASK are split in two and run in parallel.
+	 */
+	private class GamesTask extends RecursiveAction {
+		/**
+		 * Version number for serialization, required by RecursiveAction.
+		 */
+		private static final long serialVersionUID = 1L;
+		/**
+		 * Index of the first game played by the task.
+		 */
+		private final int firstGame;
+		/**
+		 * Index after the last game played by the task.
+		 */
+		private final int endGame;
+
+		/**
+		 * Construct a task playing the games in the specified range.
+		 * 
+		 * @param firstGame the index of the first game to play
+		 * @param endGame   the index after the last game to play
+		 */
+		private GamesTask(int firstGame, int endGame) {
+			this.firstGame = firstGame;
+			this.endGame = endGame;
+		}
+
+		/**
+		 * Play the games of the task, splitting it first if it is too big.
+		 */
+		@Override
+		protected void compute() {
+			if (endGame - firstGame > GAMES_PER_TASK) {
+				int middle = (firstGame + endGame) >>> 1;
+				invokeAll(new GamesTask(firstGame, middle), new GamesTask(middle, endGame));
+				return;
+			}
+			// games of the same pairing and order are next to each other, so count
+			// results locally and only touch the shared counters when that changes
+			int currentMatch = -1, firstWins = 0, secondWins = 0, draws = 0;
+			for (int game = firstGame; game < endGame; game++) {
+				int match = game / gamesPerOrder;
+				if (match != currentMatch) {
+					recordResults(currentMatch, firstWins, secondWins, draws);
+					currentMatch = match;
+					firstWins = secondWins = draws = 0;
+				}
+				switch (playGame(match)) {
+				case 1:
+					firstWins++;
+					break;
+				case 2:
+					secondWins++;
+					break;
+				default:
+					draws++;
+					break;
+				}
+			}
+			recordResults(currentMatch, firstWins, secondWins, draws);
+		}
+	}
+
+	/**
+	 * Computer player algorithms taking part in the tournament.
+	 */
+	private final List<Entrant> entrants;
+	/**
+	 * Number of games every pair of entrants plays in each order of turns.
+	 */
+	private final int gamesPerOrder;
+	/**
+	 * Pairs of entrant indexes {first, second} in the order they are scheduled.
+	 * Every pair appears twice, once for each order of turns.
+	 */
+	private final List<int[]> matches = new ArrayList<int[]>();
+	/**
+	 * Number of games won by each entrant against each other entrant, indexed by
+	 * winner * entrants + loser.
+	 */
+	private AtomicLongArray wins;
+	/**
+	 * Number of drawn games between each pair of entrants, indexed by
+	 * lower index * entrants + higher index.
+	 */
+	private AtomicLongArray draws;
+
+	/**
+	 * Construct a round-robin tournament between the specified entrants.
+	 * 
+	 * @param entrants      the computer player algorithms taking part
+	 * @param gamesPerOrder the number of games every pair plays in each order of
+	 *                      turns
+	 * @throws IllegalArgumentException if there are fewer than two entrants or
+	 *                                  gamesPerOrder isn't positive
+	 */
+	public Tournament(List<Entrant> entrants, int gamesPerOrder) {
+		if (entrants.size() < 2 || gamesPerOrder <= 0) {
+			throw new IllegalArgumentException("A tournament needs two entrants and at least one game");
+		}
+		this.entrants = new ArrayList<Entrant>(entrants);
+		this.gamesPerOrder = gamesPerOrder;
+		for (int first = 0; first < entrants.size(); first++) {
+			for (int second = first + 1; second < entrants.size(); second++) {
+				// every pair plays with both orders of turns
+				matches.add(new int[] { first, second });
+				matches.add(new int[] { second, first });
+			}
+		}
+	}
+
+	/**
+	 * Play every game of the tournament on the specified pool and rate the
+	 * entrants.
+	 * 
+	 * @param pool the pool to play the games on
+	 * @return The results and ratings of the tournament.
+	 */
+	public TournamentResult run(ForkJoinPool pool) {
+		int entrantCount = entrants.size();
+		wins = new AtomicLongArray(entrantCount * entrantCount);
+		draws = new AtomicLongArray(entrantCount * entrantCount);
+		int totalGames = matches.size() * gamesPerOrder;
+
+		long startTime = System.nanoTime();
+		pool.invoke(new GamesTask(0, totalGames));
+		long elapsedNanos = System.nanoTime() - startTime;
+
+		long[][] winTable = new long[entrantCount][entrantCount];
+		long[][] drawTable = new long[entrantCount][entrantCount];
+		for (int first = 0; first < entrantCount; first++) {
+			for (int second = 0; second < entrantCount; second++) {
+				winTable[first][second] = wins.get((first * entrantCount) + second);
+				drawTable[first][second] = draws
+						.get((Math.min(first, second) * entrantCount) + Math.max(first, second));
+			}
+		}
+		List<String> names = new ArrayList<String>();
+		for (Entrant entrant : entrants) {
+			names.add(entrant.getName());
+		}
+		return new TournamentResult(names, winTable, drawTable, totalGames, elapsedNanos);
+	}
+
+	/**
+	 * Helper method that plays one game of a match to the end.
+	 * 
+	 * @param match the index of the match the game belongs to
+	 * @return 1 if the entrant moving first won, 2 if the entrant moving second
+	 *         won, 0 for a tie.
+	 */
+	private int playGame(int match) {
+		int[] order = matches.get(match);
+		// player one makes the first move, just like on a single-player board
+		ComputerPlayer playerOne = entrants.get(order[0]).createPlayer(Board.X_SYMBOL);
+		ComputerPlayer playerTwo = entrants.get(order[1]).createPlayer(Board.O_SYMBOL);
+		TicTacToeBoard board = new TicTacToeBoard(playerOne, playerTwo);
+
+		GameState gameState;
+		while ((gameState = ((ComputerPlayer) board.getCurrentPlayer()).makeMove(board)) == GameState.IN_PROGRESS) {
+			board.switchTurns();
+		}
+		if (gameState != GameState.WIN) {
+			return 0;
+		}
+		// the current player made the winning move
+		return board.isPlayerOneTurn() ? 1 : 2;
+	}
+
+	/**
+	 * Helper method that adds the results counted by a task to the shared
+	 * counters.
+	 * 
+	 * @param match      the index of the match the results belong to, or -1 if
+	 *                   there are none
+	 * @param firstWins  the number of games won by the entrant moving first
+	 * @param secondWins the number of games won by the entrant moving second
+	 * @param drawCount  the number of tied games
+	 */
+	private void recordResults(int match, int firstWins, int secondWins, int drawCount) {
+		if (match < 0) {
+			return;
+		}
+		int entrantCount = entrants.size();
+		int first = matches.get(match)[0], second = matches.get(match)[1];
+		wins.addAndGet((first * entrantCount) + second, firstWins);
+		wins.addAndGet((second * entrantCount) + first, secondWins);
+		draws.addAndGet((Math.min(first, second) * entrantCount) + Math.max(first, second), drawCount);
+	}
+
+	/**
+	 * Main method to run a tournament between every available move strategy and
+	 * print the results.
+	 * 
+	 * @param args command line arguments, optionally the number of games every
+	 *             pair plays in each order of turns
+	 */
+	public static void main(String args[]) {
+		int gamesPerOrder = (args.length > 0) ? Integer.parseInt(args[0]) : 100000;
+		List<Entrant> entrants = new ArrayList<Entrant>();
+		// every strategy is stateless, so each game creates a computer player
+		// sharing the same strategy
+		for (MoveStrategy strategy : MoveStrategies.getAvailable()) {
+			entrants.add(new Entrant(strategy.getName(), symbol -> new ComputerPlayer(symbol, strategy)));
+		}
+		Tournament tournament = new Tournament(entrants, gamesPerOrder);
+		System.out.println(tournament.run(ForkJoinPool.commonPool()));
+	}
+}
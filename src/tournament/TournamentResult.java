@@ -0,0 +1,235 @@
+package tournament;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class represents the results of a finished tournament: the games won,
+ * lost and tied by every pair of entrants, how long the tournament took, and an
+ * Elo rating for every entrant. Ratings are the maximum likelihood fit of the
+ * Bradley-Terry model to all games, counting a tie as half a win, with one
+ * virtual tie added to every pair so that an entrant that never scores still
+ * gets a finite rating. Ratings are centered on INITIAL_RATING and come with a
+ * 95% confidence interval.
+ */
+public class TournamentResult {
+	/**
+	 * Average rating of the entrants.
+	 */
+	public final static double INITIAL_RATING = 1500;
+	/**
+	 * Number of virtual tied games added to every pair of entrants.
+	 */
+	private final static double PRIOR_TIES = 1;
+	/**
+	 * Number of standard errors on each side of a rating in its 95% confidence
+	 * interval.
+	 */
+	private final static double CONFIDENCE_Z = 1.96;
+	/**
+	 * Most iterations used to fit the ratings.
+	 */
+	private final static int MAX_ITERATIONS = 10000;
+	/**
+	 * Elo points per unit of natural log odds.
+	 */
+	private final static double ELO_PER_LOG_ODDS = 400 / Math.log(10);
+
+	/**
+	 * Names of the entrants, in the order they were entered.
+	 */
+	private final List<String> names;
+	/**
+	 * Number of games won by each entrant against each other entrant, indexed by
+	 * [winner][loser].
+	 */
+	private final long[][] wins;
+	/**
+	 * Number of tied games between each pair of entrants.
+	 */
+	private final long[][] draws;
+	/**
+	 * Total number of games played.
+	 */
+	private final long totalGames;
+	/**
+	 * Time taken to play every game, in nanoseconds.
+	 */
+	private final long elapsedNanos;
+	/**
+	 * Elo rating of each entrant.
+	 */
+	private final double[] ratings;
+	/**
+	 * Half width of the 95% confidence interval of each entrant's rating.
+	 */
+	private final double[] confidenceIntervals;
+
+	/**
+	 * Construct the results of a tournament and rate its entrants.
+	 * 
+	 * @param names        the names of the entrants
+	 * @param wins         the games won by each entrant against each other one,
+	 *                     indexed by [winner][loser]
+	 * @param draws        the tied games between each pair of entrants
+	 * @param totalGames   the total number of games played
+	 * @param elapsedNanos the time taken to play every game, in nanoseconds
+	 */
+	public TournamentResult(List<String> names, long[][] wins, long[][] draws, long totalGames, long elapsedNanos) {
+		this.names = new ArrayList<String>(names);
+		this.wins = wins;
+		this.draws = draws;
+		this.totalGames = totalGames;
+		this.elapsedNanos = elapsedNanos;
+		ratings = new double[names.size()];
+		confidenceIntervals = new double[names.size()];
+		computeRatings();
+	}
+
+	/**
+	 * Get the Elo rating of an entrant.
+	 * 
+	 * @param entrant the index of the entrant
+	 * @return The rating of the entrant.
+	 */
+	public double getRating(int entrant) {
+		return ratings[entrant];
+	}
+
+	/**
+	 * Get the half width of the 95% confidence interval of an entrant's rating.
+	 * 
+	 * @param entrant the index of the entrant
+	 * @return The rating is within plus or minus this many points 95% of the time.
+	 */
+	public double getConfidenceInterval(int entrant) {
+		return confidenceIntervals[entrant];
+	}
+
+	/**
+	 * Get the number of games an entrant won against another entrant.
+	 * 
+	 * @param winner the index of the winning entrant
+	 * @param loser  the index of the losing entrant
+	 * @return The number of games won.
+	 */
+	public long getWins(int winner, int loser) {
+		return wins[winner][loser];
+	}
+
+	/**
+	 * Get the number of tied games between two entrants.
+	 * 
+	 * @param first  the index of one entrant
+	 * @param second the index of the other entrant
+	 * @return The number of tied games.
+	 */
+	public long getDraws(int first, int second) {
+		return draws[first][second];
+	}
+
+	/**
+	 * Get the number of games played per second during the tournament.
+	 * 
+	 * @return The tournament's throughput in games per second.
+	 */
+	public double getGamesPerSecond() {
+		return totalGames / (elapsedNanos / 1e9);
+	}
+
+	/**
+	 * Helper method that fits the ratings with the minorization-maximization
+	 * algorithm for the Bradley-Terry model, and derives each confidence interval
+	 * from the Fisher information of the fit.
+	 */
+	private void computeRatings() {
+		int count = names.size();
+		// games played and points scored, including the virtual ties
+		double[][] games = new double[count][count];
+		double[] points = new double[count];
+		for (int first = 0; first < count; first++) {
+			for (int second = 0; second < count; second++) {
+				if (first != second) {
+					games[first][second] = wins[first][second] + wins[second][first] + draws[first][second]
+							+ PRIOR_TIES;
+					points[first] += wins[first][second] + ((draws[first][second] + PRIOR_TIES) / 2);
+				}
+			}
+		}
+
+		// strength of each entrant, where first beats second with probability
+		// strength[first] / (strength[first] + strength[second])
+		double[] strength = new double[count];
+		Arrays.fill(strength, 1);
+		for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+			double largestChange = 0, logSum = 0;
+			double[] next = new double[count];
+			for (int first = 0; first < count; first++) {
+				double denominator = 0;
+				for (int second = 0; second < count; second++) {
+					if (first != second) {
+						denominator += games[first][second] / (strength[first] + strength[second]);
+					}
+				}
+				next[first] = points[first] / denominator;
+				logSum += Math.log(next[first]);
+			}
+			// keep the geometric mean at one so the ratings stay centered
+			double scale = Math.exp(logSum / count);
+			for (int entrant = 0; entrant < count; entrant++) {
+				next[entrant] /= scale;
+				largestChange = Math.max(largestChange, Math.abs(Math.log(next[entrant] / strength[entrant])));
+			}
+			strength = next;
+			if (largestChange < 1e-10) {
+				break;
+			}
+		}
+
+		for (int first = 0; first < count; first++) {
+			double information = 0;
+			for (int second = 0; second < count; second++) {
+				if (first != second) {
+					double winProbability = strength[first] / (strength[first] + strength[second]);
+					information += games[first][second] * winProbability * (1 - winProbability);
+				}
+			}
+			ratings[first] = INITIAL_RATING + (ELO_PER_LOG_ODDS * Math.log(strength[first]));
+			confidenceIntervals[first] = CONFIDENCE_Z * ELO_PER_LOG_ODDS / Math.sqrt(information);
+		}
+	}
+
+	/**
+	 * Report of the tournament, with one line per entrant sorted by rating.
+	 * 
+	 * @return The ratings, results and throughput of the tournament.
+	 */
+	@Override
+	public String toString() {
+		List<Integer> order = new ArrayList<Integer>();
+		for (int entrant = 0; entrant < names.size(); entrant++) {
+			order.add(entrant);
+		}
+		order.sort((first, second) -> Double.compare(ratings[second], ratings[first]));
+
+		StringBuilder report = new StringBuilder();
+		report.append(String.format("%-20s %8s %8s %10s %10s %10s%n", "Entrant", "Elo", "+/-", "Wins", "Ties",
+				"Losses"));
+		for (int entrant : order) {
+			long entrantWins = 0, entrantDraws = 0, entrantLosses = 0;
+			for (int other = 0; other < names.size(); other++) {
+				entrantWins += wins[entrant][other];
+				entrantLosses += wins[other][entrant];
+				if (other != entrant) {
+					entrantDraws += draws[entrant][other];
+				}
+			}
+			report.append(String.format("%-20s %8.1f %8.1f %10d %10d %10d%n", names.get(entrant), ratings[entrant],
+					confidenceIntervals[entrant], entrantWins, entrantDraws, entrantLosses));
+		}
+		report.append(String.format("%d games in %.2f s (%.0f games/s)", totalGames, elapsedNanos / 1e9,
+				getGamesPerSecond()));
+		return report.toString();
+	}
+}
@@ -0,0 +1,13 @@
+/**
+ * The tournament package contains the classes used to compare computer players
+ * against each other. It includes the Tournament, Entrant and TournamentResult
+ * classes. A tournament plays every pairing of entrants with both orders of
+ * turns on TicTacToeBoards, spread over all available cores, and the result
+ * rates every entrant on the Elo scale. The MovePipeline class referees the
+ * moves of games played on many threads, passing them through a ring buffer to
+ * stages that validate, apply, evaluate and record them in batches. Overall,
+ * this package is responsible for measuring how strong each computer player
+ * algorithm is and how fast moves can be refereed. Run a tournament between
+ * every available move strategy by running the Tournament.java file.
+ */
+package tournament;
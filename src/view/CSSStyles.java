@@ -43,6 +43,24 @@ public class CSSStyles {
 	 */
 	public final static String BLACK_BACKGROUND = "-fx-background-color: black; ";
 
+	/**
+	 * CSS style for dark green background color. It is used to shade the board
+	 * tiles of winning moves when hints are shown.
+	 */
+	public final static String DARK_GREEN_BACKGROUND = "-fx-background-color: darkgreen; ";
+
+	/**
+	 * CSS style for dark slate gray background color. It is used to shade the
+	 * board tiles of tying moves when hints are shown.
+	 */
+	public final static String DARK_GRAY_BACKGROUND = "-fx-background-color: darkslategray; ";
+
+	/**
+	 * CSS style for dark red background color. It is used to shade the board tiles
+	 * of losing moves when hints are shown.
+	 */
+	public final static String DARK_RED_BACKGROUND = "-fx-background-color: darkred; ";
+
 	/**
 	 * CSS style for center alignment. It is used to set the center alignment for
 	 * any element that needs to be aligned center of the screen.
@@ -0,0 +1,280 @@
+package view;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+import model.Board;
+
+/**
+ * This class draws a board of any number of rows and columns on a single
+ * Canvas, for boards too big for a GridPane with a Button per tile. The grid
+ * lines and symbols are drawn straight onto the canvas, and a click is turned
+ * into a cell from its coordinates, so the scene graph holds one node however
+ * many cells the board has and the memory used grows only with the arrays of
+ * symbols.
+ * 
+ * Changing a cell marks it dirty and schedules a redraw on the next frame, and
+ * the redraw only paints the dirty cells, so a move on a 100x100 board repaints
+ * one cell instead of ten thousand. Cells are numbered row * columns + column,
+ * and every method must be called on the JavaFX application thread.
+ */
+public class CanvasBoardRenderer {
+	/**
+	 * Width of a symbol's strokes as a fraction of the size of a cell.
+	 */
+	private final static double STROKE_FRACTION = 0.1;
+	/**
+	 * Gap between a symbol and the edges of its cell as a fraction of the size of
+	 * a cell.
+	 */
+	private final static double MARGIN_FRACTION = 0.2;
+
+	/**
+	 * Canvas the board is drawn on.
+	 */
+	private final Canvas canvas;
+	/**
+	 * Number of rows of the board.
+	 */
+	private final int rows;
+	/**
+	 * Number of columns of the board.
+	 */
+	private final int cols;
+	/**
+	 * Width and height of a cell in pixels, including one grid line.
+	 */
+	private final int cellSize;
+	/**
+	 * Symbol of every cell, or EMPTY.
+	 */
+	private final char[] symbols;
+	/**
+	 * Bit set of the dirty cells, so a cell changed twice in a frame is only
+	 * queued once.
+	 */
+	private final long[] dirtyBits;
+	/**
+	 * Dirty cells in the order they were changed. Only the first dirtyCount are
+	 * used.
+	 */
+	private final int[] dirtyCells;
+	/**
+	 * Number of dirty cells.
+	 */
+	private int dirtyCount;
+	/**
+	 * true if the whole board has to be drawn on the next frame, false if only
+	 * the dirty cells have to be.
+	 */
+	private boolean fullRedraw = true;
+	/**
+	 * Timer drawing the changes on the next frame, then stopping until the board
+	 * changes again.
+	 */
+	private final AnimationTimer frameTimer = new AnimationTimer() {
+		@Override
+		public void handle(long now) {
+			render();
+			stop();
+		}
+	};
+
+	/**
+	 * Construct a renderer for an empty board with the specified number of rows
+	 * and columns. Cells are square, as big as fits in the specified size, and at
+	 * least 2 pixels wide.
+	 * 
+	 * @param rows      the number of rows of the board
+	 * @param cols      the number of columns of the board
+	 * @param maxWidth  the largest width of the canvas in pixels
+	 * @param maxHeight the largest height of the canvas in pixels
+	 * @throws IllegalArgumentException if the board has no cells
+	 */
+	public CanvasBoardRenderer(int rows, int cols, double maxWidth, double maxHeight) {
+		if (rows <= 0 || cols <= 0) {
+			throw new IllegalArgumentException("A board needs at least one row and column: " + rows + "x" + cols);
+		}
+		this.rows = rows;
+		this.cols = cols;
+		// whole pixels keep the grid lines sharp
+		cellSize = Math.max(2, (int) Math.min(maxWidth / cols, maxHeight / rows));
+		canvas = new Canvas(cols * cellSize + 1, rows * cellSize + 1);
+		symbols = new char[rows * cols];
+		Arrays.fill(symbols, Board.EMPTY);
+		dirtyBits = new long[(rows * cols + 63) / 64];
+		dirtyCells = new int[rows * cols];
+		frameTimer.start();
+	}
+
+	/**
+	 * Get the canvas the board is drawn on, to be added to a scene.
+	 * 
+	 * @return The canvas of the board.
+	 */
+	public Canvas getCanvas() {
+		return canvas;
+	}
+
+	/**
+	 * Get the number of rows of the board.
+	 * 
+	 * @return The number of rows.
+	 */
+	public int getRows() {
+		return rows;
+	}
+
+	/**
+	 * Get the number of columns of the board.
+	 * 
+	 * @return The number of columns.
+	 */
+	public int getCols() {
+		return cols;
+	}
+
+	/**
+	 * Get the symbol shown in a cell.
+	 * 
+	 * @param cell the cell, row * columns + column
+	 * @return The symbol of the cell, or EMPTY.
+	 */
+	public char getSymbol(int cell) {
+		return symbols[cell];
+	}
+
+	/**
+	 * Show a symbol in a cell. The cell is drawn again on the next frame if its
+	 * symbol changed.
+	 * 
+	 * @param cell   the cell, row * columns + column
+	 * @param symbol the symbol to show, or EMPTY to clear the cell
+	 */
+	public void setSymbol(int cell, char symbol) {
+		if (symbols[cell] == symbol) {
+			return;
+		}
+		symbols[cell] = symbol;
+		long bit = 1L << cell;
+		if ((dirtyBits[cell >>> 6] & bit) == 0) {
+			dirtyBits[cell >>> 6] |= bit;
+			dirtyCells[dirtyCount++] = cell;
+		}
+		frameTimer.start();
+	}
+
+	/**
+	 * Empty every cell. The whole board is drawn again on the next frame.
+	 */
+	public void clear() {
+		Arrays.fill(symbols, Board.EMPTY);
+		fullRedraw = true;
+		frameTimer.start();
+	}
+
+	/**
+	 * Get the cell at a point of the canvas.
+	 * 
+	 * @param x the x coordinate of the point on the canvas
+	 * @param y the y coordinate of the point on the canvas
+	 * @return The cell at the point, row * columns + column, or -1 if the point
+	 *         is outside the board.
+	 */
+	public int getCellAt(double x, double y) {
+		if (x < 0 || y < 0) {
+			return -1;
+		}
+		int col = (int) (x / cellSize), row = (int) (y / cellSize);
+		return (row < rows && col < cols) ? row * cols + col : -1;
+	}
+
+	/**
+	 * Set what to do when a cell is clicked.
+	 * 
+	 * @param handler receives the clicked cell, row * columns + column
+	 */
+	public void setOnCellClicked(IntConsumer handler) {
+		canvas.setOnMouseClicked(event -> {
+			int cell = getCellAt(event.getX(), event.getY());
+			if (cell >= 0) {
+				handler.accept(cell);
+			}
+		});
+	}
+
+	/**
+	 * Draw the changes since the last frame: the whole board after it was created
+	 * or cleared, and only the dirty cells otherwise. Called on every frame with
+	 * changes, and can be called to draw right away.
+	 */
+	public void render() {
+		GraphicsContext graphics = canvas.getGraphicsContext2D();
+		if (fullRedraw) {
+			drawGrid(graphics);
+			for (int cell = 0; cell < symbols.length; cell++) {
+				if (symbols[cell] != Board.EMPTY) {
+					drawCell(graphics, cell);
+				}
+			}
+			fullRedraw = false;
+		} else {
+			for (int i = 0; i < dirtyCount; i++) {
+				drawCell(graphics, dirtyCells[i]);
+			}
+		}
+		Arrays.fill(dirtyBits, 0);
+		dirtyCount = 0;
+	}
+
+	/**
+	 * Helper method that paints the background and the grid lines of the whole
+	 * board.
+	 * 
+	 * @param graphics the graphics context of the canvas
+	 */
+	private void drawGrid(GraphicsContext graphics) {
+		graphics.setFill(Color.BLACK);
+		graphics.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+		graphics.setStroke(Color.WHITE);
+		graphics.setLineWidth(1);
+		// lines through the middle of a pixel are drawn one pixel wide
+		for (int row = 0; row <= rows; row++) {
+			graphics.strokeLine(0, row * cellSize + 0.5, cols * cellSize, row * cellSize + 0.5);
+		}
+		for (int col = 0; col <= cols; col++) {
+			graphics.strokeLine(col * cellSize + 0.5, 0, col * cellSize + 0.5, rows * cellSize);
+		}
+	}
+
+	/**
+	 * Helper method that paints one cell inside its grid lines: its background,
+	 * then an X as two crossing lines or an O as a circle.
+	 * 
+	 * @param graphics the graphics context of the canvas
+	 * @param cell     the cell to paint
+	 */
+	private void drawCell(GraphicsContext graphics, int cell) {
+		double x = (cell % cols) * cellSize + 1, y = (cell / cols) * cellSize + 1;
+		double inner = cellSize - 1;
+		graphics.setFill(Color.BLACK);
+		graphics.fillRect(x, y, inner, inner);
+		char symbol = symbols[cell];
+		if (symbol == Board.EMPTY) {
+			return;
+		}
+		graphics.setStroke(Color.WHITE);
+		graphics.setLineWidth(Math.max(1, inner * STROKE_FRACTION));
+		double margin = inner * MARGIN_FRACTION;
+		if (symbol == Board.X_SYMBOL) {
+			graphics.strokeLine(x + margin, y + margin, x + inner - margin, y + inner - margin);
+			graphics.strokeLine(x + inner - margin, y + margin, x + margin, y + inner - margin);
+		} else {
+			graphics.strokeOval(x + margin, y + margin, inner - 2 * margin, inner - 2 * margin);
+		}
+	}
+}
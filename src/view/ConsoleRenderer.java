@@ -0,0 +1,182 @@
+package view;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import model.Board;
+import model.GameState;
+
+/**
+ * This class draws a Tic-Tac-Toe board as text for playing in a terminal,
+ * without JavaFX. Every frame is drawn into the same byte array and sent to the
+ * output stream in a single write, so drawing a frame allocates nothing and
+ * costs one system call when the stream is unbuffered.
+ * 
+ * A frame shows the number of the game, the board and a status line, such as:
+ * 
+ * <pre>
+ * Game 3
+ * X|O|3
+ * -+-+-
+ * 4|X|6
+ * -+-+-
+ * O|8|9
+ * O to move
+ * </pre>
+ * 
+ * Empty tiles are shown with their number from 1 to 9 when tile numbers are
+ * turned on, so that a user knows what to type, and as a space otherwise.
+ */
+public class ConsoleRenderer {
+	/**
+	 * Largest number of bytes a frame can take.
+	 */
+	private final static int FRAME_CAPACITY = 128;
+	/**
+	 * Start of the first line of a frame.
+	 */
+	private final static byte[] GAME = bytes("Game ");
+	/**
+	 * Line between two rows of the board.
+	 */
+	private final static byte[] ROW_SEPARATOR = bytes("-+-+-\n");
+	/**
+	 * End of the status line when the game is in progress.
+	 */
+	private final static byte[] TO_MOVE = bytes(" to move\n");
+	/**
+	 * End of the status line when the game is won.
+	 */
+	private final static byte[] WINS = bytes(" wins\n");
+	/**
+	 * Status line when the game is tied.
+	 */
+	private final static byte[] TIE = bytes("Tie\n");
+	/**
+	 * Status line after an invalid move.
+	 */
+	private final static byte[] INVALID_MOVE = bytes("Invalid move, choose an empty tile from 1 to 9\n");
+
+	/**
+	 * Stream the frames are written to.
+	 */
+	private final OutputStream out;
+	/**
+	 * Bytes of the frame being drawn, reused for every frame.
+	 */
+	private final byte[] frame = new byte[FRAME_CAPACITY];
+	/**
+	 * Number of bytes of the frame drawn so far.
+	 */
+	private int length;
+	/**
+	 * true if empty tiles are shown with their number, false otherwise.
+	 */
+	private boolean tileNumbers;
+
+	/**
+	 * Construct a renderer writing to the specified stream.
+	 * 
+	 * @param out the stream to write frames to
+	 */
+	public ConsoleRenderer(OutputStream out) {
+		this.out = out;
+	}
+
+	/**
+	 * Set whether empty tiles are shown with their number.
+	 * 
+	 * @param tileNumbers true to number the empty tiles, false to leave them blank
+	 */
+	public void setTileNumbers(boolean tileNumbers) {
+		this.tileNumbers = tileNumbers;
+	}
+
+	/**
+	 * Draw a frame showing the board and the state of the game. While the game is
+	 * in progress the current player is the one to move, and once it is won the
+	 * current player is the winner.
+	 * 
+	 * @param board      the board to draw
+	 * @param gameNumber the number of the game shown on the first line
+	 * @param gameState  the state of the game, shown on the status line
+	 * @throws IOException if the frame can't be written
+	 */
+	public void render(Board board, long gameNumber, GameState gameState) throws IOException {
+		length = 0;
+		append(GAME);
+		appendNumber(gameNumber);
+		frame[length++] = '\n';
+		for (int row = 0; row < Board.BOARD_ROWS; row++) {
+			if (row > 0) {
+				append(ROW_SEPARATOR);
+			}
+			for (int col = 0; col < Board.BOARD_COLS; col++) {
+				if (col > 0) {
+					frame[length++] = '|';
+				}
+				char symbol = board.getTileAt(row, col).getSymbol();
+				if (symbol == Board.EMPTY && tileNumbers) {
+					symbol = (char) ('1' + row * Board.BOARD_COLS + col);
+				}
+				frame[length++] = (byte) symbol;
+			}
+			frame[length++] = '\n';
+		}
+		switch (gameState) {
+		case WIN:
+			frame[length++] = (byte) board.getCurrentPlayer().getSymbol();
+			append(WINS);
+			break;
+		case TIE:
+			append(TIE);
+			break;
+		case INVALID_MOVE:
+			append(INVALID_MOVE);
+			break;
+		default:
+			frame[length++] = (byte) board.getCurrentPlayer().getSymbol();
+			append(TO_MOVE);
+		}
+		out.write(frame, 0, length);
+	}
+
+	/**
+	 * Helper method that copies bytes to the end of the frame.
+	 * 
+	 * @param text the bytes to copy
+	 */
+	private void append(byte[] text) {
+		System.arraycopy(text, 0, frame, length, text.length);
+		length += text.length;
+	}
+
+	/**
+	 * Helper method that writes the digits of a number to the end of the frame.
+	 * 
+	 * @param number the number to write, not negative
+	 */
+	private void appendNumber(long number) {
+		int digits = 1;
+		for (long rest = number / 10; rest > 0; rest /= 10) {
+			digits++;
+		}
+		// digits are written from the last one back
+		for (int i = length + digits - 1; i >= length; i--) {
+			frame[i] = (byte) ('0' + number % 10);
+			number /= 10;
+		}
+		length += digits;
+	}
+
+	/**
+	 * Helper method that encodes text as bytes when the class is loaded.
+	 * 
+	 * @param text the text to encode
+	 * @return The ASCII bytes of the text.
+	 */
+	private static byte[] bytes(String text) {
+		return text.getBytes(StandardCharsets.US_ASCII);
+	}
+}
@@ -35,6 +35,10 @@ public class UIConstants {
 	 * The font size of the board tile.
 	 */
 	final public static int BOARD_TILE_FONTSIZE = 50;
+	/**
+	 * The font size of the hint shown on an empty board tile.
+	 */
+	final public static int BOARD_HINT_FONTSIZE = 22;
 	/**
 	 * The font size of the combo box.
 	 */
@@ -100,7 +104,7 @@ public class UIConstants {
 	/**
 	 * The spacing between elements in the home scene.
 	 */
-	final public static int HOME_SCENE_SPACING = 75;
+	final public static int HOME_SCENE_SPACING = 50;
 	/**
 	 * The spacing between elements in the user selection scene (symbol, turn
 	 * picked)
@@ -110,4 +114,42 @@ public class UIConstants {
 	 * The spacing between elements in the game scene.
 	 */
 	final public static int BOARD_SCENE_SPACING = 20;
+	/**
+	 * The spacing between combo boxes placed side by side.
+	 */
+	final public static int COMBOBOX_ROW_SPACING = 20;
+	/**
+	 * The spacing between the rows of the leaderboard scene.
+	 */
+	final public static int LEADERBOARD_ROW_SPACING = 8;
+	/**
+	 * The number of players shown on each page of the leaderboard scene.
+	 */
+	final public static int LEADERBOARD_PAGE_SIZE = 10;
+	/**
+	 * The number of games played between computer players for the replay scene.
+	 */
+	final public static int REPLAY_GAMES = 1000;
+	/**
+	 * The fastest speed of the replay scene, in moves per second.
+	 */
+	final public static int REPLAY_MAX_MOVES_PER_SECOND = 1000;
+	/**
+	 * The width of the speed slider of the replay scene.
+	 */
+	final public static int REPLAY_SLIDER_WIDTH = 140;
+	/**
+	 * The sizes of board, in rows and columns, that can be picked in the big board
+	 * scene.
+	 */
+	final public static int[] BIG_BOARD_SIZES = { 15, 30, 100 };
+	/**
+	 * The number of symbols in a row that wins on a big board.
+	 */
+	final public static int BIG_BOARD_WIN_LENGTH = 5;
+	/**
+	 * The number of rows and columns of the window onto a big board without
+	 * edges.
+	 */
+	final public static int UNBOUNDED_VIEW_SIZE = 30;
 }
@@ -1,5 +1,7 @@
 package view;
 
+import java.util.List;
+
 import model.*;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
@@ -22,7 +24,7 @@ public class UIElements {
 	/**
 	 * Create a text label with the specified text and font size. DEFAULT STYLE:
 	 * white text fill, Arial font, bold font.
-	 *
+	 * 
 	 * @param text     the text to be displayed on the label.
 	 * @param fontSize the desired font size for the label.
 	 * @return A Label with the specified text and font size.
@@ -87,7 +89,7 @@ public class UIElements {
 	 * Create a next button. (DEFAULT STYLE: UIConstants specified next button
 	 * length and height, UIConstants specified next button font size, gray
 	 * background, white text fill, Arial font, bold font.)
-	 *
+	 * 
 	 * @return A next button, labeled as 'Next'.
 	 */
 	public static Button getNextButton() {
@@ -143,6 +145,27 @@ public class UIElements {
 		return comboBox;
 	}
 
+	/**
+	 * Create a combo box that is used to prompt the user to select one of the
+	 * specified options. (DEFAULT STYLE: UIConstants specified combo-box length and
+	 * height, UIConstats specified combo-box font size, Arial font.)
+	 * 
+	 * @param text    the text to be displayed as the prompt for the ComboBox.
+	 * @param options the options the user can select from.
+	 * @return A ComboBox with the given text, containing the given options.
+	 */
+	public static ComboBox<String> getOptionPromptCombobox(String text, List<String> options) {
+		ComboBox<String> comboBox = new ComboBox<String>();
+		// set the text of the prompt and add the options
+		comboBox.setPromptText(text);
+		comboBox.getItems().addAll(options);
+		// set the style with the default style
+		comboBox.setPrefSize(UIConstants.COMBOBOX_WIDTH, UIConstants.COMBOBOX_HEIGHT);
+		comboBox.setStyle(CSSStyles.getFontSize(UIConstants.COMBOBOX_FONTSIZE) + CSSStyles.ARIAL_FONT);
+
+		return comboBox;
+	}
+
 	/**
 	 * Create a radio button A radio button is a control that allows the user to
 	 * make a single selection from a toggle group of other radio buttons. (DEFAULT
@@ -180,13 +203,61 @@ public class UIElements {
 		Button button = new Button();
 		// set the style with the default style for a board tile
 		button.setPrefSize(UIConstants.BOARD_TILE_WIDTH, UIConstants.BOARD_TILE_HEIGHT);
-		button.setStyle(CSSStyles.getFontSize(UIConstants.BOARD_TILE_FONTSIZE) + CSSStyles.FULL_OPACITY
-				+ CSSStyles.WHITE_TEXT_FILL + CSSStyles.WHITE_BORDER_COLOR + CSSStyles.ARIAL_FONT + CSSStyles.BOLD_FONT
-				+ CSSStyles.BLACK_BACKGROUND);
+		button.setStyle(getBoardTileStyle(UIConstants.BOARD_TILE_FONTSIZE, CSSStyles.BLACK_BACKGROUND));
 
 		return button;
 	}
 
+	/**
+	 * Show the evaluation of a move on the empty board tile it is made on. The
+	 * tile is shaded green for a win, gray for a tie and red for a loss, and shows
+	 * the outcome and the number of plies until the game ends.
+	 * 
+	 * @param tile    the board tile created by getBoardTile
+	 * @param outcome MoveAnalysis.WIN, TIE or LOSS
+	 * @param plies   the number of plies until the game ends, counting the move
+	 */
+	public static void showHint(Button tile, int outcome, int plies) {
+		String background;
+		String text;
+		if (outcome == MoveAnalysis.WIN) {
+			background = CSSStyles.DARK_GREEN_BACKGROUND;
+			text = "Win in " + plies;
+		} else if (outcome == MoveAnalysis.LOSS) {
+			background = CSSStyles.DARK_RED_BACKGROUND;
+			text = "Loss in " + plies;
+		} else {
+			background = CSSStyles.DARK_GRAY_BACKGROUND;
+			text = "Tie in " + plies;
+		}
+		tile.setStyle(getBoardTileStyle(UIConstants.BOARD_HINT_FONTSIZE, background));
+		tile.setText(text);
+	}
+
+	/**
+	 * Remove the hint from a board tile, giving it back the default style and
+	 * showing the symbol on the tile.
+	 * 
+	 * @param tile   the board tile created by getBoardTile
+	 * @param symbol the symbol on the tile, or EMPTY
+	 */
+	public static void hideHint(Button tile, char symbol) {
+		tile.setStyle(getBoardTileStyle(UIConstants.BOARD_TILE_FONTSIZE, CSSStyles.BLACK_BACKGROUND));
+		tile.setText(String.valueOf(symbol));
+	}
+
+	/**
+	 * Helper method that creates the style of a board tile.
+	 * 
+	 * @param fontSize   the font size of the tile's text
+	 * @param background the CSS style of the tile's background
+	 * @return The CSS style of the tile.
+	 */
+	private static String getBoardTileStyle(int fontSize, String background) {
+		return CSSStyles.getFontSize(fontSize) + CSSStyles.FULL_OPACITY + CSSStyles.WHITE_TEXT_FILL
+				+ CSSStyles.WHITE_BORDER_COLOR + CSSStyles.ARIAL_FONT + CSSStyles.BOLD_FONT + background;
+	}
+
 	/**
 	 * Create a GridPane as a form of representation for the Tic-Tac-Toe game.
 	 * (DEFAULT STYLE: black background and center alignment on the screen)
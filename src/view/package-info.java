@@ -5,8 +5,11 @@
  * of user interface (UI) elements such as buttons, labels, and the game board.
  * This package also contains classes that define the CSS styles used, such as
  * background color and text color, and constants, such as dimensions and font
- * sizes for all the different UI elements. Overall, this package is responsible
- * for providing the tools to make a visually appealing experience for the user
- * while playing the game.
+ * sizes for all the different UI elements. The ConsoleRenderer class draws the
+ * board as text for playing in a terminal without JavaFX, and the
+ * CanvasBoardRenderer class draws boards too big for a button per tile on a
+ * single canvas, redrawing only the cells that changed. Overall, this package
+ * is responsible for providing the tools to make a visually appealing
+ * experience for the user while playing the game.
  */
 package view;